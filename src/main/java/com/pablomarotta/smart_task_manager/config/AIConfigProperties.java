@@ -4,6 +4,10 @@ import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
 @Data
 @Configuration
 @ConfigurationProperties(prefix = "ai.ollama")
@@ -11,8 +15,197 @@ public class AIConfigProperties {
 
     private boolean enabled = true;
     private String baseUrl = "http://localhost:11434";
+    // Hosts serving the same model, load balanced by OllamaEndpointPool; empty uses base-url alone
+    private List<String> endpoints = new ArrayList<>();
     private String model = "llama3.2";
-    private Integer timeout = 30000; // ms
+    private Integer timeout = 30000; // ms, per classified task
+    // Upper bound for num_predict per classified task
     private Integer maxTokens = 1000;
     private Double temperature = 0.7;
+    // Stream the generation and stop it once the first complete JSON value is parsed
+    private boolean streaming = true;
+    // Constrain the output with a JSON schema in Ollama's "format" field (Ollama 0.5+)
+    private boolean structuredOutput = true;
+
+    private Client client = new Client();
+    private CircuitBreaker circuitBreaker = new CircuitBreaker();
+    private Routing routing = new Routing();
+    private Warmup warmup = new Warmup();
+    private Limiter limiter = new Limiter();
+    private Generation generation = new Generation();
+    private Enrichment enrichment = new Enrichment();
+    private Draft draft = new Draft();
+    private Cache cache = new Cache();
+    private Batch batch = new Batch();
+    private Backfill backfill = new Backfill();
+    private Local local = new Local();
+    private Embedding embedding = new Embedding();
+
+    @Data
+    public static class Client {
+        private Duration connectTimeout = Duration.ofSeconds(2);
+        private int maxConnections = 16;
+        // Requests allowed to wait for a free connection before failing
+        private int pendingAcquireMaxCount = 100;
+        private Duration pendingAcquireTimeout = Duration.ofSeconds(5);
+        private Duration maxIdleTime = Duration.ofSeconds(30);
+    }
+
+    @Data
+    public static class CircuitBreaker {
+        private boolean enabled = true;
+        // Consecutive failed or slow calls that open the circuit
+        private int failureThreshold = 5;
+        // Calls slower than this per classified task count as failures
+        private Duration slowCallThreshold = Duration.ofSeconds(20);
+        // Time spent open before a trial call is let through
+        private Duration openDuration = Duration.ofSeconds(30);
+        private Duration probeInterval = Duration.ofSeconds(5);
+    }
+
+    @Data
+    public static class Routing {
+        // Send a copy of a call to a second endpoint once it runs longer than hedge-percentile of recent calls
+        private boolean hedgingEnabled = true;
+        private double hedgePercentile = 0.95;
+        private Duration minHedgeDelay = Duration.ofMillis(500);
+        // Calls measured before the first hedge
+        private int minHedgeSamples = 20;
+        // Consecutive failures that take an endpoint out of rotation
+        private int ejectionThreshold = 3;
+        private Duration ejectionDuration = Duration.ofSeconds(30);
+        // Each new ejection of the same endpoint doubles the duration up to this
+        private Duration maxEjectionDuration = Duration.ofMinutes(5);
+        // How often ejected endpoints are probed for re-admission
+        private Duration healthCheckInterval = Duration.ofSeconds(5);
+    }
+
+    @Data
+    public static class Warmup {
+        // Load the model on every endpoint at startup and keep it loaded while there is traffic
+        private boolean enabled = true;
+        // Readiness stays OUT_OF_SERVICE until an endpoint has the model loaded or this has passed
+        private Duration readinessTimeout = Duration.ofMinutes(5);
+        private Duration refreshInterval = Duration.ofMinutes(1);
+        // Longest wait for Ollama to load the model into memory
+        private Duration loadTimeout = Duration.ofMinutes(2);
+    }
+
+    @Data
+    public static class Limiter {
+        private boolean enabled = true;
+        // Generations running on Ollama at once; adjusted between min and max from observed latency
+        private int initialLimit = 4;
+        private int minLimit = 1;
+        private int maxLimit = 16;
+        // A call slower than this multiple of the best recent latency lowers the limit
+        private double latencyTolerance = 2.0;
+        private double backoffRatio = 0.9;
+        // Callers waiting for a slot before new ones are rejected
+        private int maxQueue = 50;
+        private Duration maxWait = Duration.ofSeconds(10);
+        // Batch callers are deferred and can wait much longer than interactive ones
+        private Duration batchMaxWait = Duration.ofMinutes(5);
+        // Share of freed slots each class gets while both are waiting (weighted fair queuing)
+        private int interactiveWeight = 4;
+        private int batchWeight = 1;
+        // Once an interactive caller has waited this long, batch callers get no slots until it is served
+        private Duration interactiveWaitTarget = Duration.ofMillis(500);
+    }
+
+    @Data
+    public static class Generation {
+        // num_predict per task: the response schema plus a 100-word summary fits well below this
+        private int tokensPerClassification = 256;
+        // num_ctx; prompts are short, a smaller window loads faster and uses less memory
+        private int contextSize = 2048;
+        private List<String> stop = new ArrayList<>(List.of("\n\n\n"));
+        // Keeps the model loaded between calls so requests do not pay the load time
+        private Duration keepAlive = Duration.ofMinutes(30);
+    }
+
+    @Data
+    public static class Enrichment {
+        // Background workers that fill the ai_* columns after a task is created
+        private int workers = 4;
+        private int queueCapacity = 500;
+        // createTask starts the classification alongside its lookups; the worker picks up the result
+        private boolean speculative = true;
+    }
+
+    @Data
+    public static class Draft {
+        // How long a session's last sequence is remembered to refuse stale drafts
+        private Duration sessionTtl = Duration.ofMinutes(10);
+    }
+
+    @Data
+    public static class Cache {
+        private boolean enabled = true;
+        // In-process tier, evicted least recently used first
+        private int maxEntries = 10_000;
+        private Duration ttl = Duration.ofDays(7);
+        // Database tier shared by every node
+        private boolean persistent = true;
+        // Threads for the database tier's reads and writes on the non-blocking path
+        private int storeThreads = 4;
+    }
+
+    @Data
+    public static class Batch {
+        // Route single classifications through the batcher too, not only /api/ai/classify-batch
+        private boolean enabled = false;
+        private int maxSize = 8;
+        private Duration window = Duration.ofMillis(50);
+        // Batches sent to Ollama at the same time
+        private int concurrency = 2;
+        // Largest request accepted by /api/ai/classify-batch
+        private int maxRequestSize = 100;
+    }
+
+    @Data
+    public static class Backfill {
+        // Classifications in flight at once; never more than the limiter's limit minus one
+        private int parallelism = 2;
+        // Ollama calls started per second, 0 for no cap
+        private double maxRatePerSecond = 2.0;
+        // Tasks read per keyset page and written per JDBC batch
+        private int pageSize = 50;
+        // Wait between checks while interactive work is queued or the circuit is open
+        private Duration yieldPause = Duration.ofMillis(200);
+        // Continue a run that was still RUNNING when the application stopped
+        private boolean resumeOnStartup = true;
+    }
+
+    @Data
+    public static class Local {
+        // Answer from the in-process classifier when it is confident, before calling Ollama
+        private boolean enabled = true;
+        // Lowest probability, for both category and priority, answered without Ollama
+        private double confidenceThreshold = 0.9;
+        // Ollama-classified tasks needed before the local tier answers at all
+        private int minTrainingSamples = 200;
+        private int maxTrainingSamples = 50_000;
+        // Rounded down to a power of two
+        private int hashBuckets = 1 << 15;
+        private Duration retrainInterval = Duration.ofHours(1);
+    }
+
+    @Data
+    public static class Embedding {
+        // Needs the embedding model pulled in Ollama, e.g. "ollama pull nomic-embed-text"
+        private boolean enabled = false;
+        private String model = "nomic-embed-text";
+        private String indexFile = "data/task-embeddings.hnsw";
+        // HNSW links per node and beam widths when building and searching
+        private int m = 16;
+        private int efConstruction = 100;
+        private int efSearch = 64;
+        // Reuse the classification of a task at least this similar; above 1 disables reuse
+        private double reuseSimilarity = 0.97;
+        private int maxRelated = 50;
+        // Recent embeddings kept so classification and indexing share one Ollama call
+        private int cacheSize = 1000;
+        private Duration flushInterval = Duration.ofMinutes(1);
+    }
 }
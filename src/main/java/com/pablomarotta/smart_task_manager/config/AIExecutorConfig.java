@@ -0,0 +1,84 @@
+package com.pablomarotta.smart_task_manager.config;
+
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Bounded pools for the AI work. With spring.threads.virtual.enabled the workers are
+ * virtual threads: the pool size still caps how many run at once, but a worker blocked
+ * on Ollama or the database no longer holds a platform thread.
+ */
+@Configuration
+public class AIExecutorConfig {
+
+    private final boolean virtualThreads;
+
+    public AIExecutorConfig(Environment environment) {
+        this.virtualThreads = Threading.VIRTUAL.isActive(environment);
+    }
+
+    @Bean
+    public ThreadPoolTaskExecutor aiEnrichmentExecutor(AIConfigProperties aiConfigProperties) {
+        AIConfigProperties.Enrichment enrichment = aiConfigProperties.getEnrichment();
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("ai-enrichment-");
+        executor.setVirtualThreads(virtualThreads);
+        executor.setCorePoolSize(enrichment.getWorkers());
+        executor.setMaxPoolSize(enrichment.getWorkers());
+        executor.setQueueCapacity(enrichment.getQueueCapacity());
+        // Pending tasks stay PENDING in the database, so there is nothing to drain on shutdown
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+
+    @Bean
+    public ThreadPoolTaskExecutor aiBatchExecutor(AIConfigProperties aiConfigProperties) {
+        AIConfigProperties.Batch batch = aiConfigProperties.getBatch();
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("ai-batch-");
+        executor.setVirtualThreads(virtualThreads);
+        executor.setCorePoolSize(batch.getConcurrency());
+        executor.setMaxPoolSize(batch.getConcurrency());
+        executor.setQueueCapacity(100);
+        executor.initialize();
+        return executor;
+    }
+
+    // JDBC work and neighbor searches of the non-blocking classification path: never on a
+    // request thread or on the reactor-netty event loop that serves every Ollama stream
+    @Bean
+    public ThreadPoolTaskExecutor aiCacheStoreExecutor(AIConfigProperties aiConfigProperties) {
+        int threads = aiConfigProperties.getCache().getStoreThreads();
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("ai-cache-store-");
+        executor.setVirtualThreads(virtualThreads);
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.initialize();
+        return executor;
+    }
+
+    @Bean
+    public ThreadPoolTaskExecutor aiBackfillExecutor(AIConfigProperties aiConfigProperties) {
+        AIConfigProperties.Backfill backfill = aiConfigProperties.getBackfill();
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("ai-backfill-");
+        executor.setVirtualThreads(virtualThreads);
+        executor.setCorePoolSize(backfill.getParallelism());
+        executor.setMaxPoolSize(backfill.getParallelism());
+        // The backfill never submits more than parallelism tasks, so nothing waits here
+        executor.setQueueCapacity(backfill.getParallelism());
+        // Progress is checkpointed per page; an interrupted page is classified again on resume
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+}
@@ -0,0 +1,40 @@
+package com.pablomarotta.smart_task_manager.config;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+
+@Configuration
+public class OllamaClientConfig {
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider ollamaConnectionProvider(AIConfigProperties aiConfigProperties) {
+        AIConfigProperties.Client client = aiConfigProperties.getClient();
+
+        return ConnectionProvider.builder("ollama")
+                .maxConnections(client.getMaxConnections())
+                .pendingAcquireMaxCount(client.getPendingAcquireMaxCount())
+                .pendingAcquireTimeout(client.getPendingAcquireTimeout())
+                .maxIdleTime(client.getMaxIdleTime())
+                .build();
+    }
+
+    @Bean
+    public WebClient ollamaWebClient(AIConfigProperties aiConfigProperties, ConnectionProvider ollamaConnectionProvider) {
+        HttpClient httpClient = HttpClient.create(ollamaConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS,
+                        (int) aiConfigProperties.getClient().getConnectTimeout().toMillis())
+                // Longest wait for the response or, when streaming, between two chunks
+                .responseTimeout(Duration.ofMillis(aiConfigProperties.getTimeout()));
+
+        return WebClient.builder()
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+    }
+}
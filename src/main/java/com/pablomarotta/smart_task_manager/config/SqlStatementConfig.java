@@ -0,0 +1,24 @@
+package com.pablomarotta.smart_task_manager.config;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+@Configuration
+public class SqlStatementConfig {
+
+    // Static so the data source is wrapped however early it is created
+    @Bean
+    public static BeanPostProcessor sqlStatementCountingDataSource() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof DataSource dataSource && !(bean instanceof SqlStatementCountingDataSource)
+                        ? new SqlStatementCountingDataSource(dataSource)
+                        : bean;
+            }
+        };
+    }
+}
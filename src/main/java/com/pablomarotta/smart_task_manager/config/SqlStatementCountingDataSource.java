@@ -0,0 +1,104 @@
+package com.pablomarotta.smart_task_manager.config;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Wraps the pool so every statement executed through it, by Hibernate, JdbcTemplate or
+ * Flyway, is counted into the {@link SqlStatementStats} of the current request. Connections,
+ * statements and result sets are JDK proxies over the pooled objects: execute calls are
+ * timed and counted, and each {@code next()} that returns a row is counted as a row read.
+ * Work outside a request goes straight through.
+ * <p>
+ * The wrapper replaces the pool bean, so closing it closes the pool: Spring then still shuts
+ * the pool down with the context.
+ */
+public class SqlStatementCountingDataSource extends DelegatingDataSource implements AutoCloseable {
+
+    public SqlStatementCountingDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (getTargetDataSource() instanceof AutoCloseable pool) {
+            pool.close();
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return counting(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return counting(super.getConnection(username, password));
+    }
+
+    private static Connection counting(Connection connection) {
+        return proxy(Connection.class, connection, (proxy, method, args) -> {
+            Object result = invoke(connection, method, args);
+            // createStatement, prepareStatement and prepareCall, each declaring the interface it returns
+            return result instanceof Statement statement && method.getReturnType().isInterface()
+                    ? counting(statement, method.getReturnType())
+                    : result;
+        });
+    }
+
+    private static Object counting(Statement statement, Class<?> type) {
+        return proxy(type, statement, (proxy, method, args) -> {
+            SqlStatementStats stats = SqlStatementStats.current();
+            Object result;
+            if (stats != null && method.getName().startsWith("execute")) {
+                long start = System.nanoTime();
+                try {
+                    result = invoke(statement, method, args);
+                } finally {
+                    stats.recordStatement(System.nanoTime() - start);
+                }
+            } else {
+                result = invoke(statement, method, args);
+            }
+            return stats != null && result instanceof ResultSet resultSet ? counting(resultSet, stats) : result;
+        });
+    }
+
+    private static ResultSet counting(ResultSet resultSet, SqlStatementStats stats) {
+        return proxy(ResultSet.class, resultSet, (proxy, method, args) -> {
+            Object result = invoke(resultSet, method, args);
+            if (Boolean.TRUE.equals(result) && method.getName().equals("next")) {
+                stats.recordRow();
+            }
+            return result;
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<?> type, Object target, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(SqlStatementCountingDataSource.class.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "toString" -> target.toString();
+                    default -> handler.invoke(proxy, method, args);
+                });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.pablomarotta.smart_task_manager.config;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The JDBC work of one HTTP request: statements executed, rows read from their result
+ * sets and the time spent inside execute calls. {@link SqlStatementBudgetFilter} binds it
+ * to the request thread; {@link #propagate(Runnable)} carries it to the executors that
+ * run part of a request, such as the parallel lookups of createTask.
+ */
+public final class SqlStatementStats {
+
+    private static final ThreadLocal<SqlStatementStats> CURRENT = new ThreadLocal<>();
+
+    private final LongAdder statements = new LongAdder();
+    private final LongAdder rows = new LongAdder();
+    private final LongAdder jdbcNanos = new LongAdder();
+
+    static SqlStatementStats start() {
+        SqlStatementStats stats = new SqlStatementStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    static void stop() {
+        CURRENT.remove();
+    }
+
+    /** The stats of the request running on this thread, or null outside a request. */
+    static SqlStatementStats current() {
+        return CURRENT.get();
+    }
+
+    /** Lets work handed to another thread count towards the request that submitted it. */
+    public static Runnable propagate(Runnable task) {
+        SqlStatementStats stats = CURRENT.get();
+        if (stats == null) {
+            return task;
+        }
+        return () -> {
+            SqlStatementStats previous = CURRENT.get();
+            CURRENT.set(stats);
+            try {
+                task.run();
+            } finally {
+                if (previous == null) {
+                    CURRENT.remove();
+                } else {
+                    CURRENT.set(previous);
+                }
+            }
+        };
+    }
+
+    void recordStatement(long nanos) {
+        statements.increment();
+        jdbcNanos.add(nanos);
+    }
+
+    void recordRow() {
+        rows.increment();
+    }
+
+    public long getStatements() {
+        return statements.sum();
+    }
+
+    public long getRows() {
+        return rows.sum();
+    }
+
+    public long getJdbcNanos() {
+        return jdbcNanos.sum();
+    }
+}
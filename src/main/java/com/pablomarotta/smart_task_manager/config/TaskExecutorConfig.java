@@ -0,0 +1,27 @@
+package com.pablomarotta.smart_task_manager.config;
+
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+
+@Configuration
+public class TaskExecutorConfig {
+
+    private final boolean virtualThreads;
+
+    public TaskExecutorConfig(Environment environment) {
+        this.virtualThreads = Threading.VIRTUAL.isActive(environment);
+    }
+
+    // The lookups createTask runs in parallel; each one only waits on the database
+    @Bean(destroyMethod = "close")
+    public SimpleAsyncTaskExecutor taskLookupExecutor() {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("task-lookup-");
+        executor.setVirtualThreads(virtualThreads);
+        // Their statements count towards the request that forked them
+        executor.setTaskDecorator(SqlStatementStats::propagate);
+        return executor;
+    }
+}
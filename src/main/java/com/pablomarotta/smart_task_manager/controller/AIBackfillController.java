@@ -0,0 +1,37 @@
+package com.pablomarotta.smart_task_manager.controller;
+
+import com.pablomarotta.smart_task_manager.dto.AIBackfillStatusResponse;
+import com.pablomarotta.smart_task_manager.service.AIBackfillService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/admin/ai/backfill")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+public class AIBackfillController {
+    private final AIBackfillService aiBackfillService;
+
+    // Starts a new run, or resumes the last one if it was stopped
+    @PostMapping
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public AIBackfillStatusResponse start() {
+        return aiBackfillService.start();
+    }
+
+    @PostMapping("/stop")
+    public AIBackfillStatusResponse stop() {
+        return aiBackfillService.stop();
+    }
+
+    @GetMapping
+    public AIBackfillStatusResponse getStatus() {
+        return aiBackfillService.getStatus();
+    }
+}
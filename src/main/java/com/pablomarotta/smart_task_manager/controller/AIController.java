@@ -1,14 +1,31 @@
 package com.pablomarotta.smart_task_manager.controller;
 
 import com.pablomarotta.smart_task_manager.service.AIService;
+import com.pablomarotta.smart_task_manager.service.DraftClassificationService;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.server.ResponseStatusException;
 import com.pablomarotta.smart_task_manager.dto.AIClassificationRequest;
 import com.pablomarotta.smart_task_manager.dto.AIClassificationResponse;
+import com.pablomarotta.smart_task_manager.dto.AIDraftClassificationRequest;
+import com.pablomarotta.smart_task_manager.dto.AIDraftClassificationResponse;
+import com.pablomarotta.smart_task_manager.dto.AIStatusResponse;
+
+import java.security.Principal;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @RestController
 @RequestMapping("/api/ai")
@@ -16,9 +33,59 @@ import com.pablomarotta.smart_task_manager.dto.AIClassificationResponse;
 @Slf4j
 public class AIController {
     private final AIService aiService;
+    private final DraftClassificationService draftClassificationService;
 
+    // Completed asynchronously, so a slow generation does not hold a request thread
     @PostMapping("/classify-task")
-    public AIClassificationResponse classifyTask(@RequestBody AIClassificationRequest request) {
-        return aiService.classifyTask(request);
+    public DeferredResult<AIClassificationResponse> classifyTask(@RequestBody AIClassificationRequest request) {
+        return deferred(aiService.classifyTaskAsync(request));
+    }
+
+    // Suggestions while the task is typed; a newer sequence in the same session answers 409 to the older one
+    @PostMapping("/classify-draft")
+    public DeferredResult<AIDraftClassificationResponse> classifyDraft(@Valid @RequestBody AIDraftClassificationRequest request,
+                                                                       Principal principal) {
+        return deferred(draftClassificationService.classify(principal.getName(), request));
+    }
+
+    @DeleteMapping("/classify-draft/{sessionId}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void abandonDraft(@PathVariable String sessionId, Principal principal) {
+        draftClassificationService.abandon(principal.getName(), sessionId);
+    }
+
+    @PostMapping("/classify-batch")
+    public List<AIClassificationResponse> classifyBatch(@RequestBody List<AIClassificationRequest> requests) {
+        log.info("Classifying batch of {} tasks", requests.size());
+        return aiService.classifyTasks(requests);
+    }
+
+    @GetMapping("/status")
+    public AIStatusResponse getStatus() {
+        return aiService.getStatus();
+    }
+
+    // Cancels the classification when the request times out or its connection fails, so
+    // Ollama stops generating an answer nobody will read. Tomcat only notices a closed
+    // connection when it writes to it, which an idle async request never does.
+    private static <T> DeferredResult<T> deferred(CompletableFuture<T> future) {
+        DeferredResult<T> result = new DeferredResult<>();
+        result.onTimeout(() -> {
+            future.cancel(true);
+            result.setErrorResult(new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "AI classification timed out"));
+        });
+        result.onError(error -> future.cancel(true));
+        future.whenComplete((value, error) -> {
+            if (future.isCancelled()) {
+                return;
+            }
+            if (error == null) {
+                result.setResult(value);
+            } else {
+                result.setErrorResult(error instanceof CompletionException && error.getCause() != null
+                        ? error.getCause() : error);
+            }
+        });
+        return result;
     }
 }
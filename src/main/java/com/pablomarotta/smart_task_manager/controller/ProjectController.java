@@ -1,5 +1,6 @@
 package com.pablomarotta.smart_task_manager.controller;
 
+import com.pablomarotta.smart_task_manager.dto.PageResponse;
 import com.pablomarotta.smart_task_manager.dto.ProjectRequest;
 import com.pablomarotta.smart_task_manager.dto.ProjectResponse;
 import com.pablomarotta.smart_task_manager.service.ProjectService;
@@ -24,9 +25,10 @@ public class ProjectController {
     }
 
     @GetMapping
-    public java.util.List<ProjectResponse> getAllProjects() {
+    public PageResponse<ProjectResponse> getAllProjects(@RequestParam(required = false) String cursor,
+                                                        @RequestParam(required = false) Integer size) {
         log.info("Fetching all projects");
-        return projectService.getAllProjects();
+        return projectService.getAllProjects(cursor, size);
     }
 
     @GetMapping("/{id}")
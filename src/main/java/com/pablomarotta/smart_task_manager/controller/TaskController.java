@@ -1,10 +1,16 @@
 package com.pablomarotta.smart_task_manager.controller;
 
+import com.pablomarotta.smart_task_manager.dto.BulkTaskRequest;
+import com.pablomarotta.smart_task_manager.dto.BulkTaskResponse;
+import com.pablomarotta.smart_task_manager.dto.PageResponse;
+import com.pablomarotta.smart_task_manager.dto.RelatedTaskResponse;
+import com.pablomarotta.smart_task_manager.dto.TaskEnrichmentResponse;
 import com.pablomarotta.smart_task_manager.dto.TaskRequest;
 import com.pablomarotta.smart_task_manager.dto.TaskResponse;
 import com.pablomarotta.smart_task_manager.dto.UserResponse;
 import com.pablomarotta.smart_task_manager.model.Priority;
 import com.pablomarotta.smart_task_manager.model.Status;
+import com.pablomarotta.smart_task_manager.service.BulkTaskService;
 import com.pablomarotta.smart_task_manager.service.TaskService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -20,6 +26,7 @@ import java.util.List;
 @Slf4j
 public class TaskController {
     private final TaskService taskService;
+    private final BulkTaskService bulkTaskService;
 
     @PostMapping("/newtask")
     @ResponseStatus(HttpStatus.CREATED)
@@ -28,58 +35,79 @@ public class TaskController {
         return taskService.createTask(taskRequest);
     }
 
+    // Creates what validates and reports the rest; each item says CREATED or REJECTED
+    @PostMapping("/bulk")
+    @ResponseStatus(HttpStatus.OK)
+    public BulkTaskResponse createTasks(@Valid @RequestBody BulkTaskRequest bulkTaskRequest) {
+        log.info("Creating {} tasks in bulk", bulkTaskRequest.getTasks().size());
+        return bulkTaskService.createTasks(bulkTaskRequest.getTasks());
+    }
+
+    // List endpoints return one page; follow nextCursor for the rest
     @GetMapping("/alltasks")
-    public List<TaskResponse> getAllTasks() {
+    public PageResponse<TaskResponse> getAllTasks(@RequestParam(required = false) String cursor,
+                                                  @RequestParam(required = false) Integer size) {
         log.info("Fetching all tasks");
-        return taskService.getAllTasks();
+        return taskService.getAllTasks(cursor, size);
     }
 
     @GetMapping("/project/{projectId}")
-    public List<TaskResponse> getTasksByProject(@PathVariable Long projectId) {
+    public PageResponse<TaskResponse> getTasksByProject(@PathVariable Long projectId,
+                                                        @RequestParam(required = false) String cursor,
+                                                        @RequestParam(required = false) Integer size) {
         log.info("Fetching tasks for project: {}", projectId);
-        return taskService.getTasksByProjectId(projectId);
+        return taskService.getTasksByProjectId(projectId, cursor, size);
     }
 
     @GetMapping("/user/{userId}")
-    public List<TaskResponse> getTasksByUser(@PathVariable Long userId) {
+    public PageResponse<TaskResponse> getTasksByUser(@PathVariable Long userId,
+                                                     @RequestParam(required = false) String cursor,
+                                                     @RequestParam(required = false) Integer size) {
         log.info("Fetching tasks for user: {}", userId);
-        return taskService.getTasksByUserId(userId);
+        return taskService.getTasksByUserId(userId, cursor, size);
     }
 
     @GetMapping("/status/todo")
-    public List<TaskResponse> getTodoTasks() {
+    public PageResponse<TaskResponse> getTodoTasks(@RequestParam(required = false) String cursor,
+                                                   @RequestParam(required = false) Integer size) {
         log.info("Fetching TODO tasks");
-        return taskService.getTodoTasks();
+        return taskService.getTodoTasks(cursor, size);
     }
 
     @GetMapping("/status/in-progress")
-    public List<TaskResponse> getInProgressTasks() {
+    public PageResponse<TaskResponse> getInProgressTasks(@RequestParam(required = false) String cursor,
+                                                         @RequestParam(required = false) Integer size) {
         log.info("Fetching IN_PROGRESS tasks");
-        return taskService.getInProgressTask();
+        return taskService.getInProgressTask(cursor, size);
     }
 
     @GetMapping("/status/done")
-    public List<TaskResponse> getDoneTasks() {
+    public PageResponse<TaskResponse> getDoneTasks(@RequestParam(required = false) String cursor,
+                                                   @RequestParam(required = false) Integer size) {
         log.info("Fetching DONE tasks");
-        return taskService.getDoneTasks();
+        return taskService.getDoneTasks(cursor, size);
     }
 
     @GetMapping("/status/blocked")
-    public List<TaskResponse> getBlockedTasks() {
+    public PageResponse<TaskResponse> getBlockedTasks(@RequestParam(required = false) String cursor,
+                                                      @RequestParam(required = false) Integer size) {
         log.info("Fetching BLOCKED tasks");
-        return taskService.getBlockedTasks();
+        return taskService.getBlockedTasks(cursor, size);
     }
 
     @GetMapping("/status/cancelled")
-    public List<TaskResponse> getCancelledTasks() {
+    public PageResponse<TaskResponse> getCancelledTasks(@RequestParam(required = false) String cursor,
+                                                        @RequestParam(required = false) Integer size) {
         log.info("Fetching CANCELLED tasks");
-        return taskService.getCancelledTasks();
+        return taskService.getCancelledTasks(cursor, size);
     }
 
     @GetMapping("/project/{projectId}/users")
-    public List<UserResponse> getAllUsersInProject(@PathVariable Long projectId) {
+    public PageResponse<UserResponse> getAllUsersInProject(@PathVariable Long projectId,
+                                                           @RequestParam(required = false) String cursor,
+                                                           @RequestParam(required = false) Integer size) {
         log.info("Fetching all users in project: {}", projectId);
-        return taskService.getAllUsersInProject(projectId);
+        return taskService.getAllUsersInProject(projectId, cursor, size);
     }
 
     @GetMapping("/{id}")
@@ -88,6 +116,19 @@ public class TaskController {
         return taskService.getTaskById(id);
     }
 
+    @GetMapping("/{id}/enrichment")
+    public TaskEnrichmentResponse getTaskEnrichment(@PathVariable Long id) {
+        log.info("Fetching AI enrichment state of task: {}", id);
+        return taskService.getTaskEnrichment(id);
+    }
+
+    @GetMapping("/{id}/related")
+    public List<RelatedTaskResponse> getRelatedTasks(@PathVariable Long id,
+                                                     @RequestParam(defaultValue = "10") int limit) {
+        log.info("Fetching tasks related to task: {}", id);
+        return taskService.getRelatedTasks(id, limit);
+    }
+
     @PutMapping("/{id}")
     public TaskResponse updateTask(@PathVariable Long id, @Valid @RequestBody TaskRequest taskRequest) {
         log.info("Updating task with id: {}", id);
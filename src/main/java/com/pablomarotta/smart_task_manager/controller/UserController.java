@@ -1,5 +1,6 @@
 package com.pablomarotta.smart_task_manager.controller;
 
+import com.pablomarotta.smart_task_manager.dto.PageResponse;
 import com.pablomarotta.smart_task_manager.dto.UserRequest;
 import com.pablomarotta.smart_task_manager.dto.UserResponse;
 import com.pablomarotta.smart_task_manager.service.UserService;
@@ -8,7 +9,6 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
-import java.util.List;
 
 @RestController
 @RequestMapping("/api/users")
@@ -27,9 +27,10 @@ public class UserController {
 
     @GetMapping
     @ResponseStatus(HttpStatus.OK)
-    public List<UserResponse> getAllUsers() {
+    public PageResponse<UserResponse> getAllUsers(@RequestParam(required = false) String cursor,
+                                                  @RequestParam(required = false) Integer size) {
         log.info("Retrieving all users");
-        return userService.getAllUsers();
+        return userService.getAllUsers(cursor, size);
     }
 
     @GetMapping("/username/{username}")
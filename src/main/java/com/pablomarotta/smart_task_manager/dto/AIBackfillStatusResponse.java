@@ -0,0 +1,27 @@
+package com.pablomarotta.smart_task_manager.dto;
+
+import com.pablomarotta.smart_task_manager.model.AIBackfillStatus;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class AIBackfillStatusResponse {
+
+    private Long runId;
+    private AIBackfillStatus status;
+
+    private Long lastTaskId;
+    private Long maxTaskId;
+    private int processed;
+    private int classified;
+    private int failed;
+    // Unclassified tasks left between the checkpoint and maxTaskId
+    private long remaining;
+    // Measured since the run was last started or resumed on this node
+    private double tasksPerSecond;
+
+    private LocalDateTime startedAt;
+    private LocalDateTime updatedAt;
+    private LocalDateTime finishedAt;
+}
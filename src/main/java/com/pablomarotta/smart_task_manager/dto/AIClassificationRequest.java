@@ -2,11 +2,15 @@ package com.pablomarotta.smart_task_manager.dto;
 
 import jakarta.validation.constraints.NotBlank;
 
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 @Data
 @Builder
+@NoArgsConstructor
+@AllArgsConstructor
 public class AIClassificationRequest {
     @NotBlank(message = "El título es obligatorio")
     private String title;
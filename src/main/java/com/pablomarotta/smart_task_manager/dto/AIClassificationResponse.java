@@ -1,5 +1,6 @@
 package com.pablomarotta.smart_task_manager.dto;
 
+import com.pablomarotta.smart_task_manager.model.AIClassificationSource;
 import lombok.Data;
 
 @Data
@@ -8,4 +9,6 @@ public class AIClassificationResponse {
     private String category;
     private int estimatedDays;
     private String summary;
+    // Which tier answered; not part of the model output
+    private AIClassificationSource source;
 }
@@ -0,0 +1,27 @@
+package com.pablomarotta.smart_task_manager.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AIDraftClassificationRequest {
+    // Chosen by the client, e.g. one per open task form
+    @NotBlank(message = "La sesión es obligatoria")
+    private String sessionId;
+
+    // Increases with every edit; only the highest one in a session is classified
+    @NotNull(message = "La secuencia es obligatoria")
+    private Long sequence;
+
+    @NotBlank(message = "El título es obligatorio")
+    private String title;
+
+    private String description;
+}
@@ -0,0 +1,14 @@
+package com.pablomarotta.smart_task_manager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AIDraftClassificationResponse {
+    // The draft this classification belongs to
+    private Long sequence;
+    private AIClassificationResponse classification;
+}
@@ -0,0 +1,17 @@
+package com.pablomarotta.smart_task_manager.dto;
+
+import lombok.Data;
+
+import java.time.Instant;
+
+@Data
+public class AIEndpointStatusResponse {
+
+    private String url;
+    // False while ejected after repeated failures
+    private boolean healthy;
+    private int inFlight;
+    private int consecutiveFailures;
+    // When the endpoint will next be probed for re-admission; null while healthy
+    private Instant ejectedUntil;
+}
@@ -0,0 +1,21 @@
+package com.pablomarotta.smart_task_manager.dto;
+
+import lombok.Data;
+
+import java.time.Instant;
+import java.util.List;
+
+@Data
+public class AIStatusResponse {
+
+    private boolean enabled;
+    private String model;
+
+    // CLOSED, HALF_OPEN or OPEN
+    private String circuitState;
+    private int consecutiveFailures;
+    // Set while the circuit is not CLOSED
+    private Instant circuitOpenedAt;
+
+    private List<AIEndpointStatusResponse> endpoints;
+}
@@ -0,0 +1,31 @@
+package com.pablomarotta.smart_task_manager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkTaskItemResponse {
+
+    public enum Result {
+        CREATED,
+        REJECTED
+    }
+
+    private int index;
+    private Result result;
+    // Set when CREATED
+    private Long id;
+    // Set when REJECTED
+    private String error;
+
+    public static BulkTaskItemResponse created(int index, Long id) {
+        return new BulkTaskItemResponse(index, Result.CREATED, id, null);
+    }
+
+    public static BulkTaskItemResponse rejected(int index, String error) {
+        return new BulkTaskItemResponse(index, Result.REJECTED, null, error);
+    }
+}
@@ -0,0 +1,14 @@
+package com.pablomarotta.smart_task_manager.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BulkTaskRequest {
+
+    // Items are validated one by one so a bad row is reported instead of failing the import
+    @NotEmpty
+    private List<TaskRequest> tasks;
+}
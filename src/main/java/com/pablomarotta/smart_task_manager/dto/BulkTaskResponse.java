@@ -0,0 +1,18 @@
+package com.pablomarotta.smart_task_manager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkTaskResponse {
+
+    private int created;
+    private int rejected;
+    // One entry per requested task, in request order
+    private List<BulkTaskItemResponse> items;
+}
@@ -0,0 +1,16 @@
+package com.pablomarotta.smart_task_manager.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class OllamaEmbeddingRequest {
+    private String model;
+    private String prompt;
+    @JsonProperty("keep_alive")
+    private String keepAlive;
+}
@@ -0,0 +1,26 @@
+package com.pablomarotta.smart_task_manager.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Model parameters Ollama reads from the "options" block of /api/generate.
+ */
+@Data
+@Builder
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+public class OllamaOptions {
+    @JsonProperty("num_predict")
+    private Integer numPredict;
+
+    @JsonProperty("num_ctx")
+    private Integer numCtx;
+
+    private Double temperature;
+
+    private List<String> stop;
+}
@@ -1,14 +1,21 @@
 package com.pablomarotta.smart_task_manager.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.Builder;
 import lombok.Data;
 
 @Data
 @Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class OllamaRequest {
     private String model;
     private String prompt;
-    private Integer maxTokens;
-    private Double temperature;
-    private boolean stream = false;
+    private OllamaOptions options;
+    // How long the model stays loaded after this call, e.g. "30m"
+    @JsonProperty("keep_alive")
+    private String keepAlive;
+    // JSON schema the output must follow; omitted for free-form answers
+    private Object format;
+    private boolean stream;
 }
@@ -1,10 +1,43 @@
 package com.pablomarotta.smart_task_manager.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 @Data
 @Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
 public class OllamaResponse {
     private String response;
+    // Set on the last chunk of a streamed generation
+    private boolean done;
+
+    // Only present once the generation is done
+    @JsonProperty("done_reason")
+    private String doneReason;
+
+    @JsonProperty("prompt_eval_count")
+    private Integer promptEvalCount;
+
+    @JsonProperty("eval_count")
+    private Integer evalCount;
+
+    // Durations in nanoseconds, also only on the last chunk
+    @JsonProperty("total_duration")
+    private Long totalDuration;
+
+    // Close to 0 when the model was already in memory
+    @JsonProperty("load_duration")
+    private Long loadDuration;
+
+    @JsonProperty("prompt_eval_duration")
+    private Long promptEvalDuration;
+
+    @JsonProperty("eval_duration")
+    private Long evalDuration;
 }
@@ -0,0 +1,16 @@
+package com.pablomarotta.smart_task_manager.dto;
+
+import com.pablomarotta.smart_task_manager.model.Status;
+import lombok.Data;
+
+@Data
+public class RelatedTaskResponse {
+
+    private Long id;
+    private String title;
+    private Status status;
+    private Long projectId;
+    private String aiCategory;
+    // Cosine similarity of the title and description embeddings, 1 for identical text
+    private double similarity;
+}
@@ -0,0 +1,22 @@
+package com.pablomarotta.smart_task_manager.dto;
+
+import com.pablomarotta.smart_task_manager.model.AIClassificationSource;
+import com.pablomarotta.smart_task_manager.model.AIEnrichmentStatus;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+@Data
+public class TaskEnrichmentResponse {
+
+    private Long taskId;
+    private AIEnrichmentStatus status;
+
+    // Filled in once the status is COMPLETED
+    private String aiPriority;
+    private String aiCategory;
+    private Integer aiSuggestedDueDays;
+    private LocalDate aiSuggestedDueDate;
+    private String aiSummary;
+    private AIClassificationSource aiSource;
+}
@@ -1,5 +1,6 @@
 package com.pablomarotta.smart_task_manager.dto;
 
+import com.pablomarotta.smart_task_manager.model.AIEnrichmentStatus;
 import com.pablomarotta.smart_task_manager.model.Priority;
 import com.pablomarotta.smart_task_manager.model.Status;
 import lombok.Data;
@@ -39,4 +40,5 @@ public class TaskResponse {
     private Integer aiSuggestedDueDays;
     private LocalDate aiSuggestedDueDate;
     private String aiSummary;
+    private AIEnrichmentStatus aiStatus;
 }
@@ -0,0 +1,7 @@
+package com.pablomarotta.smart_task_manager.exception;
+
+public class AIUnavailableException extends RuntimeException {
+    public AIUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,56 @@
+package com.pablomarotta.smart_task_manager.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "ai_backfill_runs")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AIBackfillRun {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private AIBackfillStatus status;
+
+    // Checkpoint: every unclassified task up to this id has been handled
+    @Column(name = "last_task_id", nullable = false)
+    @Builder.Default
+    private Long lastTaskId = 0L;
+
+    // Highest task id when the run started; newer tasks are enriched on creation
+    @Column(name = "max_task_id", nullable = false)
+    private Long maxTaskId;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer processed = 0;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer classified = 0;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer failed = 0;
+
+    @Column(name = "started_at", nullable = false, updatable = false)
+    private LocalDateTime startedAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+}
@@ -0,0 +1,7 @@
+package com.pablomarotta.smart_task_manager.model;
+
+public enum AIBackfillStatus {
+    RUNNING,
+    STOPPED,
+    COMPLETED
+}
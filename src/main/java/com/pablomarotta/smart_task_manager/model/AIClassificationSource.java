@@ -0,0 +1,10 @@
+package com.pablomarotta.smart_task_manager.model;
+
+public enum AIClassificationSource {
+    // In-process naive Bayes classifier
+    LOCAL,
+    // Ollama
+    LLM,
+    // Copied from a near-identical task found in the embedding index
+    NEIGHBOR
+}
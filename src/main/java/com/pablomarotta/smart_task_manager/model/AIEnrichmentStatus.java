@@ -0,0 +1,8 @@
+package com.pablomarotta.smart_task_manager.model;
+
+public enum AIEnrichmentStatus {
+    PENDING,
+    IN_PROGRESS,
+    COMPLETED,
+    FAILED
+}
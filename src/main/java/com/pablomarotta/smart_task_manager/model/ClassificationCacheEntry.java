@@ -0,0 +1,44 @@
+package com.pablomarotta.smart_task_manager.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "ai_classification_cache")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ClassificationCacheEntry {
+
+    // SHA-256 of the normalized title, description, model and prompt version
+    @Id
+    @Column(name = "cache_key", length = 64)
+    private String cacheKey;
+
+    @Column(nullable = false, length = 100)
+    private String model;
+
+    @Column(length = 16)
+    private String priority;
+
+    @Column(length = 32)
+    private String category;
+
+    @Column(name = "estimated_days")
+    private Integer estimatedDays;
+
+    @Column(columnDefinition = "TEXT")
+    private String summary;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+}
@@ -24,7 +24,8 @@ import java.time.LocalDateTime;
 public class Task {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tasks_id_seq")
+    @SequenceGenerator(name = "tasks_id_seq", sequenceName = "tasks_id_seq", allocationSize = 50)
     private Long id;
 
     @NotNull
@@ -96,4 +97,14 @@ public class Task {
 
     @Column(name = "ai_summary", columnDefinition = "TEXT")
     private String aiSummary;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "ai_source", length = 16)
+    private AIClassificationSource aiSource;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(name = "ai_status", nullable = false, length = 16)
+    @Builder.Default
+    private AIEnrichmentStatus aiStatus = AIEnrichmentStatus.PENDING;
 }
@@ -0,0 +1,34 @@
+package com.pablomarotta.smart_task_manager.repository;
+
+import com.pablomarotta.smart_task_manager.model.AIBackfillRun;
+import com.pablomarotta.smart_task_manager.model.AIBackfillStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface AIBackfillRunRepository extends JpaRepository<AIBackfillRun, Long> {
+
+    Optional<AIBackfillRun> findFirstByOrderByIdDesc();
+
+    // Progress columns are written by the backfill's JDBC checkpoint, so only touch the status here
+    @Transactional
+    @Modifying
+    @Query("""
+            update AIBackfillRun r set
+                r.status = :status,
+                r.updatedAt = :now,
+                r.finishedAt = :finishedAt
+            where r.id = :id
+            """)
+    int updateStatus(@Param("id") Long id,
+                     @Param("status") AIBackfillStatus status,
+                     @Param("now") LocalDateTime now,
+                     @Param("finishedAt") LocalDateTime finishedAt);
+}
@@ -0,0 +1,47 @@
+package com.pablomarotta.smart_task_manager.repository;
+
+import com.pablomarotta.smart_task_manager.model.ClassificationCacheEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface ClassificationCacheRepository extends JpaRepository<ClassificationCacheEntry, String> {
+
+    Optional<ClassificationCacheEntry> findByCacheKeyAndExpiresAtAfter(String cacheKey, LocalDateTime now);
+
+    // Several nodes may classify the same content at once; the last writer wins
+    @Transactional
+    @Modifying
+    @Query(value = """
+            INSERT INTO ai_classification_cache
+                (cache_key, model, priority, category, estimated_days, summary, created_at, expires_at)
+            VALUES (:cacheKey, :model, :priority, :category, :estimatedDays, :summary, :createdAt, :expiresAt)
+            ON CONFLICT (cache_key) DO UPDATE SET
+                priority = EXCLUDED.priority,
+                category = EXCLUDED.category,
+                estimated_days = EXCLUDED.estimated_days,
+                summary = EXCLUDED.summary,
+                created_at = EXCLUDED.created_at,
+                expires_at = EXCLUDED.expires_at
+            """, nativeQuery = true)
+    void upsert(@Param("cacheKey") String cacheKey,
+                @Param("model") String model,
+                @Param("priority") String priority,
+                @Param("category") String category,
+                @Param("estimatedDays") Integer estimatedDays,
+                @Param("summary") String summary,
+                @Param("createdAt") LocalDateTime createdAt,
+                @Param("expiresAt") LocalDateTime expiresAt);
+
+    @Transactional
+    @Modifying
+    @Query("delete from ClassificationCacheEntry e where e.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
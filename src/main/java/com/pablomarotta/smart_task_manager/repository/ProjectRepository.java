@@ -1,10 +1,16 @@
 package com.pablomarotta.smart_task_manager.repository;
 
 import com.pablomarotta.smart_task_manager.model.Project;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ProjectRepository extends JpaRepository<Project, Long> {
@@ -14,4 +20,13 @@ public interface ProjectRepository extends JpaRepository<Project, Long> {
     List<Project> findByNameContainingIgnoreCase(String name);
 
     boolean existsByNameAndOwnerId(String name, Long ownerId);
+
+    // Keyset page: the rows after (createdAt, id), see KeysetPagination. The owner is
+    // fetched in the same statement because every response shows its username.
+    @EntityGraph(attributePaths = "owner")
+    @Query("select p from Project p where (p.createdAt, p.id) > (:createdAt, :id) order by p.createdAt, p.id")
+    List<Project> findPage(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Limit limit);
+
+    @EntityGraph(attributePaths = "owner")
+    Optional<Project> findWithOwnerById(Long id);
 }
@@ -1,13 +1,23 @@
 package com.pablomarotta.smart_task_manager.repository;
 
+import com.pablomarotta.smart_task_manager.model.AIClassificationSource;
+import com.pablomarotta.smart_task_manager.model.AIEnrichmentStatus;
 import com.pablomarotta.smart_task_manager.model.Priority;
 import com.pablomarotta.smart_task_manager.model.Status;
 import com.pablomarotta.smart_task_manager.model.Task;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface TaskRepository extends JpaRepository<Task, Long> {
@@ -23,6 +33,74 @@ public interface TaskRepository extends JpaRepository<Task, Long> {
     List<Task> findByProjectIdAndStatus(Long projectId, Status status);
 
     List<Task> findByDueDateBeforeAndStatusNot(LocalDate date, Status status);
-    
+
     List<Task> findByTitleContainingIgnoreCase(String title);
+
+    // Read path: selects straight into TaskRow, joining the project and the users once
+    String TASK_ROWS = """
+            select new com.pablomarotta.smart_task_manager.repository.TaskRow(
+                t.id, t.title, t.description, t.status, t.position, t.priority, t.category, t.dueDate,
+                p.id, p.name, a.id, a.username, c.id, c.username,
+                t.createdAt, t.updatedAt, t.completedAt,
+                t.aiPriority, t.aiCategory, t.aiSuggestedDueDays, t.aiSuggestedDueDate, t.aiSummary, t.aiStatus)
+            from Task t
+            join t.project p
+            left join t.assignee a
+            left join t.createdBy c
+            """;
+
+    @Query(TASK_ROWS + "where t.id = :id")
+    Optional<TaskRow> findRowById(@Param("id") Long id);
+
+    // For writes that answer with the task: loads what TaskRow.of reads in one statement
+    @EntityGraph(attributePaths = {"project", "assignee", "createdBy"})
+    Optional<Task> findWithAssociationsById(Long id);
+
+    // Keyset pages for the list endpoints: the rows after (createdAt, id), see KeysetPagination
+    @Query(TASK_ROWS + "where (t.createdAt, t.id) > (:createdAt, :id) order by t.createdAt, t.id")
+    List<TaskRow> findPage(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Limit limit);
+
+    @Query(TASK_ROWS + "where t.project.id = :projectId and (t.createdAt, t.id) > (:createdAt, :id) order by t.createdAt, t.id")
+    List<TaskRow> findPageByProjectId(@Param("projectId") Long projectId,
+                                      @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Limit limit);
+
+    @Query(TASK_ROWS + "where t.assignee.id = :assigneeId and (t.createdAt, t.id) > (:createdAt, :id) order by t.createdAt, t.id")
+    List<TaskRow> findPageByAssigneeId(@Param("assigneeId") Long assigneeId,
+                                       @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Limit limit);
+
+    @Query(TASK_ROWS + "where t.status = :status and (t.createdAt, t.id) > (:createdAt, :id) order by t.createdAt, t.id")
+    List<TaskRow> findPageByStatus(@Param("status") Status status,
+                                   @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Limit limit);
+
+    @Transactional
+    @Modifying
+    @Query("update Task t set t.aiStatus = :status where t.id = :id")
+    int updateAiStatus(@Param("id") Long id, @Param("status") AIEnrichmentStatus status);
+
+    @Transactional
+    @Modifying
+    @Query("update Task t set t.aiStatus = :to where t.aiStatus = :from")
+    int replaceAiStatus(@Param("from") AIEnrichmentStatus from, @Param("to") AIEnrichmentStatus to);
+
+    @Transactional
+    @Modifying
+    @Query("""
+            update Task t set
+                t.aiPriority = :priority,
+                t.aiCategory = :category,
+                t.aiSuggestedDueDays = :suggestedDueDays,
+                t.aiSuggestedDueDate = :suggestedDueDate,
+                t.aiSummary = :summary,
+                t.aiSource = :source,
+                t.aiStatus = :status
+            where t.id = :id
+            """)
+    int updateAiClassification(@Param("id") Long id,
+                               @Param("priority") String priority,
+                               @Param("category") String category,
+                               @Param("suggestedDueDays") Integer suggestedDueDays,
+                               @Param("suggestedDueDate") LocalDate suggestedDueDate,
+                               @Param("summary") String summary,
+                               @Param("source") AIClassificationSource source,
+                               @Param("status") AIEnrichmentStatus status);
 }
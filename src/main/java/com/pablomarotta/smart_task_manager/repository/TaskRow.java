@@ -0,0 +1,69 @@
+package com.pablomarotta.smart_task_manager.repository;
+
+import com.pablomarotta.smart_task_manager.model.AIEnrichmentStatus;
+import com.pablomarotta.smart_task_manager.model.Priority;
+import com.pablomarotta.smart_task_manager.model.Status;
+import com.pablomarotta.smart_task_manager.model.Task;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * The columns a task response needs, with the project name and the usernames joined in.
+ * Read paths select it with a constructor expression ({@link TaskRepository#TASK_ROWS}), so
+ * Hibernate builds plain objects: no managed entities, no dirty-checking snapshots and no
+ * lazy proxies to resolve one row at a time.
+ */
+public record TaskRow(
+        Long id,
+        String title,
+        String description,
+        Status status,
+        Integer position,
+        Priority priority,
+        String category,
+        LocalDate dueDate,
+        Long projectId,
+        String projectName,
+        Long assigneeId,
+        String assigneeUsername,
+        Long createdById,
+        String createdByUsername,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt,
+        LocalDateTime completedAt,
+        String aiPriority,
+        String aiCategory,
+        Integer aiSuggestedDueDays,
+        LocalDate aiSuggestedDueDate,
+        String aiSummary,
+        AIEnrichmentStatus aiStatus) {
+
+    /** The same row from a loaded entity, for responses to writes. Touches the associations. */
+    public static TaskRow of(Task task) {
+        return new TaskRow(
+                task.getId(),
+                task.getTitle(),
+                task.getDescription(),
+                task.getStatus(),
+                task.getPosition(),
+                task.getPriority(),
+                task.getCategory(),
+                task.getDueDate(),
+                task.getProject().getId(),
+                task.getProject().getName(),
+                task.getAssignee() != null ? task.getAssignee().getId() : null,
+                task.getAssignee() != null ? task.getAssignee().getUsername() : null,
+                task.getCreatedBy() != null ? task.getCreatedBy().getId() : null,
+                task.getCreatedBy() != null ? task.getCreatedBy().getUsername() : null,
+                task.getCreatedAt(),
+                task.getUpdatedAt(),
+                task.getCompletedAt(),
+                task.getAiPriority(),
+                task.getAiCategory(),
+                task.getAiSuggestedDueDays(),
+                task.getAiSuggestedDueDate(),
+                task.getAiSummary(),
+                task.getAiStatus());
+    }
+}
@@ -1,10 +1,15 @@
 package com.pablomarotta.smart_task_manager.repository;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.pablomarotta.smart_task_manager.model.User;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -19,4 +24,8 @@ public interface UserRepository extends JpaRepository<User, Long> {
     boolean existsByEmail(String email);
 
     boolean existsById(Long id);
+
+    // Keyset page: the rows after (createdAt, id), see KeysetPagination
+    @Query("select u from User u where (u.createdAt, u.id) > (:createdAt, :id) order by u.createdAt, u.id")
+    List<User> findPage(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Limit limit);
 }
@@ -0,0 +1,408 @@
+package com.pablomarotta.smart_task_manager.service;
+
+import com.pablomarotta.smart_task_manager.config.AIConfigProperties;
+import com.pablomarotta.smart_task_manager.dto.AIBackfillStatusResponse;
+import com.pablomarotta.smart_task_manager.dto.AIClassificationRequest;
+import com.pablomarotta.smart_task_manager.dto.AIClassificationResponse;
+import com.pablomarotta.smart_task_manager.model.AIBackfillRun;
+import com.pablomarotta.smart_task_manager.model.AIBackfillStatus;
+import com.pablomarotta.smart_task_manager.model.AIEnrichmentStatus;
+import com.pablomarotta.smart_task_manager.repository.AIBackfillRunRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Classifies tasks whose AI columns were never filled, for example because they were
+ * created while AI was disabled or Ollama was down. Tasks are read by keyset over id,
+ * classified a few at a time under a rate cap, and written back in one JDBC batch per
+ * page together with the checkpoint, so a run can be stopped or survive a restart and
+ * continue where it left off.
+ *
+ * <p>The backfill goes through {@link AIService} like any other caller, so it shares the
+ * cache, limiter and circuit breaker, in the {@link AIPriority#BATCH} class. It keeps at
+ * least one limiter slot free and pauses while interactive classifications are queued or
+ * the circuit is open.</p>
+ */
+@Service
+@Slf4j
+public class AIBackfillService {
+
+    // Tasks IN_PROGRESS belong to an enrichment worker; those a restart cut off are put
+    // back to PENDING by AIEnrichmentService before the backfill resumes
+    private static final String UNCLASSIFIED = """
+            WHERE id > ? AND id <= ?
+              AND ai_priority IS NULL AND ai_category IS NULL
+              AND ai_status <> 'IN_PROGRESS'
+            """;
+
+    private static final String SCAN_SQL = "SELECT id, title, description FROM tasks\n" + UNCLASSIFIED + """
+            ORDER BY id
+            LIMIT ?
+            """;
+
+    private static final String REMAINING_SQL = "SELECT count(*) FROM tasks\n" + UNCLASSIFIED;
+
+    // Skips rows the regular enrichment classified while the page was in flight
+    private static final String UPDATE_SQL = """
+            UPDATE tasks SET
+                ai_priority = ?,
+                ai_category = ?,
+                ai_suggested_due_days = ?,
+                ai_suggested_due_date = ?,
+                ai_summary = ?,
+                ai_source = ?,
+                ai_status = ?
+            WHERE id = ? AND ai_priority IS NULL AND ai_category IS NULL
+            """;
+
+    private static final String CHECKPOINT_SQL = """
+            UPDATE ai_backfill_runs SET
+                last_task_id = ?,
+                processed = processed + ?,
+                classified = classified + ?,
+                failed = failed + ?,
+                updated_at = ?
+            WHERE id = ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final AIBackfillRunRepository runRepository;
+    private final AIService aiService;
+    private final AIConfigProperties aiConfigProperties;
+    private final OllamaCircuitBreaker circuitBreaker;
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final ThreadPoolTaskExecutor enrichmentExecutor;
+    private final ThreadPoolTaskExecutor executor;
+
+    private final Counter classifiedCounter;
+    private final Counter failedCounter;
+    private final Counter interactiveYields;
+    private final Counter circuitOpenYields;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    // A lock rather than synchronized: start() queries the database while holding it, which
+    // would pin the carrier of a virtual request thread
+    private final ReentrantLock lifecycleLock = new ReentrantLock();
+    private Thread coordinator;
+    private volatile boolean stopRequested;
+    private volatile long resumedAtNanos;
+    private volatile int processedSinceResume;
+    private long nextCallNanos;
+
+    public AIBackfillService(JdbcTemplate jdbcTemplate,
+                             TransactionTemplate transactionTemplate,
+                             AIBackfillRunRepository runRepository,
+                             AIService aiService,
+                             AIConfigProperties aiConfigProperties,
+                             OllamaCircuitBreaker circuitBreaker,
+                             AdaptiveConcurrencyLimiter limiter,
+                             ThreadPoolTaskExecutor aiEnrichmentExecutor,
+                             ThreadPoolTaskExecutor aiBackfillExecutor,
+                             MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.runRepository = runRepository;
+        this.aiService = aiService;
+        this.aiConfigProperties = aiConfigProperties;
+        this.circuitBreaker = circuitBreaker;
+        this.limiter = limiter;
+        this.enrichmentExecutor = aiEnrichmentExecutor;
+        this.executor = aiBackfillExecutor;
+
+        this.classifiedCounter = meterRegistry.counter("ai.backfill.tasks", "outcome", "classified");
+        this.failedCounter = meterRegistry.counter("ai.backfill.tasks", "outcome", "failed");
+        this.interactiveYields = meterRegistry.counter("ai.backfill.yields", "reason", "interactive");
+        this.circuitOpenYields = meterRegistry.counter("ai.backfill.yields", "reason", "circuit_open");
+        Gauge.builder("ai.backfill.inflight", inFlight, AtomicInteger::get)
+                .description("Backfill classifications waiting on Ollama")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Resumes the last run if it was stopped or interrupted, otherwise starts a new one
+     * over every task that exists now.
+     */
+    public AIBackfillStatusResponse start() {
+        if (!aiConfigProperties.isEnabled()) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "AI classification is disabled");
+        }
+        lifecycleLock.lock();
+        try {
+            if (isRunning()) {
+                return getStatus();
+            }
+
+            AIBackfillRun run = runRepository.findFirstByOrderByIdDesc()
+                    .filter(last -> last.getStatus() != AIBackfillStatus.COMPLETED)
+                    .orElseGet(this::createRun);
+            launch(run);
+            return getStatus();
+        } finally {
+            lifecycleLock.unlock();
+        }
+    }
+
+    /**
+     * Asks the running backfill to stop once the calls in flight are written; it can be
+     * resumed later.
+     */
+    public AIBackfillStatusResponse stop() {
+        lifecycleLock.lock();
+        try {
+            if (!isRunning()) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT, "No AI backfill is running");
+            }
+            stopRequested = true;
+        } finally {
+            lifecycleLock.unlock();
+        }
+        return getStatus();
+    }
+
+    public AIBackfillStatusResponse getStatus() {
+        AIBackfillRun run = runRepository.findFirstByOrderByIdDesc()
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "No AI backfill has been run"));
+        return toResponse(run);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterruptedRun() {
+        if (!aiConfigProperties.isEnabled() || !aiConfigProperties.getBackfill().isResumeOnStartup()) {
+            return;
+        }
+        lifecycleLock.lock();
+        try {
+            runRepository.findFirstByOrderByIdDesc()
+                    .filter(run -> run.getStatus() == AIBackfillStatus.RUNNING)
+                    .ifPresent(run -> {
+                        log.info("Resuming AI backfill run {} after task {}", run.getId(), run.getLastTaskId());
+                        launch(run);
+                    });
+        } finally {
+            lifecycleLock.unlock();
+        }
+    }
+
+    // Leaves the run RUNNING so the next start resumes it from the last checkpoint
+    @PreDestroy
+    void shutdown() {
+        lifecycleLock.lock();
+        try {
+            if (isRunning()) {
+                coordinator.interrupt();
+            }
+        } finally {
+            lifecycleLock.unlock();
+        }
+    }
+
+    boolean isRunning() {
+        return coordinator != null && coordinator.isAlive();
+    }
+
+    private AIBackfillRun createRun() {
+        Long maxTaskId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM tasks", Long.class);
+        LocalDateTime now = LocalDateTime.now();
+        return runRepository.save(AIBackfillRun.builder()
+                .status(AIBackfillStatus.RUNNING)
+                .maxTaskId(maxTaskId)
+                .startedAt(now)
+                .updatedAt(now)
+                .build());
+    }
+
+    private void launch(AIBackfillRun run) {
+        if (run.getStatus() != AIBackfillStatus.RUNNING) {
+            runRepository.updateStatus(run.getId(), AIBackfillStatus.RUNNING, LocalDateTime.now(), null);
+        }
+        stopRequested = false;
+        resumedAtNanos = System.nanoTime();
+        processedSinceResume = 0;
+        coordinator = new Thread(() -> runBackfill(run.getId(), run.getLastTaskId(), run.getMaxTaskId()), "ai-backfill");
+        coordinator.setDaemon(true);
+        coordinator.start();
+    }
+
+    private void runBackfill(Long runId, long lastTaskId, long maxTaskId) {
+        int pageSize = aiConfigProperties.getBackfill().getPageSize();
+        try {
+            while (!stopRequested) {
+                List<PendingTask> page = jdbcTemplate.query(SCAN_SQL,
+                        (rs, rowNum) -> new PendingTask(rs.getLong("id"), rs.getString("title"), rs.getString("description")),
+                        lastTaskId, maxTaskId, pageSize);
+                if (page.isEmpty()) {
+                    runRepository.updateStatus(runId, AIBackfillStatus.COMPLETED, LocalDateTime.now(), LocalDateTime.now());
+                    log.info("AI backfill run {} completed", runId);
+                    return;
+                }
+
+                List<ClassifiedTask> results = classify(page);
+                if (results.isEmpty()) {
+                    continue;
+                }
+                lastTaskId = results.get(results.size() - 1).taskId();
+                write(runId, lastTaskId, results);
+
+                processedSinceResume += results.size();
+                log.info("AI backfill run {}: checkpoint at task {} of {}, {} tasks/s",
+                        runId, lastTaskId, maxTaskId, String.format("%.2f", tasksPerSecond()));
+            }
+            runRepository.updateStatus(runId, AIBackfillStatus.STOPPED, LocalDateTime.now(), null);
+            log.info("AI backfill run {} stopped after task {}", runId, lastTaskId);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.info("AI backfill run {} interrupted, it resumes after task {}", runId, lastTaskId);
+        } catch (RuntimeException e) {
+            log.error("AI backfill run {} failed after task {}", runId, lastTaskId, e);
+            runRepository.updateStatus(runId, AIBackfillStatus.STOPPED, LocalDateTime.now(), null);
+        }
+    }
+
+    /**
+     * Classifies the page in id order; on a stop request the tasks not started yet are
+     * left for the next run.
+     */
+    private List<ClassifiedTask> classify(List<PendingTask> page) throws InterruptedException {
+        List<CompletableFuture<ClassifiedTask>> results = new ArrayList<>(page.size());
+        for (PendingTask task : page) {
+            if (!awaitTurn()) {
+                break;
+            }
+            inFlight.incrementAndGet();
+            results.add(CompletableFuture.supplyAsync(() -> classify(task), executor)
+                    .exceptionally(ex -> {
+                        log.warn("AI backfill could not classify task {}", task.id(), ex);
+                        return new ClassifiedTask(task.id(), null);
+                    })
+                    .whenComplete((result, ex) -> inFlight.decrementAndGet()));
+        }
+        return results.stream().map(CompletableFuture::join).toList();
+    }
+
+    private ClassifiedTask classify(PendingTask task) {
+        AIClassificationResponse response = aiService.classifyTask(AIClassificationRequest.builder()
+                .title(task.title())
+                .description(task.description())
+                .build(), AIPriority.BATCH);
+        return new ClassifiedTask(task.id(), response);
+    }
+
+    /**
+     * Blocks until the backfill may start another call: the circuit is not open, no
+     * interactive classification is waiting, a limiter slot stays free for others and
+     * the rate cap allows it. Returns false once a stop was requested.
+     */
+    private boolean awaitTurn() throws InterruptedException {
+        long pauseMillis = aiConfigProperties.getBackfill().getYieldPause().toMillis();
+        while (!stopRequested) {
+            if (circuitBreaker.snapshot().state() == OllamaCircuitBreaker.State.OPEN) {
+                circuitOpenYields.increment();
+            } else if (limiter.getQueued(AIPriority.INTERACTIVE) > 0 || enrichmentExecutor.getQueueSize() > 0) {
+                interactiveYields.increment();
+            } else if (inFlight.get() < maxInFlight()) {
+                pace();
+                return true;
+            }
+            Thread.sleep(pauseMillis);
+        }
+        return false;
+    }
+
+    private int maxInFlight() {
+        int headroom = Math.max(1, limiter.getLimit() - 1);
+        return Math.min(aiConfigProperties.getBackfill().getParallelism(), headroom);
+    }
+
+    private void pace() throws InterruptedException {
+        double rate = aiConfigProperties.getBackfill().getMaxRatePerSecond();
+        if (rate <= 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        if (nextCallNanos > now) {
+            TimeUnit.NANOSECONDS.sleep(nextCallNanos - now);
+        }
+        nextCallNanos = Math.max(now, nextCallNanos) + (long) (TimeUnit.SECONDS.toNanos(1) / rate);
+    }
+
+    private void write(Long runId, long lastTaskId, List<ClassifiedTask> results) {
+        LocalDate today = LocalDate.now();
+        int classified = (int) results.stream().filter(ClassifiedTask::isClassified).count();
+        int failed = results.size() - classified;
+
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(UPDATE_SQL, results, results.size(), (ps, result) -> {
+                AIClassificationResponse response = result.response();
+                Integer dueDays = result.isClassified() && response.getEstimatedDays() > 0
+                        ? response.getEstimatedDays() : null;
+                ps.setString(1, result.isClassified() ? response.getPriority() : null);
+                ps.setString(2, result.isClassified() ? response.getCategory() : null);
+                ps.setObject(3, dueDays, Types.INTEGER);
+                ps.setObject(4, dueDays != null ? today.plusDays(dueDays) : null, Types.DATE);
+                ps.setString(5, result.isClassified() ? response.getSummary() : null);
+                ps.setString(6, result.isClassified() && response.getSource() != null ? response.getSource().name() : null);
+                ps.setString(7, (result.isClassified() ? AIEnrichmentStatus.COMPLETED : AIEnrichmentStatus.FAILED).name());
+                ps.setLong(8, result.taskId());
+            });
+            jdbcTemplate.update(CHECKPOINT_SQL, lastTaskId, results.size(), classified, failed, LocalDateTime.now(), runId);
+        });
+
+        classifiedCounter.increment(classified);
+        failedCounter.increment(failed);
+    }
+
+    private double tasksPerSecond() {
+        double seconds = (System.nanoTime() - resumedAtNanos) / 1e9;
+        return seconds > 0 ? processedSinceResume / seconds : 0;
+    }
+
+    private AIBackfillStatusResponse toResponse(AIBackfillRun run) {
+        AIBackfillStatusResponse response = new AIBackfillStatusResponse();
+        response.setRunId(run.getId());
+        response.setStatus(run.getStatus());
+        response.setLastTaskId(run.getLastTaskId());
+        response.setMaxTaskId(run.getMaxTaskId());
+        response.setProcessed(run.getProcessed());
+        response.setClassified(run.getClassified());
+        response.setFailed(run.getFailed());
+        response.setRemaining(run.getStatus() == AIBackfillStatus.COMPLETED ? 0
+                : jdbcTemplate.queryForObject(REMAINING_SQL, Long.class, run.getLastTaskId(), run.getMaxTaskId()));
+        response.setTasksPerSecond(run.getStatus() == AIBackfillStatus.RUNNING ? tasksPerSecond() : 0);
+        response.setStartedAt(run.getStartedAt());
+        response.setUpdatedAt(run.getUpdatedAt());
+        response.setFinishedAt(run.getFinishedAt());
+        return response;
+    }
+
+    private record PendingTask(long id, String title, String description) {
+    }
+
+    private record ClassifiedTask(long taskId, AIClassificationResponse response) {
+
+        boolean isClassified() {
+            return response != null && (response.getPriority() != null || response.getCategory() != null);
+        }
+    }
+}
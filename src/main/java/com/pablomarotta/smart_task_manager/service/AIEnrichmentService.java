@@ -0,0 +1,227 @@
+package com.pablomarotta.smart_task_manager.service;
+
+import com.pablomarotta.smart_task_manager.config.AIConfigProperties;
+import com.pablomarotta.smart_task_manager.dto.AIClassificationRequest;
+import com.pablomarotta.smart_task_manager.dto.AIClassificationResponse;
+import com.pablomarotta.smart_task_manager.model.AIEnrichmentStatus;
+import com.pablomarotta.smart_task_manager.model.Task;
+import com.pablomarotta.smart_task_manager.repository.TaskRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Fills the AI classification columns of a task in the background, so task creation
+ * never waits on the model server. Work is queued on a bounded pool; when the queue
+ * is full the task simply stays PENDING.
+ *
+ * <p>With speculative enrichment, createTask starts the classification while it is still
+ * validating the request and hands it over here; the worker then only waits for the
+ * answer. A speculative classification that came back empty is made again the usual way.</p>
+ */
+@Service
+@Slf4j
+public class AIEnrichmentService {
+
+    private final TaskRepository taskRepository;
+    private final AIService aiService;
+    private final TaskEmbeddingService embeddingService;
+    private final AIConfigProperties aiConfigProperties;
+    private final ThreadPoolTaskExecutor executor;
+
+    private final Counter completedCounter;
+    private final Counter failedCounter;
+    private final Counter rejectedCounter;
+    private final Counter speculativeUsed;
+    private final Counter speculativeRetried;
+    private final Counter speculativeCancelled;
+    private final Timer enrichmentTimer;
+
+    public AIEnrichmentService(TaskRepository taskRepository,
+                               AIService aiService,
+                               TaskEmbeddingService embeddingService,
+                               AIConfigProperties aiConfigProperties,
+                               ThreadPoolTaskExecutor aiEnrichmentExecutor,
+                               MeterRegistry meterRegistry) {
+        this.taskRepository = taskRepository;
+        this.aiService = aiService;
+        this.embeddingService = embeddingService;
+        this.aiConfigProperties = aiConfigProperties;
+        this.executor = aiEnrichmentExecutor;
+
+        Gauge.builder("ai.enrichment.queue.depth", executor, ThreadPoolTaskExecutor::getQueueSize)
+                .description("Tasks waiting for AI classification")
+                .register(meterRegistry);
+        Gauge.builder("ai.enrichment.active", executor, ThreadPoolTaskExecutor::getActiveCount)
+                .description("Tasks currently being classified")
+                .register(meterRegistry);
+        this.completedCounter = meterRegistry.counter("ai.enrichment.tasks", "outcome", "completed");
+        this.failedCounter = meterRegistry.counter("ai.enrichment.tasks", "outcome", "failed");
+        this.rejectedCounter = meterRegistry.counter("ai.enrichment.tasks", "outcome", "rejected");
+        this.speculativeUsed = meterRegistry.counter("ai.enrichment.speculative", "outcome", "used");
+        this.speculativeRetried = meterRegistry.counter("ai.enrichment.speculative", "outcome", "retried");
+        this.speculativeCancelled = meterRegistry.counter("ai.enrichment.speculative", "outcome", "cancelled");
+        this.enrichmentTimer = meterRegistry.timer("ai.enrichment.duration");
+    }
+
+    /**
+     * A task is IN_PROGRESS only while a worker classifies it, so any found at startup were
+     * cut off by a crash or a shutdown that dropped the queue. They go back to PENDING for
+     * the backfill, before it resumes. With several nodes this may release a task another
+     * node is classifying; both writes are full classifications, so the last one wins.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void releaseInterruptedEnrichments() {
+        int released = taskRepository.replaceAiStatus(AIEnrichmentStatus.IN_PROGRESS, AIEnrichmentStatus.PENDING);
+        if (released > 0) {
+            log.info("Released {} tasks left IN_PROGRESS by a previous run", released);
+        }
+    }
+
+    /**
+     * Starts classifying a task that is about to be created, or returns null when
+     * speculative enrichment is off. Cancelling the future cancels the Ollama call.
+     */
+    public CompletableFuture<AIClassificationResponse> classifyAhead(String title, String description) {
+        if (!aiConfigProperties.isEnabled() || !aiConfigProperties.getEnrichment().isSpeculative()) {
+            return null;
+        }
+        CompletableFuture<AIClassificationResponse> classification = aiService.classifyTaskAsync(
+                AIClassificationRequest.builder().title(title).description(description).build());
+        classification.whenComplete((response, error) -> {
+            if (classification.isCancelled()) {
+                speculativeCancelled.increment();
+            }
+        });
+        return classification;
+    }
+
+    /**
+     * Queues the task for classification. Inside a transaction the task is only
+     * submitted after commit, so workers never see a row that may still roll back.
+     */
+    public void scheduleEnrichment(Task task) {
+        scheduleEnrichment(task, null);
+    }
+
+    /**
+     * Same as {@link #scheduleEnrichment(Task)}, reusing a classification started with
+     * {@link #classifyAhead} instead of making a new one.
+     */
+    public void scheduleEnrichment(Task task, CompletableFuture<AIClassificationResponse> classification) {
+        if (!aiConfigProperties.isEnabled()) {
+            return;
+        }
+
+        Long taskId = task.getId();
+        AIClassificationRequest request = AIClassificationRequest.builder()
+                .title(task.getTitle())
+                .description(task.getDescription())
+                .build();
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    submit(taskId, request, classification);
+                }
+            });
+        } else {
+            submit(taskId, request, classification);
+        }
+    }
+
+    private void submit(Long taskId, AIClassificationRequest request,
+                        CompletableFuture<AIClassificationResponse> classification) {
+        try {
+            executor.execute(() -> enrich(taskId, request, classification));
+        } catch (TaskRejectedException e) {
+            if (classification != null) {
+                classification.cancel(true);
+            }
+            rejectedCounter.increment();
+            log.warn("AI enrichment queue is full, task {} stays PENDING", taskId);
+        }
+    }
+
+    void enrich(Long taskId, AIClassificationRequest request) {
+        enrich(taskId, request, null);
+    }
+
+    void enrich(Long taskId, AIClassificationRequest request,
+                CompletableFuture<AIClassificationResponse> classification) {
+        enrichmentTimer.record(() -> {
+            try {
+                taskRepository.updateAiStatus(taskId, AIEnrichmentStatus.IN_PROGRESS);
+
+                AIClassificationResponse response = classify(request, classification);
+                if (isEmpty(response)) {
+                    taskRepository.updateAiStatus(taskId, AIEnrichmentStatus.FAILED);
+                    failedCounter.increment();
+                } else {
+                    Integer suggestedDueDays = response.getEstimatedDays() > 0 ? response.getEstimatedDays() : null;
+                    taskRepository.updateAiClassification(
+                            taskId,
+                            response.getPriority(),
+                            response.getCategory(),
+                            suggestedDueDays,
+                            suggestedDueDays != null ? LocalDate.now().plusDays(suggestedDueDays) : null,
+                            response.getSummary(),
+                            response.getSource(),
+                            AIEnrichmentStatus.COMPLETED
+                    );
+                    completedCounter.increment();
+                }
+            } catch (RuntimeException e) {
+                failedCounter.increment();
+                log.error("AI enrichment failed for task {}", taskId, e);
+                markFailed(taskId);
+                return;
+            }
+            // After the result is written: without a neighbor lookup this is a fresh embedding
+            // call, which must not hold up COMPLETED
+            embeddingService.index(taskId, request);
+        });
+    }
+
+    private AIClassificationResponse classify(AIClassificationRequest request,
+                                              CompletableFuture<AIClassificationResponse> classification) {
+        if (classification != null) {
+            AIClassificationResponse response = classification.join();
+            if (!isEmpty(response)) {
+                speculativeUsed.increment();
+                return response;
+            }
+            speculativeRetried.increment();
+        }
+        return aiService.classifyTask(request);
+    }
+
+    private void markFailed(Long taskId) {
+        try {
+            taskRepository.updateAiStatus(taskId, AIEnrichmentStatus.FAILED);
+        } catch (RuntimeException e) {
+            log.warn("Could not mark task {} as FAILED: {}", taskId, e.getMessage());
+        }
+    }
+
+    private boolean isEmpty(AIClassificationResponse response) {
+        return response == null
+                || (response.getPriority() == null && response.getCategory() == null && response.getSummary() == null);
+    }
+}
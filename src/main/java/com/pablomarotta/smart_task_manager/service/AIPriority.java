@@ -0,0 +1,16 @@
+package com.pablomarotta.smart_task_manager.service;
+
+/**
+ * Scheduling class of an AI call, used by {@link AdaptiveConcurrencyLimiter} to order
+ * callers waiting for an Ollama slot.
+ */
+public enum AIPriority {
+    /** A user is waiting on the answer: classify endpoints and task creation. */
+    INTERACTIVE,
+    /** Background work such as the backfill; yields to interactive callers. */
+    BATCH;
+
+    public String tag() {
+        return name().toLowerCase();
+    }
+}
@@ -1,30 +1,285 @@
 package com.pablomarotta.smart_task_manager.service;
 
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 
 import com.pablomarotta.smart_task_manager.dto.AIClassificationRequest;
 import com.pablomarotta.smart_task_manager.dto.AIClassificationResponse;
+import com.pablomarotta.smart_task_manager.dto.AIEndpointStatusResponse;
+import com.pablomarotta.smart_task_manager.dto.AIStatusResponse;
 import com.pablomarotta.smart_task_manager.config.AIConfigProperties;
+import com.pablomarotta.smart_task_manager.exception.AIUnavailableException;
+import com.pablomarotta.smart_task_manager.model.AIClassificationSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
 
 @Service
+@Slf4j
 public class AIService {
     private final OllamaService ollamaService;
     private final AIConfigProperties aiConfigProperties;
+    private final ClassificationCache classificationCache;
+    private final ClassificationBatcher classificationBatcher;
+    private final OllamaCircuitBreaker circuitBreaker;
+    private final LocalTaskClassifier localClassifier;
+    private final TaskEmbeddingService embeddingService;
+
+    private final Counter localAnswers;
+    private final Counter untrainedEscalations;
+    private final Counter lowConfidenceEscalations;
+    private final Counter neighborAnswers;
+    private final Counter neighborMisses;
+    private final Timer localTimer;
+    private final Timer neighborTimer;
+    private final Timer llmTimer;
 
-    public AIService(OllamaService ollamaService, AIConfigProperties aiConfigProperties) {
+    public AIService(OllamaService ollamaService, AIConfigProperties aiConfigProperties,
+                     ClassificationCache classificationCache, ClassificationBatcher classificationBatcher,
+                     OllamaCircuitBreaker circuitBreaker, LocalTaskClassifier localClassifier,
+                     TaskEmbeddingService embeddingService, MeterRegistry meterRegistry) {
         this.ollamaService = ollamaService;
         this.aiConfigProperties = aiConfigProperties;
+        this.classificationCache = classificationCache;
+        this.classificationBatcher = classificationBatcher;
+        this.circuitBreaker = circuitBreaker;
+        this.localClassifier = localClassifier;
+        this.embeddingService = embeddingService;
+
+        // Escalation rate = escalated / (local + escalated)
+        this.localAnswers = meterRegistry.counter("ai.classification.tier", "tier", "local", "outcome", "answered");
+        this.untrainedEscalations = meterRegistry.counter("ai.classification.tier", "tier", "local", "outcome", "untrained");
+        this.lowConfidenceEscalations = meterRegistry.counter("ai.classification.tier", "tier", "local", "outcome", "low_confidence");
+        this.neighborAnswers = meterRegistry.counter("ai.classification.tier", "tier", "neighbor", "outcome", "answered");
+        this.neighborMisses = meterRegistry.counter("ai.classification.tier", "tier", "neighbor", "outcome", "miss");
+        this.localTimer = meterRegistry.timer("ai.classification.duration", "tier", "local");
+        this.neighborTimer = meterRegistry.timer("ai.classification.duration", "tier", "neighbor");
+        this.llmTimer = meterRegistry.timer("ai.classification.duration", "tier", "llm");
     }
 
+    /**
+     * Answers from the local classifier when it is confident enough, then from a
+     * near-identical task already classified, and escalates to Ollama, through the cache,
+     * otherwise.
+     */
     public AIClassificationResponse classifyTask(AIClassificationRequest request) {
+        return classifyTask(request, AIPriority.INTERACTIVE);
+    }
+
+    /**
+     * Same as {@link #classifyTask(AIClassificationRequest)}, waiting for an Ollama slot
+     * in the given class. A cached or in-flight classification is shared whatever the
+     * class of the caller that started it.
+     */
+    public AIClassificationResponse classifyTask(AIClassificationRequest request, AIPriority priority) {
         if (!aiConfigProperties.isEnabled()) {
             return new AIClassificationResponse();
         }
 
+        Optional<AIClassificationResponse> answer = classifyLocally(request).or(() -> classifyFromNeighbor(request));
+        if (answer.isPresent()) {
+            return answer.get();
+        }
+        return llmTimer.record(() -> classifyWithModel(request, priority));
+    }
+
+    /**
+     * Non-blocking {@link #classifyTask(AIClassificationRequest)} for the web layer: only
+     * the local classifier runs on the caller's thread; the neighbor lookup and a call that
+     * reaches Ollama hold no thread while they wait for the embedding model, a limiter
+     * slot or the model. Never completes exceptionally; failures give an empty
+     * classification.
+     */
+    public CompletableFuture<AIClassificationResponse> classifyTaskAsync(AIClassificationRequest request) {
+        if (!aiConfigProperties.isEnabled()) {
+            return CompletableFuture.completedFuture(new AIClassificationResponse());
+        }
+
+        Optional<AIClassificationResponse> local = classifyLocally(request);
+        if (local.isPresent()) {
+            return CompletableFuture.completedFuture(local.get());
+        }
+
+        CompletableFuture<AIClassificationResponse> result = new CompletableFuture<>();
+        classifyFromNeighborAsync(request).thenAccept(reused -> {
+            if (result.isDone()) {
+                return;
+            }
+            if (reused.isPresent()) {
+                result.complete(reused.get());
+            } else {
+                classifyWithModelAsync(request, result);
+            }
+        });
+        return result;
+    }
+
+    private void classifyWithModelAsync(AIClassificationRequest request, CompletableFuture<AIClassificationResponse> result) {
+        long start = System.nanoTime();
+        CompletableFuture<AIClassificationResponse> call =
+                classificationCache.getOrComputeAsync(request, () -> loadAsync(request, AIPriority.INTERACTIVE));
+        call.thenApply(this::markSource)
+                .exceptionally(ex -> emptyOnFailure(request, ex))
+                .thenAccept(response -> {
+                    llmTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                    result.complete(response);
+                });
+        // Cancelling the answer cancels the Ollama call, unless another caller still waits on it
+        result.whenComplete((response, error) -> {
+            if (result.isCancelled()) {
+                call.cancel(true);
+            }
+        });
+    }
+
+    private AIClassificationResponse classifyWithModel(AIClassificationRequest request, AIPriority priority) {
         try {
-            return ollamaService.classifyTask(request);
+            return markSource(classificationCache.getOrCompute(request, () -> load(request, priority)));
         } catch (RuntimeException ex) {
-            return new AIClassificationResponse();
+            return emptyOnFailure(request, ex);
+        }
+    }
+
+    private AIClassificationResponse emptyOnFailure(AIClassificationRequest request, Throwable ex) {
+        Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+        if (cause instanceof AIUnavailableException) {
+            log.debug("Ollama unavailable, returning an empty classification for '{}'", request.getTitle());
+        } else if (cause instanceof CancellationException) {
+            log.debug("Classification of '{}' was cancelled", request.getTitle());
+        } else {
+            log.warn("Classification of '{}' failed, returning an empty response", request.getTitle(), cause);
+        }
+        return new AIClassificationResponse();
+    }
+
+    /**
+     * Classifies several tasks concurrently, through the batcher when batching is enabled;
+     * results keep the order of the requests.
+     */
+    public List<AIClassificationResponse> classifyTasks(List<AIClassificationRequest> requests) {
+        if (requests.size() > aiConfigProperties.getBatch().getMaxRequestSize()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "At most " + aiConfigProperties.getBatch().getMaxRequestSize() + " tasks can be classified at once");
+        }
+        if (!aiConfigProperties.isEnabled()) {
+            return requests.stream().map(request -> new AIClassificationResponse()).toList();
+        }
+
+        List<CompletableFuture<AIClassificationResponse>> results = requests.stream()
+                .map(request -> classifyLocally(request)
+                        .or(() -> classifyFromNeighbor(request))
+                        .map(CompletableFuture::completedFuture)
+                        .orElseGet(() -> classificationCache.getOrComputeAsync(request, () -> loadAsync(request, AIPriority.INTERACTIVE))
+                                .thenApply(this::markSource)
+                                .exceptionally(ex -> new AIClassificationResponse())))
+                .toList();
+        return results.stream().map(CompletableFuture::join).toList();
+    }
+
+    public AIStatusResponse getStatus() {
+        OllamaCircuitBreaker.Snapshot snapshot = circuitBreaker.snapshot();
+
+        AIStatusResponse status = new AIStatusResponse();
+        status.setEnabled(aiConfigProperties.isEnabled());
+        status.setModel(aiConfigProperties.getModel());
+        status.setCircuitState(snapshot.state().name());
+        status.setConsecutiveFailures(snapshot.consecutiveFailures());
+        status.setCircuitOpenedAt(snapshot.openedAt());
+        status.setEndpoints(ollamaService.getEndpoints().stream()
+                .map(endpoint -> {
+                    AIEndpointStatusResponse response = new AIEndpointStatusResponse();
+                    response.setUrl(endpoint.url());
+                    response.setHealthy(endpoint.healthy());
+                    response.setInFlight(endpoint.inFlight());
+                    response.setConsecutiveFailures(endpoint.consecutiveFailures());
+                    response.setEjectedUntil(endpoint.ejectedUntil());
+                    return response;
+                })
+                .toList());
+        return status;
+    }
+
+    private Optional<AIClassificationResponse> classifyLocally(AIClassificationRequest request) {
+        if (!aiConfigProperties.getLocal().isEnabled()) {
+            return Optional.empty();
+        }
+
+        long start = System.nanoTime();
+        Optional<LocalTaskClassifier.Prediction> prediction = localClassifier.classify(request);
+        localTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+        if (prediction.isEmpty()) {
+            untrainedEscalations.increment();
+            return Optional.empty();
+        }
+        if (prediction.get().confidence() < aiConfigProperties.getLocal().getConfidenceThreshold()) {
+            lowConfidenceEscalations.increment();
+            return Optional.empty();
+        }
+
+        localAnswers.increment();
+        AIClassificationResponse response = new AIClassificationResponse();
+        response.setCategory(prediction.get().category());
+        response.setPriority(prediction.get().priority());
+        response.setEstimatedDays(prediction.get().estimatedDays());
+        response.setSource(AIClassificationSource.LOCAL);
+        return Optional.of(response);
+    }
+
+    private Optional<AIClassificationResponse> classifyFromNeighbor(AIClassificationRequest request) {
+        if (!embeddingService.isEnabled()) {
+            return Optional.empty();
+        }
+
+        long start = System.nanoTime();
+        Optional<AIClassificationResponse> reused = embeddingService.findReusableClassification(request);
+        neighborTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+        (reused.isPresent() ? neighborAnswers : neighborMisses).increment();
+        return reused;
+    }
+
+    private CompletableFuture<Optional<AIClassificationResponse>> classifyFromNeighborAsync(AIClassificationRequest request) {
+        if (!embeddingService.isEnabled()) {
+            return CompletableFuture.completedFuture(Optional.empty());
+        }
+
+        long start = System.nanoTime();
+        return embeddingService.findReusableClassificationAsync(request).thenApply(reused -> {
+            neighborTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            (reused.isPresent() ? neighborAnswers : neighborMisses).increment();
+            return reused;
+        });
+    }
+
+    private AIClassificationResponse markSource(AIClassificationResponse response) {
+        if (response != null && (response.getPriority() != null || response.getCategory() != null)) {
+            response.setSource(AIClassificationSource.LLM);
+        }
+        return response;
+    }
+
+    // Blocking callers wait on their own thread, never on one of the cache's store threads
+    private AIClassificationResponse load(AIClassificationRequest request, AIPriority priority) {
+        if (aiConfigProperties.getBatch().isEnabled()) {
+            return classificationBatcher.submit(request, priority).join();
+        }
+        return ollamaService.classifyTask(request, priority);
+    }
+
+    private CompletableFuture<AIClassificationResponse> loadAsync(AIClassificationRequest request, AIPriority priority) {
+        if (aiConfigProperties.getBatch().isEnabled()) {
+            return classificationBatcher.submit(request, priority);
         }
+        return ollamaService.classifyTaskAsync(request, priority).toFuture();
     }
 }
@@ -0,0 +1,350 @@
+package com.pablomarotta.smart_task_manager.service;
+
+import com.pablomarotta.smart_task_manager.config.AIConfigProperties;
+import com.pablomarotta.smart_task_manager.exception.AIUnavailableException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounds the number of generations running on Ollama at once. The limit follows AIMD:
+ * it grows by about one per limit's worth of fast calls while callers are actually
+ * using it, and is cut by backoff-ratio when a call fails or the smoothed per-task
+ * latency goes above latency-tolerance times its lowest recent value. Smoothing keeps
+ * single long generations from shrinking the limit. Callers over the
+ * limit wait in a bounded FIFO queue per {@link AIPriority}; a full queue or a wait
+ * longer than max-wait (batch-max-wait for batch callers) is rejected with
+ * {@link AIUnavailableException}.
+ *
+ * <p>Freed slots are shared between the queues by weighted fair queuing: each waiter
+ * gets a virtual finish time of the later of the current virtual time and its class's
+ * last finish time, plus 1/weight, and the smallest finish time goes first. With the
+ * default weights interactive callers get four slots for every batch one while both
+ * wait. Once the oldest interactive waiter has waited longer than
+ * interactive-wait-target, batch waiters are deferred until it is served.</p>
+ */
+@Component
+@Slf4j
+public class AdaptiveConcurrencyLimiter {
+
+    // Samples after which the latency baseline is re-measured, so it can follow a slower host
+    private static final int BASELINE_WINDOW = 100;
+    // Weight of the newest sample in the smoothed latency
+    private static final double SMOOTHING = 0.2;
+
+    private final AIConfigProperties aiConfigProperties;
+    private final MeterRegistry meterRegistry;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<AIPriority, Deque<Waiter>> waiters = new EnumMap<>(AIPriority.class);
+    private final Map<AIPriority, Double> lastFinish = new EnumMap<>(AIPriority.class);
+    private final Map<AIPriority, Timer> queueWait = new EnumMap<>(AIPriority.class);
+    private double virtualTime;
+
+    private double limit;
+    private int inFlight;
+    private double smoothedNanos = -1;
+    private double baselineNanos = Double.MAX_VALUE;
+    private double windowMinNanos = Double.MAX_VALUE;
+    private int windowSamples;
+
+    public AdaptiveConcurrencyLimiter(AIConfigProperties aiConfigProperties, MeterRegistry meterRegistry) {
+        this.aiConfigProperties = aiConfigProperties;
+        this.meterRegistry = meterRegistry;
+        this.limit = aiConfigProperties.getLimiter().getInitialLimit();
+
+        Gauge.builder("ai.ollama.limiter.limit", this, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Current number of generations allowed at once")
+                .register(meterRegistry);
+        Gauge.builder("ai.ollama.limiter.inflight", this, AdaptiveConcurrencyLimiter::getInFlight)
+                .register(meterRegistry);
+        Gauge.builder("ai.ollama.limiter.queued", this, AdaptiveConcurrencyLimiter::getQueued)
+                .register(meterRegistry);
+
+        for (AIPriority priority : AIPriority.values()) {
+            waiters.put(priority, new ArrayDeque<>());
+            lastFinish.put(priority, 0.0);
+            queueWait.put(priority, Timer.builder("ai.ollama.limiter.queue.wait")
+                    .description("Time callers waited for an Ollama slot")
+                    .tag("class", priority.tag())
+                    .register(meterRegistry));
+            Gauge.builder("ai.ollama.limiter.queue.size", this, limiter -> limiter.getQueued(priority))
+                    .description("Callers waiting for an Ollama slot")
+                    .tag("class", priority.tag())
+                    .register(meterRegistry);
+        }
+    }
+
+    public Permit acquire() {
+        return acquire(AIPriority.INTERACTIVE);
+    }
+
+    /**
+     * Blocks until a permit is available, for at most max-wait, or batch-max-wait for
+     * batch callers.
+     */
+    public Permit acquire(AIPriority priority) {
+        CompletableFuture<Permit> pending = acquireAsync(priority);
+        Duration maxWait = priority == AIPriority.BATCH ? config().getBatchMaxWait() : config().getMaxWait();
+        try {
+            return pending.get(maxWait.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            return abandon(pending, "timeout");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return abandon(pending, "interrupted");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    public CompletableFuture<Permit> acquireAsync() {
+        return acquireAsync(AIPriority.INTERACTIVE);
+    }
+
+    /**
+     * Non-blocking {@link #acquire(AIPriority)}: the future fails with
+     * {@link AIUnavailableException} once the caller has waited max-wait. A permit granted
+     * after the timeout goes to the next waiter.
+     */
+    public CompletableFuture<Permit> acquireWithTimeout(AIPriority priority) {
+        Duration maxWait = priority == AIPriority.BATCH ? config().getBatchMaxWait() : config().getMaxWait();
+        CompletableFuture<Permit> pending = acquireAsync(priority);
+        if (!pending.isDone()) {
+            // Failing the waiter itself, not a copy, so cancelling the returned future still leaves the queue
+            CompletableFuture.delayedExecutor(maxWait.toNanos(), TimeUnit.NANOSECONDS).execute(() -> {
+                if (pending.completeExceptionally(new AIUnavailableException("Timed out waiting for an AI slot"))) {
+                    reject("timeout");
+                }
+            });
+        }
+        return pending;
+    }
+
+    /**
+     * Returns a future completed with a permit once one is available, or failed with
+     * {@link AIUnavailableException} if the class's wait queue is full. Cancelling the
+     * future gives up the place in the queue.
+     */
+    public CompletableFuture<Permit> acquireAsync(AIPriority priority) {
+        if (!config().isEnabled()) {
+            return CompletableFuture.completedFuture(new Permit(false));
+        }
+
+        lock.lock();
+        try {
+            if (getQueued() == 0 && inFlight < getLimit()) {
+                inFlight++;
+                queueWait.get(priority).record(0, TimeUnit.NANOSECONDS);
+                return CompletableFuture.completedFuture(new Permit(true));
+            }
+            Deque<Waiter> queue = waiters.get(priority);
+            if (queue.size() >= config().getMaxQueue()) {
+                reject("queue_full");
+                return CompletableFuture.failedFuture(new AIUnavailableException("Too many pending AI requests"));
+            }
+
+            double finish = Math.max(virtualTime, lastFinish.get(priority)) + 1.0 / weight(priority);
+            lastFinish.put(priority, finish);
+            Waiter waiter = new Waiter(new CompletableFuture<>(), priority, System.nanoTime(), finish);
+            queue.addLast(waiter);
+            // Cancelled or timed out: give up the place in the queue
+            waiter.future().whenComplete((permit, error) -> {
+                if (error != null) {
+                    removeWaiter(waiter);
+                }
+            });
+            return waiter.future();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight;
+    }
+
+    public int getQueued() {
+        return waiters.values().stream().mapToInt(Deque::size).sum();
+    }
+
+    public int getQueued(AIPriority priority) {
+        return waiters.get(priority).size();
+    }
+
+    private Permit abandon(CompletableFuture<Permit> pending, String reason) {
+        if (pending.cancel(false)) {
+            reject(reason);
+            throw new AIUnavailableException("Timed out waiting for an AI slot");
+        }
+        // Granted just as we gave up: the permit is ours
+        Permit permit = pending.join();
+        if (Thread.currentThread().isInterrupted()) {
+            permit.ignore();
+            throw new AIUnavailableException("Interrupted while waiting for an AI slot");
+        }
+        return permit;
+    }
+
+    private void removeWaiter(Waiter waiter) {
+        lock.lock();
+        try {
+            waiters.get(waiter.priority()).remove(waiter);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Takes the waiter with the smallest virtual finish time, skipping batch waiters while
+     * an interactive caller has been waiting longer than interactive-wait-target.
+     */
+    private Waiter nextWaiter() {
+        Waiter interactive = waiters.get(AIPriority.INTERACTIVE).peekFirst();
+        Waiter batch = waiters.get(AIPriority.BATCH).peekFirst();
+        Waiter next;
+        if (interactive == null || batch == null) {
+            next = interactive != null ? interactive : batch;
+        } else if (System.nanoTime() - interactive.enqueuedNanos() > config().getInteractiveWaitTarget().toNanos()) {
+            meterRegistry.counter("ai.ollama.limiter.deferred", "class", AIPriority.BATCH.tag()).increment();
+            next = interactive;
+        } else {
+            next = interactive.finish() <= batch.finish() ? interactive : batch;
+        }
+        waiters.get(next.priority()).pollFirst();
+        virtualTime = Math.max(virtualTime, next.finish());
+        return next;
+    }
+
+    private double weight(AIPriority priority) {
+        return Math.max(1, priority == AIPriority.BATCH ? config().getBatchWeight() : config().getInteractiveWeight());
+    }
+
+    private void reject(String reason) {
+        meterRegistry.counter("ai.ollama.limiter.rejected", "reason", reason).increment();
+    }
+
+    private void release(long latencyNanos, Outcome outcome) {
+        List<Waiter> granted = new ArrayList<>();
+        lock.lock();
+        try {
+            int inFlightBefore = inFlight;
+            inFlight--;
+            adjustLimit(latencyNanos, outcome, inFlightBefore);
+
+            while (inFlight < getLimit() && getQueued() > 0) {
+                granted.add(nextWaiter());
+                inFlight++;
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        // Completed outside the lock; a waiter cancelled in the meantime hands its slot on
+        long now = System.nanoTime();
+        for (Waiter waiter : granted) {
+            Permit permit = new Permit(true);
+            if (waiter.future().complete(permit)) {
+                queueWait.get(waiter.priority()).record(now - waiter.enqueuedNanos(), TimeUnit.NANOSECONDS);
+            } else {
+                permit.ignore();
+            }
+        }
+    }
+
+    private void adjustLimit(long latencyNanos, Outcome outcome, int inFlightBefore) {
+        AIConfigProperties.Limiter config = config();
+        double previous = limit;
+
+        if (outcome == Outcome.DROPPED) {
+            limit = Math.max(config.getMinLimit(), limit * config.getBackoffRatio());
+        } else if (outcome == Outcome.SUCCESS) {
+            smoothedNanos = smoothedNanos < 0
+                    ? latencyNanos
+                    : smoothedNanos + SMOOTHING * (latencyNanos - smoothedNanos);
+            baselineNanos = Math.min(baselineNanos, smoothedNanos);
+            windowMinNanos = Math.min(windowMinNanos, smoothedNanos);
+            if (++windowSamples >= BASELINE_WINDOW) {
+                baselineNanos = windowMinNanos;
+                windowMinNanos = Double.MAX_VALUE;
+                windowSamples = 0;
+            }
+
+            if (smoothedNanos > baselineNanos * config.getLatencyTolerance()) {
+                limit = Math.max(config.getMinLimit(), limit * config.getBackoffRatio());
+            } else if (inFlightBefore * 2 >= getLimit()) {
+                // Only grow while callers are actually using the current limit
+                limit = Math.min(config.getMaxLimit(), limit + 1.0 / limit);
+            }
+        }
+
+        if ((int) previous != (int) limit) {
+            log.debug("Ollama concurrency limit {} -> {}", (int) previous, (int) limit);
+        }
+    }
+
+    private AIConfigProperties.Limiter config() {
+        return aiConfigProperties.getLimiter();
+    }
+
+    private enum Outcome { SUCCESS, DROPPED, IGNORED }
+
+    private record Waiter(CompletableFuture<Permit> future, AIPriority priority, long enqueuedNanos, double finish) {
+    }
+
+    /**
+     * A slot for one Ollama call. Exactly one of the release methods must be called;
+     * later calls are ignored.
+     */
+    public final class Permit {
+        private final boolean counted;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(boolean counted) {
+            this.counted = counted;
+        }
+
+        /** The call finished; latency is per classified task. */
+        public void success(Duration latency) {
+            release(latency.toNanos(), Outcome.SUCCESS);
+        }
+
+        /** The call failed or timed out, a sign that Ollama is overloaded. */
+        public void dropped() {
+            release(0, Outcome.DROPPED);
+        }
+
+        /** The slot was not used for a call; the limit is left as it is. */
+        public void ignore() {
+            release(0, Outcome.IGNORED);
+        }
+
+        private void release(long latencyNanos, Outcome outcome) {
+            if (counted && released.compareAndSet(false, true)) {
+                AdaptiveConcurrencyLimiter.this.release(latencyNanos, outcome);
+            }
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.pablomarotta.smart_task_manager.service;
+
+import com.pablomarotta.smart_task_manager.dto.BulkTaskItemResponse;
+import com.pablomarotta.smart_task_manager.dto.BulkTaskResponse;
+import com.pablomarotta.smart_task_manager.dto.TaskRequest;
+import com.pablomarotta.smart_task_manager.exception.ProjectNotFoundException;
+import com.pablomarotta.smart_task_manager.exception.UserNotFoundException;
+import com.pablomarotta.smart_task_manager.model.AIEnrichmentStatus;
+import com.pablomarotta.smart_task_manager.model.Project;
+import com.pablomarotta.smart_task_manager.model.Status;
+import com.pablomarotta.smart_task_manager.model.Task;
+import com.pablomarotta.smart_task_manager.model.User;
+import com.pablomarotta.smart_task_manager.repository.ProjectRepository;
+import com.pablomarotta.smart_task_manager.repository.TaskRepository;
+import com.pablomarotta.smart_task_manager.repository.UserRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Creates many tasks in one call. The projects and assignees of every item are loaded
+ * with one query each, items that fail validation are reported and skipped, and the rest
+ * are inserted in one transaction through Hibernate's JDBC batching, which the pooled id
+ * sequences make possible. Imported tasks stay PENDING for the AI backfill instead of
+ * queueing one enrichment each.
+ */
+@Service
+@Slf4j
+public class BulkTaskService {
+
+    private final TaskRepository taskRepository;
+    private final ProjectRepository projectRepository;
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final int maxItems;
+
+    public BulkTaskService(TaskRepository taskRepository,
+                           ProjectRepository projectRepository,
+                           UserRepository userRepository,
+                           TransactionTemplate transactionTemplate,
+                           Validator validator,
+                           @Value("${tasks.bulk.max-items:10000}") int maxItems) {
+        this.taskRepository = taskRepository;
+        this.projectRepository = projectRepository;
+        this.userRepository = userRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.validator = validator;
+        this.maxItems = maxItems;
+    }
+
+    public BulkTaskResponse createTasks(List<TaskRequest> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "At least one task is required");
+        }
+        if (requests.size() > maxItems) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "At most " + maxItems + " tasks per request");
+        }
+
+        Map<Long, Project> projects = projectRepository.findAllById(referenced(requests, TaskRequest::getProjectId))
+                .stream()
+                .collect(Collectors.toMap(Project::getId, Function.identity()));
+        Map<Long, User> assignees = userRepository.findAllById(referenced(requests, TaskRequest::getAssigneeId))
+                .stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+
+        BulkTaskItemResponse[] items = new BulkTaskItemResponse[requests.size()];
+        List<Task> tasks = new ArrayList<>();
+        List<Integer> indexes = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            try {
+                tasks.add(toTask(requests.get(i), projects, assignees));
+                indexes.add(i);
+            } catch (IllegalArgumentException | ProjectNotFoundException | UserNotFoundException e) {
+                items[i] = BulkTaskItemResponse.rejected(i, e.getMessage());
+            }
+        }
+
+        if (!tasks.isEmpty()) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> taskRepository.saveAll(tasks));
+            } catch (DataIntegrityViolationException e) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT,
+                        "Data integrity violation: " + e.getMostSpecificCause().getMessage(), e);
+            }
+        }
+        for (int i = 0; i < tasks.size(); i++) {
+            items[indexes.get(i)] = BulkTaskItemResponse.created(indexes.get(i), tasks.get(i).getId());
+        }
+
+        log.info("Bulk import created {} tasks, rejected {}", tasks.size(), requests.size() - tasks.size());
+        return new BulkTaskResponse(tasks.size(), requests.size() - tasks.size(), Arrays.asList(items));
+    }
+
+    // Same rules as createTask, checked against the preloaded projects and users
+    private Task toTask(TaskRequest request, Map<Long, Project> projects, Map<Long, User> assignees) {
+        if (request == null) {
+            throw new IllegalArgumentException("Task request cannot be null");
+        }
+        checkConstraints(request);
+
+        Project project = projects.get(request.getProjectId());
+        if (project == null) {
+            throw new ProjectNotFoundException("Project not found with id: " + request.getProjectId());
+        }
+        User assignee = null;
+        if (request.getAssigneeId() != null) {
+            assignee = assignees.get(request.getAssigneeId());
+            if (assignee == null) {
+                throw new UserNotFoundException("User not found with id: " + request.getAssigneeId());
+            }
+        }
+
+        Task task = Task.builder()
+                .title(TaskService.validateTitle(request.getTitle()))
+                .description(request.getDescription())
+                .status(request.getStatus() != null ? request.getStatus() : Status.TODO)
+                .project(project)
+                .assignee(assignee)
+                .priority(request.getPriority())
+                .category(request.getCategory())
+                .dueDate(TaskService.validateDueDate(request.getDueDate()))
+                .position(TaskService.validatePosition(request.getPosition()))
+                .aiStatus(AIEnrichmentStatus.PENDING)
+                .build();
+        // The entity's own limits, such as the category length, would otherwise fail the whole batch
+        checkConstraints(task);
+        return task;
+    }
+
+    private <T> void checkConstraints(T value) {
+        Set<ConstraintViolation<T>> violations = validator.validate(value);
+        if (!violations.isEmpty()) {
+            throw new IllegalArgumentException(violations.stream()
+                    .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining(", ")));
+        }
+    }
+
+    private static List<Long> referenced(List<TaskRequest> requests, Function<TaskRequest, Long> id) {
+        return requests.stream()
+                .filter(Objects::nonNull)
+                .map(id)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+    }
+}
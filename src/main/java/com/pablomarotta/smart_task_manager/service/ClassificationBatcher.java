@@ -0,0 +1,183 @@
+package com.pablomarotta.smart_task_manager.service;
+
+import com.pablomarotta.smart_task_manager.config.AIConfigProperties;
+import com.pablomarotta.smart_task_manager.dto.AIClassificationRequest;
+import com.pablomarotta.smart_task_manager.dto.AIClassificationResponse;
+import com.pablomarotta.smart_task_manager.exception.AIUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Collects pending classifications for up to {@code ai.ollama.batch.window} or
+ * {@code max-size} requests and sends them to Ollama as one prompt. If the model's
+ * answer cannot be split back per task, every request is retried on its own. A batch
+ * holding any interactive request is sent with interactive priority.
+ */
+@Component
+@Slf4j
+public class ClassificationBatcher {
+
+    private final OllamaService ollamaService;
+    private final AIConfigProperties aiConfigProperties;
+    private final ThreadPoolTaskExecutor executor;
+    private final BlockingQueue<PendingClassification> queue = new LinkedBlockingQueue<>();
+
+    private final DistributionSummary batchSize;
+    private final Counter fallbackCounter;
+
+    private Thread collector;
+    private volatile boolean running;
+
+    public ClassificationBatcher(OllamaService ollamaService,
+                                 AIConfigProperties aiConfigProperties,
+                                 ThreadPoolTaskExecutor aiBatchExecutor,
+                                 MeterRegistry meterRegistry) {
+        this.ollamaService = ollamaService;
+        this.aiConfigProperties = aiConfigProperties;
+        this.executor = aiBatchExecutor;
+
+        this.batchSize = DistributionSummary.builder("ai.batch.size")
+                .description("Tasks classified per Ollama call")
+                .register(meterRegistry);
+        this.fallbackCounter = meterRegistry.counter("ai.batch.fallbacks");
+        Gauge.builder("ai.batch.pending", queue, BlockingQueue::size)
+                .description("Classifications waiting for the next batch")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        running = true;
+        collector = new Thread(this::collect, "ai-batch-collector");
+        collector.setDaemon(true);
+        collector.start();
+    }
+
+    @PreDestroy
+    void stop() {
+        running = false;
+        if (collector != null) {
+            collector.interrupt();
+        }
+        List<PendingClassification> abandoned = new ArrayList<>();
+        queue.drainTo(abandoned);
+        abandoned.forEach(pending -> pending.result().completeExceptionally(
+                new IllegalStateException("Classification batcher stopped")));
+    }
+
+    public CompletableFuture<AIClassificationResponse> submit(AIClassificationRequest request) {
+        return submit(request, AIPriority.INTERACTIVE);
+    }
+
+    public CompletableFuture<AIClassificationResponse> submit(AIClassificationRequest request, AIPriority priority) {
+        PendingClassification pending = new PendingClassification(request, priority, new CompletableFuture<>());
+        queue.add(pending);
+        return pending.result();
+    }
+
+    private void collect() {
+        while (running) {
+            try {
+                PendingClassification first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+
+                List<PendingClassification> batch = new ArrayList<>();
+                batch.add(first);
+                long deadline = System.nanoTime() + aiConfigProperties.getBatch().getWindow().toNanos();
+                while (batch.size() < aiConfigProperties.getBatch().getMaxSize()) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        break;
+                    }
+                    PendingClassification next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                dispatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void dispatch(List<PendingClassification> batch) {
+        try {
+            executor.execute(() -> classify(batch));
+        } catch (TaskRejectedException e) {
+            batch.forEach(pending -> pending.result().completeExceptionally(e));
+        }
+    }
+
+    void classify(List<PendingClassification> collected) {
+        // Callers that gave up while the batch was collected or queued cost no tokens
+        List<PendingClassification> batch = collected.stream()
+                .filter(pending -> !pending.result().isCancelled())
+                .toList();
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        batchSize.record(batch.size());
+        if (batch.size() == 1) {
+            classifySingle(batch.get(0));
+            return;
+        }
+
+        List<AIClassificationResponse> responses;
+        try {
+            AIPriority priority = batch.stream().anyMatch(pending -> pending.priority() == AIPriority.INTERACTIVE)
+                    ? AIPriority.INTERACTIVE
+                    : AIPriority.BATCH;
+            responses = ollamaService.classifyBatch(batch.stream().map(PendingClassification::request).toList(), priority);
+        } catch (AIUnavailableException e) {
+            // Single calls would be rejected by the open circuit as well
+            batch.forEach(pending -> pending.result().completeExceptionally(e));
+            return;
+        } catch (RuntimeException e) {
+            fallbackCounter.increment();
+            log.warn("Batch classification of {} tasks failed, falling back to single calls: {}",
+                    batch.size(), e.getMessage());
+            batch.forEach(this::classifySingle);
+            return;
+        }
+
+        for (int i = 0; i < batch.size(); i++) {
+            batch.get(i).result().complete(responses.get(i));
+        }
+    }
+
+    private void classifySingle(PendingClassification pending) {
+        if (pending.result().isCancelled()) {
+            return;
+        }
+        try {
+            pending.result().complete(ollamaService.classifyTask(pending.request(), pending.priority()));
+        } catch (RuntimeException e) {
+            pending.result().completeExceptionally(e);
+        }
+    }
+
+    record PendingClassification(AIClassificationRequest request, AIPriority priority,
+                                 CompletableFuture<AIClassificationResponse> result) {
+    }
+}
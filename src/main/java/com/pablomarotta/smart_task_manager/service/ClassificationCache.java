@@ -0,0 +1,358 @@
+package com.pablomarotta.smart_task_manager.service;
+
+import com.pablomarotta.smart_task_manager.config.AIConfigProperties;
+import com.pablomarotta.smart_task_manager.dto.AIClassificationRequest;
+import com.pablomarotta.smart_task_manager.dto.AIClassificationResponse;
+import com.pablomarotta.smart_task_manager.model.ClassificationCacheEntry;
+import com.pablomarotta.smart_task_manager.repository.ClassificationCacheRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Content-addressed cache in front of the model. Lookups go to a bounded in-process
+ * LRU map first, then to the shared ai_classification_cache table. Concurrent misses
+ * for the same key wait on a single in-flight call instead of each calling Ollama.
+ * Callers may cancel the future they get; the call itself is cancelled once every
+ * caller waiting on it has.
+ *
+ * <p>On the non-blocking path the database tier is read and written on the store
+ * executor: the lookup would otherwise block the request thread, and the write the
+ * reactor-netty event loop that completes the Ollama call.</p>
+ */
+@Component
+@Slf4j
+public class ClassificationCache {
+
+    private final AIConfigProperties aiConfigProperties;
+    private final ClassificationCacheRepository repository;
+    private final Executor storeExecutor;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<String, CachedClassification> memory;
+    private final Map<String, InFlightCall> inFlight = new ConcurrentHashMap<>();
+
+    private final Counter memoryHits;
+    private final Counter memoryMisses;
+    private final Counter databaseHits;
+    private final Counter databaseMisses;
+    private final Counter sizeEvictions;
+    private final Counter expiredEvictions;
+    private final Counter inFlightJoins;
+
+    public ClassificationCache(AIConfigProperties aiConfigProperties,
+                               ClassificationCacheRepository repository,
+                               Executor aiCacheStoreExecutor,
+                               MeterRegistry meterRegistry) {
+        this.aiConfigProperties = aiConfigProperties;
+        this.repository = repository;
+        this.storeExecutor = aiCacheStoreExecutor;
+        this.memory = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedClassification> eldest) {
+                boolean evict = size() > aiConfigProperties.getCache().getMaxEntries();
+                if (evict) {
+                    sizeEvictions.increment();
+                }
+                return evict;
+            }
+        };
+
+        this.memoryHits = meterRegistry.counter("ai.cache.gets", "tier", "memory", "result", "hit");
+        this.memoryMisses = meterRegistry.counter("ai.cache.gets", "tier", "memory", "result", "miss");
+        this.databaseHits = meterRegistry.counter("ai.cache.gets", "tier", "database", "result", "hit");
+        this.databaseMisses = meterRegistry.counter("ai.cache.gets", "tier", "database", "result", "miss");
+        this.sizeEvictions = meterRegistry.counter("ai.cache.evictions", "reason", "size");
+        this.expiredEvictions = meterRegistry.counter("ai.cache.evictions", "reason", "expired");
+        this.inFlightJoins = meterRegistry.counter("ai.cache.inflight.joins");
+        Gauge.builder("ai.cache.size", this, ClassificationCache::size)
+                .description("Entries in the in-process classification cache")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the cached classification for the request or computes it with the loader.
+     * Empty classifications (model failures) are returned but never cached.
+     */
+    public AIClassificationResponse getOrCompute(AIClassificationRequest request,
+                                                 Supplier<AIClassificationResponse> loader) {
+        try {
+            // Blocking callers already own their thread, so the database tier runs on it
+            return compute(request, () -> CompletableFuture.completedFuture(loader.get()), Runnable::run).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Same as {@link #getOrCompute} for loaders that complete later, such as the batcher.
+     * Callers joining an in-flight call get the leader's result. Cancelling the returned
+     * future cancels the loader's future once no other caller waits on it.
+     */
+    public CompletableFuture<AIClassificationResponse> getOrComputeAsync(AIClassificationRequest request,
+                                                                         Supplier<CompletableFuture<AIClassificationResponse>> loader) {
+        return compute(request, loader, storeExecutor);
+    }
+
+    private CompletableFuture<AIClassificationResponse> compute(AIClassificationRequest request,
+                                                                Supplier<CompletableFuture<AIClassificationResponse>> loader,
+                                                                Executor store) {
+        if (!aiConfigProperties.getCache().isEnabled()) {
+            return load(loader);
+        }
+
+        String key = keyFor(request);
+        Optional<AIClassificationResponse> cached = getFromMemory(key);
+        if (cached.isPresent()) {
+            return CompletableFuture.completedFuture(cached.get());
+        }
+
+        InFlightCall call = new InFlightCall();
+        InFlightCall existing = inFlight.putIfAbsent(key, call);
+        if (existing != null) {
+            inFlightJoins.increment();
+            return existing.await(this::copy);
+        }
+        // Counted before the loader starts, so joiners cancelling early never cancel it
+        CompletableFuture<AIClassificationResponse> leader = call.await(this::copy);
+
+        CompletableFuture.supplyAsync(() -> getFromDatabase(key), store).thenAccept(stored -> {
+            if (stored.isPresent()) {
+                putInMemory(key, stored.get());
+                complete(key, call, stored.get(), null);
+                return;
+            }
+            if (call.waiters.get() == 0) {
+                // Every caller gave up during the lookup; don't start a call nobody reads
+                complete(key, call, null, new CancellationException());
+                return;
+            }
+
+            call.loading = load(loader);
+            if (call.waiters.get() == 0) {
+                call.loading.cancel(true);
+            }
+            call.loading.whenCompleteAsync((response, error) -> {
+                if (error == null && isCacheable(response)) {
+                    putInDatabase(key, response);
+                    putInMemory(key, response);
+                }
+                complete(key, call, response, error);
+            }, store);
+        });
+        return leader;
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return memory.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${ai.ollama.cache.purge-interval:PT1H}")
+    public void purgeExpired() {
+        if (!aiConfigProperties.getCache().isPersistent()) {
+            return;
+        }
+        try {
+            int purged = repository.deleteExpired(now());
+            if (purged > 0) {
+                log.info("Purged {} expired AI classification cache rows", purged);
+            }
+        } catch (DataAccessException e) {
+            log.warn("Could not purge AI classification cache: {}", e.getMessage());
+        }
+    }
+
+    String keyFor(AIClassificationRequest request) {
+        String content = String.join("\n",
+                normalize(request.getTitle()),
+                normalize(request.getDescription()),
+                aiConfigProperties.getModel(),
+                OllamaService.PROMPT_VERSION);
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(content.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        return text.trim().replaceAll("\\s+", " ").toLowerCase();
+    }
+
+    private Optional<AIClassificationResponse> getFromMemory(String key) {
+        lock.lock();
+        try {
+            CachedClassification cached = memory.get(key);
+            if (cached == null) {
+                memoryMisses.increment();
+                return Optional.empty();
+            }
+            if (cached.expiresAt().isBefore(Instant.now())) {
+                memory.remove(key);
+                expiredEvictions.increment();
+                memoryMisses.increment();
+                return Optional.empty();
+            }
+            memoryHits.increment();
+            return Optional.of(copy(cached.response()));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void putInMemory(String key, AIClassificationResponse response) {
+        Instant expiresAt = Instant.now().plus(aiConfigProperties.getCache().getTtl());
+        lock.lock();
+        try {
+            memory.put(key, new CachedClassification(copy(response), expiresAt));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Optional<AIClassificationResponse> getFromDatabase(String key) {
+        if (!aiConfigProperties.getCache().isPersistent()) {
+            return Optional.empty();
+        }
+        try {
+            Optional<AIClassificationResponse> response = repository.findByCacheKeyAndExpiresAtAfter(key, now())
+                    .map(this::toResponse);
+            if (response.isPresent()) {
+                databaseHits.increment();
+            } else {
+                databaseMisses.increment();
+            }
+            return response;
+        } catch (DataAccessException e) {
+            log.warn("AI classification cache lookup failed: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private void putInDatabase(String key, AIClassificationResponse response) {
+        if (!aiConfigProperties.getCache().isPersistent()) {
+            return;
+        }
+        LocalDateTime now = now();
+        try {
+            repository.upsert(
+                    key,
+                    aiConfigProperties.getModel(),
+                    response.getPriority(),
+                    response.getCategory(),
+                    response.getEstimatedDays(),
+                    response.getSummary(),
+                    now,
+                    now.plus(aiConfigProperties.getCache().getTtl())
+            );
+        } catch (DataAccessException e) {
+            log.warn("AI classification cache write failed: {}", e.getMessage());
+        }
+    }
+
+    private CompletableFuture<AIClassificationResponse> load(Supplier<CompletableFuture<AIClassificationResponse>> loader) {
+        try {
+            return loader.get();
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    // The key leaves the in-flight map only after the memory tier holds the result
+    private void complete(String key, InFlightCall call, AIClassificationResponse response, Throwable error) {
+        if (error != null) {
+            call.result.completeExceptionally(error instanceof CompletionException && error.getCause() != null
+                    ? error.getCause() : error);
+        } else {
+            call.result.complete(response);
+        }
+        inFlight.remove(key, call);
+    }
+
+    /** A model call shared by every caller missing the same key. */
+    private static final class InFlightCall {
+
+        final CompletableFuture<AIClassificationResponse> result = new CompletableFuture<>();
+        final AtomicInteger waiters = new AtomicInteger();
+        volatile CompletableFuture<AIClassificationResponse> loading;
+
+        CompletableFuture<AIClassificationResponse> await(UnaryOperator<AIClassificationResponse> copy) {
+            waiters.incrementAndGet();
+            CompletableFuture<AIClassificationResponse> view = result.thenApply(copy);
+            view.whenComplete((response, error) -> {
+                if (view.isCancelled() && waiters.decrementAndGet() == 0 && loading != null) {
+                    loading.cancel(true);
+                }
+            });
+            return view;
+        }
+    }
+
+    private boolean isCacheable(AIClassificationResponse response) {
+        return response != null
+                && (response.getPriority() != null || response.getCategory() != null || response.getSummary() != null);
+    }
+
+    private AIClassificationResponse toResponse(ClassificationCacheEntry entry) {
+        AIClassificationResponse response = new AIClassificationResponse();
+        response.setPriority(entry.getPriority());
+        response.setCategory(entry.getCategory());
+        response.setEstimatedDays(entry.getEstimatedDays() != null ? entry.getEstimatedDays() : 0);
+        response.setSummary(entry.getSummary());
+        return response;
+    }
+
+    // Responses are mutable DTOs, so callers never share the cached instance
+    private AIClassificationResponse copy(AIClassificationResponse source) {
+        AIClassificationResponse response = new AIClassificationResponse();
+        response.setPriority(source.getPriority());
+        response.setCategory(source.getCategory());
+        response.setEstimatedDays(source.getEstimatedDays());
+        response.setSummary(source.getSummary());
+        response.setSource(source.getSource());
+        return response;
+    }
+
+    private LocalDateTime now() {
+        return LocalDateTime.ofInstant(Instant.now(), ZoneOffset.UTC);
+    }
+
+    private record CachedClassification(AIClassificationResponse response, Instant expiresAt) {
+    }
+}
@@ -0,0 +1,147 @@
+package com.pablomarotta.smart_task_manager.service;
+
+import com.pablomarotta.smart_task_manager.config.AIConfigProperties;
+import com.pablomarotta.smart_task_manager.dto.AIClassificationRequest;
+import com.pablomarotta.smart_task_manager.dto.AIClassificationResponse;
+import com.pablomarotta.smart_task_manager.dto.AIDraftClassificationRequest;
+import com.pablomarotta.smart_task_manager.dto.AIDraftClassificationResponse;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Classifies a task while it is still being typed. The client sends every edit with its
+ * session and an increasing sequence number; only the latest draft of a session is worth
+ * an answer, so a newer draft cancels the older one, Ollama call included, and a draft
+ * older than the one in flight is refused without calling anything.
+ *
+ * <p>A session remembers its last sequence for {@code ai.ollama.draft.session-ttl} after
+ * the answer, so a late retry of an older draft is still refused.</p>
+ *
+ * <p>Drafts go through {@link AIService#classifyTaskAsync}, so the local model and the
+ * cache answer repeated or easy text without a generation.</p>
+ */
+@Service
+public class DraftClassificationService {
+
+    private final AIService aiService;
+    private final AIConfigProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Draft> drafts = new ConcurrentHashMap<>();
+
+    public DraftClassificationService(AIService aiService, AIConfigProperties properties, MeterRegistry meterRegistry) {
+        this.aiService = aiService;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("ai.draft.inflight", drafts,
+                        map -> map.values().stream().filter(draft -> !draft.answer().isDone()).count())
+                .description("Sessions with a draft classification in flight")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Starts classifying the draft. The future fails with 409 if a newer draft of the same
+     * session replaces it or the session is abandoned; cancelling the future cancels the
+     * classification.
+     */
+    public CompletableFuture<AIDraftClassificationResponse> classify(String username, AIDraftClassificationRequest request) {
+        String key = username + "/" + request.getSessionId();
+        long sequence = request.getSequence();
+        Draft draft = new Draft(sequence);
+        draft.answer().whenComplete((response, error) -> draft.completedAt().set(Instant.now()));
+
+        AtomicReference<Draft> replaced = new AtomicReference<>();
+        Draft current = drafts.compute(key, (k, existing) -> {
+            if (existing != null && existing.sequence() >= sequence) {
+                return existing;
+            }
+            replaced.set(existing);
+            return draft;
+        });
+        if (current != draft) {
+            record("stale");
+            return CompletableFuture.failedFuture(new ResponseStatusException(HttpStatus.CONFLICT,
+                    "Draft " + sequence + " is older than draft " + current.sequence()));
+        }
+        if (replaced.get() != null && replaced.get().answer().cancel(true)) {
+            record("superseded");
+        }
+
+        CompletableFuture<AIClassificationResponse> call = aiService.classifyTaskAsync(AIClassificationRequest.builder()
+                .title(request.getTitle())
+                .description(request.getDescription())
+                .build());
+        draft.answer().whenComplete((response, error) -> {
+            if (draft.answer().isCancelled()) {
+                call.cancel(true);
+            }
+        });
+        call.whenComplete((response, error) -> {
+            if (error == null ? draft.answer().complete(response) : draft.answer().completeExceptionally(error)) {
+                record("completed");
+            }
+        });
+
+        CompletableFuture<AIDraftClassificationResponse> result = draft.answer().handle((response, error) -> {
+            if (error == null) {
+                return new AIDraftClassificationResponse(sequence, response);
+            }
+            if (draft.answer().isCancelled()) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT, "Draft " + sequence + " was superseded or abandoned");
+            }
+            throw error instanceof CompletionException completion ? completion : new CompletionException(error);
+        });
+        // The request timed out or its connection failed: nobody will read this draft's answer
+        result.whenComplete((response, error) -> {
+            if (result.isCancelled() && draft.answer().cancel(true)) {
+                record("abandoned");
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Forgets the session, cancelling its draft if it is still in flight. Clients call this
+     * when the form is closed or submitted.
+     */
+    public void abandon(String username, String sessionId) {
+        Draft draft = drafts.remove(username + "/" + sessionId);
+        if (draft != null && draft.answer().cancel(true)) {
+            record("abandoned");
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${ai.ollama.draft.session-ttl:10m}")
+    public void purgeExpiredSessions() {
+        Instant expiry = Instant.now().minus(properties.getDraft().getSessionTtl());
+        drafts.values().removeIf(draft -> draft.completedBy(expiry));
+    }
+
+    private void record(String outcome) {
+        meterRegistry.counter("ai.draft.classifications", "outcome", outcome).increment();
+    }
+
+    private record Draft(long sequence, CompletableFuture<AIClassificationResponse> answer,
+                         AtomicReference<Instant> completedAt) {
+
+        Draft(long sequence) {
+            this(sequence, new CompletableFuture<>(), new AtomicReference<>());
+        }
+
+        // The TTL counts from the answer, however long the draft was in flight
+        boolean completedBy(Instant instant) {
+            Instant completed = completedAt.get();
+            return completed != null && !completed.isAfter(instant);
+        }
+    }
+}
@@ -0,0 +1,505 @@
+package com.pablomarotta.smart_task_manager.service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Approximate nearest-neighbour index by cosine similarity, built as a hierarchical
+ * navigable small world graph (Malkov and Yashunin). Vectors are normalized when added,
+ * so similarity is a dot product.
+ *
+ * <p>Removing an id only marks its node: it keeps routing searches but is never
+ * returned. {@link #compact()} rebuilds the graph without those nodes. Searches run in
+ * parallel; additions and removals take an exclusive lock.</p>
+ */
+class HnswIndex {
+
+    private static final int MAGIC = 0x484E5357; // "HNSW"
+    private static final int FORMAT_VERSION = 1;
+    private static final int MAX_LEVEL = 16;
+
+    private final int dimension;
+    private final int m;
+    private final int efConstruction;
+    private final double levelMultiplier;
+    private final Random random;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private long[] ids = new long[16];
+    private float[][] vectors = new float[16][];
+    // links[node][level] holds the neighbour nodes of node on that level
+    private int[][][] links = new int[16][][];
+    private final BitSet deleted = new BitSet();
+    private final Map<Long, Integer> nodes = new HashMap<>();
+    private int size;
+    private int entryPoint = -1;
+    private int topLevel = -1;
+
+    HnswIndex(int dimension, int m, int efConstruction) {
+        this(dimension, m, efConstruction, new Random());
+    }
+
+    HnswIndex(int dimension, int m, int efConstruction, Random random) {
+        if (dimension <= 0 || m < 2) {
+            throw new IllegalArgumentException("Invalid HNSW parameters: dimension " + dimension + ", m " + m);
+        }
+        this.dimension = dimension;
+        this.m = m;
+        this.efConstruction = Math.max(efConstruction, m);
+        this.levelMultiplier = 1 / Math.log(m);
+        this.random = random;
+    }
+
+    record Neighbor(long id, double similarity) {
+    }
+
+    private record Candidate(int node, float distance) {
+    }
+
+    int dimension() {
+        return dimension;
+    }
+
+    /** Ids currently returned by searches. */
+    int size() {
+        lock.readLock().lock();
+        try {
+            return nodes.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Removed ids still present as graph nodes until the next {@link #compact()}. */
+    int deletedCount() {
+        lock.readLock().lock();
+        try {
+            return size - nodes.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    boolean contains(long id) {
+        lock.readLock().lock();
+        try {
+            return nodes.containsKey(id);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    float[] vector(long id) {
+        lock.readLock().lock();
+        try {
+            Integer node = nodes.get(id);
+            return node != null ? vectors[node].clone() : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Adds the vector under {@code id}, replacing any vector the id had before. */
+    void add(long id, float[] vector) {
+        float[] normalized = normalize(vector);
+        lock.writeLock().lock();
+        try {
+            Integer previous = nodes.remove(id);
+            if (previous != null) {
+                deleted.set(previous);
+            }
+            insert(id, normalized);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    boolean remove(long id) {
+        lock.writeLock().lock();
+        try {
+            Integer node = nodes.remove(id);
+            if (node == null) {
+                return false;
+            }
+            deleted.set(node);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns up to {@code k} ids most similar to the vector, best first. {@code ef} is
+     * the beam width on the bottom layer; larger values trade speed for recall.
+     */
+    List<Neighbor> search(float[] vector, int k, int ef) {
+        float[] query = normalize(vector);
+        lock.readLock().lock();
+        try {
+            if (entryPoint < 0 || k <= 0) {
+                return List.of();
+            }
+            int current = entryPoint;
+            for (int level = topLevel; level > 0; level--) {
+                current = greedyClosest(query, current, level);
+            }
+            List<Candidate> candidates = searchLayer(query, current, Math.max(ef, k), 0);
+
+            List<Neighbor> result = new ArrayList<>(k);
+            for (Candidate candidate : candidates) {
+                if (!deleted.get(candidate.node())) {
+                    result.add(new Neighbor(ids[candidate.node()], 1 - candidate.distance()));
+                    if (result.size() == k) {
+                        break;
+                    }
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * A new index with the same entries and no removed nodes. Only the list of live
+     * entries is taken under the read lock; the graph is rebuilt without it, so adds and
+     * removes made meanwhile are not in the copy.
+     */
+    HnswIndex compact() {
+        long[] liveIds;
+        float[][] liveVectors;
+        lock.readLock().lock();
+        try {
+            int live = size - deleted.cardinality();
+            liveIds = new long[live];
+            liveVectors = new float[live][];
+            for (int node = 0, next = 0; node < size; node++) {
+                if (!deleted.get(node)) {
+                    liveIds[next] = ids[node];
+                    liveVectors[next++] = vectors[node];
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        HnswIndex compacted = new HnswIndex(dimension, m, efConstruction, random);
+        for (int i = 0; i < liveIds.length; i++) {
+            compacted.insert(liveIds[i], liveVectors[i]);
+        }
+        return compacted;
+    }
+
+    /** Approximate heap used by vectors, links and the id map. */
+    long estimatedBytes() {
+        lock.readLock().lock();
+        try {
+            // Array headers are ~16 bytes; a HashMap entry with boxed key and value ~64
+            long bytes = (long) size * (Long.BYTES + 16 + (long) dimension * Float.BYTES + 16 + 64);
+            for (int node = 0; node < size; node++) {
+                for (int[] level : links[node]) {
+                    bytes += 16 + (long) level.length * Integer.BYTES;
+                }
+            }
+            return bytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Writes the index to {@code file} as raw little-overhead binary: per node its id,
+     * vector and neighbour lists. Written to a temporary file first and moved into place,
+     * so a crash never leaves a half-written index.
+     */
+    void save(Path file) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path temporary = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+        lock.readLock().lock();
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeInt(dimension);
+            out.writeInt(m);
+            out.writeInt(efConstruction);
+            out.writeInt(size);
+            out.writeInt(entryPoint);
+            out.writeInt(topLevel);
+            for (int node = 0; node < size; node++) {
+                out.writeLong(ids[node]);
+                out.writeBoolean(deleted.get(node));
+                for (float value : vectors[node]) {
+                    out.writeFloat(value);
+                }
+                out.writeByte(links[node].length);
+                for (int[] level : links[node]) {
+                    out.writeShort(level.length);
+                    for (int neighbor : level) {
+                        out.writeInt(neighbor);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            Files.deleteIfExists(temporary);
+            throw e;
+        } finally {
+            lock.readLock().unlock();
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    static HnswIndex load(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not an HNSW index file: " + file);
+            }
+            int version = in.readInt();
+            if (version != FORMAT_VERSION) {
+                throw new IOException("Unsupported HNSW index version " + version + " in " + file);
+            }
+            HnswIndex index = new HnswIndex(in.readInt(), in.readInt(), in.readInt());
+            int size = in.readInt();
+            index.entryPoint = in.readInt();
+            index.topLevel = in.readInt();
+            index.ensureCapacity(size);
+            for (int node = 0; node < size; node++) {
+                long id = in.readLong();
+                boolean removed = in.readBoolean();
+                float[] vector = new float[index.dimension];
+                for (int i = 0; i < vector.length; i++) {
+                    vector[i] = in.readFloat();
+                }
+                int[][] levels = new int[in.readByte()][];
+                for (int level = 0; level < levels.length; level++) {
+                    levels[level] = new int[in.readShort()];
+                    for (int i = 0; i < levels[level].length; i++) {
+                        levels[level][i] = in.readInt();
+                    }
+                }
+                index.ids[node] = id;
+                index.vectors[node] = vector;
+                index.links[node] = levels;
+                if (removed) {
+                    index.deleted.set(node);
+                } else {
+                    index.nodes.put(id, node);
+                }
+            }
+            index.size = size;
+            return index;
+        }
+    }
+
+    // --- graph ---------------------------------------------------------------------------
+
+    private void insert(long id, float[] vector) {
+        int level = randomLevel();
+        int node = size++;
+        ensureCapacity(size);
+        ids[node] = id;
+        vectors[node] = vector;
+        links[node] = new int[level + 1][];
+        Arrays.fill(links[node], new int[0]);
+        nodes.put(id, node);
+
+        if (entryPoint < 0) {
+            entryPoint = node;
+            topLevel = level;
+            return;
+        }
+
+        int current = entryPoint;
+        for (int l = topLevel; l > level; l--) {
+            current = greedyClosest(vector, current, l);
+        }
+        for (int l = Math.min(level, topLevel); l >= 0; l--) {
+            List<Candidate> candidates = searchLayer(vector, current, efConstruction, l);
+            int[] selected = selectNeighbors(candidates, m);
+            links[node][l] = selected;
+            for (int neighbor : selected) {
+                connect(neighbor, node, l);
+            }
+            current = candidates.get(0).node();
+        }
+        if (level > topLevel) {
+            topLevel = level;
+            entryPoint = node;
+        }
+    }
+
+    private void connect(int node, int neighbor, int level) {
+        int[] current = links[node][level];
+        int[] extended = Arrays.copyOf(current, current.length + 1);
+        extended[current.length] = neighbor;
+        int maxDegree = level == 0 ? 2 * m : m;
+        if (extended.length <= maxDegree) {
+            links[node][level] = extended;
+            return;
+        }
+
+        List<Candidate> candidates = new ArrayList<>(extended.length);
+        for (int other : extended) {
+            candidates.add(new Candidate(other, distance(vectors[node], vectors[other])));
+        }
+        candidates.sort(Comparator.comparingDouble(Candidate::distance));
+        links[node][level] = selectNeighbors(candidates, maxDegree);
+    }
+
+    /**
+     * Keeps candidates that are closer to the base than to every neighbour already kept,
+     * so links spread across clusters instead of all pointing into the nearest one, then
+     * fills up with the closest discarded ones. {@code candidates} is sorted by distance.
+     */
+    private int[] selectNeighbors(List<Candidate> candidates, int count) {
+        List<Candidate> selected = new ArrayList<>(count);
+        List<Candidate> discarded = new ArrayList<>();
+        for (Candidate candidate : candidates) {
+            if (selected.size() == count) {
+                break;
+            }
+            boolean diverse = true;
+            for (Candidate kept : selected) {
+                if (distance(vectors[candidate.node()], vectors[kept.node()]) < candidate.distance()) {
+                    diverse = false;
+                    break;
+                }
+            }
+            (diverse ? selected : discarded).add(candidate);
+        }
+        for (int i = 0; i < discarded.size() && selected.size() < count; i++) {
+            selected.add(discarded.get(i));
+        }
+        return selected.stream().mapToInt(Candidate::node).toArray();
+    }
+
+    private int greedyClosest(float[] query, int start, int level) {
+        int current = start;
+        float best = distance(query, vectors[current]);
+        boolean improved = true;
+        while (improved) {
+            improved = false;
+            for (int neighbor : linksAt(current, level)) {
+                float distance = distance(query, vectors[neighbor]);
+                if (distance < best) {
+                    best = distance;
+                    current = neighbor;
+                    improved = true;
+                }
+            }
+        }
+        return current;
+    }
+
+    // Beam search on one layer; returns up to ef nodes sorted by distance
+    private List<Candidate> searchLayer(float[] query, int start, int ef, int level) {
+        BitSet visited = new BitSet(size);
+        PriorityQueue<Candidate> toVisit = new PriorityQueue<>(Comparator.comparingDouble(Candidate::distance));
+        PriorityQueue<Candidate> found = new PriorityQueue<>(Comparator.comparingDouble(Candidate::distance).reversed());
+
+        Candidate first = new Candidate(start, distance(query, vectors[start]));
+        visited.set(start);
+        toVisit.add(first);
+        found.add(first);
+
+        while (!toVisit.isEmpty()) {
+            Candidate closest = toVisit.poll();
+            if (closest.distance() > found.peek().distance() && found.size() >= ef) {
+                break;
+            }
+            for (int neighbor : linksAt(closest.node(), level)) {
+                if (visited.get(neighbor)) {
+                    continue;
+                }
+                visited.set(neighbor);
+                float distance = distance(query, vectors[neighbor]);
+                if (found.size() < ef || distance < found.peek().distance()) {
+                    Candidate candidate = new Candidate(neighbor, distance);
+                    toVisit.add(candidate);
+                    found.add(candidate);
+                    if (found.size() > ef) {
+                        found.poll();
+                    }
+                }
+            }
+        }
+
+        List<Candidate> result = new ArrayList<>(found);
+        result.sort(Comparator.comparingDouble(Candidate::distance));
+        return result;
+    }
+
+    private int[] linksAt(int node, int level) {
+        int[][] levels = links[node];
+        return level < levels.length ? levels[level] : new int[0];
+    }
+
+    private int randomLevel() {
+        double level = -Math.log(1 - random.nextDouble()) * levelMultiplier;
+        return (int) Math.min(level, MAX_LEVEL);
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= ids.length) {
+            return;
+        }
+        int grown = Math.max(capacity, ids.length * 2);
+        ids = Arrays.copyOf(ids, grown);
+        vectors = Arrays.copyOf(vectors, grown);
+        links = Arrays.copyOf(links, grown);
+    }
+
+    // Four independent sums so the JIT can pipeline the multiply-adds; this loop is most of the build time
+    private float distance(float[] a, float[] b) {
+        float dot0 = 0;
+        float dot1 = 0;
+        float dot2 = 0;
+        float dot3 = 0;
+        int i = 0;
+        for (int upper = a.length - 3; i < upper; i += 4) {
+            dot0 += a[i] * b[i];
+            dot1 += a[i + 1] * b[i + 1];
+            dot2 += a[i + 2] * b[i + 2];
+            dot3 += a[i + 3] * b[i + 3];
+        }
+        for (; i < a.length; i++) {
+            dot0 += a[i] * b[i];
+        }
+        return 1 - (dot0 + dot1 + dot2 + dot3);
+    }
+
+    private float[] normalize(float[] vector) {
+        if (vector.length != dimension) {
+            throw new IllegalArgumentException("Expected a vector of dimension " + dimension + " but got " + vector.length);
+        }
+        double norm = 0;
+        for (float value : vector) {
+            norm += value * value;
+        }
+        norm = Math.sqrt(norm);
+        float[] normalized = new float[vector.length];
+        for (int i = 0; i < vector.length; i++) {
+            normalized[i] = norm > 0 ? (float) (vector[i] / norm) : 0;
+        }
+        return normalized;
+    }
+}
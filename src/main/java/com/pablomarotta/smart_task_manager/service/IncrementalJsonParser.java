@@ -0,0 +1,82 @@
+package com.pablomarotta.smart_task_manager.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+/**
+ * Reads the first JSON value opening with {@code open} ('{' or '[') out of text that
+ * arrives in fragments, such as the chunks of a streamed Ollama generation. Text before
+ * the value is skipped and anything after it is never looked at, so the caller can stop
+ * the generation as soon as {@link #feed} returns a result.
+ *
+ * <p>Not thread-safe; use one instance per generation.</p>
+ */
+class IncrementalJsonParser<T> {
+
+    private final ObjectMapper objectMapper;
+    private final Class<T> type;
+    private final char open;
+
+    private final JsonParser parser;
+    private final ByteArrayFeeder feeder;
+    private final TokenBuffer tokens;
+
+    private boolean started;
+    private int depth;
+    private T result;
+
+    IncrementalJsonParser(ObjectMapper objectMapper, Class<T> type, char open) {
+        this.objectMapper = objectMapper;
+        this.type = type;
+        this.open = open;
+        try {
+            this.parser = objectMapper.getFactory().createNonBlockingByteArrayParser();
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not create non-blocking JSON parser", e);
+        }
+        this.feeder = (ByteArrayFeeder) parser.getNonBlockingInputFeeder();
+        this.tokens = new TokenBuffer(objectMapper, false);
+    }
+
+    /**
+     * Feeds the next fragment of text. Returns the parsed value once it is complete and
+     * empty while more input is needed.
+     */
+    Optional<T> feed(String fragment) throws IOException {
+        if (result != null || fragment == null || fragment.isEmpty()) {
+            return Optional.ofNullable(result);
+        }
+
+        if (!started) {
+            int start = fragment.indexOf(open);
+            if (start < 0) {
+                return Optional.empty();
+            }
+            started = true;
+            fragment = fragment.substring(start);
+        }
+
+        byte[] bytes = fragment.getBytes(StandardCharsets.UTF_8);
+        feeder.feedInput(bytes, 0, bytes.length);
+
+        JsonToken token;
+        while ((token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+            tokens.copyCurrentEvent(parser);
+            if (token.isStructStart()) {
+                depth++;
+            } else if (token.isStructEnd() && --depth == 0) {
+                result = objectMapper.readValue(tokens.asParser(), type);
+                parser.close();
+                break;
+            }
+        }
+        return Optional.ofNullable(result);
+    }
+}
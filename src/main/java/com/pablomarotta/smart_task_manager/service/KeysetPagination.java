@@ -0,0 +1,95 @@
+package com.pablomarotta.smart_task_manager.service;
+
+import com.pablomarotta.smart_task_manager.dto.PageResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Keyset pagination for the list endpoints. Rows are ordered by {@code (createdAt, id)}
+ * and a page is the rows after the last one of the previous page, which the repositories
+ * express as a row-value comparison. Postgres seeks straight to that key in the
+ * {@code (..., created_at, id)} indexes, so page 1000 costs the same as page 1, and rows
+ * inserted in between are neither skipped nor repeated. Page sizes are capped at
+ * {@code pagination.max-size}.
+ *
+ * <p>The cursor handed to clients is the encoded key of the last row. Clients must treat
+ * it as opaque; its format may change.</p>
+ */
+@Component
+public class KeysetPagination {
+
+    // Sorts before every row, so the first page needs no query of its own
+    static final Key START = new Key(LocalDateTime.of(1, 1, 1, 0, 0), 0L);
+
+    private final int defaultSize;
+    private final int maxSize;
+
+    public KeysetPagination(@Value("${pagination.default-size:50}") int defaultSize,
+                            @Value("${pagination.max-size:200}") int maxSize) {
+        this.defaultSize = defaultSize;
+        this.maxSize = maxSize;
+    }
+
+    public record Key(LocalDateTime createdAt, Long id) {
+    }
+
+    @FunctionalInterface
+    public interface Query<T> {
+        List<T> fetch(LocalDateTime createdAt, Long id, Limit limit);
+    }
+
+    /**
+     * Runs the query from the cursor's key and maps the rows. A null cursor starts at the
+     * beginning; a null size uses the default.
+     */
+    public <T, R> PageResponse<R> page(String cursor, Integer size, Query<T> query,
+                                       Function<T, Key> keyOf, Function<T, R> mapper) {
+        int pageSize = pageSize(size);
+        Key after = decode(cursor);
+        // One extra row tells whether there is a next page without counting
+        List<T> rows = query.fetch(after.createdAt(), after.id(), Limit.of(pageSize + 1));
+        List<T> page = rows.size() > pageSize ? rows.subList(0, pageSize) : rows;
+        String nextCursor = rows.size() > pageSize ? encode(keyOf.apply(page.get(pageSize - 1))) : null;
+        return new PageResponse<>(page.stream().map(mapper).toList(), nextCursor);
+    }
+
+    int pageSize(Integer size) {
+        if (size == null) {
+            return defaultSize;
+        }
+        if (size < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Page size must be at least 1");
+        }
+        return Math.min(size, maxSize);
+    }
+
+    static Key decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return START;
+        }
+        try {
+            String[] keys = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(",", 2);
+            if (keys.length != 2) {
+                throw new IllegalArgumentException("Expected two keys");
+            }
+            return new Key(LocalDateTime.parse(keys[0]), Long.parseLong(keys[1]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+        }
+    }
+
+    static String encode(Key key) {
+        String keys = key.createdAt() + "," + key.id();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(keys.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,261 @@
+package com.pablomarotta.smart_task_manager.service;
+
+import com.pablomarotta.smart_task_manager.config.AIConfigProperties;
+import com.pablomarotta.smart_task_manager.dto.AIClassificationRequest;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * First, in-process tier of task classification: multinomial naive Bayes over hashed
+ * tokens of the title and description, trained on the categories and priorities Ollama
+ * gave earlier tasks. A prediction takes microseconds, so {@link AIService} only calls
+ * Ollama when this model is not confident enough.
+ *
+ * <p>Only answers that came from Ollama are used for training, so the model never
+ * learns from its own output. It is rebuilt every {@code ai.ollama.local.retrain-interval}
+ * and swapped in as a whole; classification never waits on training.</p>
+ */
+@Component
+@Slf4j
+public class LocalTaskClassifier {
+
+    private static final String TRAINING_SQL = """
+            SELECT title, description, ai_category, ai_priority, ai_suggested_due_days
+            FROM tasks
+            WHERE ai_status = 'COMPLETED' AND ai_source = 'LLM'
+              AND ai_category IS NOT NULL AND ai_priority IS NOT NULL
+            ORDER BY id DESC
+            LIMIT ?
+            """;
+
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+    // Longer descriptions add little signal and cost time on every prediction
+    private static final int MAX_DESCRIPTION_CHARS = 500;
+    // Laplace smoothing
+    private static final double ALPHA = 1.0;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AIConfigProperties aiConfigProperties;
+    private final Timer trainingTimer;
+
+    private volatile Model model;
+
+    public LocalTaskClassifier(JdbcTemplate jdbcTemplate,
+                               AIConfigProperties aiConfigProperties,
+                               MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.aiConfigProperties = aiConfigProperties;
+        this.trainingTimer = meterRegistry.timer("ai.local.training.duration");
+        Gauge.builder("ai.local.training.samples", this, LocalTaskClassifier::getTrainingSamples)
+                .description("Ollama-labelled tasks the local classifier was trained on")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Predicts category and priority, or returns empty while the classifier has not been
+     * trained on enough tasks. The caller decides whether the confidence is enough.
+     */
+    public Optional<Prediction> classify(AIClassificationRequest request) {
+        Model current = model;
+        if (current == null) {
+            return Optional.empty();
+        }
+
+        int[] features = features(request.getTitle(), request.getDescription(), current.buckets());
+        Label category = current.category().predict(features);
+        Label priority = current.priority().predict(features);
+        return Optional.of(new Prediction(
+                category.name(),
+                priority.name(),
+                current.daysByCategory().getOrDefault(category.name(), 0),
+                Math.min(category.probability(), priority.probability())));
+    }
+
+    public int getTrainingSamples() {
+        Model current = model;
+        return current != null ? current.samples() : 0;
+    }
+
+    @Scheduled(fixedDelayString = "${ai.ollama.local.retrain-interval:1h}")
+    public void retrain() {
+        if (!aiConfigProperties.getLocal().isEnabled()) {
+            return;
+        }
+        try {
+            List<TrainingSample> samples = jdbcTemplate.query(TRAINING_SQL,
+                    (rs, rowNum) -> new TrainingSample(
+                            rs.getString("title"),
+                            rs.getString("description"),
+                            rs.getString("ai_category"),
+                            rs.getString("ai_priority"),
+                            (Integer) rs.getObject("ai_suggested_due_days")),
+                    aiConfigProperties.getLocal().getMaxTrainingSamples());
+            trainingTimer.record(() -> train(samples));
+        } catch (DataAccessException e) {
+            log.warn("Could not load training data for the local classifier: {}", e.getMessage());
+        }
+    }
+
+    void train(List<TrainingSample> samples) {
+        if (samples.size() < aiConfigProperties.getLocal().getMinTrainingSamples()) {
+            log.debug("Local classifier has {} training samples, needs {}",
+                    samples.size(), aiConfigProperties.getLocal().getMinTrainingSamples());
+            return;
+        }
+
+        int buckets = Integer.highestOneBit(Math.max(2, aiConfigProperties.getLocal().getHashBuckets()));
+        List<int[]> features = new ArrayList<>(samples.size());
+        for (TrainingSample sample : samples) {
+            features.add(features(sample.title(), sample.description(), buckets));
+        }
+
+        Map<String, int[]> days = new HashMap<>();
+        for (TrainingSample sample : samples) {
+            if (sample.estimatedDays() != null && sample.estimatedDays() > 0) {
+                int[] sum = days.computeIfAbsent(sample.category(), key -> new int[2]);
+                sum[0] += sample.estimatedDays();
+                sum[1]++;
+            }
+        }
+        Map<String, Integer> daysByCategory = new HashMap<>();
+        days.forEach((category, sum) -> daysByCategory.put(category, Math.round((float) sum[0] / sum[1])));
+
+        model = new Model(
+                NaiveBayes.train(features, samples.stream().map(TrainingSample::category).toList(), buckets),
+                NaiveBayes.train(features, samples.stream().map(TrainingSample::priority).toList(), buckets),
+                Map.copyOf(daysByCategory),
+                buckets,
+                samples.size());
+        log.info("Local classifier trained on {} tasks", samples.size());
+    }
+
+    // Title words and word pairs, and description words, hashed into a fixed number of buckets
+    private int[] features(String title, String description, int buckets) {
+        List<String> tokens = new ArrayList<>();
+        String[] words = tokenize(title);
+        for (int i = 0; i < words.length; i++) {
+            tokens.add("t:" + words[i]);
+            if (i > 0) {
+                tokens.add("t:" + words[i - 1] + " " + words[i]);
+            }
+        }
+        if (description != null) {
+            String text = description.length() > MAX_DESCRIPTION_CHARS
+                    ? description.substring(0, MAX_DESCRIPTION_CHARS) : description;
+            for (String word : tokenize(text)) {
+                tokens.add("d:" + word);
+            }
+        }
+
+        int[] features = new int[tokens.size()];
+        for (int i = 0; i < features.length; i++) {
+            int hash = tokens.get(i).hashCode() * 0x9E3779B9;
+            features[i] = (hash ^ (hash >>> 16)) & (buckets - 1);
+        }
+        return features;
+    }
+
+    private String[] tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return new String[0];
+        }
+        return NON_WORD.splitAsStream(text.toLowerCase(Locale.ROOT))
+                .filter(word -> word.length() > 1)
+                .toArray(String[]::new);
+    }
+
+    public record Prediction(String category, String priority, int estimatedDays, double confidence) {
+    }
+
+    record TrainingSample(String title, String description, String category, String priority,
+                          Integer estimatedDays) {
+    }
+
+    private record Model(NaiveBayes category, NaiveBayes priority, Map<String, Integer> daysByCategory,
+                         int buckets, int samples) {
+    }
+
+    private record Label(String name, double probability) {
+    }
+
+    private static final class NaiveBayes {
+
+        private final String[] labels;
+        private final double[] logPriors;
+        // Per label, log P(feature | label) for every bucket
+        private final float[][] logLikelihoods;
+
+        private NaiveBayes(String[] labels, double[] logPriors, float[][] logLikelihoods) {
+            this.labels = labels;
+            this.logPriors = logPriors;
+            this.logLikelihoods = logLikelihoods;
+        }
+
+        static NaiveBayes train(List<int[]> features, List<String> labels, int buckets) {
+            Map<String, Integer> index = new LinkedHashMap<>();
+            for (String label : labels) {
+                index.putIfAbsent(label, index.size());
+            }
+
+            int[] documents = new int[index.size()];
+            long[] totals = new long[index.size()];
+            int[][] counts = new int[index.size()][buckets];
+            for (int i = 0; i < features.size(); i++) {
+                int label = index.get(labels.get(i));
+                documents[label]++;
+                for (int feature : features.get(i)) {
+                    counts[label][feature]++;
+                    totals[label]++;
+                }
+            }
+
+            double[] logPriors = new double[index.size()];
+            float[][] logLikelihoods = new float[index.size()][buckets];
+            for (int label = 0; label < index.size(); label++) {
+                logPriors[label] = Math.log((double) documents[label] / features.size());
+                double denominator = Math.log(totals[label] + ALPHA * buckets);
+                for (int bucket = 0; bucket < buckets; bucket++) {
+                    logLikelihoods[label][bucket] = (float) (Math.log(counts[label][bucket] + ALPHA) - denominator);
+                }
+            }
+            return new NaiveBayes(index.keySet().toArray(String[]::new), logPriors, logLikelihoods);
+        }
+
+        Label predict(int[] features) {
+            double[] scores = new double[labels.length];
+            int best = 0;
+            for (int label = 0; label < labels.length; label++) {
+                double score = logPriors[label];
+                for (int feature : features) {
+                    score += logLikelihoods[label][feature];
+                }
+                scores[label] = score;
+                if (score > scores[best]) {
+                    best = label;
+                }
+            }
+
+            // Softmax of the log scores, shifted by the best one to stay in range
+            double sum = 0;
+            for (double score : scores) {
+                sum += Math.exp(score - scores[best]);
+            }
+            return new Label(labels[best], 1.0 / sum);
+        }
+    }
+}
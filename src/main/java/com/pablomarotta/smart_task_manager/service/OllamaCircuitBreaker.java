@@ -0,0 +1,155 @@
+package com.pablomarotta.smart_task_manager.service;
+
+import com.pablomarotta.smart_task_manager.config.AIConfigProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Stops calling Ollama after {@code failure-threshold} consecutive failed or slow calls.
+ * While open every call is rejected straight away; once {@code open-duration} has passed
+ * a single trial call (a user request or the scheduled probe) is let through in
+ * HALF_OPEN and its outcome decides whether the circuit closes or opens again.
+ */
+@Component
+@Slf4j
+public class OllamaCircuitBreaker {
+
+    public enum State { CLOSED, HALF_OPEN, OPEN }
+
+    public record Snapshot(State state, int consecutiveFailures, Instant openedAt) {
+    }
+
+    private final AIConfigProperties aiConfigProperties;
+    private final MeterRegistry meterRegistry;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Counter rejected;
+
+    private volatile State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAtNanos;
+    private Instant openedAt;
+    private boolean trialInFlight;
+
+    public OllamaCircuitBreaker(AIConfigProperties aiConfigProperties, MeterRegistry meterRegistry) {
+        this.aiConfigProperties = aiConfigProperties;
+        this.meterRegistry = meterRegistry;
+        this.rejected = meterRegistry.counter("ai.ollama.circuit.rejected");
+        Gauge.builder("ai.ollama.circuit.state", this, breaker -> breaker.state.ordinal())
+                .description("0 = closed, 1 = half-open, 2 = open")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns false when the call must not be made. A true result must be followed by
+     * {@link #onSuccess} or {@link #onFailure}.
+     */
+    public boolean tryAcquire() {
+        if (!aiConfigProperties.getCircuitBreaker().isEnabled()) {
+            return true;
+        }
+
+        lock.lock();
+        try {
+            if (state == State.CLOSED) {
+                return true;
+            }
+            if (state == State.OPEN && openDurationElapsed()) {
+                transitionTo(State.HALF_OPEN);
+            }
+            if (state == State.HALF_OPEN && !trialInFlight) {
+                trialInFlight = true;
+                return true;
+            }
+        } finally {
+            lock.unlock();
+        }
+        rejected.increment();
+        return false;
+    }
+
+    public void onSuccess(Duration elapsed) {
+        if (elapsed.compareTo(aiConfigProperties.getCircuitBreaker().getSlowCallThreshold()) > 0) {
+            log.warn("Ollama call took {} ms, counting it as a failure", elapsed.toMillis());
+            onFailure();
+            return;
+        }
+
+        lock.lock();
+        try {
+            consecutiveFailures = 0;
+            trialInFlight = false;
+            if (state != State.CLOSED) {
+                transitionTo(State.CLOSED);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void onFailure() {
+        lock.lock();
+        try {
+            consecutiveFailures++;
+            trialInFlight = false;
+            if (state == State.HALF_OPEN
+                    || (state == State.CLOSED
+                        && consecutiveFailures >= aiConfigProperties.getCircuitBreaker().getFailureThreshold())) {
+                openedAtNanos = System.nanoTime();
+                openedAt = Instant.now();
+                transitionTo(State.OPEN);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gives back a permission from {@link #tryAcquire} when the call was not made.
+     */
+    public void release() {
+        lock.lock();
+        try {
+            trialInFlight = false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * True when the circuit is open and has waited long enough for a trial call.
+     */
+    public boolean isProbeDue() {
+        lock.lock();
+        try {
+            return state == State.OPEN && openDurationElapsed();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Snapshot snapshot() {
+        lock.lock();
+        try {
+            return new Snapshot(state, consecutiveFailures, state == State.CLOSED ? null : openedAt);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean openDurationElapsed() {
+        return System.nanoTime() - openedAtNanos >= aiConfigProperties.getCircuitBreaker().getOpenDuration().toNanos();
+    }
+
+    private void transitionTo(State next) {
+        log.info("Ollama circuit breaker {} -> {} after {} consecutive failures", state, next, consecutiveFailures);
+        state = next;
+        meterRegistry.counter("ai.ollama.circuit.transitions", "to", next.name().toLowerCase()).increment();
+    }
+}
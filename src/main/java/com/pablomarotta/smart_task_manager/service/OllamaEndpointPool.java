@@ -0,0 +1,341 @@
+package com.pablomarotta.smart_task_manager.service;
+
+import com.pablomarotta.smart_task_manager.config.AIConfigProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Spreads Ollama calls over {@code ai.ollama.endpoints}, all serving the same model.
+ * Each call goes to the healthy endpoint with the fewest calls in flight. A call still
+ * running after hedge-percentile of recent latencies gets a copy on a second endpoint;
+ * whichever answers first wins and the other is cancelled, which closes its connection
+ * and stops that generation.
+ *
+ * <p>An endpoint that fails ejection-threshold times in a row is taken out of rotation
+ * for ejection-duration, doubled on every repeated ejection, and is probed on /api/tags
+ * before it gets traffic again. When every endpoint is ejected calls go to all of them
+ * anyway and the circuit breaker decides. With a single endpoint nothing is ejected or
+ * hedged.</p>
+ */
+@Component
+@Slf4j
+public class OllamaEndpointPool {
+
+    // Per-task latencies of recent successful calls, for the hedge delay
+    private static final int LATENCY_WINDOW = 512;
+
+    private final AIConfigProperties aiConfigProperties;
+    private final WebClient webClient;
+    private final List<Endpoint> endpoints;
+
+    private final long[] latencies = new long[LATENCY_WINDOW];
+    private int latencyCount;
+    private int latencyNext;
+
+    private volatile long lastCallNanos;
+
+    private final Counter hedgesFired;
+    private final Counter hedgesWon;
+
+    public OllamaEndpointPool(AIConfigProperties aiConfigProperties, WebClient ollamaWebClient,
+                              MeterRegistry meterRegistry) {
+        this.aiConfigProperties = aiConfigProperties;
+        this.webClient = ollamaWebClient;
+
+        List<String> urls = aiConfigProperties.getEndpoints().stream()
+                .filter(url -> url != null && !url.isBlank())
+                .map(url -> url.endsWith("/") ? url.substring(0, url.length() - 1) : url)
+                .distinct()
+                .toList();
+        if (urls.isEmpty()) {
+            urls = List.of(aiConfigProperties.getBaseUrl());
+        }
+
+        List<Endpoint> created = new ArrayList<>();
+        for (String url : urls) {
+            Endpoint endpoint = new Endpoint(url, meterRegistry.counter("ai.ollama.endpoint.ejections", "endpoint", url));
+            Gauge.builder("ai.ollama.endpoint.inflight", endpoint, e -> e.inFlight.get())
+                    .description("Ollama calls in flight on the endpoint")
+                    .tag("endpoint", url)
+                    .register(meterRegistry);
+            Gauge.builder("ai.ollama.endpoint.healthy", endpoint, e -> e.isEjected() ? 0 : 1)
+                    .description("1 while the endpoint is in rotation")
+                    .tag("endpoint", url)
+                    .register(meterRegistry);
+            created.add(endpoint);
+        }
+        this.endpoints = List.copyOf(created);
+
+        this.hedgesFired = meterRegistry.counter("ai.ollama.hedges", "outcome", "fired");
+        this.hedgesWon = meterRegistry.counter("ai.ollama.hedges", "outcome", "won");
+    }
+
+    public record EndpointStatus(String url, boolean healthy, int inFlight, int consecutiveFailures,
+                                 Instant ejectedUntil) {
+    }
+
+    public List<EndpointStatus> snapshot() {
+        long now = System.nanoTime();
+        return endpoints.stream()
+                .map(endpoint -> {
+                    synchronized (endpoint) {
+                        boolean ejected = endpoint.isEjected();
+                        return new EndpointStatus(endpoint.url, !ejected, endpoint.inFlight.get(),
+                                endpoint.consecutiveFailures,
+                                ejected && !endpoint.probing
+                                        ? Instant.now().plusNanos(Math.max(0, endpoint.ejectedUntilNanos - now))
+                                        : null);
+                    }
+                })
+                .toList();
+    }
+
+    /**
+     * Runs {@code call} with the base URL of the least loaded endpoint, hedging it on a
+     * second endpoint when it is slow. Errors for which {@code endpointFault} is false,
+     * such as an unreadable answer, do not count against the endpoint.
+     */
+    <T> Mono<T> route(int taskCount, Function<String, Mono<T>> call, Function<Throwable, Boolean> endpointFault) {
+        lastCallNanos = System.nanoTime();
+        Endpoint first = choose(null);
+        Duration delay = hedgeDelay(taskCount);
+        if (delay == null) {
+            return attempt(first, taskCount, call, endpointFault);
+        }
+
+        // An attempt that fails while the other is still running waits for it instead of failing the call
+        AtomicInteger running = new AtomicInteger(1);
+        Mono<T> primary = attempt(first, taskCount, call, endpointFault)
+                .onErrorResume(e -> running.decrementAndGet() > 0 ? Mono.never() : Mono.error(e));
+        Mono<T> hedge = Mono.delay(delay)
+                .then(Mono.defer(() -> {
+                    Endpoint second = choose(first);
+                    if (second == null) {
+                        return Mono.<T>never();
+                    }
+                    running.incrementAndGet();
+                    hedgesFired.increment();
+                    log.debug("Hedging call on {} after {} ms", second.url, delay.toMillis());
+                    return attempt(second, taskCount, call, endpointFault)
+                            .doOnNext(result -> hedgesWon.increment())
+                            .onErrorResume(e -> running.decrementAndGet() > 0 ? Mono.never() : Mono.error(e));
+                }));
+        return Mono.firstWithSignal(primary, hedge);
+    }
+
+    public List<String> urls() {
+        return endpoints.stream().map(endpoint -> endpoint.url).toList();
+    }
+
+    /** Whether a classification was routed within the last {@code window}. */
+    public boolean hadTrafficWithin(Duration window) {
+        long last = lastCallNanos;
+        return last != 0 && System.nanoTime() - last < window.toNanos();
+    }
+
+    /** Base URL for a call that is not hedged, like probes. */
+    <T> Mono<T> routeSingle(Function<String, Mono<T>> call) {
+        return attempt(choose(null), 0, call, error -> true);
+    }
+
+    /**
+     * Base URL for a call whose outcome says nothing about the endpoint's generations,
+     * like embeddings on a separate model: it neither counts towards ejection nor clears
+     * the endpoint's failures.
+     */
+    <T> Mono<T> routeUntracked(Function<String, Mono<T>> call) {
+        return Mono.defer(() -> {
+            Endpoint endpoint = choose(null);
+            endpoint.inFlight.incrementAndGet();
+            return call.apply(endpoint.url).doFinally(signal -> endpoint.inFlight.decrementAndGet());
+        });
+    }
+
+    // Healthy endpoint with the fewest calls in flight, ties broken at random; null if only excluded is left
+    Endpoint choose(Endpoint excluded) {
+        List<Endpoint> candidates = endpoints.stream()
+                .filter(endpoint -> endpoint != excluded && !endpoint.isEjected())
+                .toList();
+        if (candidates.isEmpty()) {
+            if (excluded != null) {
+                return null;
+            }
+            // Everything is ejected: spread the load rather than failing every call
+            candidates = endpoints;
+        }
+
+        Endpoint best = null;
+        int bestLoad = Integer.MAX_VALUE;
+        int ties = 0;
+        for (Endpoint endpoint : candidates) {
+            int load = endpoint.inFlight.get();
+            if (load < bestLoad) {
+                best = endpoint;
+                bestLoad = load;
+                ties = 1;
+            } else if (load == bestLoad && ThreadLocalRandom.current().nextInt(++ties) == 0) {
+                best = endpoint;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Probes ejected endpoints whose ejection has run out and puts them back in rotation
+     * if they answer; otherwise they are ejected again for longer.
+     */
+    @Scheduled(fixedDelayString = "${ai.ollama.routing.health-check-interval:5s}")
+    public void checkEjected() {
+        long now = System.nanoTime();
+        for (Endpoint endpoint : endpoints) {
+            boolean due;
+            synchronized (endpoint) {
+                due = endpoint.isEjected() && endpoint.ejectedUntilNanos <= now && !endpoint.probing;
+                endpoint.probing |= due;
+            }
+            if (due) {
+                probe(endpoint);
+            }
+        }
+    }
+
+    private void probe(Endpoint endpoint) {
+        try {
+            webClient.get()
+                    .uri(endpoint.url + "/api/tags")
+                    .retrieve()
+                    .toBodilessEntity()
+                    .timeout(Duration.ofMillis(aiConfigProperties.getTimeout()))
+                    .block();
+            synchronized (endpoint) {
+                endpoint.probing = false;
+                endpoint.ejectedUntilNanos = 0;
+                endpoint.consecutiveFailures = 0;
+            }
+            log.info("Ollama endpoint {} is back in rotation", endpoint.url);
+        } catch (RuntimeException e) {
+            synchronized (endpoint) {
+                endpoint.probing = false;
+                eject(endpoint);
+            }
+            log.debug("Ollama endpoint {} still failing: {}", endpoint.url, e.getMessage());
+        }
+    }
+
+    private <T> Mono<T> attempt(Endpoint endpoint, int taskCount, Function<String, Mono<T>> call,
+                                Function<Throwable, Boolean> endpointFault) {
+        return Mono.defer(() -> {
+            endpoint.inFlight.incrementAndGet();
+            long start = System.nanoTime();
+            return call.apply(endpoint.url)
+                    .doOnNext(result -> onSuccess(endpoint, taskCount, System.nanoTime() - start))
+                    .doOnError(error -> {
+                        if (endpointFault.apply(error)) {
+                            onFailure(endpoint);
+                        }
+                    })
+                    .doFinally(signal -> endpoint.inFlight.decrementAndGet());
+        });
+    }
+
+    private void onSuccess(Endpoint endpoint, int taskCount, long elapsedNanos) {
+        synchronized (endpoint) {
+            endpoint.consecutiveFailures = 0;
+            endpoint.ejections = 0;
+        }
+        if (taskCount > 0) {
+            synchronized (latencies) {
+                latencies[latencyNext] = elapsedNanos / taskCount;
+                latencyNext = (latencyNext + 1) % LATENCY_WINDOW;
+                latencyCount = Math.min(latencyCount + 1, LATENCY_WINDOW);
+            }
+        }
+    }
+
+    private void onFailure(Endpoint endpoint) {
+        if (endpoints.size() < 2) {
+            return;
+        }
+        synchronized (endpoint) {
+            endpoint.consecutiveFailures++;
+            if (endpoint.consecutiveFailures >= aiConfigProperties.getRouting().getEjectionThreshold()
+                    && endpoint.ejectedUntilNanos == 0) {
+                eject(endpoint);
+                log.warn("Ollama endpoint {} ejected after {} consecutive failures",
+                        endpoint.url, endpoint.consecutiveFailures);
+            }
+        }
+    }
+
+    // Caller holds the endpoint's monitor
+    private void eject(Endpoint endpoint) {
+        AIConfigProperties.Routing routing = aiConfigProperties.getRouting();
+        long duration = routing.getEjectionDuration().toNanos() << Math.min(endpoint.ejections, 20);
+        endpoint.ejectedUntilNanos = System.nanoTime() + Math.min(duration, routing.getMaxEjectionDuration().toNanos());
+        endpoint.ejections++;
+        endpoint.ejectionCounter.increment();
+    }
+
+    /**
+     * How long a call of {@code taskCount} tasks runs before it is hedged, or null when
+     * it must not be: hedging is off, there is no second endpoint or too few calls have
+     * been measured.
+     */
+    Duration hedgeDelay(int taskCount) {
+        AIConfigProperties.Routing routing = aiConfigProperties.getRouting();
+        if (!routing.isHedgingEnabled() || endpoints.size() < 2) {
+            return null;
+        }
+
+        long[] sorted;
+        synchronized (latencies) {
+            if (latencyCount < Math.max(1, routing.getMinHedgeSamples())) {
+                return null;
+            }
+            sorted = Arrays.copyOf(latencies, latencyCount);
+        }
+        Arrays.sort(sorted);
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(routing.getHedgePercentile() * sorted.length) - 1);
+        Duration percentile = Duration.ofNanos(sorted[Math.max(0, index)] * Math.max(1, taskCount));
+        return percentile.compareTo(routing.getMinHedgeDelay()) > 0 ? percentile : routing.getMinHedgeDelay();
+    }
+
+    static final class Endpoint {
+
+        final String url;
+        final AtomicInteger inFlight = new AtomicInteger();
+        final Counter ejectionCounter;
+
+        // Guarded by the endpoint's monitor
+        int consecutiveFailures;
+        int ejections;
+        // 0 while in rotation, otherwise when the endpoint may be probed
+        long ejectedUntilNanos;
+        boolean probing;
+
+        Endpoint(String url, Counter ejectionCounter) {
+            this.url = url;
+            this.ejectionCounter = ejectionCounter;
+        }
+
+        // Stays out of rotation after the ejection runs out until a probe succeeds
+        synchronized boolean isEjected() {
+            return ejectedUntilNanos != 0;
+        }
+    }
+}
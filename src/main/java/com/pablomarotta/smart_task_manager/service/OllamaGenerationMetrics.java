@@ -0,0 +1,97 @@
+package com.pablomarotta.smart_task_manager.service;
+
+import com.pablomarotta.smart_task_manager.dto.OllamaResponse;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes the timings Ollama reports on the last chunk of every generation, tagged by
+ * model and outcome (the done_reason: stop, length, or load for an empty-prompt load):
+ *
+ * <ul>
+ *   <li>{@code ai.ollama.generation.duration{phase}}: total, load, prompt_eval and eval
+ *       time as measured by Ollama, plus overhead, the wall time seen by this service
+ *       minus Ollama's total. A regression in prompt_eval points at prompt size, in eval
+ *       or load at the model host, in overhead at the network or our own code.</li>
+ *   <li>{@code ai.ollama.generation.tokens.per.second{phase=prompt|eval}}</li>
+ *   <li>{@code ai.ollama.generation.prompt.eval.share}: prompt_eval / total, 0 to 1</li>
+ *   <li>{@code ai.ollama.model.loads}: generations that had to load the model first</li>
+ * </ul>
+ *
+ * <p>Meters are looked up in the registry on every call, so OllamaService and
+ * OllamaModelWarmer each hold an instance and still share the same series.</p>
+ */
+class OllamaGenerationMetrics {
+
+    // Ollama reports a few milliseconds of load_duration even when the model is already in memory
+    static final long LOAD_THRESHOLD_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final MeterRegistry meterRegistry;
+
+    OllamaGenerationMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Records the final chunk of a generation; {@code wallNanos} is the time from sending
+     * the request to reading it, or a negative value when unknown.
+     */
+    void record(String model, OllamaResponse done, long wallNanos) {
+        String outcome = done.getDoneReason() != null ? done.getDoneReason() : "unknown";
+        Long total = done.getTotalDuration();
+
+        recordPhase(model, outcome, "total", total);
+        recordPhase(model, outcome, "load", done.getLoadDuration());
+        recordPhase(model, outcome, "prompt_eval", done.getPromptEvalDuration());
+        recordPhase(model, outcome, "eval", done.getEvalDuration());
+        if (total != null && wallNanos >= 0) {
+            recordPhase(model, outcome, "overhead", Math.max(0, wallNanos - total));
+        }
+
+        recordRate(model, outcome, "prompt", done.getPromptEvalCount(), done.getPromptEvalDuration());
+        recordRate(model, outcome, "eval", done.getEvalCount(), done.getEvalDuration());
+
+        if (total != null && total > 0 && done.getPromptEvalDuration() != null) {
+            DistributionSummary.builder("ai.ollama.generation.prompt.eval.share")
+                    .description("Share of Ollama's total time spent reading the prompt")
+                    .tag("model", model)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry)
+                    .record((double) done.getPromptEvalDuration() / total);
+        }
+
+        if (done.getLoadDuration() != null && done.getLoadDuration() >= LOAD_THRESHOLD_NANOS) {
+            meterRegistry.counter("ai.ollama.model.loads", "model", model, "outcome", outcome).increment();
+        }
+    }
+
+    private void recordPhase(String model, String outcome, String phase, Long nanos) {
+        if (nanos == null) {
+            return;
+        }
+        Timer.builder("ai.ollama.generation.duration")
+                .description("Time per Ollama generation by phase, as reported by Ollama")
+                .tag("model", model)
+                .tag("outcome", outcome)
+                .tag("phase", phase)
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    private void recordRate(String model, String outcome, String phase, Integer tokens, Long nanos) {
+        if (tokens == null || nanos == null || nanos <= 0) {
+            return;
+        }
+        DistributionSummary.builder("ai.ollama.generation.tokens.per.second")
+                .description("Tokens per second while reading the prompt or generating")
+                .baseUnit("tokens")
+                .tag("model", model)
+                .tag("outcome", outcome)
+                .tag("phase", phase)
+                .register(meterRegistry)
+                .record(tokens * 1e9 / nanos);
+    }
+}
@@ -0,0 +1,41 @@
+package com.pablomarotta.smart_task_manager.service;
+
+import com.pablomarotta.smart_task_manager.config.AIConfigProperties;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * "ollamaModel" health contributor, part of the readiness group: OUT_OF_SERVICE until
+ * {@link OllamaModelWarmer} has the model loaded on at least one endpoint. After
+ * warmup.readiness-timeout it reports UP with the model marked cold, so an Ollama
+ * outage degrades classification instead of keeping the node out of rotation.
+ */
+@Component
+@RequiredArgsConstructor
+public class OllamaModelHealthIndicator implements HealthIndicator {
+
+    private final OllamaModelWarmer modelWarmer;
+    private final AIConfigProperties aiConfigProperties;
+
+    @Override
+    public Health health() {
+        if (!modelWarmer.isEnabled()) {
+            return Health.up().withDetail("warmup", "disabled").build();
+        }
+
+        Health.Builder builder;
+        if (modelWarmer.isHot()) {
+            builder = Health.up().withDetail("model", "hot");
+        } else if (modelWarmer.sinceStart().compareTo(aiConfigProperties.getWarmup().getReadinessTimeout()) < 0) {
+            builder = Health.outOfService().withDetail("model", "warming");
+        } else {
+            builder = Health.up().withDetail("model", "cold");
+        }
+        return builder
+                .withDetail("name", aiConfigProperties.getModel())
+                .withDetail("endpoints", modelWarmer.getStates())
+                .build();
+    }
+}
@@ -0,0 +1,278 @@
+package com.pablomarotta.smart_task_manager.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.pablomarotta.smart_task_manager.config.AIConfigProperties;
+import com.pablomarotta.smart_task_manager.dto.OllamaOptions;
+import com.pablomarotta.smart_task_manager.dto.OllamaRequest;
+import com.pablomarotta.smart_task_manager.dto.OllamaResponse;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClientRequest;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loads the model on every endpoint before the node takes traffic, so the first
+ * classifications do not pay Ollama's load time. Each endpoint is checked on /api/tags
+ * for the model and then sent an empty prompt, which Ollama treats as "load and keep
+ * loaded for keep_alive". The model is never pulled: a missing model is reported and
+ * left to the operator.
+ *
+ * <p>While classifications keep arriving the load is repeated every refresh-interval,
+ * which brings the model back if Ollama evicted it for another one. Once traffic stops
+ * the model is left to expire after keep-alive: the endpoint is checked on /api/ps every
+ * refresh-interval and reported cold once Ollama has unloaded it, until traffic comes
+ * back and the model is loaded again. Endpoints that are not loaded yet are
+ * retried every routing health-check-interval. Passes run on their own thread so a slow
+ * load never holds up the shared scheduler.</p>
+ */
+@Component
+@Slf4j
+public class OllamaModelWarmer {
+
+    public enum State {
+        DISABLED, WARMING, HOT, COLD, MISSING, UNREACHABLE
+    }
+
+    private final AIConfigProperties aiConfigProperties;
+    private final WebClient webClient;
+    private final OllamaEndpointPool endpointPool;
+    private final MeterRegistry meterRegistry;
+    private final Timer loadTimer;
+    private final OllamaGenerationMetrics generationMetrics;
+
+    private final Map<String, State> states = new ConcurrentHashMap<>();
+    private final Map<String, Long> loadedAtNanos = new ConcurrentHashMap<>();
+    private final long createdNanos = System.nanoTime();
+    private ScheduledExecutorService executor;
+
+    public OllamaModelWarmer(AIConfigProperties aiConfigProperties, WebClient ollamaWebClient,
+                             OllamaEndpointPool endpointPool, MeterRegistry meterRegistry) {
+        this.aiConfigProperties = aiConfigProperties;
+        this.webClient = ollamaWebClient;
+        this.endpointPool = endpointPool;
+        this.meterRegistry = meterRegistry;
+        this.generationMetrics = new OllamaGenerationMetrics(meterRegistry);
+
+        State initial = isEnabled() ? State.WARMING : State.DISABLED;
+        endpointPool.urls().forEach(url -> states.put(url, initial));
+
+        this.loadTimer = Timer.builder("ai.ollama.warmup.duration")
+                .description("Time for Ollama to load the model on a warm-up call")
+                .register(meterRegistry);
+        Gauge.builder("ai.ollama.model.hot", states,
+                        s -> s.values().stream().filter(state -> state == State.HOT).count())
+                .description("Endpoints with the model loaded")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (!isEnabled() || executor != null) {
+            return;
+        }
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ai-warmup");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.execute(this::runPass);
+    }
+
+    @PreDestroy
+    synchronized void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    public boolean isEnabled() {
+        return aiConfigProperties.isEnabled() && aiConfigProperties.getWarmup().isEnabled();
+    }
+
+    /** State of each endpoint, in configuration order. */
+    public Map<String, State> getStates() {
+        Map<String, State> ordered = new LinkedHashMap<>();
+        endpointPool.urls().forEach(url -> ordered.put(url, states.get(url)));
+        return ordered;
+    }
+
+    public boolean isHot() {
+        return states.containsValue(State.HOT);
+    }
+
+    /** Time since the node started warming up, for the readiness timeout. */
+    public Duration sinceStart() {
+        return Duration.ofNanos(System.nanoTime() - createdNanos);
+    }
+
+    private void runPass() {
+        try {
+            warmUp();
+        } catch (RuntimeException e) {
+            log.warn("Model warm-up pass failed: {}", e.getMessage());
+        }
+        AIConfigProperties.Warmup warmup = aiConfigProperties.getWarmup();
+        Duration next = states.values().stream().allMatch(state -> state == State.HOT || state == State.COLD)
+                ? warmup.getRefreshInterval()
+                : aiConfigProperties.getRouting().getHealthCheckInterval();
+        synchronized (this) {
+            if (!executor.isShutdown()) {
+                executor.schedule(this::runPass, next.toMillis(), TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    /**
+     * Loads the model where it is not loaded yet and refreshes it where it is, the latter
+     * only while there is traffic. Without traffic a hot endpoint is only checked for
+     * the model still being loaded, and a cold one is left alone.
+     */
+    void warmUp() {
+        boolean traffic = endpointPool.hadTrafficWithin(aiConfigProperties.getGeneration().getKeepAlive());
+        long refreshNanos = aiConfigProperties.getWarmup().getRefreshInterval().toNanos();
+        for (String url : endpointPool.urls()) {
+            State state = states.get(url);
+            if (state == State.HOT && System.nanoTime() - loadedAtNanos.getOrDefault(url, 0L) < refreshNanos) {
+                continue;
+            }
+            if (!traffic && state == State.HOT) {
+                checkStillLoaded(url);
+                continue;
+            }
+            if (!traffic && state == State.COLD) {
+                continue;
+            }
+            if (state != State.HOT && !hasModel(url)) {
+                continue;
+            }
+            load(url, state);
+        }
+    }
+
+    private boolean hasModel(String url) {
+        try {
+            if (listsModel(models(url, "/api/tags"))) {
+                return true;
+            }
+            transition(url, State.MISSING);
+            meterRegistry.counter("ai.ollama.warmup", "outcome", "missing").increment();
+            return false;
+        } catch (RuntimeException e) {
+            transition(url, State.UNREACHABLE);
+            meterRegistry.counter("ai.ollama.warmup", "outcome", "failed").increment();
+            log.debug("Could not list models on {}: {}", url, e.getMessage());
+            return false;
+        }
+    }
+
+    // Ollama unloads the model after keep_alive without calls; /api/ps lists the loaded ones
+    private void checkStillLoaded(String url) {
+        try {
+            if (!listsModel(models(url, "/api/ps"))) {
+                transition(url, State.COLD);
+                meterRegistry.counter("ai.ollama.warmup", "outcome", "expired").increment();
+            }
+        } catch (RuntimeException e) {
+            transition(url, State.UNREACHABLE);
+            meterRegistry.counter("ai.ollama.warmup", "outcome", "failed").increment();
+            log.debug("Could not list loaded models on {}: {}", url, e.getMessage());
+        }
+    }
+
+    private JsonNode models(String url, String path) {
+        return webClient.get()
+                .uri(url + path)
+                .retrieve()
+                .bodyToMono(JsonNode.class)
+                .map(answer -> answer.path("models"))
+                .timeout(Duration.ofMillis(aiConfigProperties.getTimeout()))
+                .blockOptional()
+                .orElseThrow(() -> new IllegalStateException("Empty answer from " + path));
+    }
+
+    private boolean listsModel(JsonNode models) {
+        String model = aiConfigProperties.getModel();
+        for (JsonNode entry : models) {
+            String name = entry.path("name").asText();
+            if (name.equals(model) || name.equals(model + ":latest")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void load(String url, State previous) {
+        AIConfigProperties.Generation generation = aiConfigProperties.getGeneration();
+        Duration timeout = aiConfigProperties.getWarmup().getLoadTimeout();
+        // Same num_ctx as classifications, otherwise Ollama reloads the model on the first one
+        OllamaRequest request = OllamaRequest.builder()
+                .model(aiConfigProperties.getModel())
+                .prompt("")
+                .options(OllamaOptions.builder().numCtx(generation.getContextSize()).build())
+                .keepAlive(generation.getKeepAlive().toSeconds() + "s")
+                .stream(false)
+                .build();
+
+        long start = System.nanoTime();
+        try {
+            OllamaResponse response = webClient.post()
+                    .uri(url + "/api/generate")
+                    .httpRequest(httpRequest -> ((HttpClientRequest) httpRequest.getNativeRequest())
+                            .responseTimeout(timeout))
+                    .bodyValue(request)
+                    .retrieve()
+                    .bodyToMono(OllamaResponse.class)
+                    .timeout(timeout)
+                    .block();
+            long wallNanos = System.nanoTime() - start;
+            loadTimer.record(wallNanos, TimeUnit.NANOSECONDS);
+            if (response != null) {
+                generationMetrics.record(aiConfigProperties.getModel(), response, wallNanos);
+            }
+            meterRegistry.counter("ai.ollama.warmup", "outcome", previous == State.HOT ? "refreshed" : "loaded")
+                    .increment();
+            if (previous != State.HOT) {
+                log.info("Model {} loaded on {} in {} ms", aiConfigProperties.getModel(), url,
+                        response != null && response.getLoadDuration() != null
+                                ? response.getLoadDuration() / 1_000_000
+                                : wallNanos / 1_000_000);
+            }
+            loadedAtNanos.put(url, System.nanoTime());
+            transition(url, State.HOT);
+        } catch (RuntimeException e) {
+            meterRegistry.counter("ai.ollama.warmup", "outcome", "failed").increment();
+            log.debug("Could not load model on {}: {}", url, e.getMessage());
+            transition(url, State.UNREACHABLE);
+        }
+    }
+
+    private void transition(String url, State state) {
+        State previous = states.put(url, state);
+        if (previous == state) {
+            return;
+        }
+        switch (state) {
+            case MISSING -> log.warn("Model {} is not available on {}; pull it with \"ollama pull {}\"",
+                    aiConfigProperties.getModel(), url, aiConfigProperties.getModel());
+            case UNREACHABLE -> log.warn("Could not warm up model {} on {}", aiConfigProperties.getModel(), url);
+            case COLD -> log.info("Model {} was unloaded from {} after keep-alive without traffic",
+                    aiConfigProperties.getModel(), url);
+            default -> {
+            }
+        }
+    }
+}
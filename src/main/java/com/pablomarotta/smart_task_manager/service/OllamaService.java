@@ -1,27 +1,88 @@
 package com.pablomarotta.smart_task_manager.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.pablomarotta.smart_task_manager.config.AIConfigProperties;
 import com.pablomarotta.smart_task_manager.dto.AIClassificationRequest;
 import com.pablomarotta.smart_task_manager.dto.AIClassificationResponse;
 
+import com.pablomarotta.smart_task_manager.dto.OllamaEmbeddingRequest;
+import com.pablomarotta.smart_task_manager.dto.OllamaEmbeddingResponse;
+import com.pablomarotta.smart_task_manager.dto.OllamaOptions;
 import com.pablomarotta.smart_task_manager.dto.OllamaRequest;
 import com.pablomarotta.smart_task_manager.dto.OllamaResponse;
+import com.pablomarotta.smart_task_manager.exception.AIUnavailableException;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
 
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 
 @Service
+@Slf4j
 public class OllamaService {
+    // Bump whenever buildPrompt changes so cached classifications are not reused
+    public static final String PROMPT_VERSION = "v1";
+
+    // JSON schema passed as "format" in structured output mode; mirrors AIClassificationResponse
+    private static final Map<String, Object> CLASSIFICATION_SCHEMA = Map.of(
+            "type", "object",
+            "properties", Map.of(
+                    "priority", Map.of("type", "string", "enum", List.of("LOW", "MEDIUM", "HIGH", "URGENT")),
+                    "category", Map.of("type", "string"),
+                    "estimatedDays", Map.of("type", "integer", "minimum", 0),
+                    "summary", Map.of("type", "string")),
+            "required", List.of("priority", "category", "estimatedDays", "summary"));
+
+    private static final Map<String, Object> BATCH_SCHEMA = Map.of(
+            "type", "array",
+            "items", Map.of(
+                    "type", "object",
+                    "properties", Map.of(
+                            "index", Map.of("type", "integer", "minimum", 0),
+                            "priority", Map.of("type", "string", "enum", List.of("LOW", "MEDIUM", "HIGH", "URGENT")),
+                            "category", Map.of("type", "string"),
+                            "estimatedDays", Map.of("type", "integer", "minimum", 0),
+                            "summary", Map.of("type", "string")),
+                    "required", List.of("index", "priority", "category", "estimatedDays", "summary")));
+
     private final AIConfigProperties aiConfigProperties;
     private final WebClient webClient;
+    private final OllamaCircuitBreaker circuitBreaker;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final OllamaEndpointPool endpointPool;
+    private final MeterRegistry meterRegistry;
+    private final OllamaGenerationMetrics generationMetrics;
 
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
 
-    public OllamaService(AIConfigProperties aiConfigProperties) {
+    public OllamaService(AIConfigProperties aiConfigProperties, WebClient ollamaWebClient,
+                         OllamaCircuitBreaker circuitBreaker, AdaptiveConcurrencyLimiter concurrencyLimiter,
+                         OllamaEndpointPool endpointPool, MeterRegistry meterRegistry) {
         this.aiConfigProperties = aiConfigProperties;
-        this.webClient = WebClient.builder().build();
+        this.webClient = ollamaWebClient;
+        this.circuitBreaker = circuitBreaker;
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.endpointPool = endpointPool;
+        this.meterRegistry = meterRegistry;
+        this.generationMetrics = new OllamaGenerationMetrics(meterRegistry);
     }
 
     private String buildPrompt(String title, String description) {
@@ -42,43 +103,390 @@ public class OllamaService {
         );
     }
 
+    private String buildBatchPrompt(List<AIClassificationRequest> requests) {
+        StringBuilder tasks = new StringBuilder();
+        for (int i = 0; i < requests.size(); i++) {
+            AIClassificationRequest request = requests.get(i);
+            tasks.append("Tarea ").append(i).append(": ").append(request.getTitle()).append('\n');
+            if (request.getDescription() != null && !request.getDescription().isBlank()) {
+                tasks.append("Descripción: ").append(request.getDescription()).append('\n');
+            }
+            tasks.append('\n');
+        }
+
+        return """
+            Eres un asistente de gestión de tareas. Analiza las siguientes %d tareas y devuelve un array JSON
+            con un objeto por tarea, en el mismo orden, cada uno con:
+            - index: el número de la tarea
+            - priority: "LOW", "MEDIUM", "HIGH" o "URGENT"
+            - category: una categoría adecuada (ej: "BUG", "FEATURE", "DOCUMENTATION", "REFACTOR")
+            - estimatedDays: número estimado de días para completar (entero)
+            - summary: un resumen conciso de la tarea (máximo 100 palabras)
+
+            %s
+            Devuelve SOLO el array JSON, sin texto adicional.
+            """.formatted(requests.size(), tasks);
+    }
+
     public AIClassificationResponse classifyTask(AIClassificationRequest request) {
+        return classifyTask(request, AIPriority.INTERACTIVE);
+    }
+
+    public AIClassificationResponse classifyTask(AIClassificationRequest request, AIPriority priority) {
         try{
             String prompt = buildPrompt(request.getTitle(), request.getDescription());
+            AIClassificationResponse response = callOllama(1, priority, baseUrl -> aiConfigProperties.isStreaming()
+                    ? generateStreaming(baseUrl, prompt, 1, AIClassificationResponse.class, '{')
+                    : generate(baseUrl, prompt, 1).map(this::parseResponse));
+            recordParse(true);
+            return response;
+        } catch (AIUnavailableException e) {
+            throw e;
+        } catch (ResponseParseException e) {
+            recordParse(false);
+            throw new RuntimeException("Error clasifying task", e);
+        } catch (Exception e) {
+            throw new RuntimeException("Error clasifying task", e);
+        }
+    }
 
-            OllamaRequest ollamaRequest = OllamaRequest.builder().model(aiConfigProperties.getModel())
-                    .prompt(prompt)
-                    .maxTokens(aiConfigProperties.getMaxTokens())
-                    .temperature(aiConfigProperties.getTemperature())
-                    .build();
-
-            OllamaResponse ollamaResponse = webClient.post()
-                    .uri(aiConfigProperties.getBaseUrl() + "/api/generate")
-                    .bodyValue(ollamaRequest)
-                    .retrieve()
-                    .bodyToMono(OllamaResponse.class)
-                    .block();
+    /**
+     * Non-blocking {@link #classifyTask(AIClassificationRequest, AIPriority)}, failing
+     * with the same exceptions.
+     */
+    public Mono<AIClassificationResponse> classifyTaskAsync(AIClassificationRequest request, AIPriority priority) {
+        return Mono.defer(() -> {
+            String prompt = buildPrompt(request.getTitle(), request.getDescription());
+            return callOllamaAsync(1, priority, baseUrl -> aiConfigProperties.isStreaming()
+                    ? generateStreaming(baseUrl, prompt, 1, AIClassificationResponse.class, '{')
+                    : generate(baseUrl, prompt, 1).map(this::parseResponse));
+        })
+                .doOnNext(response -> recordParse(true))
+                .onErrorMap(e -> !(e instanceof AIUnavailableException), e -> {
+                    if (e instanceof ResponseParseException) {
+                        recordParse(false);
+                    }
+                    return new RuntimeException("Error clasifying task", e);
+                });
+    }
+
+    /**
+     * Classifies several tasks with a single generation. Throws if the model does not
+     * answer with one well-formed object per task, so callers can fall back to single calls.
+     */
+    public List<AIClassificationResponse> classifyBatch(List<AIClassificationRequest> requests) {
+        return classifyBatch(requests, AIPriority.INTERACTIVE);
+    }
 
-            return parseResponse(ollamaResponse.getResponse());
+    public List<AIClassificationResponse> classifyBatch(List<AIClassificationRequest> requests, AIPriority priority) {
+        try {
+            String prompt = buildBatchPrompt(requests);
+            List<AIClassificationResponse> responses = callOllama(requests.size(), priority, baseUrl -> aiConfigProperties.isStreaming()
+                    ? generateStreaming(baseUrl, prompt, requests.size(), JsonNode.class, '[')
+                            .map(items -> toBatchResults(items, requests.size()))
+                    : generate(baseUrl, prompt, requests.size())
+                            .map(response -> parseBatchResponse(response, requests.size())));
+            recordParse(true);
+            return responses;
+        } catch (AIUnavailableException e) {
+            throw e;
+        } catch (ResponseParseException e) {
+            recordParse(false);
+            throw new RuntimeException("Error classifying batch of " + requests.size() + " tasks", e);
         } catch (Exception e) {
-            throw new RuntimeException("Error clasifying task", e);
+            throw new RuntimeException("Error classifying batch of " + requests.size() + " tasks", e);
+        }
+    }
+
+    /**
+     * Embeds text with the embedding model. It skips the limiter, since an embedding takes
+     * milliseconds and would drag down the latency baseline the limiter keeps for
+     * generations. It is refused while the circuit is open, but its own outcome never
+     * moves the circuit or ejects an endpoint: the embedding model is a different one,
+     * and a missing or broken one must not take classification down with it.
+     */
+    public float[] embed(String text) {
+        return embedAsync(text).block();
+    }
+
+    /** Non-blocking {@link #embed}: completes on the HTTP client's event loop. */
+    public Mono<float[]> embedAsync(String text) {
+        return Mono.defer(() -> {
+            if (aiConfigProperties.getCircuitBreaker().isEnabled()
+                    && circuitBreaker.snapshot().state() == OllamaCircuitBreaker.State.OPEN) {
+                return Mono.error(new AIUnavailableException("Ollama circuit breaker is open"));
+            }
+
+            AIConfigProperties.Embedding embedding = aiConfigProperties.getEmbedding();
+            return endpointPool.routeUntracked(baseUrl -> webClient.post()
+                            .uri(baseUrl + "/api/embeddings")
+                            .bodyValue(OllamaEmbeddingRequest.builder()
+                                    .model(embedding.getModel())
+                                    .prompt(text)
+                                    .keepAlive(aiConfigProperties.getGeneration().getKeepAlive().toSeconds() + "s")
+                                    .build())
+                            .retrieve()
+                            .bodyToMono(OllamaEmbeddingResponse.class)
+                            .timeout(deadline(1)))
+                    .flatMap(response -> response.getEmbedding() == null || response.getEmbedding().length == 0
+                            ? Mono.<float[]>empty()
+                            : Mono.just(response.getEmbedding()))
+                    .switchIfEmpty(Mono.error(() -> new IllegalStateException(
+                            "Ollama returned no embedding for model " + embedding.getModel())));
+        });
+    }
+
+    /**
+     * Runs one Ollama call through the circuit breaker, the concurrency limiter and the
+     * endpoint pool, which picks the host and may hedge the call on a second one; a
+     * hedged call holds a single limiter permit. Transport errors, timeouts and slow
+     * calls count against Ollama; an answer that cannot be parsed does not.
+     */
+    private <T> T callOllama(int taskCount, AIPriority priority, Function<String, Mono<T>> call) {
+        return callOllamaAsync(taskCount, priority, call).block();
+    }
+
+    /**
+     * Non-blocking {@link #callOllama}: no thread is held while waiting for a limiter
+     * slot or for the model. Cancelling the Mono gives the slot back without counting
+     * the call either way.
+     */
+    private <T> Mono<T> callOllamaAsync(int taskCount, AIPriority priority, Function<String, Mono<T>> call) {
+        return Mono.defer(() -> {
+            if (!circuitBreaker.tryAcquire()) {
+                return Mono.error(new AIUnavailableException("Ollama circuit breaker is open"));
+            }
+            return Mono.fromFuture(concurrencyLimiter.acquireWithTimeout(priority))
+                    .doOnError(error -> circuitBreaker.release())
+                    .doOnCancel(circuitBreaker::release)
+                    .flatMap(permit -> {
+                        long start = System.nanoTime();
+                        return endpointPool.route(taskCount, call, error -> !(error instanceof ResponseParseException))
+                                .doOnNext(result -> onAnswered(permit, start, taskCount))
+                                .doOnError(error -> {
+                                    if (error instanceof ResponseParseException) {
+                                        onAnswered(permit, start, taskCount);
+                                    } else {
+                                        permit.dropped();
+                                        circuitBreaker.onFailure();
+                                    }
+                                })
+                                .doOnCancel(() -> {
+                                    permit.ignore();
+                                    circuitBreaker.release();
+                                    // The model had started on it; the work so far is thrown away
+                                    Timer.builder("ai.generations.wasted")
+                                            .description("Generations cancelled after they reached Ollama, and the time spent on them")
+                                            .tag("model", aiConfigProperties.getModel())
+                                            .register(meterRegistry)
+                                            .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                                });
+                    });
+        });
+    }
+
+    private void onAnswered(AdaptiveConcurrencyLimiter.Permit permit, long start, int taskCount) {
+        Duration perTask = Duration.ofNanos(System.nanoTime() - start).dividedBy(taskCount);
+        permit.success(perTask);
+        circuitBreaker.onSuccess(perTask);
+    }
+
+    public List<OllamaEndpointPool.EndpointStatus> getEndpoints() {
+        return endpointPool.snapshot();
+    }
+
+    /**
+     * Checks whether Ollama is back once the circuit has been open for open-duration,
+     * so it can close again without waiting for user traffic.
+     */
+    @Scheduled(fixedDelayString = "${ai.ollama.circuit-breaker.probe-interval:5s}")
+    public void probeWhenOpen() {
+        if (!circuitBreaker.isProbeDue() || !circuitBreaker.tryAcquire()) {
+            return;
+        }
+
+        try {
+            endpointPool.routeSingle(baseUrl -> webClient.get()
+                            .uri(baseUrl + "/api/tags")
+                            .retrieve()
+                            .toBodilessEntity()
+                            .timeout(Duration.ofMillis(aiConfigProperties.getTimeout())))
+                    .block();
+            circuitBreaker.onSuccess(Duration.ZERO);
+        } catch (RuntimeException e) {
+            log.debug("Ollama probe failed: {}", e.getMessage());
+            circuitBreaker.onFailure();
         }
     }
 
+    // The whole call may take timeout ms per task in the prompt
+    private Duration deadline(int taskCount) {
+        return Duration.ofMillis((long) aiConfigProperties.getTimeout() * taskCount);
+    }
+
+    private OllamaRequest buildRequest(String prompt, int taskCount, boolean stream) {
+        AIConfigProperties.Generation generation = aiConfigProperties.getGeneration();
+        OllamaOptions options = OllamaOptions.builder()
+                .numPredict(tokenBudget(taskCount))
+                .numCtx(generation.getContextSize())
+                .temperature(aiConfigProperties.getTemperature())
+                .stop(generation.getStop())
+                .build();
+
+        return OllamaRequest.builder().model(aiConfigProperties.getModel())
+                .prompt(prompt)
+                .options(options)
+                .keepAlive(generation.getKeepAlive().toSeconds() + "s")
+                .format(aiConfigProperties.isStructuredOutput()
+                        ? (taskCount == 1 ? CLASSIFICATION_SCHEMA : BATCH_SCHEMA)
+                        : null)
+                .stream(stream)
+                .build();
+    }
+
+    /**
+     * num_predict for a prompt classifying {@code taskCount} tasks: the per-task budget
+     * sized to the response schema, capped by max-tokens, times the number of tasks.
+     */
+    int tokenBudget(int taskCount) {
+        int perTask = Math.min(aiConfigProperties.getGeneration().getTokensPerClassification(),
+                aiConfigProperties.getMaxTokens());
+        return perTask * taskCount;
+    }
+
+    private Mono<String> generate(String baseUrl, String prompt, int taskCount) {
+        long start = System.nanoTime();
+        return webClient.post()
+                .uri(baseUrl + "/api/generate")
+                .bodyValue(buildRequest(prompt, taskCount, false))
+                .retrieve()
+                .bodyToMono(OllamaResponse.class)
+                .timeout(deadline(taskCount))
+                .doOnNext(ollamaResponse -> recordGeneration(ollamaResponse, System.nanoTime() - start))
+                .map(OllamaResponse::getResponse);
+    }
+
+    /**
+     * Reads the NDJSON chunks of a streamed generation and stops as soon as the first
+     * complete JSON value has been parsed. Taking only the first element cancels the
+     * subscription, which closes the connection and makes Ollama stop generating.
+     */
+    private <T> Mono<T> generateStreaming(String baseUrl, String prompt, int taskCount, Class<T> type, char open) {
+        IncrementalJsonParser<T> parser = new IncrementalJsonParser<>(objectMapper, type, open);
+        // Ollama streams one chunk per generated token
+        AtomicInteger chunks = new AtomicInteger();
+        long start = System.nanoTime();
+
+        return webClient.post()
+                .uri(baseUrl + "/api/generate")
+                .bodyValue(buildRequest(prompt, taskCount, true))
+                .retrieve()
+                .bodyToFlux(OllamaResponse.class)
+                .doOnNext(chunk -> {
+                    chunks.incrementAndGet();
+                    if (chunk.isDone()) {
+                        recordGeneration(chunk, System.nanoTime() - start);
+                    }
+                })
+                .doOnCancel(() -> recordTokens(null, chunks.get(), "cutoff"))
+                .<T>handle((chunk, sink) -> {
+                    try {
+                        parser.feed(chunk.getResponse()).ifPresent(sink::next);
+                    } catch (IOException e) {
+                        sink.error(new ResponseParseException("Malformed JSON in response", e));
+                    }
+                })
+                .next()
+                .switchIfEmpty(Mono.error(() -> new ResponseParseException("No JSON found in response", null)))
+                .timeout(deadline(taskCount));
+    }
+
+    private void recordGeneration(OllamaResponse done, long wallNanos) {
+        recordTokens(done.getPromptEvalCount(), done.getEvalCount(), done.getDoneReason());
+        generationMetrics.record(aiConfigProperties.getModel(), done, wallNanos);
+    }
+
+    private void recordTokens(Integer promptTokens, Integer completionTokens, String doneReason) {
+        String reason = doneReason != null ? doneReason : "unknown";
+        if (promptTokens != null) {
+            tokenSummary("prompt", reason).record(promptTokens);
+        }
+        if (completionTokens != null) {
+            tokenSummary("completion", reason).record(completionTokens);
+        }
+        log.debug("Ollama generation finished ({}): {} prompt tokens, {} completion tokens",
+                reason, promptTokens, completionTokens);
+    }
+
+    private DistributionSummary tokenSummary(String type, String doneReason) {
+        return DistributionSummary.builder("ai.ollama.tokens")
+                .description("Tokens per Ollama generation; done_reason=length means num_predict was hit")
+                .baseUnit("tokens")
+                .tag("type", type)
+                .tag("model", aiConfigProperties.getModel())
+                .tag("done_reason", doneReason)
+                .register(meterRegistry);
+    }
+
+    private void recordParse(boolean success) {
+        meterRegistry.counter("ai.ollama.parse",
+                "model", aiConfigProperties.getModel(),
+                "mode", aiConfigProperties.isStructuredOutput() ? "structured" : "freeform",
+                "outcome", success ? "success" : "failure").increment();
+    }
+
     private AIClassificationResponse parseResponse(String response) {
         try{
-            String jsonString = extractJsonFromText(response)
-                    .orElseThrow(() -> new RuntimeException("No JSON found in response"));
+            // With a schema in "format" the response is bare JSON, no need to look for it
+            String jsonString = aiConfigProperties.isStructuredOutput()
+                    ? response
+                    : extractJsonFromText(response)
+                            .orElseThrow(() -> new RuntimeException("No JSON found in response"));
 
             return objectMapper.readValue(jsonString, AIClassificationResponse.class);
         } catch (Exception e) {
-            throw new RuntimeException("Error parsing response", e);
+            throw new ResponseParseException("Error parsing response", e);
+        }
+    }
+
+    private List<AIClassificationResponse> parseBatchResponse(String response, int expectedSize) {
+        try {
+            String jsonString = aiConfigProperties.isStructuredOutput()
+                    ? response
+                    : extractJsonArrayFromText(response)
+                            .orElseThrow(() -> new RuntimeException("No JSON array found in response"));
+
+            return toBatchResults(objectMapper.readTree(jsonString), expectedSize);
+        } catch (Exception e) {
+            throw new ResponseParseException("Error parsing batch response", e);
+        }
+    }
+
+    private List<AIClassificationResponse> toBatchResults(JsonNode items, int expectedSize) {
+        if (!items.isArray() || items.size() != expectedSize) {
+            throw new ResponseParseException("Expected " + expectedSize + " classifications but got "
+                    + (items.isArray() ? items.size() : "no array"), null);
+        }
+
+        AIClassificationResponse[] results = new AIClassificationResponse[expectedSize];
+        for (int position = 0; position < items.size(); position++) {
+            JsonNode item = items.get(position);
+            int index = item.path("index").asInt(position);
+            if (index < 0 || index >= expectedSize || results[index] != null) {
+                throw new ResponseParseException("Invalid or repeated index " + index + " in batch response", null);
+            }
+            try {
+                results[index] = objectMapper.treeToValue(item, AIClassificationResponse.class);
+            } catch (JsonProcessingException e) {
+                throw new ResponseParseException("Invalid classification at index " + index, e);
+            }
         }
+        return new ArrayList<>(Arrays.asList(results));
     }
 
     private Optional<String> extractJsonFromText(String text) {
         if (text == null) return Optional.empty();
-        
+
         int startIndex = text.indexOf('{');
         int endIndex = text.lastIndexOf('}');
 
@@ -88,4 +496,27 @@ public class OllamaService {
 
         return Optional.empty();
     }
+
+    private Optional<String> extractJsonArrayFromText(String text) {
+        if (text == null) return Optional.empty();
+
+        int startIndex = text.indexOf('[');
+        int endIndex = text.lastIndexOf(']');
+
+        if (startIndex >= 0 && endIndex >= startIndex) {
+            return Optional.of(text.substring(startIndex, endIndex + 1));
+        }
+
+        return Optional.empty();
+    }
+
+    /**
+     * The model answered but the answer could not be read as classifications, as opposed
+     * to the call itself failing. Counted separately in ai.ollama.parse.
+     */
+    static class ResponseParseException extends RuntimeException {
+        ResponseParseException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
 }
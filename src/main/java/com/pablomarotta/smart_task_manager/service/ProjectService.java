@@ -1,5 +1,6 @@
 package com.pablomarotta.smart_task_manager.service;
 
+import com.pablomarotta.smart_task_manager.dto.PageResponse;
 import com.pablomarotta.smart_task_manager.dto.ProjectRequest;
 import com.pablomarotta.smart_task_manager.dto.ProjectResponse;
 import com.pablomarotta.smart_task_manager.exception.ProjectNotFoundException;
@@ -14,13 +15,12 @@ import org.springframework.web.server.ResponseStatusException;
 import com.pablomarotta.smart_task_manager.repository.ProjectRepository;
 import com.pablomarotta.smart_task_manager.repository.UserRepository;
 
-import java.util.List;
-
 @Service
 @RequiredArgsConstructor
 public class ProjectService {
     private final ProjectRepository projectRepository;
     private final UserRepository userRepository;
+    private final KeysetPagination keysetPagination;
 
     @Transactional
     public ProjectResponse createProject(ProjectRequest projectRequest){
@@ -46,14 +46,14 @@ public class ProjectService {
                 .orElseThrow(() -> new UserNotFoundException("User not found with username: " + username));
     }
 
-    public List<ProjectResponse> getAllProjects() {
-        return projectRepository.findAll().stream()
-                .map(this::mapToResponse)
-                .collect(java.util.stream.Collectors.toList());
+    @Transactional(readOnly = true)
+    public PageResponse<ProjectResponse> getAllProjects(String cursor, Integer size) {
+        return keysetPagination.page(cursor, size, projectRepository::findPage,
+                project -> new KeysetPagination.Key(project.getCreatedAt(), project.getId()), this::mapToResponse);
     }
 
     public ProjectResponse getProjectById(Long id) {
-        Project project = projectRepository.findById(id)
+        Project project = projectRepository.findWithOwnerById(id)
                 .orElseThrow(() -> new ProjectNotFoundException("Project not found with id: " + id));
         return mapToResponse(project);
     }
@@ -0,0 +1,72 @@
+package com.pablomarotta.smart_task_manager.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+/**
+ * Runs the independent lookups of task creation at the same time and fails as soon as
+ * one of them does, cancelling everything else started under the scope, including a
+ * classification already sent to Ollama. A small stand-in for
+ * StructuredTaskScope.ShutdownOnFailure, which is still a preview API on Java 21.
+ */
+final class TaskCreationScope {
+
+    private final Executor executor;
+    private final List<CompletableFuture<?>> forks = new ArrayList<>();
+    private final List<CompletableFuture<?>> started = new ArrayList<>();
+
+    TaskCreationScope(Executor executor) {
+        this.executor = executor;
+    }
+
+    /** Starts a step that {@link #join()} waits for. */
+    <T> CompletableFuture<T> fork(Supplier<T> step) {
+        CompletableFuture<T> fork = CompletableFuture.supplyAsync(step, executor);
+        forks.add(fork);
+        started.add(fork);
+        return fork;
+    }
+
+    /** Adds work that outlives a successful join but is cancelled if the scope fails. */
+    <T> CompletableFuture<T> attach(CompletableFuture<T> work) {
+        if (work != null) {
+            started.add(work);
+        }
+        return work;
+    }
+
+    /** Waits for every fork; on the first failure cancels the rest and rethrows it. */
+    void join() {
+        CompletableFuture<Void> firstFailure = new CompletableFuture<>();
+        forks.forEach(fork -> fork.whenComplete((result, error) -> {
+            if (error != null) {
+                firstFailure.completeExceptionally(error);
+            }
+        }));
+        try {
+            CompletableFuture.anyOf(CompletableFuture.allOf(forks.toArray(CompletableFuture[]::new)), firstFailure)
+                    .join();
+        } catch (CompletionException | CancellationException e) {
+            cancel();
+            throw unwrap(e);
+        }
+    }
+
+    /** Cancels whatever is still running, for a failure after {@link #join()}. */
+    void cancel() {
+        started.forEach(work -> work.cancel(true));
+    }
+
+    private static RuntimeException unwrap(RuntimeException e) {
+        Throwable cause = e;
+        while (cause instanceof CompletionException && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause instanceof RuntimeException runtime ? runtime : e;
+    }
+}
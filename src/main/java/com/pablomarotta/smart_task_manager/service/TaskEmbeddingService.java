@@ -0,0 +1,359 @@
+package com.pablomarotta.smart_task_manager.service;
+
+import com.pablomarotta.smart_task_manager.config.AIConfigProperties;
+import com.pablomarotta.smart_task_manager.dto.AIClassificationRequest;
+import com.pablomarotta.smart_task_manager.dto.AIClassificationResponse;
+import com.pablomarotta.smart_task_manager.model.AIClassificationSource;
+import com.pablomarotta.smart_task_manager.model.AIEnrichmentStatus;
+import com.pablomarotta.smart_task_manager.model.Task;
+import com.pablomarotta.smart_task_manager.repository.TaskRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Embeds task titles and descriptions with Ollama and keeps them in an in-memory
+ * {@link HnswIndex}, persisted to {@code ai.ollama.embedding.index-file}. The index
+ * answers related-task lookups and lets {@link AIService} reuse the classification of a
+ * near-identical task instead of generating a new one.
+ *
+ * <p>Tasks enter the index once their enrichment finishes and leave it when deleted or
+ * edited. Embedding failures never fail the caller; the task is just not indexed.</p>
+ */
+@Service
+@Slf4j
+public class TaskEmbeddingService {
+
+    private final OllamaService ollamaService;
+    private final TaskRepository taskRepository;
+    private final AIConfigProperties aiConfigProperties;
+    private final Executor searchExecutor;
+    private final Map<String, float[]> recentEmbeddings;
+
+    private final Timer embedTimer;
+    private final Timer searchTimer;
+
+    // Held by adds, removes and the compaction swap, so no change lands on an index that is
+    // being replaced; never held across an embedding call, a rebuild or a save
+    private final Object indexLock = new Object();
+    // Changes made while a compacted copy is built, replayed on it before the swap
+    private List<Consumer<HnswIndex>> changesDuringCompaction;
+
+    private volatile HnswIndex index;
+    private volatile boolean dirty;
+
+    public TaskEmbeddingService(OllamaService ollamaService,
+                                TaskRepository taskRepository,
+                                AIConfigProperties aiConfigProperties,
+                                Executor aiCacheStoreExecutor,
+                                MeterRegistry meterRegistry) {
+        this.ollamaService = ollamaService;
+        this.taskRepository = taskRepository;
+        this.aiConfigProperties = aiConfigProperties;
+        this.searchExecutor = aiCacheStoreExecutor;
+
+        int cacheSize = aiConfigProperties.getEmbedding().getCacheSize();
+        this.recentEmbeddings = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, float[]> eldest) {
+                return size() > cacheSize;
+            }
+        };
+
+        this.embedTimer = meterRegistry.timer("ai.embedding.duration");
+        this.searchTimer = meterRegistry.timer("ai.embedding.search.duration");
+        Gauge.builder("ai.embedding.index.size", this, service -> service.index != null ? service.index.size() : 0)
+                .description("Tasks in the embedding index")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return aiConfigProperties.isEnabled() && aiConfigProperties.getEmbedding().isEnabled();
+    }
+
+    @PostConstruct
+    void loadIndex() {
+        if (!isEnabled()) {
+            return;
+        }
+        Path file = indexFile();
+        if (!Files.exists(file)) {
+            return;
+        }
+        try {
+            index = HnswIndex.load(file);
+            log.info("Loaded embedding index with {} tasks from {}", index.size(), file);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not load embedding index from {}, starting empty: {}", file, e.getMessage());
+        }
+    }
+
+    /**
+     * Writes the index to disk if it changed, dropping removed nodes first once they
+     * are a quarter of the graph. The compacted copy is built while the index keeps
+     * taking changes, which are replayed on the copy before it replaces the index.
+     */
+    @Scheduled(fixedDelayString = "${ai.ollama.embedding.flush-interval:1m}")
+    public synchronized void flush() {
+        HnswIndex current;
+        boolean compact;
+        synchronized (indexLock) {
+            current = index;
+            if (!dirty || current == null) {
+                return;
+            }
+            dirty = false;
+            compact = current.deletedCount() > current.size() / 4;
+            if (compact) {
+                changesDuringCompaction = new ArrayList<>();
+            }
+        }
+        if (compact) {
+            current = compact(current);
+        }
+        try {
+            current.save(indexFile());
+        } catch (IOException e) {
+            dirty = true;
+            log.warn("Could not save embedding index to {}: {}", indexFile(), e.getMessage());
+        }
+    }
+
+    private HnswIndex compact(HnswIndex current) {
+        HnswIndex compacted;
+        try {
+            compacted = current.compact();
+        } catch (RuntimeException e) {
+            synchronized (indexLock) {
+                changesDuringCompaction = null;
+            }
+            throw e;
+        }
+        synchronized (indexLock) {
+            // A new embedding dimension may have replaced the index meanwhile
+            if (index == current) {
+                changesDuringCompaction.forEach(change -> change.accept(compacted));
+                index = compacted;
+            }
+            changesDuringCompaction = null;
+            return index;
+        }
+    }
+
+    @PreDestroy
+    void close() {
+        flush();
+    }
+
+    /** Adds or replaces the task's vector. */
+    public void index(Long taskId, AIClassificationRequest request) {
+        if (!isEnabled()) {
+            return;
+        }
+        embed(request).ifPresent(vector -> {
+            synchronized (indexLock) {
+                indexFor(vector.length).add(taskId, vector);
+                recordChange(compacted -> compacted.add(taskId, vector));
+                dirty = true;
+            }
+        });
+    }
+
+    public void remove(Long taskId) {
+        synchronized (indexLock) {
+            HnswIndex current = index;
+            if (current != null && current.remove(taskId)) {
+                recordChange(compacted -> compacted.remove(taskId));
+                dirty = true;
+            }
+        }
+    }
+
+    // Called with indexLock held
+    private void recordChange(Consumer<HnswIndex> change) {
+        if (changesDuringCompaction != null) {
+            changesDuringCompaction.add(change);
+        }
+    }
+
+    /**
+     * Tasks most similar to the given one, best first, without the task itself. Tasks not
+     * indexed yet are embedded and added on the way.
+     */
+    public List<RelatedTask> findRelated(Task task, int limit) {
+        if (!isEnabled()) {
+            return List.of();
+        }
+        float[] vector = index != null ? index.vector(task.getId()) : null;
+        if (vector == null) {
+            AIClassificationRequest request = toRequest(task);
+            index(task.getId(), request);
+            vector = embed(request).orElse(null);
+        }
+        HnswIndex current = index;
+        if (vector == null || current == null) {
+            return List.of();
+        }
+
+        float[] query = vector;
+        int ef = Math.max(aiConfigProperties.getEmbedding().getEfSearch(), limit + 1);
+        return searchTimer.record(() -> current.search(query, limit + 1, ef)).stream()
+                .filter(neighbor -> neighbor.id() != task.getId())
+                .limit(limit)
+                .map(neighbor -> new RelatedTask(neighbor.id(), neighbor.similarity()))
+                .toList();
+    }
+
+    /**
+     * The classification of an already classified task whose text is at least
+     * reuse-similarity close to the request, if there is one.
+     */
+    public Optional<AIClassificationResponse> findReusableClassification(AIClassificationRequest request) {
+        HnswIndex current = index;
+        if (!isEnabled() || current == null || aiConfigProperties.getEmbedding().getReuseSimilarity() > 1) {
+            return Optional.empty();
+        }
+
+        return embed(request).flatMap(vector -> reusableNeighbor(current, vector));
+    }
+
+    /**
+     * Non-blocking {@link #findReusableClassification}: the embedding call holds no
+     * thread, and the graph search and the task read run on {@code aiCacheStoreExecutor}.
+     * Never completes exceptionally; any failure is a miss.
+     */
+    public CompletableFuture<Optional<AIClassificationResponse>> findReusableClassificationAsync(
+            AIClassificationRequest request) {
+        HnswIndex current = index;
+        if (!isEnabled() || current == null || aiConfigProperties.getEmbedding().getReuseSimilarity() > 1) {
+            return CompletableFuture.completedFuture(Optional.empty());
+        }
+
+        return embedAsync(request)
+                .thenApplyAsync(vector -> vector.flatMap(found -> reusableNeighbor(current, found)), searchExecutor)
+                .exceptionally(ex -> {
+                    log.debug("Could not look up a neighbor for '{}': {}", request.getTitle(), ex.getMessage());
+                    return Optional.empty();
+                });
+    }
+
+    public record RelatedTask(long taskId, double similarity) {
+    }
+
+    private Optional<AIClassificationResponse> reusableNeighbor(HnswIndex current, float[] vector) {
+        List<HnswIndex.Neighbor> nearest = searchTimer.record(() ->
+                current.search(vector, 1, aiConfigProperties.getEmbedding().getEfSearch()));
+        if (nearest.isEmpty() || nearest.get(0).similarity() < aiConfigProperties.getEmbedding().getReuseSimilarity()) {
+            return Optional.empty();
+        }
+
+        return taskRepository.findById(nearest.get(0).id())
+                .filter(task -> task.getAiStatus() == AIEnrichmentStatus.COMPLETED && task.getAiCategory() != null)
+                .map(task -> {
+                    AIClassificationResponse response = new AIClassificationResponse();
+                    response.setPriority(task.getAiPriority());
+                    response.setCategory(task.getAiCategory());
+                    response.setEstimatedDays(task.getAiSuggestedDueDays() != null ? task.getAiSuggestedDueDays() : 0);
+                    response.setSummary(task.getAiSummary());
+                    response.setSource(AIClassificationSource.NEIGHBOR);
+                    return response;
+                });
+    }
+
+    private Optional<float[]> embed(AIClassificationRequest request) {
+        String text = textOf(request);
+        float[] cached = recentEmbedding(text);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+
+        try {
+            float[] vector = embedTimer.record(() -> ollamaService.embed(text));
+            rememberEmbedding(text, vector);
+            return Optional.of(vector);
+        } catch (RuntimeException e) {
+            log.debug("Could not embed '{}': {}", request.getTitle(), e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private CompletableFuture<Optional<float[]>> embedAsync(AIClassificationRequest request) {
+        String text = textOf(request);
+        float[] cached = recentEmbedding(text);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(Optional.of(cached));
+        }
+
+        long start = System.nanoTime();
+        return ollamaService.embedAsync(text).toFuture().handle((vector, error) -> {
+            embedTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            if (error != null) {
+                log.debug("Could not embed '{}': {}", request.getTitle(), error.getMessage());
+                return Optional.empty();
+            }
+            rememberEmbedding(text, vector);
+            return Optional.of(vector);
+        });
+    }
+
+    private float[] recentEmbedding(String text) {
+        synchronized (recentEmbeddings) {
+            return recentEmbeddings.get(text);
+        }
+    }
+
+    private void rememberEmbedding(String text, float[] vector) {
+        synchronized (recentEmbeddings) {
+            recentEmbeddings.put(text, vector);
+        }
+    }
+
+    // The first vector fixes the dimension; a model with another dimension starts a new index.
+    // Called with indexLock held
+    private HnswIndex indexFor(int dimension) {
+        if (index == null || index.dimension() != dimension) {
+            if (index != null) {
+                log.warn("Embedding dimension changed from {} to {}, rebuilding the index", index.dimension(), dimension);
+            }
+            AIConfigProperties.Embedding embedding = aiConfigProperties.getEmbedding();
+            index = new HnswIndex(dimension, embedding.getM(), embedding.getEfConstruction());
+        }
+        return index;
+    }
+
+    private Path indexFile() {
+        return Path.of(aiConfigProperties.getEmbedding().getIndexFile());
+    }
+
+    private String textOf(AIClassificationRequest request) {
+        String description = request.getDescription();
+        return description != null && !description.isBlank()
+                ? request.getTitle() + "\n" + description
+                : request.getTitle();
+    }
+
+    private AIClassificationRequest toRequest(Task task) {
+        return AIClassificationRequest.builder()
+                .title(task.getTitle())
+                .description(task.getDescription())
+                .build();
+    }
+}
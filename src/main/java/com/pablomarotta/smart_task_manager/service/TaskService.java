@@ -1,22 +1,28 @@
 package com.pablomarotta.smart_task_manager.service;
 
+import com.pablomarotta.smart_task_manager.config.AIConfigProperties;
 import com.pablomarotta.smart_task_manager.dto.*;
 import com.pablomarotta.smart_task_manager.exception.ProjectNotFoundException;
 import com.pablomarotta.smart_task_manager.exception.TaskNotFoundException;
 import com.pablomarotta.smart_task_manager.exception.UserNotFoundException;
+import com.pablomarotta.smart_task_manager.model.AIEnrichmentStatus;
 import com.pablomarotta.smart_task_manager.model.Priority;
 import com.pablomarotta.smart_task_manager.model.Status;
 import com.pablomarotta.smart_task_manager.model.Task;
+import com.pablomarotta.smart_task_manager.model.User;
 import com.pablomarotta.smart_task_manager.repository.ProjectRepository;
 import com.pablomarotta.smart_task_manager.repository.TaskRepository;
+import com.pablomarotta.smart_task_manager.repository.TaskRow;
 import com.pablomarotta.smart_task_manager.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.dao.DataAccessException;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.TransactionSystemException;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.server.ResponseStatusException;
 import com.pablomarotta.smart_task_manager.exception.TaskNotFoundException;
 import com.pablomarotta.smart_task_manager.exception.UserNotFoundException;
@@ -25,6 +31,11 @@ import com.pablomarotta.smart_task_manager.exception.ProjectNotFoundException;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -33,9 +44,18 @@ public class TaskService {
     private final TaskRepository taskRepository;
     private final UserRepository userRepository;
     private final ProjectRepository projectRepository;
-    private final AIService aiService;
-
-    @Transactional
+    private final AIEnrichmentService aiEnrichmentService;
+    private final TaskEmbeddingService taskEmbeddingService;
+    private final AIConfigProperties aiConfigProperties;
+    private final TransactionTemplate transactionTemplate;
+    private final SimpleAsyncTaskExecutor taskLookupExecutor;
+    private final KeysetPagination keysetPagination;
+
+    /**
+     * Looks up the project and the assignee in parallel, together with the speculative AI
+     * classification, then inserts the task. If a lookup fails the classification is
+     * cancelled right away instead of finishing a generation nobody will read.
+     */
     public TaskResponse createTask(TaskRequest taskRequest) {
         if (taskRequest == null) {
             throw new IllegalArgumentException("Task request cannot be null");
@@ -45,40 +65,44 @@ public class TaskService {
             throw new IllegalArgumentException("Project ID is required");
         }
         
+        TaskCreationScope scope = new TaskCreationScope(taskLookupExecutor);
+        boolean created = false;
         try {
-            var project = projectRepository.findById(taskRequest.getProjectId())
-                    .orElseThrow(() -> new ProjectNotFoundException("Project not found with id: " + taskRequest.getProjectId()));
-
-            AIClassificationRequest aiRequest = AIClassificationRequest.builder()
-                    .title(taskRequest.getTitle())
-                    .description(taskRequest.getDescription())
-                    .build();
-
-            AIClassificationResponse aiResponse = aiService.classifyTask(aiRequest);
-
-            var taskBuilder = Task.builder()
+            String title = validateTitle(taskRequest.getTitle());
+            LocalDate dueDate = validateDueDate(taskRequest.getDueDate());
+            Integer position = validatePosition(taskRequest.getPosition());
+
+            var project = scope.fork(() -> projectRepository.findById(taskRequest.getProjectId())
+                    .orElseThrow(() -> new ProjectNotFoundException("Project not found with id: " + taskRequest.getProjectId())));
+            var assignee = taskRequest.getAssigneeId() == null
+                    ? CompletableFuture.<User>completedFuture(null)
+                    : scope.fork(() -> userRepository.findById(taskRequest.getAssigneeId())
+                            .orElseThrow(() -> new UserNotFoundException("User not found with id: " + taskRequest.getAssigneeId())));
+            // Started once the lookups are in flight: its local tier still runs on this thread
+            var classification = scope.attach(aiEnrichmentService.classifyAhead(title, taskRequest.getDescription()));
+            scope.join();
+
+            Task task = Task.builder()
                     .id(null)
-                    .title(validateTitle(taskRequest.getTitle()))
+                    .title(title)
                     .description(taskRequest.getDescription())
                     .status(taskRequest.getStatus() != null ? taskRequest.getStatus() : Status.TODO)
-                    .project(project)
+                    .project(project.join())
+                    .assignee(assignee.join())
                     .priority(taskRequest.getPriority())
                     .category(taskRequest.getCategory())
-                    .dueDate(validateDueDate(taskRequest.getDueDate()))
-                    .position(validatePosition(taskRequest.getPosition()))
-                    .aiPriority(aiResponse.getPriority())
-                    .aiCategory(aiResponse.getCategory())
-                    .aiSuggestedDueDays(aiResponse.getEstimatedDays())
-                    .aiSummary(aiResponse.getSummary());
-
-            if (taskRequest.getAssigneeId() != null) {
-                var assignee = userRepository.findById(taskRequest.getAssigneeId())
-                        .orElseThrow(() -> new UserNotFoundException("User not found with id: " + taskRequest.getAssigneeId()));
-                taskBuilder.assignee(assignee);
-            }
+                    .dueDate(dueDate)
+                    .position(position)
+                    .aiStatus(AIEnrichmentStatus.PENDING)
+                    .build();
 
-            Task task = taskBuilder.build();
-            Task savedTask = taskRepository.save(task);
+            Task savedTask = transactionTemplate.execute(status -> {
+                Task saved = taskRepository.save(task);
+                // AI classification runs after commit on the enrichment pool
+                aiEnrichmentService.scheduleEnrichment(saved, classification);
+                return saved;
+            });
+            created = true;
             return mapToResponse(savedTask);
             
         } catch (ProjectNotFoundException | UserNotFoundException e) {
@@ -89,38 +113,68 @@ public class TaskService {
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Transaction failed: " + e.getMostSpecificCause().getMessage(), e);
         } catch (Exception e) {
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to create task: " + e.getMessage(), e);
+        } finally {
+            if (!created) {
+                scope.cancel();
+            }
         }
     }
 
     private TaskResponse mapToResponse(Task task){
+        return mapToResponse(TaskRow.of(task));
+    }
+
+    private TaskResponse mapToResponse(TaskRow task){
         TaskResponse taskResponse = new TaskResponse();
-        taskResponse.setId(task.getId());
-        taskResponse.setTitle(task.getTitle());
-        taskResponse.setDescription(task.getDescription());
-        taskResponse.setStatus(task.getStatus());
-        taskResponse.setPriority(task.getPriority());
-        taskResponse.setCategory(task.getCategory());
-        taskResponse.setDueDate(task.getDueDate());
-        taskResponse.setPosition(task.getPosition());
-        taskResponse.setProjectId(task.getProject().getId());
-
-        if (task.getAssignee() != null) {
-            taskResponse.setAssigneeId(task.getAssignee().getId());
-        }
+        taskResponse.setId(task.id());
+        taskResponse.setTitle(task.title());
+        taskResponse.setDescription(task.description());
+        taskResponse.setStatus(task.status());
+        taskResponse.setPriority(task.priority());
+        taskResponse.setCategory(task.category());
+        taskResponse.setDueDate(task.dueDate());
+        taskResponse.setPosition(task.position());
+
+        taskResponse.setProjectId(task.projectId());
+        taskResponse.setProjectName(task.projectName());
+        taskResponse.setAssigneeId(task.assigneeId());
+        taskResponse.setAssigneeUsername(task.assigneeUsername());
+        taskResponse.setCreatedById(task.createdById());
+        taskResponse.setCreatedByUsername(task.createdByUsername());
+
+        taskResponse.setCreatedAt(task.createdAt() != null ? task.createdAt().toString() : null);
+        taskResponse.setUpdatedAt(task.updatedAt() != null ? task.updatedAt().toString() : null);
+        taskResponse.setCompletedAt(task.completedAt() != null ? task.completedAt().toString() : null);
+
+        taskResponse.setAiPriority(parsePriority(task.aiPriority()));
+        taskResponse.setAiCategory(task.aiCategory());
+        taskResponse.setAiSuggestedDueDays(task.aiSuggestedDueDays());
+        taskResponse.setAiSuggestedDueDate(task.aiSuggestedDueDate());
+        taskResponse.setAiSummary(task.aiSummary());
+        taskResponse.setAiStatus(task.aiStatus());
 
         return taskResponse;
     }
 
-    public List<TaskResponse> getAllTasks() {
-        return taskRepository.findAll().stream()
-                .map(this::mapToResponse)
-                .toList();
+    // The model answers free text, so an unknown priority is dropped instead of failing the read
+    private Priority parsePriority(String priority) {
+        if (priority == null) {
+            return null;
+        }
+        try {
+            return Priority.valueOf(priority.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
     }
 
-    public List<UserResponse> getAllUsersInProject(Long projectId) {
-        return userRepository.findAll().stream()
-                .map(this::mapUserToResponse)
-                .toList();
+    public PageResponse<TaskResponse> getAllTasks(String cursor, Integer size) {
+        return taskPage(cursor, size, taskRepository::findPage);
+    }
+
+    public PageResponse<UserResponse> getAllUsersInProject(Long projectId, String cursor, Integer size) {
+        return keysetPagination.page(cursor, size, userRepository::findPage,
+                user -> new KeysetPagination.Key(user.getCreatedAt(), user.getId()), this::mapUserToResponse);
     }
 
     private UserResponse mapUserToResponse(com.pablomarotta.smart_task_manager.model.User user) {
@@ -131,54 +185,105 @@ public class TaskService {
         return userResponse;
     }
 
-    public List<TaskResponse> getTasksByProjectId(Long projectId) {
-        return taskRepository.findByProjectId(projectId).stream()
-                .map(this::mapToResponse)
-                .toList();
+    public PageResponse<TaskResponse> getTasksByProjectId(Long projectId, String cursor, Integer size) {
+        return taskPage(cursor, size,
+                (createdAt, id, limit) -> taskRepository.findPageByProjectId(projectId, createdAt, id, limit));
     }
 
-    public List<TaskResponse> getTasksByUserId(Long userId) {
-        return taskRepository.findByAssigneeId(userId).stream()
-                .map(this::mapToResponse)
-                .toList();
+    public PageResponse<TaskResponse> getTasksByUserId(Long userId, String cursor, Integer size) {
+        return taskPage(cursor, size,
+                (createdAt, id, limit) -> taskRepository.findPageByAssigneeId(userId, createdAt, id, limit));
     }
 
-    public List<TaskResponse> getInProgressTask(){
-        return taskRepository.findByStatus(Status.IN_PROGRESS).stream()
-                .map(this::mapToResponse)
-                .toList();
+    public PageResponse<TaskResponse> getInProgressTask(String cursor, Integer size) {
+        return getTasksByStatus(Status.IN_PROGRESS, cursor, size);
     }
 
-    public List<TaskResponse> getTodoTasks(){
-        return taskRepository.findByStatus(Status.TODO).stream()
-                .map(this::mapToResponse)
-                .toList();
+    public PageResponse<TaskResponse> getTodoTasks(String cursor, Integer size) {
+        return getTasksByStatus(Status.TODO, cursor, size);
     }
 
-    public List<TaskResponse> getDoneTasks(){
-        return taskRepository.findByStatus(Status.DONE).stream()
-                .map(this::mapToResponse)
-                .toList();
+    public PageResponse<TaskResponse> getDoneTasks(String cursor, Integer size) {
+        return getTasksByStatus(Status.DONE, cursor, size);
     }
 
-    public List<TaskResponse> getBlockedTasks(){
-        return taskRepository.findByStatus(Status.BLOCKED).stream()
-                .map(this::mapToResponse)
-                .toList();
+    public PageResponse<TaskResponse> getBlockedTasks(String cursor, Integer size) {
+        return getTasksByStatus(Status.BLOCKED, cursor, size);
     }
 
-    public List<TaskResponse> getCancelledTasks(){
-        return taskRepository.findByStatus(Status.CANCELLED).stream()
-                .map(this::mapToResponse)
-                .toList();
+    public PageResponse<TaskResponse> getCancelledTasks(String cursor, Integer size) {
+        return getTasksByStatus(Status.CANCELLED, cursor, size);
+    }
+
+    private PageResponse<TaskResponse> getTasksByStatus(Status status, String cursor, Integer size) {
+        return taskPage(cursor, size,
+                (createdAt, id, limit) -> taskRepository.findPageByStatus(status, createdAt, id, limit));
+    }
+
+    private PageResponse<TaskResponse> taskPage(String cursor, Integer size, KeysetPagination.Query<TaskRow> query) {
+        return keysetPagination.page(cursor, size, query,
+                task -> new KeysetPagination.Key(task.createdAt(), task.id()), this::mapToResponse);
     }
 
     public TaskResponse getTaskById(Long id) {
-        Task task = taskRepository.findById(id)
+        TaskRow task = taskRepository.findRowById(id)
                 .orElseThrow(() -> new TaskNotFoundException("Task not found with id: " + id));
         return mapToResponse(task);
     }
 
+    public TaskEnrichmentResponse getTaskEnrichment(Long id) {
+        Task task = taskRepository.findById(id)
+                .orElseThrow(() -> new TaskNotFoundException("Task not found with id: " + id));
+
+        TaskEnrichmentResponse response = new TaskEnrichmentResponse();
+        response.setTaskId(task.getId());
+        response.setStatus(task.getAiStatus());
+        response.setAiPriority(task.getAiPriority());
+        response.setAiCategory(task.getAiCategory());
+        response.setAiSuggestedDueDays(task.getAiSuggestedDueDays());
+        response.setAiSuggestedDueDate(task.getAiSuggestedDueDate());
+        response.setAiSummary(task.getAiSummary());
+        response.setAiSource(task.getAiSource());
+        return response;
+    }
+
+    public List<RelatedTaskResponse> getRelatedTasks(Long id, int limit) {
+        if (!taskEmbeddingService.isEnabled()) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Task embeddings are disabled");
+        }
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
+        Task task = taskRepository.findById(id)
+                .orElseThrow(() -> new TaskNotFoundException("Task not found with id: " + id));
+
+        List<TaskEmbeddingService.RelatedTask> related = taskEmbeddingService.findRelated(task,
+                Math.min(limit, aiConfigProperties.getEmbedding().getMaxRelated()));
+        Map<Long, Task> tasks = taskRepository.findAllById(related.stream().map(TaskEmbeddingService.RelatedTask::taskId).toList())
+                .stream()
+                .collect(Collectors.toMap(Task::getId, Function.identity()));
+
+        // Keep the index order; ids deleted since they were indexed are skipped
+        return related.stream()
+                .map(neighbor -> {
+                    Task relatedTask = tasks.get(neighbor.taskId());
+                    return relatedTask != null ? mapToRelatedResponse(relatedTask, neighbor.similarity()) : null;
+                })
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    private RelatedTaskResponse mapToRelatedResponse(Task task, double similarity) {
+        RelatedTaskResponse response = new RelatedTaskResponse();
+        response.setId(task.getId());
+        response.setTitle(task.getTitle());
+        response.setStatus(task.getStatus());
+        response.setProjectId(task.getProject().getId());
+        response.setAiCategory(task.getAiCategory());
+        response.setSimilarity(similarity);
+        return response;
+    }
+
     @Transactional
     public TaskResponse updateTask(Long id, TaskRequest taskRequest) {
         if (id == null) {
@@ -189,9 +294,12 @@ public class TaskService {
         }
         
         try {
-            Task task = taskRepository.findById(id)
+            Task task = taskRepository.findWithAssociationsById(id)
                     .orElseThrow(() -> new TaskNotFoundException("Task not found with id: " + id));
 
+            boolean textChanged = (taskRequest.getTitle() != null && !taskRequest.getTitle().trim().equals(task.getTitle()))
+                    || (taskRequest.getDescription() != null && !taskRequest.getDescription().equals(task.getDescription()));
+
             if (taskRequest.getTitle() != null) {
                 task.setTitle(validateTitle(taskRequest.getTitle()));
             }
@@ -211,6 +319,11 @@ public class TaskService {
                 task.setPosition(validatePosition(taskRequest.getPosition()));
             }
 
+            // The stored vector no longer matches the text; the task is embedded again on its next lookup
+            if (textChanged) {
+                taskEmbeddingService.remove(id);
+            }
+
             Task updatedTask = taskRepository.save(task);
             return mapToResponse(updatedTask);
             
@@ -229,6 +342,7 @@ public class TaskService {
             Task task = taskRepository.findById(id)
                     .orElseThrow(() -> new TaskNotFoundException("Task not found with id: " + id));
             taskRepository.delete(task);
+            taskEmbeddingService.remove(id);
         } catch (DataAccessException e) {
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to delete task: " + e.getMessage(), e);
         }
@@ -244,7 +358,7 @@ public class TaskService {
         }
         
         try {
-            Task task = taskRepository.findById(id)
+            Task task = taskRepository.findWithAssociationsById(id)
                     .orElseThrow(() -> new TaskNotFoundException("Task not found with id: " + id));
 
             task.setStatus(status);
@@ -268,7 +382,7 @@ public class TaskService {
         }
         
         try {
-            Task task = taskRepository.findById(taskId)
+            Task task = taskRepository.findWithAssociationsById(taskId)
                     .orElseThrow(() -> new TaskNotFoundException("Task not found with id: " + taskId));
 
             if (userId != null) {
@@ -297,7 +411,7 @@ public class TaskService {
         }
         
         try {
-            Task task = taskRepository.findById(id)
+            Task task = taskRepository.findWithAssociationsById(id)
                     .orElseThrow(() -> new TaskNotFoundException("Task not found with id: " + id));
 
             task.setPriority(priority);
@@ -310,7 +424,7 @@ public class TaskService {
     }
     
     // Validation helper methods
-    private String validateTitle(String title) {
+    static String validateTitle(String title) {
         if (title == null || title.trim().isEmpty()) {
             throw new IllegalArgumentException("Task title cannot be empty");
         }
@@ -320,14 +434,14 @@ public class TaskService {
         return title.trim();
     }
     
-    private LocalDate validateDueDate(LocalDate dueDate) {
+    static LocalDate validateDueDate(LocalDate dueDate) {
         if (dueDate != null && dueDate.isBefore(LocalDate.now())) {
             throw new IllegalArgumentException("Due date cannot be in the past");
         }
         return dueDate;
     }
     
-    private Integer validatePosition(Integer position) {
+    static Integer validatePosition(Integer position) {
         if (position != null && position < 0) {
             throw new IllegalArgumentException("Position cannot be negative");
         }
@@ -1,5 +1,6 @@
 package com.pablomarotta.smart_task_manager.service;
 
+import com.pablomarotta.smart_task_manager.dto.PageResponse;
 import com.pablomarotta.smart_task_manager.dto.UserRequest;
 import com.pablomarotta.smart_task_manager.dto.UserResponse;
 import com.pablomarotta.smart_task_manager.exception.UserDuplicatedException;
@@ -10,8 +11,6 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -19,6 +18,7 @@ public class UserService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final KeysetPagination keysetPagination;
 
     @Transactional
     public UserResponse createUser(UserRequest userRequest) {
@@ -61,10 +61,9 @@ public class UserService {
         return mapToResponse(user);
     }
 
-    public List<UserResponse> getAllUsers() {
-        return userRepository.findAll().stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+    public PageResponse<UserResponse> getAllUsers(String cursor, Integer size) {
+        return keysetPagination.page(cursor, size, userRepository::findPage,
+                user -> new KeysetPagination.Key(user.getCreatedAt(), user.getId()), this::mapToResponse);
     }
 
     @Transactional
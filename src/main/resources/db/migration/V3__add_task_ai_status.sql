@@ -0,0 +1,8 @@
+-- Estado de la clasificacion AI, que ahora se completa en segundo plano
+ALTER TABLE tasks ADD COLUMN ai_status VARCHAR(16) NOT NULL DEFAULT 'PENDING';
+
+-- Las tareas ya clasificadas quedan como completadas
+UPDATE tasks SET ai_status = 'COMPLETED'
+WHERE ai_priority IS NOT NULL OR ai_category IS NOT NULL;
+
+CREATE INDEX idx_tasks_ai_status ON tasks(ai_status);
@@ -0,0 +1,13 @@
+-- Cache persistente de clasificaciones AI, compartida entre nodos
+CREATE TABLE ai_classification_cache (
+    cache_key CHAR(64) PRIMARY KEY,
+    model VARCHAR(100) NOT NULL,
+    priority VARCHAR(16),
+    category VARCHAR(32),
+    estimated_days INT,
+    summary TEXT,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    expires_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX idx_ai_classification_cache_expires ON ai_classification_cache(expires_at);
@@ -0,0 +1,17 @@
+-- Progreso del backfill de clasificaciones AI, para reanudarlo tras un reinicio
+CREATE TABLE ai_backfill_runs (
+    id BIGSERIAL PRIMARY KEY,
+    status VARCHAR(16) NOT NULL,
+    last_task_id BIGINT NOT NULL DEFAULT 0,
+    max_task_id BIGINT NOT NULL,
+    processed INT NOT NULL DEFAULT 0,
+    classified INT NOT NULL DEFAULT 0,
+    failed INT NOT NULL DEFAULT 0,
+    started_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    finished_at TIMESTAMP
+);
+
+-- Recorrido por keyset sobre id de las tareas sin clasificar
+CREATE INDEX idx_tasks_ai_unclassified ON tasks(id)
+WHERE ai_priority IS NULL AND ai_category IS NULL;
@@ -0,0 +1,5 @@
+-- Origen de la clasificacion AI: clasificador local o LLM
+ALTER TABLE tasks ADD COLUMN ai_source VARCHAR(16);
+
+-- Las clasificaciones existentes vienen de Ollama
+UPDATE tasks SET ai_source = 'LLM' WHERE ai_status = 'COMPLETED';
@@ -0,0 +1,13 @@
+-- Índices para la paginación por cursor: cada listado ordena por (created_at, id)
+-- y la página siguiente empieza justo después de la última fila de la anterior
+CREATE INDEX idx_tasks_created ON tasks(created_at, id);
+CREATE INDEX idx_tasks_status_created ON tasks(status, created_at, id);
+CREATE INDEX idx_tasks_project_created ON tasks(project_id, created_at, id);
+CREATE INDEX idx_tasks_assignee_created ON tasks(assignee_id, created_at, id);
+CREATE INDEX idx_projects_created ON projects(created_at, id);
+CREATE INDEX idx_users_created ON users(created_at, id);
+
+-- Los índices compuestos empiezan por la misma columna, los simples sobran
+DROP INDEX idx_tasks_status;
+DROP INDEX idx_tasks_project;
+DROP INDEX idx_tasks_assignee;
@@ -0,0 +1,6 @@
+-- Ids reservados de 50 en 50 (allocationSize = 50 en las entidades): Hibernate asigna
+-- los ids en memoria y puede agrupar los INSERT en lotes JDBC, cosa que IDENTITY impide.
+-- Las columnas siguen con su DEFAULT nextval, así que los INSERT por SQL siguen funcionando
+ALTER SEQUENCE users_id_seq INCREMENT BY 50;
+ALTER SEQUENCE projects_id_seq INCREMENT BY 50;
+ALTER SEQUENCE tasks_id_seq INCREMENT BY 50;
@@ -0,0 +1,49 @@
+package com.pablomarotta.smart_task_manager.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SqlStatementCountingDataSourceTest {
+
+    @Test
+    void close_ClosesTheWrappedPool() throws Exception {
+        HikariDataSource pool = new HikariDataSource();
+        SqlStatementCountingDataSource dataSource = new SqlStatementCountingDataSource(pool);
+
+        dataSource.close();
+
+        assertTrue(pool.isClosed());
+    }
+
+    @Test
+    void closingTheContext_ClosesTheWrappedPool() {
+        HikariDataSource pool;
+        try (AnnotationConfigApplicationContext context =
+                     new AnnotationConfigApplicationContext(SqlStatementConfig.class, PoolConfig.class)) {
+            assertInstanceOf(SqlStatementCountingDataSource.class, context.getBean(DataSource.class));
+            pool = context.getBean(PoolConfig.class).pool;
+            assertFalse(pool.isClosed());
+        }
+
+        assertTrue(pool.isClosed());
+    }
+
+    @Configuration
+    static class PoolConfig {
+
+        private HikariDataSource pool;
+
+        @Bean
+        DataSource dataSource() {
+            pool = new HikariDataSource();
+            return pool;
+        }
+    }
+}
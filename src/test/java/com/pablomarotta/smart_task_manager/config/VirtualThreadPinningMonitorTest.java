@@ -0,0 +1,63 @@
+package com.pablomarotta.smart_task_manager.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VirtualThreadPinningMonitorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private VirtualThreadPinningMonitor monitor;
+
+    @AfterEach
+    void tearDown() {
+        if (monitor != null) {
+            monitor.stop();
+        }
+    }
+
+    @Test
+    void reportsSynchronizedBlocksThatPinTheCarrier() throws Exception {
+        monitor = monitor(true);
+        monitor.start();
+
+        // The stream starts asynchronously, so keep pinning until the first event arrives
+        long deadline = System.nanoTime() + Duration.ofSeconds(15).toNanos();
+        while (monitor.getPinnedByLocation().isEmpty() && System.nanoTime() < deadline) {
+            Thread.ofVirtual().start(this::sleepWhileHoldingMonitor).join();
+            Thread.sleep(100);
+        }
+
+        String location = monitor.getPinnedByLocation().keySet().iterator().next();
+        assertTrue(location.startsWith("VirtualThreadPinningMonitorTest.sleepWhileHoldingMonitor:"), location);
+        assertTrue(meterRegistry.get("jvm.threads.virtual.pinned").tag("location", location).timer().count() > 0);
+    }
+
+    @Test
+    void staysOffWithPlatformThreads() {
+        monitor = monitor(false);
+        monitor.start();
+
+        assertFalse(monitor.isEnabled());
+        assertTrue(monitor.getPinnedByLocation().isEmpty());
+    }
+
+    private synchronized void sleepWhileHoldingMonitor() {
+        try {
+            Thread.sleep(20);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private VirtualThreadPinningMonitor monitor(boolean virtualThreads) {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("spring.threads.virtual.enabled", String.valueOf(virtualThreads));
+        return new VirtualThreadPinningMonitor(environment, true, Duration.ofMillis(1), meterRegistry);
+    }
+}
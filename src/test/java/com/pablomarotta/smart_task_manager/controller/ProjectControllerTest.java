@@ -1,6 +1,7 @@
 package com.pablomarotta.smart_task_manager.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pablomarotta.smart_task_manager.dto.PageResponse;
 import com.pablomarotta.smart_task_manager.dto.ProjectRequest;
 import com.pablomarotta.smart_task_manager.dto.ProjectResponse;
 import com.pablomarotta.smart_task_manager.exception.GlobalExceptionHandler;
@@ -89,14 +90,29 @@ class ProjectControllerTest {
         project2.setOwnerId(1L);
         project2.setOwnerUsername("testuser");
 
-        when(projectService.getAllProjects()).thenReturn(Arrays.asList(projectResponse, project2));
+        when(projectService.getAllProjects(null, null))
+                .thenReturn(new PageResponse<>(Arrays.asList(projectResponse, project2), null));
 
         mockMvc.perform(get("/api/projects")
                 .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.length()").value(2))
-                .andExpect(jsonPath("$[0].id").value(1))
-                .andExpect(jsonPath("$[1].id").value(2));
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.items[0].id").value(1))
+                .andExpect(jsonPath("$.items[1].id").value(2))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    void getAllProjects_PassesTheCursorAndSize() throws Exception {
+        when(projectService.getAllProjects("abc", 10))
+                .thenReturn(new PageResponse<>(Arrays.asList(projectResponse), "def"));
+
+        mockMvc.perform(get("/api/projects")
+                .param("cursor", "abc")
+                .param("size", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.nextCursor").value("def"));
     }
 
     @Test
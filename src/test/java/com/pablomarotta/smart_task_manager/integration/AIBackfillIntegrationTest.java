@@ -0,0 +1,222 @@
+package com.pablomarotta.smart_task_manager.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pablomarotta.smart_task_manager.dto.*;
+import com.pablomarotta.smart_task_manager.model.*;
+import com.pablomarotta.smart_task_manager.repository.AIBackfillRunRepository;
+import com.pablomarotta.smart_task_manager.repository.ProjectRepository;
+import com.pablomarotta.smart_task_manager.repository.TaskRepository;
+import com.pablomarotta.smart_task_manager.repository.UserRepository;
+import com.pablomarotta.smart_task_manager.service.AIEnrichmentService;
+import com.pablomarotta.smart_task_manager.support.FakeOllamaServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(properties = {
+    "ai.ollama.enabled=true",
+    "ai.ollama.backfill.max-rate-per-second=0",
+    "ai.ollama.backfill.page-size=2",
+    "ai.ollama.backfill.yield-pause=10ms",
+    "ai.ollama.backfill.resume-on-startup=false"
+})
+public class AIBackfillIntegrationTest {
+
+    private static final FakeOllamaServer ollama = FakeOllamaServer.start();
+
+    @DynamicPropertySource
+    static void ollamaProperties(DynamicPropertyRegistry registry) {
+        registry.add("ai.ollama.base-url", ollama::getBaseUrl);
+    }
+
+    @AfterAll
+    static void stopOllama() {
+        ollama.close();
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private AIBackfillRunRepository runRepository;
+
+    @Autowired
+    private AIEnrichmentService enrichmentService;
+
+    @Test
+    public void testBackfillClassifiesTasksWithoutAIFields() throws Exception {
+        // 1. Administrador con un proyecto
+        AuthResponse admin = register("backfill_admin", Role.ADMIN);
+        Long projectId = createProject(admin);
+
+        // 2. Tareas guardadas sin pasar por la clasificación AI
+        List<Task> tasks = saveUnclassified(projectId,
+                "Fix login crash", "Add CSV export", "Write API documentation");
+
+        // 3. Lanzar el backfill y esperar a que termine
+        mockMvc.perform(post("/api/admin/ai/backfill")
+                        .header("Authorization", "Bearer " + admin.getToken()))
+                .andExpect(status().isAccepted());
+        AIBackfillStatusResponse backfill = awaitCompletion(admin);
+
+        assertEquals(0, backfill.getRemaining());
+        assertTrue(backfill.getProcessed() >= tasks.size());
+
+        // 4. Las tareas quedan clasificadas
+        List<String> categories = tasks.stream()
+                .map(task -> taskRepository.findById(task.getId()).orElseThrow())
+                .peek(task -> assertEquals(AIEnrichmentStatus.COMPLETED, task.getAiStatus()))
+                .map(Task::getAiCategory)
+                .toList();
+        assertEquals(List.of("BUG", "FEATURE", "DOCUMENTATION"), categories);
+    }
+
+    @Test
+    public void testBackfillResumesFromCheckpoint() throws Exception {
+        AuthResponse admin = register("backfill_resume_admin", Role.ADMIN);
+        Long projectId = createProject(admin);
+        List<Task> tasks = saveUnclassified(projectId, "Fix crash on save", "Add dark mode", "Refactor task service");
+
+        // 1. Ejecución detenida con el checkpoint en la primera tarea
+        LocalDateTime now = LocalDateTime.now();
+        runRepository.save(AIBackfillRun.builder()
+                .status(AIBackfillStatus.STOPPED)
+                .lastTaskId(tasks.get(0).getId())
+                .maxTaskId(tasks.get(2).getId())
+                .processed(1)
+                .startedAt(now)
+                .updatedAt(now)
+                .build());
+
+        // 2. Reanudar
+        mockMvc.perform(post("/api/admin/ai/backfill")
+                        .header("Authorization", "Bearer " + admin.getToken()))
+                .andExpect(status().isAccepted());
+        AIBackfillStatusResponse backfill = awaitCompletion(admin);
+
+        // 3. Solo se procesan las tareas posteriores al checkpoint
+        assertEquals(3, backfill.getProcessed());
+        assertNull(taskRepository.findById(tasks.get(0).getId()).orElseThrow().getAiCategory());
+        assertEquals("FEATURE", taskRepository.findById(tasks.get(1).getId()).orElseThrow().getAiCategory());
+        assertEquals("REFACTOR", taskRepository.findById(tasks.get(2).getId()).orElseThrow().getAiCategory());
+    }
+
+    @Test
+    public void testBackfillPicksUpTasksLeftInProgressByARestart() throws Exception {
+        AuthResponse admin = register("backfill_restart_admin", Role.ADMIN);
+        Long projectId = createProject(admin);
+        List<Task> tasks = saveUnclassified(projectId, "Fix crash on export");
+
+        // 1. Un worker murió a mitad de la clasificación y el nodo se reinicia
+        taskRepository.updateAiStatus(tasks.get(0).getId(), AIEnrichmentStatus.IN_PROGRESS);
+        enrichmentService.releaseInterruptedEnrichments();
+
+        // 2. El backfill la recoge y no quedan tareas pendientes
+        mockMvc.perform(post("/api/admin/ai/backfill")
+                        .header("Authorization", "Bearer " + admin.getToken()))
+                .andExpect(status().isAccepted());
+        AIBackfillStatusResponse backfill = awaitCompletion(admin);
+
+        assertEquals(0, backfill.getRemaining());
+        Task task = taskRepository.findById(tasks.get(0).getId()).orElseThrow();
+        assertEquals(AIEnrichmentStatus.COMPLETED, task.getAiStatus());
+        assertEquals("BUG", task.getAiCategory());
+    }
+
+    @Test
+    public void testBackfillRequiresAdminRole() throws Exception {
+        AuthResponse user = register("backfill_user", Role.USER);
+
+        mockMvc.perform(post("/api/admin/ai/backfill")
+                        .header("Authorization", "Bearer " + user.getToken()))
+                .andExpect(status().isForbidden());
+    }
+
+    private AuthResponse register(String username, Role role) throws Exception {
+        RegisterRequest registerRequest = new RegisterRequest();
+        registerRequest.setUsername(username);
+        registerRequest.setEmail(username + "@example.com");
+        registerRequest.setPassword("password123");
+        registerRequest.setFullName("Backfill Test User");
+
+        MvcResult authResult = mockMvc.perform(post("/api/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(registerRequest)))
+                .andExpect(status().isCreated())
+                .andReturn();
+
+        User user = userRepository.findByUsername(username).orElseThrow();
+        user.setRole(role);
+        userRepository.save(user);
+
+        return objectMapper.readValue(authResult.getResponse().getContentAsString(), AuthResponse.class);
+    }
+
+    private Long createProject(AuthResponse auth) throws Exception {
+        ProjectRequest projectRequest = new ProjectRequest();
+        projectRequest.setName("Backfill Project");
+        projectRequest.setUsername(auth.getUser().getUsername());
+
+        MvcResult projectResult = mockMvc.perform(post("/api/projects")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("Authorization", "Bearer " + auth.getToken())
+                        .content(objectMapper.writeValueAsString(projectRequest)))
+                .andExpect(status().isCreated())
+                .andReturn();
+        return objectMapper.readValue(projectResult.getResponse().getContentAsString(), ProjectResponse.class).getId();
+    }
+
+    private List<Task> saveUnclassified(Long projectId, String... titles) {
+        Project project = projectRepository.findById(projectId).orElseThrow();
+        return Arrays.stream(titles)
+                .map(title -> taskRepository.save(Task.builder().project(project).title(title).build()))
+                .toList();
+    }
+
+    private AIBackfillStatusResponse awaitCompletion(AuthResponse admin) throws Exception {
+        AIBackfillStatusResponse backfill = null;
+        for (int attempt = 0; attempt < 200; attempt++) {
+            MvcResult result = mockMvc.perform(get("/api/admin/ai/backfill")
+                            .header("Authorization", "Bearer " + admin.getToken()))
+                    .andExpect(status().isOk())
+                    .andReturn();
+            backfill = objectMapper.readValue(result.getResponse().getContentAsString(), AIBackfillStatusResponse.class);
+            if (backfill.getStatus() == AIBackfillStatus.COMPLETED) {
+                return backfill;
+            }
+            Thread.sleep(100);
+        }
+        fail("Backfill did not complete: " + backfill);
+        return backfill;
+    }
+}
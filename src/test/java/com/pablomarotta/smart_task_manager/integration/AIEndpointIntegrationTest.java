@@ -0,0 +1,259 @@
+package com.pablomarotta.smart_task_manager.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pablomarotta.smart_task_manager.dto.AIClassificationRequest;
+import com.pablomarotta.smart_task_manager.dto.AIClassificationResponse;
+import com.pablomarotta.smart_task_manager.dto.AIDraftClassificationRequest;
+import com.pablomarotta.smart_task_manager.dto.AuthResponse;
+import com.pablomarotta.smart_task_manager.dto.RegisterRequest;
+import com.pablomarotta.smart_task_manager.model.AIClassificationSource;
+import com.pablomarotta.smart_task_manager.repository.ProjectRepository;
+import com.pablomarotta.smart_task_manager.repository.TaskRepository;
+import com.pablomarotta.smart_task_manager.repository.UserRepository;
+import com.pablomarotta.smart_task_manager.support.FakeOllamaServer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// Servidor real además de MockMvc: el timeout asíncrono solo salta en un Tomcat de verdad
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureMockMvc
+@TestPropertySource(properties = {
+    "ai.ollama.enabled=true",
+    "ai.ollama.cache.enabled=false",
+    "spring.mvc.async.request-timeout=1500ms"
+})
+public class AIEndpointIntegrationTest {
+
+    private static final FakeOllamaServer ollama = FakeOllamaServer.start();
+
+    @DynamicPropertySource
+    static void ollamaProperties(DynamicPropertyRegistry registry) {
+        registry.add("ai.ollama.base-url", ollama::getBaseUrl);
+    }
+
+    @AfterAll
+    static void stopOllama() {
+        ollama.close();
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @BeforeEach
+    public void setup() {
+        ollama.reset();
+        taskRepository.deleteAll();
+        projectRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    public void testClassifyTaskCompletesAsynchronously() throws Exception {
+        ollama.firstTokenLatency(FakeOllamaServer.Latency.fixed(Duration.ofMillis(200)));
+        String token = register("async_ai_user").getToken();
+        AIClassificationRequest request = AIClassificationRequest.builder()
+                .title("Fix crash on login")
+                .description("The app crashes after entering the password")
+                .build();
+
+        // 1. La petición se libera mientras el modelo genera
+        MvcResult pending = mockMvc.perform(post("/api/ai/classify-task")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("Authorization", "Bearer " + token)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // 2. La respuesta llega en el despacho asíncrono, todavía autenticado
+        MvcResult result = mockMvc.perform(asyncDispatch(pending))
+                .andExpect(status().isOk())
+                .andReturn();
+        AIClassificationResponse response = objectMapper.readValue(
+                result.getResponse().getContentAsString(), AIClassificationResponse.class);
+        assertEquals("BUG", response.getCategory());
+        assertEquals(AIClassificationSource.LLM, response.getSource());
+        assertEquals(1, ollama.getRequests());
+    }
+
+    @Test
+    public void testClassifyTaskRequiresAuthentication() throws Exception {
+        mockMvc.perform(post("/api/ai/classify-task")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Fix crash\"}"))
+                .andExpect(status().isUnauthorized());
+        assertEquals(0, ollama.getRequests());
+    }
+
+    @Test
+    public void testNewerDraftSupersedesTheOlderOne() throws Exception {
+        ollama.firstTokenLatency(FakeOllamaServer.Latency.fixed(Duration.ofMillis(500)));
+        String token = register("draft_user").getToken();
+
+        // 1. El usuario escribe "Fix cr" y luego "Fix crash on login"
+        MvcResult first = mockMvc.perform(post("/api/ai/classify-draft")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("Authorization", "Bearer " + token)
+                        .content(draft("form-1", 1, "Fix cr")))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        awaitGenerations(1);
+        MvcResult second = mockMvc.perform(post("/api/ai/classify-draft")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("Authorization", "Bearer " + token)
+                        .content(draft("form-1", 2, "Fix crash on login")))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // 2. El borrador antiguo recibe 409 y su generación se corta
+        mockMvc.perform(asyncDispatch(first)).andExpect(status().isConflict());
+        mockMvc.perform(asyncDispatch(second))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.sequence").value(2))
+                .andExpect(jsonPath("$.classification.category").value("BUG"));
+        assertEquals(1, ollama.getCompleted());
+        assertEquals(1.0, meterRegistry.counter("ai.draft.classifications", "outcome", "superseded").count());
+        awaitCancelled(1);
+
+        // 3. Un borrador más viejo que el último se rechaza sin llamar al modelo
+        MvcResult stale = mockMvc.perform(post("/api/ai/classify-draft")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("Authorization", "Bearer " + token)
+                        .content(draft("form-1", 1, "Fix cr")))
+                .andReturn();
+        mockMvc.perform(asyncDispatch(stale)).andExpect(status().isConflict());
+        assertEquals(2, ollama.getRequests());
+    }
+
+    @Test
+    public void testAbandonedDraftCancelsTheGeneration() throws Exception {
+        ollama.firstTokenLatency(FakeOllamaServer.Latency.fixed(Duration.ofSeconds(2)));
+        String token = register("abandon_user").getToken();
+        double wasted = wastedGenerations();
+
+        // 1. El usuario empieza a escribir y cierra el formulario
+        MvcResult pending = mockMvc.perform(post("/api/ai/classify-draft")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("Authorization", "Bearer " + token)
+                        .content(draft("form-2", 1, "Fix crash on export")))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        awaitGenerations(1);
+        mockMvc.perform(delete("/api/ai/classify-draft/form-2")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isNoContent());
+
+        // 2. La generación se corta en lugar de terminar para nadie
+        mockMvc.perform(asyncDispatch(pending)).andExpect(status().isConflict());
+        awaitCancelled(1);
+        assertEquals(0, ollama.getCompleted());
+        assertEquals(wasted + 1, wastedGenerations());
+    }
+
+    @Test
+    public void testTimedOutRequestCancelsTheGeneration() throws Exception {
+        ollama.firstTokenLatency(FakeOllamaServer.Latency.fixed(Duration.ofSeconds(3)));
+        String token = register("timeout_user").getToken();
+        double wasted = wastedGenerations();
+        String body = objectMapper.writeValueAsString(AIClassificationRequest.builder().title("Fix crash on export").build());
+
+        // 1. El modelo tarda más que el timeout de la petición asíncrona
+        HttpResponse<String> response = HttpClient.newHttpClient().send(
+                HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/ai/classify-task"))
+                        .header("Authorization", "Bearer " + token)
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(body))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+        assertEquals(503, response.statusCode());
+
+        // 2. Nadie leerá la respuesta, así que la generación se cancela
+        awaitCancelled(1);
+        assertEquals(0, ollama.getCompleted());
+        assertEquals(wasted + 1, wastedGenerations());
+    }
+
+    private double wastedGenerations() {
+        Timer timer = meterRegistry.find("ai.generations.wasted").timer();
+        return timer == null ? 0 : timer.count();
+    }
+
+    private String draft(String sessionId, long sequence, String title) throws Exception {
+        return objectMapper.writeValueAsString(AIDraftClassificationRequest.builder()
+                .sessionId(sessionId)
+                .sequence(sequence)
+                .title(title)
+                .build());
+    }
+
+    private void awaitGenerations(int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (ollama.getRequests() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(count, ollama.getRequests());
+    }
+
+    private void awaitCancelled(int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (ollama.getCancelled() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(count, ollama.getCancelled());
+    }
+
+    private AuthResponse register(String username) throws Exception {
+        RegisterRequest registerRequest = new RegisterRequest();
+        registerRequest.setUsername(username);
+        registerRequest.setEmail(username + "@example.com");
+        registerRequest.setPassword("password123");
+        registerRequest.setFullName("Async AI User");
+
+        MvcResult authResult = mockMvc.perform(post("/api/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(registerRequest)))
+                .andExpect(status().isCreated())
+                .andReturn();
+        return objectMapper.readValue(authResult.getResponse().getContentAsString(), AuthResponse.class);
+    }
+}
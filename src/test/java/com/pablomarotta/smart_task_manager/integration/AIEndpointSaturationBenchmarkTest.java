@@ -0,0 +1,207 @@
+package com.pablomarotta.smart_task_manager.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pablomarotta.smart_task_manager.dto.AuthResponse;
+import com.pablomarotta.smart_task_manager.dto.RegisterRequest;
+import com.pablomarotta.smart_task_manager.repository.ProjectRepository;
+import com.pablomarotta.smart_task_manager.repository.TaskRepository;
+import com.pablomarotta.smart_task_manager.repository.UserRepository;
+import com.pablomarotta.smart_task_manager.support.FakeOllamaServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Throughput of a cheap endpoint while /api/ai/classify-task is saturated, on a real
+ * Tomcat with a small worker pool. AI requests far outnumber the worker threads; since
+ * the endpoint completes asynchronously they wait in the limiter without holding a
+ * thread, and GET /api/ai/status keeps answering. Excluded from the default build; run
+ * with {@code ./mvnw test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+    "server.tomcat.threads.max=16",
+    "ai.ollama.enabled=true",
+    "ai.ollama.cache.enabled=false",
+    "ai.ollama.batch.enabled=false",
+    "ai.ollama.limiter.initial-limit=8",
+    "ai.ollama.limiter.max-limit=8",
+    "ai.ollama.limiter.max-queue=500",
+    "ai.ollama.limiter.max-wait=60s"
+})
+public class AIEndpointSaturationBenchmarkTest {
+
+    private static final int AI_CLIENTS = 128;
+    private static final int CHEAP_CLIENTS = 8;
+    private static final Duration MEASURE = Duration.ofSeconds(10);
+
+    private static final FakeOllamaServer ollama = FakeOllamaServer.start();
+
+    @DynamicPropertySource
+    static void ollamaProperties(DynamicPropertyRegistry registry) {
+        registry.add("ai.ollama.base-url", ollama::getBaseUrl);
+    }
+
+    @AfterAll
+    static void stopOllama() {
+        ollama.close();
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final HttpClient http = HttpClient.newBuilder()
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+
+    @BeforeEach
+    void setup() {
+        taskRepository.deleteAll();
+        projectRepository.deleteAll();
+        userRepository.deleteAll();
+        ollama.reset();
+        // One second per generation: every AI request outlives many cheap ones
+        ollama.firstTokenLatency(FakeOllamaServer.Latency.fixed(Duration.ofSeconds(1)));
+    }
+
+    @Test
+    public void cheapEndpointThroughputWhileAIEndpointIsSaturated() throws Exception {
+        String token = register("saturation_user");
+
+        Result idle = measureCheap(token);
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicInteger classified = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        try (ExecutorService aiClients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < AI_CLIENTS; i++) {
+                int client = i;
+                aiClients.submit(() -> {
+                    int n = 0;
+                    while (running.get()) {
+                        String body = "{\"title\":\"Fix crash " + client + "-" + n++ + "\"}";
+                        HttpResponse<String> response = send(HttpRequest.newBuilder(uri("/api/ai/classify-task"))
+                                .header("Authorization", "Bearer " + token)
+                                .header("Content-Type", "application/json")
+                                .POST(HttpRequest.BodyPublishers.ofString(body)));
+                        (response != null && response.statusCode() == 200 ? classified : failed).incrementAndGet();
+                    }
+                });
+            }
+            Thread.sleep(2000);
+
+            Result saturated = measureCheap(token);
+            int generating = ollama.getRequests();
+            running.set(false);
+
+            System.out.printf("GET /api/ai/status, %d clients, Tomcat max 16 threads, %d AI clients%n",
+                    CHEAP_CLIENTS, AI_CLIENTS);
+            System.out.printf("  idle:      %7.0f req/s, p50 %.1f ms, p99 %.1f ms%n",
+                    idle.throughput(), idle.percentile(0.50), idle.percentile(0.99));
+            System.out.printf("  saturated: %7.0f req/s, p50 %.1f ms, p99 %.1f ms (%d generations started)%n",
+                    saturated.throughput(), saturated.percentile(0.50), saturated.percentile(0.99), generating);
+
+            assertTrue(saturated.percentile(0.99) < 1000, "cheap endpoint p99 " + saturated.percentile(0.99) + " ms");
+        }
+        System.out.printf("  AI requests: %d classified, %d failed%n", classified.get(), failed.get());
+        assertTrue(classified.get() > 0);
+    }
+
+    private Result measureCheap(String token) throws Exception {
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+        long deadline = System.nanoTime() + MEASURE.toNanos();
+        long start = System.nanoTime();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < CHEAP_CLIENTS; i++) {
+                clients.submit(() -> {
+                    while (System.nanoTime() < deadline) {
+                        long requestStart = System.nanoTime();
+                        HttpResponse<String> response = send(HttpRequest.newBuilder(uri("/api/ai/status"))
+                                .header("Authorization", "Bearer " + token)
+                                .GET());
+                        if (response != null && response.statusCode() == 200) {
+                            latencies.add(System.nanoTime() - requestStart);
+                        }
+                    }
+                });
+            }
+        }
+        return new Result(new ArrayList<>(latencies), System.nanoTime() - start);
+    }
+
+    private HttpResponse<String> send(HttpRequest.Builder request) {
+        try {
+            return http.send(request.timeout(Duration.ofSeconds(90)).build(), HttpResponse.BodyHandlers.ofString());
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private String register(String username) throws Exception {
+        RegisterRequest registerRequest = new RegisterRequest();
+        registerRequest.setUsername(username);
+        registerRequest.setEmail(username + "@example.com");
+        registerRequest.setPassword("password123");
+        registerRequest.setFullName("Saturation User");
+
+        HttpResponse<String> response = http.send(HttpRequest.newBuilder(uri("/api/auth/register"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(registerRequest)))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+        assertEquals(201, response.statusCode());
+        return objectMapper.readValue(response.body(), AuthResponse.class).getToken();
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private record Result(List<Long> latencies, long elapsedNanos) {
+
+        double throughput() {
+            return latencies.size() / (elapsedNanos / 1e9);
+        }
+
+        double percentile(double percentile) {
+            if (latencies.isEmpty()) {
+                return Double.NaN;
+            }
+            List<Long> sorted = latencies.stream().sorted().toList();
+            return sorted.get(Math.min(sorted.size() - 1, (int) (sorted.size() * percentile))) / 1e6;
+        }
+    }
+}
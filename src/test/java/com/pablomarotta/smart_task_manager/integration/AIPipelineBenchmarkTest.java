@@ -0,0 +1,221 @@
+package com.pablomarotta.smart_task_manager.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pablomarotta.smart_task_manager.dto.*;
+import com.pablomarotta.smart_task_manager.model.AIEnrichmentStatus;
+import com.pablomarotta.smart_task_manager.model.Status;
+import com.pablomarotta.smart_task_manager.model.Task;
+import com.pablomarotta.smart_task_manager.repository.TaskRepository;
+import com.pablomarotta.smart_task_manager.service.AIService;
+import com.pablomarotta.smart_task_manager.service.TaskService;
+import com.pablomarotta.smart_task_manager.support.FakeOllamaServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Load test of the AI path against {@link FakeOllamaServer}, with the cache off so every
+ * call reaches the "model". Excluded from the default build; run with
+ * {@code ./mvnw test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+    "ai.ollama.enabled=true",
+    "ai.ollama.cache.enabled=false"
+})
+@AutoConfigureMockMvc
+public class AIPipelineBenchmarkTest {
+
+    private static final int CLIENTS = 32;
+    private static final int REQUESTS = 400;
+
+    private static final FakeOllamaServer ollama = FakeOllamaServer.start();
+
+    @DynamicPropertySource
+    static void ollamaProperties(DynamicPropertyRegistry registry) {
+        registry.add("ai.ollama.base-url", ollama::getBaseUrl);
+    }
+
+    @AfterAll
+    static void stopOllama() {
+        ollama.close();
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private AIService aiService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @BeforeEach
+    void configureModel() {
+        ollama.reset();
+        // A small local model: 4 parallel slots, long-tailed time to first token, ~50 tokens/s, some bad answers
+        ollama.parallel(4)
+                .firstTokenLatency(FakeOllamaServer.Latency.logNormal(Duration.ofMillis(150), 0.5))
+                .tokensPerSecond(50)
+                .errorRate(0.02)
+                .malformedRate(0.02)
+                .trailingText(" Espero que esta clasificación te resulte útil.");
+    }
+
+    @Test
+    public void classifyTask_UnderConcurrentLoad() throws Exception {
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+        List<AIClassificationResponse> responses = Collections.synchronizedList(new ArrayList<>());
+
+        long elapsed = runConcurrently(i -> {
+            AIClassificationRequest request = AIClassificationRequest.builder()
+                    .title("Benchmark task " + i)
+                    .description(i % 3 == 0 ? "Fix crash on login" : "Add export to CSV")
+                    .build();
+            long start = System.nanoTime();
+            responses.add(aiService.classifyTask(request));
+            latencies.add(System.nanoTime() - start);
+        });
+
+        long empty = responses.stream().filter(response -> response.getCategory() == null).count();
+        report("AIService.classifyTask", latencies, elapsed);
+        System.out.printf("  empty responses: %d, fake server: %d requests, %d cancelled streams, max %d concurrent%n",
+                empty, ollama.getRequests(), ollama.getCancelled(), ollama.getMaxConcurrent());
+
+        assertEquals(REQUESTS, responses.size());
+    }
+
+    @Test
+    public void createTask_EndToEndUntilEnriched() throws Exception {
+        Long projectId = createProject();
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+        List<Long> taskIds = Collections.synchronizedList(new ArrayList<>());
+
+        long start = System.nanoTime();
+        long createElapsed = runConcurrently(i -> {
+            TaskRequest request = new TaskRequest();
+            request.setTitle("Benchmark task " + i);
+            request.setDescription(i % 3 == 0 ? "Fix crash on login" : "Add export to CSV");
+            request.setStatus(Status.TODO);
+            request.setProjectId(projectId);
+            long callStart = System.nanoTime();
+            taskIds.add(taskService.createTask(request).getId());
+            latencies.add(System.nanoTime() - callStart);
+        });
+        report("TaskService.createTask", latencies, createElapsed);
+
+        long deadline = System.nanoTime() + Duration.ofMinutes(5).toNanos();
+        long pending;
+        do {
+            Thread.sleep(100);
+            pending = taskRepository.findAllById(taskIds).stream()
+                    .map(Task::getAiStatus)
+                    .filter(status -> status == AIEnrichmentStatus.PENDING || status == AIEnrichmentStatus.IN_PROGRESS)
+                    .count();
+        } while (pending > 0 && System.nanoTime() < deadline);
+
+        long failed = taskRepository.findAllById(taskIds).stream()
+                .filter(task -> task.getAiStatus() == AIEnrichmentStatus.FAILED)
+                .count();
+        System.out.printf("  all %d tasks enriched after %d ms (%d failed)%n",
+                REQUESTS, Duration.ofNanos(System.nanoTime() - start).toMillis(), failed);
+
+        assertEquals(0, pending);
+    }
+
+    private Long createProject() throws Exception {
+        RegisterRequest registerRequest = new RegisterRequest();
+        registerRequest.setUsername("benchmark_user_" + System.nanoTime());
+        registerRequest.setEmail(registerRequest.getUsername() + "@example.com");
+        registerRequest.setPassword("password123");
+        registerRequest.setFullName("Benchmark User");
+
+        MvcResult authResult = mockMvc.perform(post("/api/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(registerRequest)))
+                .andExpect(status().isCreated())
+                .andReturn();
+        AuthResponse authResponse = objectMapper.readValue(
+                authResult.getResponse().getContentAsString(), AuthResponse.class);
+
+        ProjectRequest projectRequest = new ProjectRequest();
+        projectRequest.setName("Benchmark Project");
+        projectRequest.setUsername(authResponse.getUser().getUsername());
+
+        MvcResult projectResult = mockMvc.perform(post("/api/projects")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("Authorization", "Bearer " + authResponse.getToken())
+                        .content(objectMapper.writeValueAsString(projectRequest)))
+                .andExpect(status().isCreated())
+                .andReturn();
+        return objectMapper.readValue(projectResult.getResponse().getContentAsString(), ProjectResponse.class).getId();
+    }
+
+    private long runConcurrently(Step step) throws Exception {
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+        try {
+            long start = System.nanoTime();
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < REQUESTS; i++) {
+                int index = i;
+                futures.add(clients.submit(() -> {
+                    step.run(index);
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            return System.nanoTime() - start;
+        } finally {
+            clients.shutdownNow();
+        }
+    }
+
+    private void report(String name, List<Long> latencies, long elapsedNanos) {
+        List<Long> sorted = new ArrayList<>(latencies);
+        Collections.sort(sorted);
+        System.out.printf("%s: %d calls from %d clients in %d ms (%.1f/s), p50 %d ms, p95 %d ms, p99 %d ms, max %d ms%n",
+                name, sorted.size(), CLIENTS, elapsedNanos / 1_000_000,
+                sorted.size() / (elapsedNanos / 1e9),
+                percentile(sorted, 0.50), percentile(sorted, 0.95), percentile(sorted, 0.99),
+                sorted.get(sorted.size() - 1) / 1_000_000);
+    }
+
+    private long percentile(List<Long> sorted, double percentile) {
+        int index = (int) Math.ceil(percentile * sorted.size()) - 1;
+        return sorted.get(Math.max(0, index)) / 1_000_000;
+    }
+
+    @FunctionalInterface
+    private interface Step {
+        void run(int index) throws Exception;
+    }
+}
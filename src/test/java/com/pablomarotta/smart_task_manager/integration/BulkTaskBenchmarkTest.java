@@ -0,0 +1,109 @@
+package com.pablomarotta.smart_task_manager.integration;
+
+import com.pablomarotta.smart_task_manager.dto.BulkTaskResponse;
+import com.pablomarotta.smart_task_manager.dto.TaskRequest;
+import com.pablomarotta.smart_task_manager.model.Project;
+import com.pablomarotta.smart_task_manager.model.Status;
+import com.pablomarotta.smart_task_manager.model.User;
+import com.pablomarotta.smart_task_manager.repository.ProjectRepository;
+import com.pablomarotta.smart_task_manager.repository.TaskRepository;
+import com.pablomarotta.smart_task_manager.repository.UserRepository;
+import com.pablomarotta.smart_task_manager.service.BulkTaskService;
+import com.pablomarotta.smart_task_manager.service.TaskService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Rows per second importing tasks the only way there was before, one createTask per task
+ * with its own lookups and single-row insert, against POST /api/tasks/bulk's service,
+ * which looks up once and inserts in JDBC batches. Excluded from the default build; run
+ * with {@code ./mvnw test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+    "ai.ollama.enabled=false",
+    "spring.jpa.show-sql=false"
+})
+public class BulkTaskBenchmarkTest {
+
+    private static final int SINGLE_TASKS = 2_000;
+    private static final int BULK_TASKS = 10_000;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private BulkTaskService bulkTaskService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User user;
+    private Project project;
+
+    @BeforeEach
+    void seed() {
+        taskRepository.deleteAll();
+        projectRepository.deleteAll();
+        userRepository.deleteAll();
+
+        user = userRepository.save(User.builder()
+                .username("importer")
+                .email("importer@example.com")
+                .password("password123")
+                .fullName("Bulk Import")
+                .build());
+        project = projectRepository.save(Project.builder().name("Import").owner(user).build());
+    }
+
+    @Test
+    void singleCreatesVersusBulk() {
+        // Calentamiento de ambos caminos antes de medir
+        tasks(200).forEach(taskService::createTask);
+        bulkTaskService.createTasks(tasks(2_000));
+
+        List<TaskRequest> single = tasks(SINGLE_TASKS);
+        long start = System.nanoTime();
+        single.forEach(taskService::createTask);
+        double singleRate = SINGLE_TASKS / ((System.nanoTime() - start) / 1e9);
+
+        List<TaskRequest> bulk = tasks(BULK_TASKS);
+        start = System.nanoTime();
+        BulkTaskResponse response = bulkTaskService.createTasks(bulk);
+        double bulkRate = BULK_TASKS / ((System.nanoTime() - start) / 1e9);
+
+        System.out.printf("createTask x %,d: %,8.0f rows/s%n", SINGLE_TASKS, singleRate);
+        System.out.printf("bulk of %,d:     %,8.0f rows/s%n", BULK_TASKS, bulkRate);
+
+        assertEquals(BULK_TASKS, response.getCreated());
+        assertTrue(bulkRate > singleRate, "bulk " + bulkRate + " rows/s, single " + singleRate);
+    }
+
+    private List<TaskRequest> tasks(int count) {
+        List<TaskRequest> tasks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            TaskRequest request = new TaskRequest();
+            request.setTitle("Imported task " + i);
+            request.setDescription("Imported from the legacy tracker, ticket " + i);
+            request.setStatus(Status.TODO);
+            request.setProjectId(project.getId());
+            request.setAssigneeId(i % 2 == 0 ? user.getId() : null);
+            tasks.add(request);
+        }
+        return tasks;
+    }
+}
@@ -0,0 +1,163 @@
+package com.pablomarotta.smart_task_manager.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pablomarotta.smart_task_manager.dto.AuthResponse;
+import com.pablomarotta.smart_task_manager.dto.BulkTaskItemResponse;
+import com.pablomarotta.smart_task_manager.dto.BulkTaskRequest;
+import com.pablomarotta.smart_task_manager.dto.BulkTaskResponse;
+import com.pablomarotta.smart_task_manager.dto.RegisterRequest;
+import com.pablomarotta.smart_task_manager.dto.TaskRequest;
+import com.pablomarotta.smart_task_manager.model.AIEnrichmentStatus;
+import com.pablomarotta.smart_task_manager.model.Project;
+import com.pablomarotta.smart_task_manager.model.Status;
+import com.pablomarotta.smart_task_manager.model.Task;
+import com.pablomarotta.smart_task_manager.model.User;
+import com.pablomarotta.smart_task_manager.repository.ProjectRepository;
+import com.pablomarotta.smart_task_manager.repository.TaskRepository;
+import com.pablomarotta.smart_task_manager.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.pablomarotta.smart_task_manager.integration.SqlBudget.statements;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(properties = {
+    "ai.ollama.enabled=false",
+    "diagnostics.sql.response-headers=true",
+    "tasks.bulk.max-items=500"
+})
+public class BulkTaskIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private String token;
+    private User user;
+    private Project project;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        taskRepository.deleteAll();
+        projectRepository.deleteAll();
+        userRepository.deleteAll();
+
+        RegisterRequest registerRequest = new RegisterRequest();
+        registerRequest.setUsername("bulkuser");
+        registerRequest.setEmail("bulkuser@example.com");
+        registerRequest.setPassword("password123");
+        registerRequest.setFullName("Bulk User");
+        MvcResult authResult = mockMvc.perform(post("/api/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(registerRequest)))
+                .andExpect(status().isCreated())
+                .andReturn();
+        token = objectMapper.readValue(authResult.getResponse().getContentAsString(), AuthResponse.class).getToken();
+        user = userRepository.findByUsername("bulkuser").orElseThrow();
+        project = projectRepository.save(Project.builder().name("Import").owner(user).build());
+    }
+
+    @Test
+    public void testBulkCreatesValidItemsAndReportsTheRest() throws Exception {
+        List<TaskRequest> tasks = new ArrayList<>();
+        tasks.add(task("Imported task", project.getId(), user.getId()));
+        tasks.add(task("Missing project", project.getId() + 1000, null));
+        tasks.add(task("", project.getId(), null));
+        TaskRequest longCategory = task("Long category", project.getId(), null);
+        longCategory.setCategory("C".repeat(40));
+        tasks.add(longCategory);
+
+        BulkTaskResponse response = body(bulk(tasks).andExpect(status().isOk()));
+
+        // 1. Solo la primera se crea; las demás explican por qué no
+        assertEquals(1, response.getCreated());
+        assertEquals(3, response.getRejected());
+        assertEquals("CREATED", response.getItems().get(0).getResult().name());
+        assertTrue(response.getItems().get(1).getError().startsWith("Project not found"));
+        assertTrue(response.getItems().get(2).getError().startsWith("title: "));
+        assertTrue(response.getItems().get(3).getError().startsWith("category: "));
+
+        // 2. La tarea creada queda pendiente para el backfill de IA
+        Task saved = taskRepository.findById(response.getItems().get(0).getId()).orElseThrow();
+        assertEquals("Imported task", saved.getTitle());
+        assertEquals(AIEnrichmentStatus.PENDING, saved.getAiStatus());
+        assertEquals(1, taskRepository.count());
+    }
+
+    @Test
+    public void testBulkInsertsInBatches() throws Exception {
+        List<TaskRequest> tasks = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            tasks.add(task("Task " + i, project.getId(), i % 2 == 0 ? user.getId() : null));
+        }
+
+        // Usuario del JWT, proyectos, asignados, 10 reservas de ids y 10 lotes de INSERT
+        BulkTaskResponse response = body(bulk(tasks)
+                .andExpect(status().isOk())
+                .andExpect(statements(23)));
+
+        assertEquals(500, response.getCreated());
+        assertEquals(500, taskRepository.count());
+        assertEquals(500, response.getItems().stream().map(BulkTaskItemResponse::getId).distinct().count());
+    }
+
+    @Test
+    public void testBulkRejectsEmptyAndOversizedRequests() throws Exception {
+        bulk(List.of()).andExpect(status().isBadRequest());
+
+        List<TaskRequest> tooMany = new ArrayList<>();
+        for (int i = 0; i < 501; i++) {
+            tooMany.add(task("Task " + i, project.getId(), null));
+        }
+        bulk(tooMany).andExpect(status().isBadRequest());
+        assertEquals(0, taskRepository.count());
+    }
+
+    private TaskRequest task(String title, Long projectId, Long assigneeId) {
+        TaskRequest request = new TaskRequest();
+        request.setTitle(title);
+        request.setStatus(Status.TODO);
+        request.setProjectId(projectId);
+        request.setAssigneeId(assigneeId);
+        return request;
+    }
+
+    private ResultActions bulk(List<TaskRequest> tasks) throws Exception {
+        BulkTaskRequest request = new BulkTaskRequest();
+        request.setTasks(tasks);
+        return mockMvc.perform(post("/api/tasks/bulk")
+                .header("Authorization", "Bearer " + token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)));
+    }
+
+    private BulkTaskResponse body(ResultActions result) throws Exception {
+        return objectMapper.readValue(result.andReturn().getResponse().getContentAsString(), BulkTaskResponse.class);
+    }
+}
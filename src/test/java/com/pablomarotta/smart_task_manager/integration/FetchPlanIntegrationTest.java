@@ -0,0 +1,176 @@
+package com.pablomarotta.smart_task_manager.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pablomarotta.smart_task_manager.dto.AuthResponse;
+import com.pablomarotta.smart_task_manager.dto.RegisterRequest;
+import com.pablomarotta.smart_task_manager.model.Project;
+import com.pablomarotta.smart_task_manager.model.Status;
+import com.pablomarotta.smart_task_manager.model.Task;
+import com.pablomarotta.smart_task_manager.model.User;
+import com.pablomarotta.smart_task_manager.repository.ProjectRepository;
+import com.pablomarotta.smart_task_manager.repository.TaskRepository;
+import com.pablomarotta.smart_task_manager.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Counts the JDBC statements each read path prepares, so an association that starts
+ * lazy-loading per row shows up as a count that grows with the result.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(properties = {
+    "ai.ollama.enabled=false",
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=warn"
+})
+public class FetchPlanIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private String token;
+    private User owner;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        taskRepository.deleteAll();
+        projectRepository.deleteAll();
+        userRepository.deleteAll();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        RegisterRequest registerRequest = new RegisterRequest();
+        registerRequest.setUsername("planuser");
+        registerRequest.setEmail("planuser@example.com");
+        registerRequest.setPassword("password123");
+        registerRequest.setFullName("Plan User");
+        MvcResult authResult = mockMvc.perform(post("/api/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(registerRequest)))
+                .andExpect(status().isCreated())
+                .andReturn();
+        token = objectMapper.readValue(authResult.getResponse().getContentAsString(), AuthResponse.class).getToken();
+        owner = userRepository.findByUsername("planuser").orElseThrow();
+    }
+
+    @Test
+    public void testProjectListStatementsDoNotGrowWithThePage() throws Exception {
+        // 1. Con dos proyectos de dueños distintos
+        saveProjectsWithOwnOwners(0, 2);
+        long fewProjects = statements(get("/api/projects"));
+
+        // 2. Con veinte: la misma cantidad de sentencias
+        saveProjectsWithOwnOwners(2, 18);
+        long manyProjects = statements(get("/api/projects"));
+
+        assertEquals(fewProjects, manyProjects);
+    }
+
+    @Test
+    public void testTaskListStatementsDoNotGrowWithThePage() throws Exception {
+        Project project = projectRepository.save(Project.builder().name("Tasks").owner(owner).build());
+        saveTasksWithOwnAssignees(project, 0, 2);
+        long fewTasks = statements(get("/api/tasks/project/" + project.getId()));
+
+        saveTasksWithOwnAssignees(project, 2, 18);
+        long manyTasks = statements(get("/api/tasks/project/" + project.getId()));
+
+        assertEquals(fewTasks, manyTasks);
+    }
+
+    @Test
+    public void testSingleProjectAndTaskWritesLoadTheirAssociationsUpFront() throws Exception {
+        Project project = projectRepository.save(Project.builder().name("Single").owner(owner).build());
+        Task task = taskRepository.save(Task.builder()
+                .project(project)
+                .title("Assigned task")
+                .status(Status.TODO)
+                .assignee(owner)
+                .createdBy(owner)
+                .build());
+
+        perform(get("/api/projects/" + project.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.ownerUsername").value("planuser"));
+
+        // La tarea, su proyecto y los dos usuarios llegan en una sola sentencia
+        statistics.clear();
+        perform(patch("/api/tasks/" + task.getId() + "/status").param("status", "IN_PROGRESS"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.projectName").value("Single"))
+                .andExpect(jsonPath("$.assigneeUsername").value("planuser"))
+                .andExpect(jsonPath("$.createdByUsername").value("planuser"));
+        assertEquals(0, statistics.getEntityFetchCount(), "lazy associations fetched one by one");
+    }
+
+    private void saveProjectsWithOwnOwners(int from, int count) {
+        for (int i = from; i < from + count; i++) {
+            User user = saveUser("owner" + i);
+            projectRepository.save(Project.builder().name("Project " + i).owner(user).build());
+        }
+    }
+
+    private void saveTasksWithOwnAssignees(Project project, int from, int count) {
+        for (int i = from; i < from + count; i++) {
+            User user = saveUser("assignee" + i);
+            taskRepository.save(Task.builder()
+                    .project(project)
+                    .title("Task " + i)
+                    .status(Status.TODO)
+                    .assignee(user)
+                    .createdBy(user)
+                    .build());
+        }
+    }
+
+    private User saveUser(String username) {
+        return userRepository.save(User.builder()
+                .username(username)
+                .email(username + "@example.com")
+                .password("password123")
+                .fullName(username)
+                .build());
+    }
+
+    private long statements(MockHttpServletRequestBuilder request) throws Exception {
+        statistics.clear();
+        perform(request).andExpect(status().isOk());
+        return statistics.getPrepareStatementCount();
+    }
+
+    private ResultActions perform(MockHttpServletRequestBuilder request) throws Exception {
+        return mockMvc.perform(request.header("Authorization", "Bearer " + token));
+    }
+}
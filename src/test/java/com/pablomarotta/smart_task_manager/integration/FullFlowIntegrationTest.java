@@ -128,6 +128,8 @@ public class FullFlowIntegrationTest {
                 .andReturn();
         TaskResponse task1Response = objectMapper.readValue(task1Result.getResponse().getContentAsString(), TaskResponse.class);
         Long task1Id = task1Response.getId();
+        assertEquals("Flow Project", task1Response.getProjectName());
+        assertEquals("flowuser", task1Response.getAssigneeUsername());
 
         // Task 2
         TaskRequest task2Request = new TaskRequest();
@@ -192,7 +194,8 @@ public class FullFlowIntegrationTest {
                 .andExpect(status().isOk())
                 .andReturn();
 
-        List<TaskResponse> tasks = objectMapper.readValue(listResult.getResponse().getContentAsString(), new TypeReference<List<TaskResponse>>() {});
+        List<TaskResponse> tasks = objectMapper.readValue(listResult.getResponse().getContentAsString(),
+                new TypeReference<PageResponse<TaskResponse>>() {}).getItems();
         assertEquals(3, tasks.size());
 
         // Verificar estados
@@ -200,6 +203,18 @@ public class FullFlowIntegrationTest {
         assertTrue(tasks.stream().anyMatch(t -> t.getId().equals(task2Id) && t.getStatus() == Status.IN_PROGRESS));
         assertTrue(tasks.stream().anyMatch(t -> t.getId().equals(task3Id) && t.getStatus() == Status.TODO));
 
+        // El listado trae el nombre del proyecto, el asignado y las fechas en la misma consulta
+        assertTrue(tasks.stream().allMatch(t -> "Flow Project".equals(t.getProjectName())
+                && "flowuser".equals(t.getAssigneeUsername())
+                && t.getCreatedAt() != null));
+        assertTrue(tasks.stream().anyMatch(t -> t.getId().equals(task1Id) && t.getCompletedAt() != null));
+        mockMvc.perform(get("/api/tasks/" + task1Id)
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.projectName").value("Flow Project"))
+                .andExpect(jsonPath("$.assigneeUsername").value("flowuser"))
+                .andExpect(jsonPath("$.description").value("Primera task del flujo"));
+
         // === EXTRAS: Probar fallos esperados ===
         // Crear task en proyecto inexistente
         TaskRequest invalidTaskRequest = new TaskRequest();
@@ -0,0 +1,66 @@
+package com.pablomarotta.smart_task_manager.integration;
+
+import com.pablomarotta.smart_task_manager.support.FakeOllamaServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(properties = {
+    "ai.ollama.enabled=true",
+    "ai.ollama.model=fake",
+    "ai.ollama.routing.health-check-interval=100ms"
+})
+public class ModelWarmupIntegrationTest {
+
+    private static final FakeOllamaServer ollama = FakeOllamaServer.start()
+            .loadLatency(Duration.ofMillis(500));
+
+    @DynamicPropertySource
+    static void ollamaProperties(DynamicPropertyRegistry registry) {
+        registry.add("ai.ollama.base-url", ollama::getBaseUrl);
+    }
+
+    @AfterAll
+    static void stopOllama() {
+        ollama.close();
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    public void testReadinessWaitsForTheModel() throws Exception {
+        // 1. La sonda de vida no depende del modelo
+        mockMvc.perform(get("/actuator/health/liveness"))
+                .andExpect(status().isOk());
+
+        // 2. La sonda de disponibilidad pasa a UP cuando el modelo está cargado
+        int status = 0;
+        for (int attempt = 0; attempt < 100 && status != 200; attempt++) {
+            status = mockMvc.perform(get("/actuator/health/readiness")).andReturn().getResponse().getStatus();
+            if (status != 200) {
+                assertEquals(503, status);
+                Thread.sleep(50);
+            }
+        }
+        assertEquals(200, status);
+        assertEquals(1, ollama.getLoads());
+        assertEquals(0, ollama.getRequests());
+        mockMvc.perform(get("/actuator/health/readiness"))
+                .andExpect(jsonPath("$.status").value("UP"));
+    }
+}
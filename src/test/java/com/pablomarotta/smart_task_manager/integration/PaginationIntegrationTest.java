@@ -0,0 +1,185 @@
+package com.pablomarotta.smart_task_manager.integration;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pablomarotta.smart_task_manager.dto.AuthResponse;
+import com.pablomarotta.smart_task_manager.dto.PageResponse;
+import com.pablomarotta.smart_task_manager.dto.RegisterRequest;
+import com.pablomarotta.smart_task_manager.dto.TaskResponse;
+import com.pablomarotta.smart_task_manager.model.Project;
+import com.pablomarotta.smart_task_manager.model.Status;
+import com.pablomarotta.smart_task_manager.model.Task;
+import com.pablomarotta.smart_task_manager.repository.ProjectRepository;
+import com.pablomarotta.smart_task_manager.repository.TaskRepository;
+import com.pablomarotta.smart_task_manager.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(properties = {
+    "ai.ollama.enabled=false",
+    "pagination.max-size=5"
+})
+public class PaginationIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private String token;
+    private Project project;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        taskRepository.deleteAll();
+        projectRepository.deleteAll();
+        userRepository.deleteAll();
+
+        RegisterRequest registerRequest = new RegisterRequest();
+        registerRequest.setUsername("pageuser");
+        registerRequest.setEmail("pageuser@example.com");
+        registerRequest.setPassword("password123");
+        registerRequest.setFullName("Page User");
+        MvcResult authResult = mockMvc.perform(post("/api/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(registerRequest)))
+                .andExpect(status().isCreated())
+                .andReturn();
+        token = objectMapper.readValue(authResult.getResponse().getContentAsString(), AuthResponse.class).getToken();
+
+        project = projectRepository.save(Project.builder()
+                .name("Paged project")
+                .owner(userRepository.findByUsername("pageuser").orElseThrow())
+                .build());
+    }
+
+    @Test
+    public void testWalkingTheCursorReturnsEveryTaskOnce() throws Exception {
+        List<Long> created = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            created.add(saveTask("Task " + i, Status.TODO).getId());
+        }
+
+        // 1. Primera página de 3, en orden de creación
+        PageResponse<TaskResponse> first = page(get("/api/tasks/project/" + project.getId()).param("size", "3"));
+        assertEquals(created.subList(0, 3), ids(first));
+        assertNotNull(first.getNextCursor());
+
+        // 2. Una tarea creada entre páginas aparece al final, sin repetir ni saltar filas
+        created.add(saveTask("Task created meanwhile", Status.TODO).getId());
+        List<Long> seen = new ArrayList<>(ids(first));
+        String cursor = first.getNextCursor();
+        while (cursor != null) {
+            PageResponse<TaskResponse> next = page(get("/api/tasks/project/" + project.getId())
+                    .param("size", "3")
+                    .param("cursor", cursor));
+            seen.addAll(ids(next));
+            cursor = next.getNextCursor();
+        }
+        assertEquals(created, seen);
+    }
+
+    @Test
+    public void testStatusEndpointsPageOnlyTheirStatus() throws Exception {
+        for (int i = 0; i < 4; i++) {
+            saveTask("Done " + i, Status.DONE);
+            saveTask("Todo " + i, Status.TODO);
+        }
+
+        PageResponse<TaskResponse> first = page(get("/api/tasks/status/done").param("size", "3"));
+        PageResponse<TaskResponse> second = page(get("/api/tasks/status/done")
+                .param("size", "3")
+                .param("cursor", first.getNextCursor()));
+
+        assertEquals(3, first.getItems().size());
+        assertEquals(1, second.getItems().size());
+        assertNull(second.getNextCursor());
+        assertTrue(second.getItems().stream().allMatch(task -> task.getStatus() == Status.DONE));
+    }
+
+    @Test
+    public void testPageSizeIsCappedByTheServer() throws Exception {
+        for (int i = 0; i < 8; i++) {
+            saveTask("Task " + i, Status.TODO);
+        }
+
+        PageResponse<TaskResponse> page = page(get("/api/tasks/alltasks").param("size", "1000"));
+
+        assertEquals(5, page.getItems().size());
+        assertNotNull(page.getNextCursor());
+    }
+
+    @Test
+    public void testInvalidCursorOrSizeIsABadRequest() throws Exception {
+        mockMvc.perform(get("/api/tasks/alltasks")
+                        .header("Authorization", "Bearer " + token)
+                        .param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/projects")
+                        .header("Authorization", "Bearer " + token)
+                        .param("size", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void testProjectsAndUsersArePaged() throws Exception {
+        mockMvc.perform(get("/api/projects")
+                        .header("Authorization", "Bearer " + token)
+                        .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].name").value("Paged project"))
+                .andExpect(jsonPath("$.items[0].ownerUsername").value("pageuser"))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+        mockMvc.perform(get("/api/users")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].username").value("pageuser"));
+    }
+
+    private Task saveTask(String title, Status status) {
+        return taskRepository.save(Task.builder()
+                .project(project)
+                .title(title)
+                .status(status)
+                .build());
+    }
+
+    private PageResponse<TaskResponse> page(MockHttpServletRequestBuilder request) throws Exception {
+        MvcResult result = mockMvc.perform(request.header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andReturn();
+        return objectMapper.readValue(result.getResponse().getContentAsString(),
+                new TypeReference<PageResponse<TaskResponse>>() {});
+    }
+
+    private List<Long> ids(PageResponse<TaskResponse> page) {
+        return page.getItems().stream().map(TaskResponse::getId).toList();
+    }
+}
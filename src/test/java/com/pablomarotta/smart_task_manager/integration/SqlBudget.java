@@ -0,0 +1,29 @@
+package com.pablomarotta.smart_task_manager.integration;
+
+import com.pablomarotta.smart_task_manager.config.SqlStatementBudgetFilter;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * MockMvc matchers on the X-SQL-* headers of {@link SqlStatementBudgetFilter}. A budget
+ * covers the whole request, including the user lookup of the JWT filter, so an endpoint
+ * that starts loading an association per row fails its test instead of slowing down
+ * production.
+ */
+public final class SqlBudget {
+
+    private SqlBudget() {
+    }
+
+    /** The request ran at most {@code budget} SQL statements. */
+    public static ResultMatcher statements(int budget) {
+        return result -> {
+            String header = result.getResponse().getHeader(SqlStatementBudgetFilter.STATEMENTS_HEADER);
+            assertNotNull(header, "no " + SqlStatementBudgetFilter.STATEMENTS_HEADER + " header; is diagnostics.sql.response-headers on?");
+            long statements = Long.parseLong(header);
+            assertTrue(statements <= budget, result.getRequest().getMethod() + " " + result.getRequest().getRequestURI()
+                    + " ran " + statements + " SQL statements, budget " + budget);
+        };
+    }
+}
@@ -0,0 +1,208 @@
+package com.pablomarotta.smart_task_manager.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pablomarotta.smart_task_manager.config.SqlStatementBudgetFilter;
+import com.pablomarotta.smart_task_manager.dto.AuthResponse;
+import com.pablomarotta.smart_task_manager.dto.ProjectRequest;
+import com.pablomarotta.smart_task_manager.dto.RegisterRequest;
+import com.pablomarotta.smart_task_manager.dto.TaskRequest;
+import com.pablomarotta.smart_task_manager.dto.UserRequest;
+import com.pablomarotta.smart_task_manager.model.Project;
+import com.pablomarotta.smart_task_manager.model.Status;
+import com.pablomarotta.smart_task_manager.model.Task;
+import com.pablomarotta.smart_task_manager.model.User;
+import com.pablomarotta.smart_task_manager.repository.ProjectRepository;
+import com.pablomarotta.smart_task_manager.repository.TaskRepository;
+import com.pablomarotta.smart_task_manager.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import static com.pablomarotta.smart_task_manager.integration.SqlBudget.statements;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * A SQL statement budget for every endpoint of TaskController, ProjectController and
+ * UserController, measured with enough rows that loading per row would blow it.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(properties = {
+    "ai.ollama.enabled=false",
+    "diagnostics.sql.response-headers=true"
+})
+public class SqlBudgetIntegrationTest {
+
+    private static final int ROWS = 20;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private String token;
+    private User user;
+    private Project project;
+    private Task task;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        taskRepository.deleteAll();
+        projectRepository.deleteAll();
+        userRepository.deleteAll();
+        project = null;
+        task = null;
+
+        RegisterRequest registerRequest = new RegisterRequest();
+        registerRequest.setUsername("budgetuser");
+        registerRequest.setEmail("budgetuser@example.com");
+        registerRequest.setPassword("password123");
+        registerRequest.setFullName("Budget User");
+        MvcResult authResult = mockMvc.perform(post("/api/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(registerRequest)))
+                .andExpect(status().isCreated())
+                .andReturn();
+        token = objectMapper.readValue(authResult.getResponse().getContentAsString(), AuthResponse.class).getToken();
+        user = userRepository.findByUsername("budgetuser").orElseThrow();
+
+        // Cada fila con su propio dueño o asignado, para que una carga por fila se note
+        for (int i = 0; i < ROWS; i++) {
+            User member = userRepository.save(User.builder()
+                    .username("member" + i)
+                    .email("member" + i + "@example.com")
+                    .password("password123")
+                    .fullName("Member " + i)
+                    .build());
+            Project memberProject = projectRepository.save(Project.builder().name("Project " + i).owner(member).build());
+            project = project != null ? project : memberProject;
+            Task memberTask = taskRepository.save(Task.builder()
+                    .project(project)
+                    .title("Task " + i)
+                    .status(i % 2 == 0 ? Status.TODO : Status.DONE)
+                    .assignee(member)
+                    .createdBy(member)
+                    .build());
+            task = task != null ? task : memberTask;
+        }
+    }
+
+    @Test
+    public void testTaskControllerBudgets() throws Exception {
+        TaskRequest taskRequest = new TaskRequest();
+        taskRequest.setTitle("Budgeted task");
+        taskRequest.setStatus(Status.TODO);
+        taskRequest.setProjectId(project.getId());
+        taskRequest.setAssigneeId(user.getId());
+
+        perform(post("/api/tasks/newtask").contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(taskRequest)))
+                .andExpect(status().isCreated())
+                .andExpect(statements(4));
+        perform(get("/api/tasks/alltasks")).andExpect(status().isOk()).andExpect(statements(2));
+        perform(get("/api/tasks/project/" + project.getId())).andExpect(status().isOk()).andExpect(statements(2));
+        perform(get("/api/tasks/user/" + user.getId())).andExpect(status().isOk()).andExpect(statements(2));
+        for (String status : new String[]{"todo", "in-progress", "done", "blocked", "cancelled"}) {
+            perform(get("/api/tasks/status/" + status)).andExpect(status().isOk()).andExpect(statements(2));
+        }
+        perform(get("/api/tasks/project/" + project.getId() + "/users")).andExpect(status().isOk()).andExpect(statements(2));
+        perform(get("/api/tasks/" + task.getId())).andExpect(status().isOk()).andExpect(statements(2));
+        perform(get("/api/tasks/" + task.getId() + "/enrichment")).andExpect(status().isOk()).andExpect(statements(2));
+        // Sin IA responde 503 antes de tocar la base de datos
+        perform(get("/api/tasks/" + task.getId() + "/related")).andExpect(status().isServiceUnavailable()).andExpect(statements(1));
+
+        taskRequest.setTitle("Budgeted task, renamed");
+        perform(put("/api/tasks/" + task.getId()).contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(taskRequest)))
+                .andExpect(status().isOk())
+                .andExpect(statements(3));
+        perform(patch("/api/tasks/" + task.getId() + "/status").param("status", "IN_PROGRESS"))
+                .andExpect(status().isOk()).andExpect(statements(3));
+        perform(patch("/api/tasks/" + task.getId() + "/assign").param("userId", String.valueOf(user.getId())))
+                .andExpect(status().isOk()).andExpect(statements(4));
+        perform(patch("/api/tasks/" + task.getId() + "/priority").param("priority", "HIGH"))
+                .andExpect(status().isOk()).andExpect(statements(3));
+        perform(delete("/api/tasks/" + task.getId())).andExpect(status().isNoContent()).andExpect(statements(3));
+    }
+
+    @Test
+    public void testProjectControllerBudgets() throws Exception {
+        ProjectRequest projectRequest = new ProjectRequest();
+        projectRequest.setName("Budgeted project");
+        projectRequest.setUsername("budgetuser");
+
+        perform(post("/api/projects").contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(projectRequest)))
+                .andExpect(status().isCreated())
+                .andExpect(statements(3));
+        perform(get("/api/projects")).andExpect(status().isOk()).andExpect(statements(2));
+        perform(get("/api/projects/" + project.getId())).andExpect(status().isOk()).andExpect(statements(2));
+    }
+
+    @Test
+    public void testUserControllerBudgets() throws Exception {
+        UserRequest userRequest = new UserRequest();
+        userRequest.setUsername("newmember");
+        userRequest.setEmail("newmember@example.com");
+        userRequest.setPassword("password123");
+        userRequest.setFullName("New Member");
+
+        perform(post("/api/users").contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(userRequest)))
+                .andExpect(status().isCreated())
+                .andExpect(statements(4));
+        perform(get("/api/users")).andExpect(status().isOk()).andExpect(statements(2));
+        perform(get("/api/users/username/newmember")).andExpect(status().isOk()).andExpect(statements(2));
+
+        userRequest.setFullName("Renamed Member");
+        perform(put("/api/users/newmember").contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(userRequest)))
+                .andExpect(status().isOk())
+                .andExpect(statements(3));
+        perform(delete("/api/users/newmember")).andExpect(status().isNoContent()).andExpect(statements(3));
+    }
+
+    @Test
+    public void testTotalsArePublishedAsHeadersAndMetrics() throws Exception {
+        perform(get("/api/tasks/project/" + project.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(SqlStatementBudgetFilter.ROWS_HEADER))
+                .andExpect(header().exists(SqlStatementBudgetFilter.TIME_HEADER));
+
+        // El listado lee las tareas del proyecto y el usuario autenticado
+        MvcResult result = perform(get("/api/tasks/project/" + project.getId())).andReturn();
+        assertTrue(Long.parseLong(result.getResponse().getHeader(SqlStatementBudgetFilter.ROWS_HEADER)) >= ROWS);
+        assertTrue(meterRegistry.get("http.server.requests.sql.statements")
+                .tag("uri", "/api/tasks/project/{projectId}")
+                .summary()
+                .count() >= 2);
+    }
+
+    private ResultActions perform(MockHttpServletRequestBuilder request) throws Exception {
+        return mockMvc.perform(request.header("Authorization", "Bearer " + token));
+    }
+}
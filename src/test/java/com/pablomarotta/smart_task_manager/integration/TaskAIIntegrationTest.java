@@ -2,16 +2,25 @@ package com.pablomarotta.smart_task_manager.integration;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.pablomarotta.smart_task_manager.dto.*;
+import com.pablomarotta.smart_task_manager.model.AIEnrichmentStatus;
+import com.pablomarotta.smart_task_manager.model.Priority;
 import com.pablomarotta.smart_task_manager.model.Status;
+import com.pablomarotta.smart_task_manager.support.FakeOllamaServer;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 
+import java.time.Duration;
+
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 import static org.junit.jupiter.api.Assertions.*;
@@ -20,17 +29,32 @@ import static org.junit.jupiter.api.Assertions.*;
 @AutoConfigureMockMvc
 @TestPropertySource(properties = {
     "ai.ollama.enabled=true",
-    "ai.ollama.base-url=http://localhost:11434",
     "ai.ollama.model=llama3.2"
 })
 public class TaskAIIntegrationTest {
 
+    // Stand-in for Ollama so the test does not need a model running
+    private static final FakeOllamaServer ollama = FakeOllamaServer.start();
+
+    @DynamicPropertySource
+    static void ollamaProperties(DynamicPropertyRegistry registry) {
+        registry.add("ai.ollama.base-url", ollama::getBaseUrl);
+    }
+
+    @AfterAll
+    static void stopOllama() {
+        ollama.close();
+    }
+
     @Autowired
     private MockMvc mockMvc;
 
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @Test
     public void testCreateTaskWithAIClassification() throws Exception {
         // 1. Registrar usuario y obtener token
@@ -98,15 +122,9 @@ public class TaskAIIntegrationTest {
         assertEquals(Status.TODO, taskResponse.getStatus());
         assertEquals(projectResponse.getId(), taskResponse.getProjectId());
 
-        // 5. Verificar que la IA clasificó la tarea
-        // Nota: Los campos AI no están en TaskResponse actualmente,
-        // pero deberían estar para validar la clasificación
-        System.out.println("Task created with ID: " + taskResponse.getId());
-        System.out.println("AI classification should have populated:");
-        System.out.println("- aiPriority (expected: HIGH or URGENT)");
-        System.out.println("- aiCategory (expected: BUG)");
-        System.out.println("- aiSuggestedDueDays (expected: 1-3 days)");
-        System.out.println("- aiSummary (expected: concise summary)");
+        // 5. Esperar a que la clasificación en segundo plano termine
+        TaskEnrichmentResponse enrichment = awaitEnrichment(taskResponse.getId(), token);
+        assertEquals(AIEnrichmentStatus.COMPLETED, enrichment.getStatus());
 
         // 6. Obtener la tarea completa para verificar campos AI
         MvcResult getTaskResult = mockMvc.perform(get("/api/tasks/" + taskResponse.getId())
@@ -122,18 +140,17 @@ public class TaskAIIntegrationTest {
         assertNotNull(retrievedTask);
         assertEquals(taskResponse.getId(), retrievedTask.getId());
 
-        // TODO: Descomentar cuando TaskResponse incluya campos AI
-        // assertNotNull(retrievedTask.getAiPriority(), "AI should have classified priority");
-        // assertNotNull(retrievedTask.getAiCategory(), "AI should have classified category");
-        // assertNotNull(retrievedTask.getAiSuggestedDueDays(), "AI should have suggested due days");
-        // assertNotNull(retrievedTask.getAiSummary(), "AI should have generated summary");
-
-        // assertTrue(
-        //     retrievedTask.getAiPriority().equals("HIGH") || retrievedTask.getAiPriority().equals("URGENT"),
-        //     "Critical bug should be HIGH or URGENT priority"
-        // );
-        // assertEquals("BUG", retrievedTask.getAiCategory(), "Should be classified as BUG");
-        // assertTrue(retrievedTask.getAiSuggestedDueDays() <= 3, "Critical bug should be completed within 3 days");
+        assertNotNull(retrievedTask.getAiPriority(), "AI should have classified priority");
+        assertNotNull(retrievedTask.getAiCategory(), "AI should have classified category");
+        assertNotNull(retrievedTask.getAiSuggestedDueDays(), "AI should have suggested due days");
+        assertNotNull(retrievedTask.getAiSummary(), "AI should have generated summary");
+
+        assertTrue(
+            retrievedTask.getAiPriority() == Priority.HIGH || retrievedTask.getAiPriority() == Priority.URGENT,
+            "Critical bug should be HIGH or URGENT priority"
+        );
+        assertEquals("BUG", retrievedTask.getAiCategory(), "Should be classified as BUG");
+        assertTrue(retrievedTask.getAiSuggestedDueDays() <= 3, "Critical bug should be completed within 3 days");
     }
 
     @Test
@@ -197,9 +214,89 @@ public class TaskAIIntegrationTest {
         assertNotNull(taskResponse.getId());
         assertEquals("Add dark mode theme", taskResponse.getTitle());
 
-        // TODO: Verificar clasificación AI cuando TaskResponse incluya campos
-        // assertNotNull(taskResponse.getAiCategory());
-        // assertEquals("FEATURE", taskResponse.getAiCategory());
-        // assertTrue(taskResponse.getAiSuggestedDueDays() >= 5, "Feature should take several days");
+        TaskEnrichmentResponse enrichment = awaitEnrichment(taskResponse.getId(), token);
+        assertEquals(AIEnrichmentStatus.COMPLETED, enrichment.getStatus());
+        assertNotNull(enrichment.getAiCategory());
+        assertEquals("FEATURE", enrichment.getAiCategory());
+        assertTrue(enrichment.getAiSuggestedDueDays() >= 5, "Feature should take several days");
+    }
+
+    @Test
+    public void testCreateTaskWithUnknownAssignee_CancelsTheClassification() throws Exception {
+        // Generación lenta: la validación falla mucho antes de que Ollama responda
+        ollama.reset();
+        ollama.firstTokenLatency(FakeOllamaServer.Latency.fixed(Duration.ofSeconds(2)));
+        double cancelledBefore = meterRegistry.counter("ai.enrichment.speculative", "outcome", "cancelled").count();
+        try {
+            String suffix = String.valueOf(System.nanoTime());
+            RegisterRequest registerRequest = new RegisterRequest();
+            registerRequest.setUsername("cancel_" + suffix);
+            registerRequest.setEmail("cancel_" + suffix + "@example.com");
+            registerRequest.setPassword("password123");
+            registerRequest.setFullName("Cancel Test User");
+
+            MvcResult authResult = mockMvc.perform(post("/api/auth/register")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(registerRequest)))
+                    .andExpect(status().isCreated())
+                    .andReturn();
+            AuthResponse authResponse = objectMapper.readValue(
+                    authResult.getResponse().getContentAsString(), AuthResponse.class);
+            String token = authResponse.getToken();
+
+            ProjectRequest projectRequest = new ProjectRequest();
+            projectRequest.setName("Cancel Test Project");
+            projectRequest.setUsername(authResponse.getUser().getUsername());
+            MvcResult projectResult = mockMvc.perform(post("/api/projects")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .header("Authorization", "Bearer " + token)
+                            .content(objectMapper.writeValueAsString(projectRequest)))
+                    .andExpect(status().isCreated())
+                    .andReturn();
+            ProjectResponse projectResponse = objectMapper.readValue(
+                    projectResult.getResponse().getContentAsString(), ProjectResponse.class);
+
+            // Asignado inexistente: la tarea no se crea y la clasificación en curso se cancela
+            TaskRequest taskRequest = new TaskRequest();
+            taskRequest.setTitle("Fix crash on export " + suffix);
+            taskRequest.setStatus(Status.TODO);
+            taskRequest.setProjectId(projectResponse.getId());
+            taskRequest.setAssigneeId(Long.MAX_VALUE);
+
+            long start = System.nanoTime();
+            mockMvc.perform(post("/api/tasks/newtask")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .header("Authorization", "Bearer " + token)
+                            .content(objectMapper.writeValueAsString(taskRequest)))
+                    .andExpect(status().isNotFound());
+            assertTrue(System.nanoTime() - start < Duration.ofSeconds(1).toNanos(), "createTask waited for Ollama");
+
+            assertEquals(cancelledBefore + 1,
+                    meterRegistry.counter("ai.enrichment.speculative", "outcome", "cancelled").count());
+            Thread.sleep(2500);
+            assertEquals(0, ollama.getCompleted());
+            // Every generation that reached Ollama was cut off
+            assertEquals(ollama.getRequests(), ollama.getCancelled());
+        } finally {
+            ollama.reset();
+        }
+    }
+
+    private TaskEnrichmentResponse awaitEnrichment(Long taskId, String token) throws Exception {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (true) {
+            MvcResult result = mockMvc.perform(get("/api/tasks/" + taskId + "/enrichment")
+                            .header("Authorization", "Bearer " + token))
+                    .andExpect(status().isOk())
+                    .andReturn();
+            TaskEnrichmentResponse enrichment = objectMapper.readValue(
+                    result.getResponse().getContentAsString(), TaskEnrichmentResponse.class);
+            boolean finished = enrichment.getStatus() == AIEnrichmentStatus.COMPLETED
+                    || enrichment.getStatus() == AIEnrichmentStatus.FAILED;
+            if (finished || System.currentTimeMillis() > deadline) {
+                return enrichment;
+            }
+            Thread.sleep(50);
+        }
     }
 }
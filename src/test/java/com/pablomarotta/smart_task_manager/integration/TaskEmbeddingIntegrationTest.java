@@ -0,0 +1,209 @@
+package com.pablomarotta.smart_task_manager.integration;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pablomarotta.smart_task_manager.dto.*;
+import com.pablomarotta.smart_task_manager.model.AIClassificationSource;
+import com.pablomarotta.smart_task_manager.model.AIEnrichmentStatus;
+import com.pablomarotta.smart_task_manager.model.Status;
+import com.pablomarotta.smart_task_manager.repository.ProjectRepository;
+import com.pablomarotta.smart_task_manager.repository.TaskRepository;
+import com.pablomarotta.smart_task_manager.repository.UserRepository;
+import com.pablomarotta.smart_task_manager.service.TaskEmbeddingService;
+import com.pablomarotta.smart_task_manager.support.FakeOllamaServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(properties = {
+    "ai.ollama.enabled=true",
+    "ai.ollama.embedding.enabled=true"
+})
+public class TaskEmbeddingIntegrationTest {
+
+    private static final FakeOllamaServer ollama = FakeOllamaServer.start();
+    private static final Path indexDirectory = createIndexDirectory();
+
+    @DynamicPropertySource
+    static void ollamaProperties(DynamicPropertyRegistry registry) {
+        registry.add("ai.ollama.base-url", ollama::getBaseUrl);
+        registry.add("ai.ollama.embedding.index-file", () -> indexDirectory.resolve("tasks.hnsw").toString());
+    }
+
+    @AfterAll
+    static void stopOllama() {
+        ollama.close();
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TaskEmbeddingService embeddingService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @BeforeEach
+    public void setup() {
+        taskRepository.deleteAll();
+        projectRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    public void testRelatedTasksAndNearDuplicateReuse() throws Exception {
+        // 1. Usuario con un proyecto
+        AuthResponse auth = register("embedding_user");
+        Long projectId = createProject(auth);
+
+        // 2. Tareas clasificadas por el modelo
+        TaskResponse crash = createTask(auth, projectId, "Fix login crash on Safari", "The app crashes after login");
+        assertEquals(AIClassificationSource.LLM, awaitEnrichment(auth, crash.getId()).getAiSource());
+        TaskResponse docs = createTask(auth, projectId, "Write API documentation", "Document the export endpoints");
+        awaitEnrichment(auth, docs.getId());
+
+        // 3. Una tarea casi idéntica reutiliza la clasificación de la primera
+        int generations = ollama.getRequests();
+        TaskResponse duplicate = createTask(auth, projectId, "Fix login crash on Safari", "The app crashes after login");
+        TaskEnrichmentResponse reused = awaitEnrichment(auth, duplicate.getId());
+        assertEquals(AIClassificationSource.NEIGHBOR, reused.getAiSource());
+        assertEquals("BUG", reused.getAiCategory());
+        assertEquals(generations, ollama.getRequests());
+
+        // 4. Las tareas relacionadas salen ordenadas por similitud
+        List<RelatedTaskResponse> related = related(auth, crash.getId());
+        assertEquals(duplicate.getId(), related.get(0).getId());
+        assertEquals(1.0, related.get(0).getSimilarity(), 1e-4);
+        assertTrue(related.stream().noneMatch(task -> task.getId().equals(crash.getId())));
+        assertTrue(related.stream().anyMatch(task -> task.getId().equals(docs.getId())));
+
+        // 5. Una tarea borrada desaparece de los resultados
+        mockMvc.perform(delete("/api/tasks/" + duplicate.getId())
+                        .header("Authorization", "Bearer " + auth.getToken()))
+                .andExpect(status().isNoContent());
+        assertTrue(related(auth, crash.getId()).stream().noneMatch(task -> task.getId().equals(duplicate.getId())));
+
+        // 6. El índice se guarda en disco
+        embeddingService.flush();
+        assertTrue(Files.exists(indexDirectory.resolve("tasks.hnsw")));
+    }
+
+    @Test
+    public void testRelatedTasksOfUnknownTaskReturnsNotFound() throws Exception {
+        AuthResponse auth = register("embedding_missing_user");
+
+        mockMvc.perform(get("/api/tasks/999999/related")
+                        .header("Authorization", "Bearer " + auth.getToken()))
+                .andExpect(status().isNotFound());
+    }
+
+    private List<RelatedTaskResponse> related(AuthResponse auth, Long taskId) throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/tasks/" + taskId + "/related")
+                        .param("limit", "5")
+                        .header("Authorization", "Bearer " + auth.getToken()))
+                .andExpect(status().isOk())
+                .andReturn();
+        return objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
+        });
+    }
+
+    private AuthResponse register(String username) throws Exception {
+        RegisterRequest registerRequest = new RegisterRequest();
+        registerRequest.setUsername(username);
+        registerRequest.setEmail(username + "@example.com");
+        registerRequest.setPassword("password123");
+        registerRequest.setFullName("Embedding Test User");
+
+        MvcResult authResult = mockMvc.perform(post("/api/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(registerRequest)))
+                .andExpect(status().isCreated())
+                .andReturn();
+        return objectMapper.readValue(authResult.getResponse().getContentAsString(), AuthResponse.class);
+    }
+
+    private Long createProject(AuthResponse auth) throws Exception {
+        ProjectRequest projectRequest = new ProjectRequest();
+        projectRequest.setName("Embedding Project");
+        projectRequest.setUsername(auth.getUser().getUsername());
+
+        MvcResult projectResult = mockMvc.perform(post("/api/projects")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("Authorization", "Bearer " + auth.getToken())
+                        .content(objectMapper.writeValueAsString(projectRequest)))
+                .andExpect(status().isCreated())
+                .andReturn();
+        return objectMapper.readValue(projectResult.getResponse().getContentAsString(), ProjectResponse.class).getId();
+    }
+
+    private TaskResponse createTask(AuthResponse auth, Long projectId, String title, String description) throws Exception {
+        TaskRequest taskRequest = new TaskRequest();
+        taskRequest.setTitle(title);
+        taskRequest.setDescription(description);
+        taskRequest.setStatus(Status.TODO);
+        taskRequest.setProjectId(projectId);
+
+        MvcResult taskResult = mockMvc.perform(post("/api/tasks/newtask")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("Authorization", "Bearer " + auth.getToken())
+                        .content(objectMapper.writeValueAsString(taskRequest)))
+                .andExpect(status().isCreated())
+                .andReturn();
+        return objectMapper.readValue(taskResult.getResponse().getContentAsString(), TaskResponse.class);
+    }
+
+    private TaskEnrichmentResponse awaitEnrichment(AuthResponse auth, Long taskId) throws Exception {
+        TaskEnrichmentResponse enrichment = null;
+        for (int attempt = 0; attempt < 100; attempt++) {
+            MvcResult result = mockMvc.perform(get("/api/tasks/" + taskId + "/enrichment")
+                            .header("Authorization", "Bearer " + auth.getToken()))
+                    .andExpect(status().isOk())
+                    .andReturn();
+            enrichment = objectMapper.readValue(result.getResponse().getContentAsString(), TaskEnrichmentResponse.class);
+            if (enrichment.getStatus() == AIEnrichmentStatus.COMPLETED || enrichment.getStatus() == AIEnrichmentStatus.FAILED) {
+                return enrichment;
+            }
+            Thread.sleep(50);
+        }
+        fail("Enrichment did not finish: " + enrichment);
+        return enrichment;
+    }
+
+    private static Path createIndexDirectory() {
+        try {
+            return Files.createTempDirectory("task-embeddings");
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.pablomarotta.smart_task_manager.integration;
+
+import com.pablomarotta.smart_task_manager.model.Project;
+import com.pablomarotta.smart_task_manager.model.Task;
+import com.pablomarotta.smart_task_manager.model.User;
+import com.pablomarotta.smart_task_manager.repository.ProjectRepository;
+import com.pablomarotta.smart_task_manager.repository.TaskRepository;
+import com.pablomarotta.smart_task_manager.repository.TaskRow;
+import com.pablomarotta.smart_task_manager.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * One page of a project's tasks read two ways: the TaskRow constructor projection the
+ * list endpoints use, and managed entities with the project and users fetch-joined in a
+ * read-only transaction. Both return the same columns; the difference is entity
+ * hydration, the persistence context and its snapshots. Reports latency and the bytes
+ * allocated by the reading thread per page. Excluded from the default build; run with
+ * {@code ./mvnw test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+    "ai.ollama.enabled=false",
+    "spring.jpa.show-sql=false"
+})
+public class TaskReadPathBenchmarkTest {
+
+    private static final int TASKS = 20_000;
+    private static final int PAGE_SIZE = 200;
+    private static final int WARMUP_PAGES = 300;
+    private static final int MEASURED_PAGES = 500;
+
+    private static final String ENTITY_PAGE = """
+            select t from Task t
+            join fetch t.project
+            left join fetch t.assignee
+            left join fetch t.createdBy
+            where t.project.id = :projectId and (t.createdAt, t.id) > (:createdAt, :id)
+            order by t.createdAt, t.id
+            """;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Long projectId;
+
+    @BeforeEach
+    void seed() {
+        taskRepository.deleteAll();
+        projectRepository.deleteAll();
+        userRepository.deleteAll();
+
+        User user = userRepository.save(User.builder()
+                .username("reader")
+                .email("reader@example.com")
+                .password("password123")
+                .fullName("Read Path")
+                .build());
+        projectId = projectRepository.save(Project.builder().name("Read path").owner(user).build()).getId();
+
+        // Tareas realistas: descripción y resumen de IA de varios cientos de caracteres
+        String description = "Steps to reproduce the crash on export. ".repeat(25);
+        String summary = "The export crashes when the report is empty. ".repeat(10);
+        LocalDateTime start = LocalDateTime.now().minusDays(30);
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < TASKS; i++) {
+            rows.add(new Object[]{projectId, "Task " + i, description, "TODO", user.getId(),
+                    Timestamp.valueOf(start.plusSeconds(i)), "BUG", summary, "COMPLETED"});
+        }
+        jdbcTemplate.batchUpdate("""
+                insert into tasks (project_id, title, description, status, assignee_id, created_at,
+                                   ai_category, ai_summary, ai_status)
+                values (?, ?, ?, ?, ?, ?, ?, ?, ?)
+                """, rows);
+    }
+
+    @Test
+    void projectionVersusEntityPages() {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        Function<TaskRow, TaskRow> projection = after -> last(taskRepository.findPageByProjectId(projectId,
+                after.createdAt(), after.id(), Limit.of(PAGE_SIZE)));
+        Function<TaskRow, TaskRow> entities = after -> readOnly.execute(status -> {
+            List<Task> page = entityManager.createQuery(ENTITY_PAGE, Task.class)
+                    .setParameter("projectId", projectId)
+                    .setParameter("createdAt", after.createdAt())
+                    .setParameter("id", after.id())
+                    .setMaxResults(PAGE_SIZE)
+                    .getResultList();
+            return TaskRow.of(page.get(page.size() - 1));
+        });
+
+        run(projection, WARMUP_PAGES);
+        run(entities, WARMUP_PAGES);
+        Result entityResult = run(entities, MEASURED_PAGES);
+        Result projectionResult = run(projection, MEASURED_PAGES);
+
+        System.out.printf("%d-row pages of %d tasks, %d pages each%n", PAGE_SIZE, TASKS, MEASURED_PAGES);
+        System.out.println("  entities:   " + entityResult);
+        System.out.println("  projection: " + projectionResult);
+
+        assertTrue(projectionResult.bytesPerPage() < entityResult.bytesPerPage(),
+                "projection allocated " + projectionResult.bytesPerPage() + " B/page, entities " + entityResult.bytesPerPage());
+    }
+
+    // Walks the project's pages from the start, wrapping around, and times each one
+    private Result run(Function<TaskRow, TaskRow> readPage, int pages) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        List<Long> latencies = new ArrayList<>();
+        TaskRow after = start();
+        long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < pages; i++) {
+            long pageStart = System.nanoTime();
+            TaskRow last = readPage.apply(after);
+            latencies.add(System.nanoTime() - pageStart);
+            after = last != null && (i + 1) % (TASKS / PAGE_SIZE) != 0 ? last : start();
+        }
+        long allocated = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+        return new Result(latencies.stream().sorted().toList(), allocated / pages);
+    }
+
+    private TaskRow start() {
+        return new TaskRow(0L, null, null, null, null, null, null, null, null, null, null, null, null, null,
+                LocalDateTime.of(1, 1, 1, 0, 0), null, null, null, null, null, null, null, null);
+    }
+
+    private TaskRow last(List<TaskRow> page) {
+        return page.isEmpty() ? null : page.get(page.size() - 1);
+    }
+
+    private record Result(List<Long> sortedLatencies, long bytesPerPage) {
+
+        double percentile(double percentile) {
+            return sortedLatencies.get(Math.min(sortedLatencies.size() - 1,
+                    (int) (sortedLatencies.size() * percentile))) / 1e6;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("p50 %6.2f ms, p99 %6.2f ms, %,8d KB allocated per page",
+                    percentile(0.50), percentile(0.99), bytesPerPage / 1024);
+        }
+    }
+}
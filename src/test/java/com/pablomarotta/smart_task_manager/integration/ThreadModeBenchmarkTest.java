@@ -0,0 +1,230 @@
+package com.pablomarotta.smart_task_manager.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pablomarotta.smart_task_manager.config.VirtualThreadPinningMonitor;
+import com.pablomarotta.smart_task_manager.dto.AuthResponse;
+import com.pablomarotta.smart_task_manager.dto.ProjectRequest;
+import com.pablomarotta.smart_task_manager.dto.ProjectResponse;
+import com.pablomarotta.smart_task_manager.dto.RegisterRequest;
+import com.pablomarotta.smart_task_manager.dto.TaskRequest;
+import com.pablomarotta.smart_task_manager.model.Status;
+import com.pablomarotta.smart_task_manager.repository.ProjectRepository;
+import com.pablomarotta.smart_task_manager.repository.TaskRepository;
+import com.pablomarotta.smart_task_manager.repository.UserRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.TestPropertySource;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * createTask and the task list on a real Tomcat, once with platform threads and once with
+ * spring.threads.virtual.enabled, and the pinning the monitor saw under that load.
+ * Excluded from the default build; run with {@code ./mvnw test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+    "ai.ollama.enabled=false",
+    "spring.jpa.show-sql=false",
+    "diagnostics.pinning.threshold=5ms"
+})
+public class ThreadModeBenchmarkTest {
+
+    private static final int CLIENTS = 256;
+    private static final int CREATES = 2000;
+    private static final int LISTS = 2000;
+    private static final int LISTED_TASKS = 50;
+
+    private static final Map<String, String> report = new ConcurrentSkipListMap<>();
+
+    @AfterAll
+    static void printReport() {
+        System.out.printf("%d clients, AI disabled%n", CLIENTS);
+        report.values().forEach(System.out::println);
+    }
+
+    @Nested
+    @TestPropertySource(properties = "spring.threads.virtual.enabled=false")
+    class PlatformThreads extends Workload {
+
+        PlatformThreads() {
+            super("platform", false);
+        }
+    }
+
+    @Nested
+    @TestPropertySource(properties = "spring.threads.virtual.enabled=true")
+    class VirtualThreads extends Workload {
+
+        VirtualThreads() {
+            super("virtual", true);
+        }
+    }
+
+    abstract static class Workload {
+
+        private final String mode;
+        private final boolean virtualThreads;
+        private final HttpClient http = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+
+        @LocalServerPort
+        private int port;
+
+        @Autowired
+        private ObjectMapper objectMapper;
+
+        @Autowired
+        private VirtualThreadPinningMonitor pinningMonitor;
+
+        @Autowired
+        private TaskRepository taskRepository;
+
+        @Autowired
+        private ProjectRepository projectRepository;
+
+        @Autowired
+        private UserRepository userRepository;
+
+        private String token;
+
+        Workload(String mode, boolean virtualThreads) {
+            this.mode = mode;
+            this.virtualThreads = virtualThreads;
+        }
+
+        @BeforeEach
+        void setup() throws Exception {
+            taskRepository.deleteAll();
+            projectRepository.deleteAll();
+            userRepository.deleteAll();
+            token = register(mode + "_user");
+        }
+
+        @Test
+        void createAndListTasks() throws Exception {
+            assertEquals(virtualThreads, pinningMonitor.isEnabled());
+            Long createProject = createProject("Created");
+            Long listProject = createProject("Listed");
+            for (int i = 0; i < LISTED_TASKS; i++) {
+                assertEquals(201, createTask(listProject, "Listed task " + i).statusCode());
+            }
+
+            String create = run(CREATES, i -> createTask(createProject, "Benchmark task " + i), 201);
+            String list = run(LISTS, i -> send(HttpRequest.newBuilder(uri("/api/tasks/project/" + listProject))
+                    .header("Authorization", "Bearer " + token)
+                    .GET()), 200);
+
+            report.put(mode, String.format("%-8s createTask %s%n         list       %s%n         pinned     %s",
+                    mode, create, list, virtualThreads ? pinningMonitor.getPinnedByLocation() : "n/a"));
+        }
+
+        private String run(int requests, IntFunction<HttpResponse<String>> request, int expectedStatus) {
+            List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+            AtomicInteger next = new AtomicInteger();
+            AtomicInteger failures = new AtomicInteger();
+            long start = System.nanoTime();
+            try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int c = 0; c < CLIENTS; c++) {
+                    clients.submit(() -> {
+                        for (int i = next.getAndIncrement(); i < requests; i = next.getAndIncrement()) {
+                            long requestStart = System.nanoTime();
+                            HttpResponse<String> response = request.apply(i);
+                            if (response != null && response.statusCode() == expectedStatus) {
+                                latencies.add(System.nanoTime() - requestStart);
+                            } else {
+                                failures.incrementAndGet();
+                            }
+                        }
+                    });
+                }
+            }
+            long elapsed = System.nanoTime() - start;
+            assertEquals(0, failures.get(), mode + ": failed requests");
+
+            List<Long> sorted = latencies.stream().sorted().toList();
+            return String.format("%6.0f req/s, p50 %6.1f ms, p99 %6.1f ms",
+                    sorted.size() / (elapsed / 1e9),
+                    sorted.get(sorted.size() / 2) / 1e6,
+                    sorted.get(Math.min(sorted.size() - 1, (int) (sorted.size() * 0.99))) / 1e6);
+        }
+
+        private HttpResponse<String> createTask(Long projectId, String title) {
+            TaskRequest taskRequest = new TaskRequest();
+            taskRequest.setTitle(title);
+            taskRequest.setStatus(Status.TODO);
+            taskRequest.setProjectId(projectId);
+            return send(HttpRequest.newBuilder(uri("/api/tasks/newtask"))
+                    .header("Authorization", "Bearer " + token)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(json(taskRequest))));
+        }
+
+        private Long createProject(String name) throws Exception {
+            ProjectRequest projectRequest = new ProjectRequest();
+            projectRequest.setName(name);
+            projectRequest.setUsername(mode + "_user");
+            HttpResponse<String> response = send(HttpRequest.newBuilder(uri("/api/projects"))
+                    .header("Authorization", "Bearer " + token)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(json(projectRequest))));
+            assertEquals(201, response.statusCode());
+            return objectMapper.readValue(response.body(), ProjectResponse.class).getId();
+        }
+
+        private String register(String username) throws Exception {
+            RegisterRequest registerRequest = new RegisterRequest();
+            registerRequest.setUsername(username);
+            registerRequest.setEmail(username + "@example.com");
+            registerRequest.setPassword("password123");
+            registerRequest.setFullName("Benchmark User");
+            HttpResponse<String> response = send(HttpRequest.newBuilder(uri("/api/auth/register"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(json(registerRequest))));
+            assertEquals(201, response.statusCode());
+            return objectMapper.readValue(response.body(), AuthResponse.class).getToken();
+        }
+
+        private HttpResponse<String> send(HttpRequest.Builder request) {
+            try {
+                return http.send(request.timeout(Duration.ofSeconds(60)).build(), HttpResponse.BodyHandlers.ofString());
+            } catch (Exception e) {
+                return null;
+            }
+        }
+
+        private String json(Object value) {
+            try {
+                return objectMapper.writeValueAsString(value);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        private URI uri(String path) {
+            return URI.create("http://localhost:" + port + path);
+        }
+    }
+}
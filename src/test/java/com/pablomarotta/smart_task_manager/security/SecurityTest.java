@@ -4,8 +4,10 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.pablomarotta.smart_task_manager.config.SecurityConfig;
 import com.pablomarotta.smart_task_manager.controller.TaskController;
 import com.pablomarotta.smart_task_manager.controller.UserController;
+import com.pablomarotta.smart_task_manager.dto.PageResponse;
 import com.pablomarotta.smart_task_manager.dto.UserRequest;
 import com.pablomarotta.smart_task_manager.dto.UserResponse;
+import com.pablomarotta.smart_task_manager.service.BulkTaskService;
 import com.pablomarotta.smart_task_manager.service.TaskService;
 import com.pablomarotta.smart_task_manager.service.UserService;
 import org.junit.jupiter.api.Test;
@@ -38,6 +40,9 @@ class SecurityTest {
     @MockBean
     private TaskService taskService;
 
+    @MockBean
+    private BulkTaskService bulkTaskService;
+
     @MockBean
     private UserService userService;
 
@@ -63,7 +68,7 @@ class SecurityTest {
         when(jwtTokenProvider.validateToken("valid-token")).thenReturn(true);
         when(jwtTokenProvider.getUsernameFromToken("valid-token")).thenReturn("testuser");
         when(userDetailsService.loadUserByUsername("testuser")).thenReturn(userDetails);
-        when(taskService.getAllTasks()).thenReturn(Collections.emptyList());
+        when(taskService.getAllTasks(null, null)).thenReturn(new PageResponse<>(Collections.emptyList(), null));
 
         mockMvc.perform(get("/api/tasks/alltasks")
                 .header("Authorization", "Bearer valid-token"))
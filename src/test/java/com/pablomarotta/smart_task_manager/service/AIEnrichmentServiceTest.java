@@ -0,0 +1,190 @@
+package com.pablomarotta.smart_task_manager.service;
+
+import com.pablomarotta.smart_task_manager.config.AIConfigProperties;
+import com.pablomarotta.smart_task_manager.dto.AIClassificationRequest;
+import com.pablomarotta.smart_task_manager.dto.AIClassificationResponse;
+import com.pablomarotta.smart_task_manager.model.AIClassificationSource;
+import com.pablomarotta.smart_task_manager.model.AIEnrichmentStatus;
+import com.pablomarotta.smart_task_manager.model.Task;
+import com.pablomarotta.smart_task_manager.repository.TaskRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.time.LocalDate;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AIEnrichmentServiceTest {
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private AIService aiService;
+
+    @Mock
+    private TaskEmbeddingService embeddingService;
+
+    private AIConfigProperties aiConfigProperties;
+    private ThreadPoolTaskExecutor executor;
+    private SimpleMeterRegistry meterRegistry;
+    private AIEnrichmentService enrichmentService;
+
+    @BeforeEach
+    void setUp() {
+        aiConfigProperties = new AIConfigProperties();
+        meterRegistry = new SimpleMeterRegistry();
+
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(1);
+        executor.initialize();
+
+        enrichmentService = new AIEnrichmentService(taskRepository, aiService, embeddingService, aiConfigProperties, executor, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void scheduleEnrichment_WritesClassificationInBackground() {
+        AIClassificationResponse response = new AIClassificationResponse();
+        response.setPriority("HIGH");
+        response.setCategory("BUG");
+        response.setEstimatedDays(2);
+        response.setSummary("Fix login");
+        response.setSource(AIClassificationSource.LLM);
+        when(aiService.classifyTask(any(AIClassificationRequest.class))).thenReturn(response);
+
+        enrichmentService.scheduleEnrichment(task(1L));
+
+        verify(taskRepository, timeout(2000)).updateAiClassification(
+                eq(1L), eq("HIGH"), eq("BUG"), eq(2), eq(LocalDate.now().plusDays(2)), eq("Fix login"),
+                eq(AIClassificationSource.LLM), eq(AIEnrichmentStatus.COMPLETED));
+        verify(taskRepository).updateAiStatus(1L, AIEnrichmentStatus.IN_PROGRESS);
+        verify(embeddingService, timeout(2000)).index(eq(1L), any(AIClassificationRequest.class));
+    }
+
+    @Test
+    void scheduleEnrichment_WritesTheClassificationBeforeIndexingTheTask() {
+        AIClassificationResponse response = new AIClassificationResponse();
+        response.setPriority("LOW");
+        response.setCategory("FEATURE");
+        response.setSource(AIClassificationSource.LOCAL);
+        when(aiService.classifyTask(any(AIClassificationRequest.class))).thenReturn(response);
+        // A slow embedding call
+        CountDownLatch embedded = new CountDownLatch(1);
+        doAnswer(invocation -> embedded.await(2, TimeUnit.SECONDS)).when(embeddingService)
+                .index(eq(4L), any(AIClassificationRequest.class));
+
+        enrichmentService.scheduleEnrichment(task(4L));
+
+        verify(taskRepository, timeout(1000)).updateAiClassification(
+                eq(4L), eq("LOW"), eq("FEATURE"), any(), any(), any(),
+                eq(AIClassificationSource.LOCAL), eq(AIEnrichmentStatus.COMPLETED));
+        embedded.countDown();
+    }
+
+    @Test
+    void scheduleEnrichment_WhenClassificationIsEmpty_MarksFailed() {
+        when(aiService.classifyTask(any(AIClassificationRequest.class))).thenReturn(new AIClassificationResponse());
+
+        enrichmentService.scheduleEnrichment(task(2L));
+
+        verify(taskRepository, timeout(2000)).updateAiStatus(2L, AIEnrichmentStatus.FAILED);
+        verify(taskRepository, never()).updateAiClassification(any(), any(), any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void scheduleEnrichment_WhenDisabled_DoesNothing() {
+        aiConfigProperties.setEnabled(false);
+
+        enrichmentService.scheduleEnrichment(task(3L));
+
+        verifyNoInteractions(aiService, taskRepository, embeddingService);
+    }
+
+    @Test
+    void scheduleEnrichment_WhenQueueIsFull_LeavesTaskPending() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(aiService.classifyTask(any(AIClassificationRequest.class))).thenAnswer(invocation -> {
+            release.await(2, TimeUnit.SECONDS);
+            return new AIClassificationResponse();
+        });
+
+        // One running, one queued, the third one is rejected
+        enrichmentService.scheduleEnrichment(task(4L));
+        enrichmentService.scheduleEnrichment(task(5L));
+        enrichmentService.scheduleEnrichment(task(6L));
+        release.countDown();
+
+        assertEquals(1.0, meterRegistry.counter("ai.enrichment.tasks", "outcome", "rejected").count());
+        verify(taskRepository, timeout(2000)).updateAiStatus(5L, AIEnrichmentStatus.FAILED);
+        verify(taskRepository, never()).updateAiStatus(eq(6L), any());
+    }
+
+    @Test
+    void scheduleEnrichment_UsesTheSpeculativeClassification() {
+        AIClassificationResponse response = new AIClassificationResponse();
+        response.setPriority("HIGH");
+        response.setCategory("BUG");
+        response.setSource(AIClassificationSource.LLM);
+        when(aiService.classifyTaskAsync(any(AIClassificationRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(response));
+
+        CompletableFuture<AIClassificationResponse> classification = enrichmentService.classifyAhead("Fix login", null);
+        enrichmentService.scheduleEnrichment(task(7L), classification);
+
+        verify(taskRepository, timeout(2000)).updateAiClassification(
+                eq(7L), eq("HIGH"), eq("BUG"), any(), any(), any(),
+                eq(AIClassificationSource.LLM), eq(AIEnrichmentStatus.COMPLETED));
+        verify(aiService, never()).classifyTask(any(AIClassificationRequest.class));
+        assertEquals(1.0, meterRegistry.counter("ai.enrichment.speculative", "outcome", "used").count());
+    }
+
+    @Test
+    void scheduleEnrichment_ClassifiesAgainWhenTheSpeculativeAnswerIsEmpty() {
+        AIClassificationResponse response = new AIClassificationResponse();
+        response.setCategory("BUG");
+        when(aiService.classifyTask(any(AIClassificationRequest.class))).thenReturn(response);
+
+        enrichmentService.scheduleEnrichment(task(8L), CompletableFuture.completedFuture(new AIClassificationResponse()));
+
+        verify(taskRepository, timeout(2000)).updateAiClassification(
+                eq(8L), any(), eq("BUG"), any(), any(), any(), any(), eq(AIEnrichmentStatus.COMPLETED));
+        assertEquals(1.0, meterRegistry.counter("ai.enrichment.speculative", "outcome", "retried").count());
+    }
+
+    @Test
+    void classifyAhead_WhenSpeculativeIsOff_ReturnsNull() {
+        aiConfigProperties.getEnrichment().setSpeculative(false);
+
+        assertNull(enrichmentService.classifyAhead("Fix login", null));
+        verifyNoInteractions(aiService);
+    }
+
+    private Task task(Long id) {
+        return Task.builder()
+                .id(id)
+                .title("Fix login")
+                .description("Users cannot login")
+                .build();
+    }
+}
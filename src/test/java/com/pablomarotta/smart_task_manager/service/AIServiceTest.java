@@ -3,22 +3,55 @@ package com.pablomarotta.smart_task_manager.service;
 import com.pablomarotta.smart_task_manager.config.AIConfigProperties;
 import com.pablomarotta.smart_task_manager.dto.AIClassificationRequest;
 import com.pablomarotta.smart_task_manager.dto.AIClassificationResponse;
+import com.pablomarotta.smart_task_manager.model.AIClassificationSource;
+import com.pablomarotta.smart_task_manager.repository.ClassificationCacheRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
 class AIServiceTest {
 
     private AIConfigProperties aiConfigProperties;
     private AIService aiService;
     private StubOllamaService stubOllamaService;
+    private LocalTaskClassifier localClassifier;
+    private TaskEmbeddingService embeddingService;
+    private ClassificationBatcher classificationBatcher;
 
     @BeforeEach
     void setUp() {
         aiConfigProperties = new AIConfigProperties();
         stubOllamaService = new StubOllamaService(aiConfigProperties);
-        aiService = new AIService(stubOllamaService, aiConfigProperties);
+        ClassificationCache classificationCache = new ClassificationCache(
+                aiConfigProperties, Mockito.mock(ClassificationCacheRepository.class), Runnable::run, new SimpleMeterRegistry());
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.initialize();
+        classificationBatcher = Mockito.spy(new ClassificationBatcher(
+                stubOllamaService, aiConfigProperties, executor, new SimpleMeterRegistry()));
+        localClassifier = Mockito.mock(LocalTaskClassifier.class);
+        embeddingService = Mockito.mock(TaskEmbeddingService.class);
+        aiService = new AIService(stubOllamaService, aiConfigProperties, classificationCache, classificationBatcher,
+                new OllamaCircuitBreaker(aiConfigProperties, new SimpleMeterRegistry()), localClassifier,
+                embeddingService, new SimpleMeterRegistry());
     }
 
     @Test
@@ -59,16 +92,162 @@ class AIServiceTest {
         assertEquals(0, response.getEstimatedDays());
     }
 
+    @Test
+    void classifyTask_WhenLocalClassifierIsConfident_SkipsOllama() {
+        when(localClassifier.classify(any(AIClassificationRequest.class)))
+                .thenReturn(Optional.of(new LocalTaskClassifier.Prediction("BUG", "HIGH", 2, 0.97)));
+
+        AIClassificationResponse response = aiService.classifyTask(AIClassificationRequest.builder()
+                .title("Fix crash on save")
+                .build());
+
+        assertEquals("BUG", response.getCategory());
+        assertEquals("HIGH", response.getPriority());
+        assertEquals(2, response.getEstimatedDays());
+        assertEquals(AIClassificationSource.LOCAL, response.getSource());
+        assertEquals(0, stubOllamaService.getCallCount());
+    }
+
+    @Test
+    void classifyTask_WhenLocalClassifierIsUnsure_EscalatesToOllama() {
+        aiConfigProperties.getLocal().setConfidenceThreshold(0.9);
+        when(localClassifier.classify(any(AIClassificationRequest.class)))
+                .thenReturn(Optional.of(new LocalTaskClassifier.Prediction("BUG", "HIGH", 2, 0.6)));
+
+        aiService.classifyTask(AIClassificationRequest.builder()
+                .title("Look into the thing from the meeting")
+                .build());
+
+        assertEquals(1, stubOllamaService.getCallCount());
+    }
+
+    @Test
+    void classifyTask_WhenNearDuplicateIsClassified_ReusesItsClassification() {
+        AIClassificationResponse reused = new AIClassificationResponse();
+        reused.setCategory("BUG");
+        reused.setPriority("HIGH");
+        reused.setSource(AIClassificationSource.NEIGHBOR);
+        when(embeddingService.isEnabled()).thenReturn(true);
+        when(embeddingService.findReusableClassification(any(AIClassificationRequest.class)))
+                .thenReturn(Optional.of(reused));
+
+        AIClassificationResponse response = aiService.classifyTask(AIClassificationRequest.builder()
+                .title("Fix crash when saving")
+                .build());
+
+        assertEquals("BUG", response.getCategory());
+        assertEquals(AIClassificationSource.NEIGHBOR, response.getSource());
+        assertEquals(0, stubOllamaService.getCallCount());
+    }
+
+    @Test
+    void classifyTaskAsync_LooksUpTheNeighborWithoutHoldingTheCaller() {
+        CompletableFuture<Optional<AIClassificationResponse>> lookup = new CompletableFuture<>();
+        when(embeddingService.isEnabled()).thenReturn(true);
+        when(embeddingService.findReusableClassificationAsync(any(AIClassificationRequest.class))).thenReturn(lookup);
+
+        CompletableFuture<AIClassificationResponse> result = aiService.classifyTaskAsync(AIClassificationRequest.builder()
+                .title("Fix crash when saving")
+                .build());
+
+        assertFalse(result.isDone());
+        verify(embeddingService, never()).findReusableClassification(any(AIClassificationRequest.class));
+
+        AIClassificationResponse reused = new AIClassificationResponse();
+        reused.setCategory("BUG");
+        reused.setSource(AIClassificationSource.NEIGHBOR);
+        lookup.complete(Optional.of(reused));
+
+        assertEquals(AIClassificationSource.NEIGHBOR, result.join().getSource());
+        assertEquals(0, stubOllamaService.getCallCount());
+    }
+
+    @Test
+    void classifyTaskAsync_WhenNoNeighborIsReusable_EscalatesToOllama() {
+        when(embeddingService.isEnabled()).thenReturn(true);
+        when(embeddingService.findReusableClassificationAsync(any(AIClassificationRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(Optional.empty()));
+
+        aiService.classifyTaskAsync(AIClassificationRequest.builder()
+                .title("Fix crash when saving")
+                .build()).join();
+
+        assertEquals(1, stubOllamaService.getCallCount());
+    }
+
+    @Test
+    void classifyTaskAsync_WhenCancelledDuringTheNeighborLookup_SkipsOllama() {
+        CompletableFuture<Optional<AIClassificationResponse>> lookup = new CompletableFuture<>();
+        when(embeddingService.isEnabled()).thenReturn(true);
+        when(embeddingService.findReusableClassificationAsync(any(AIClassificationRequest.class))).thenReturn(lookup);
+
+        aiService.classifyTaskAsync(AIClassificationRequest.builder()
+                .title("Fix crash when saving")
+                .build()).cancel(true);
+        lookup.complete(Optional.empty());
+
+        assertEquals(0, stubOllamaService.getCallCount());
+    }
+
+    @Test
+    void classifyTask_DoesNotNeedTheCacheStorePool() throws Exception {
+        ThreadPoolTaskExecutor store = new ThreadPoolTaskExecutor();
+        store.setCorePoolSize(1);
+        store.setMaxPoolSize(1);
+        store.initialize();
+        CountDownLatch release = new CountDownLatch(1);
+        store.execute(() -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        AIService service = new AIService(stubOllamaService, aiConfigProperties,
+                new ClassificationCache(aiConfigProperties, Mockito.mock(ClassificationCacheRepository.class), store,
+                        new SimpleMeterRegistry()),
+                classificationBatcher, new OllamaCircuitBreaker(aiConfigProperties, new SimpleMeterRegistry()),
+                localClassifier, embeddingService, new SimpleMeterRegistry());
+
+        try {
+            // Every store thread is busy: a blocking caller runs the cache tiers and the call itself
+            assertTimeoutPreemptively(Duration.ofSeconds(5), () -> service.classifyTask(AIClassificationRequest.builder()
+                    .title("Fix crash when saving")
+                    .build()));
+            assertEquals(1, stubOllamaService.getCallCount());
+        } finally {
+            release.countDown();
+            store.shutdown();
+        }
+    }
+
+    @Test
+    void classifyTasks_WhenBatchingIsDisabled_CallsOllamaDirectly() {
+        aiConfigProperties.getBatch().setEnabled(false);
+
+        List<AIClassificationResponse> responses = aiService.classifyTasks(List.of(
+                AIClassificationRequest.builder().title("Fix crash when saving").build(),
+                AIClassificationRequest.builder().title("Write the release notes").build()));
+
+        assertEquals(2, responses.size());
+        assertEquals(2, stubOllamaService.getCallCount());
+        verify(classificationBatcher, never()).submit(any(AIClassificationRequest.class), any(AIPriority.class));
+    }
+
     private static class StubOllamaService extends OllamaService {
         private RuntimeException exception;
         private int callCount;
 
         StubOllamaService(AIConfigProperties aiConfigProperties) {
-            super(aiConfigProperties);
+            super(aiConfigProperties, WebClient.create(),
+                    new OllamaCircuitBreaker(aiConfigProperties, new SimpleMeterRegistry()),
+                    new AdaptiveConcurrencyLimiter(aiConfigProperties, new SimpleMeterRegistry()),
+                    new OllamaEndpointPool(aiConfigProperties, WebClient.create(), new SimpleMeterRegistry()),
+                    new SimpleMeterRegistry());
         }
 
         @Override
-        public AIClassificationResponse classifyTask(AIClassificationRequest request) {
+        public AIClassificationResponse classifyTask(AIClassificationRequest request, AIPriority priority) {
             callCount++;
             if (exception != null) {
                 throw exception;
@@ -76,6 +255,11 @@ class AIServiceTest {
             return new AIClassificationResponse();
         }
 
+        @Override
+        public Mono<AIClassificationResponse> classifyTaskAsync(AIClassificationRequest request, AIPriority priority) {
+            return Mono.fromSupplier(() -> classifyTask(request, priority));
+        }
+
         void setException(RuntimeException exception) {
             this.exception = exception;
         }
@@ -0,0 +1,223 @@
+package com.pablomarotta.smart_task_manager.service;
+
+import com.pablomarotta.smart_task_manager.config.AIConfigProperties;
+import com.pablomarotta.smart_task_manager.exception.AIUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private AIConfigProperties aiConfigProperties;
+    private SimpleMeterRegistry meterRegistry;
+    private AdaptiveConcurrencyLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        aiConfigProperties = new AIConfigProperties();
+        aiConfigProperties.getLimiter().setInitialLimit(2);
+        aiConfigProperties.getLimiter().setMaxLimit(4);
+        aiConfigProperties.getLimiter().setMaxQueue(1);
+        aiConfigProperties.getLimiter().setMaxWait(Duration.ofMillis(100));
+        meterRegistry = new SimpleMeterRegistry();
+        limiter = new AdaptiveConcurrencyLimiter(aiConfigProperties, meterRegistry);
+    }
+
+    @Test
+    void acquire_QueuesOverTheLimitAndRejectsWhenQueueIsFull() {
+        limiter.acquire();
+        limiter.acquire();
+
+        CompletableFuture<AdaptiveConcurrencyLimiter.Permit> queued = limiter.acquireAsync();
+        CompletableFuture<AdaptiveConcurrencyLimiter.Permit> rejected = limiter.acquireAsync();
+
+        assertFalse(queued.isDone());
+        assertEquals(1, limiter.getQueued());
+        ExecutionException error = assertThrows(ExecutionException.class, rejected::get);
+        assertInstanceOf(AIUnavailableException.class, error.getCause());
+        assertEquals(1.0, meterRegistry.counter("ai.ollama.limiter.rejected", "reason", "queue_full").count());
+        assertEquals(2.0, meterRegistry.get("ai.ollama.limiter.inflight").gauge().value());
+    }
+
+    @Test
+    void release_HandsTheSlotToTheNextWaiter() throws Exception {
+        AdaptiveConcurrencyLimiter.Permit first = limiter.acquire();
+        limiter.acquire();
+        CompletableFuture<AdaptiveConcurrencyLimiter.Permit> queued = limiter.acquireAsync();
+
+        first.ignore();
+
+        assertNotNull(queued.get(1, TimeUnit.SECONDS));
+        assertEquals(0, limiter.getQueued());
+        assertEquals(2, limiter.getInFlight());
+    }
+
+    @Test
+    void acquire_TimesOutAfterMaxWait() {
+        limiter.acquire();
+        limiter.acquire();
+
+        assertThrows(AIUnavailableException.class, limiter::acquire);
+        assertEquals(0, limiter.getQueued());
+        assertEquals(1.0, meterRegistry.counter("ai.ollama.limiter.rejected", "reason", "timeout").count());
+    }
+
+    @Test
+    void release_SharesSlotsBetweenClassesByWeight() throws Exception {
+        AdaptiveConcurrencyLimiter.Permit held = singleSlot();
+        aiConfigProperties.getLimiter().setInteractiveWaitTarget(Duration.ofMinutes(1));
+        List<CompletableFuture<AdaptiveConcurrencyLimiter.Permit>> batch = enqueue(AIPriority.BATCH, 4);
+        List<CompletableFuture<AdaptiveConcurrencyLimiter.Permit>> interactive = enqueue(AIPriority.INTERACTIVE, 8);
+
+        List<AIPriority> order = grantAll(held, batch, interactive);
+
+        // Four interactive grants for every batch one, and batch is not starved
+        assertEquals(List.of(AIPriority.INTERACTIVE, AIPriority.INTERACTIVE, AIPriority.INTERACTIVE,
+                AIPriority.INTERACTIVE, AIPriority.BATCH), order.subList(0, 5));
+        assertEquals(2, order.subList(0, 10).stream().filter(priority -> priority == AIPriority.BATCH).count());
+        assertEquals(4, meterRegistry.find("ai.ollama.limiter.queue.wait").tag("class", "batch").timer().count());
+        assertEquals(9, meterRegistry.find("ai.ollama.limiter.queue.wait").tag("class", "interactive").timer().count());
+    }
+
+    @Test
+    void release_DefersBatchWhileInteractiveWaitIsOverTarget() throws Exception {
+        AdaptiveConcurrencyLimiter.Permit held = singleSlot();
+        // Batch would go first by weight alone
+        aiConfigProperties.getLimiter().setBatchWeight(4);
+        aiConfigProperties.getLimiter().setInteractiveWeight(1);
+        aiConfigProperties.getLimiter().setInteractiveWaitTarget(Duration.ofMillis(1));
+        List<CompletableFuture<AdaptiveConcurrencyLimiter.Permit>> batch = enqueue(AIPriority.BATCH, 2);
+        List<CompletableFuture<AdaptiveConcurrencyLimiter.Permit>> interactive = enqueue(AIPriority.INTERACTIVE, 2);
+        Thread.sleep(5);
+
+        List<AIPriority> order = grantAll(held, batch, interactive);
+
+        assertEquals(List.of(AIPriority.INTERACTIVE, AIPriority.INTERACTIVE, AIPriority.BATCH, AIPriority.BATCH), order);
+        assertTrue(meterRegistry.counter("ai.ollama.limiter.deferred", "class", "batch").count() > 0);
+    }
+
+    @Test
+    void acquireAsync_LimitsEachClassQueueSeparately() {
+        limiter.acquire();
+        limiter.acquire();
+
+        CompletableFuture<AdaptiveConcurrencyLimiter.Permit> batch = limiter.acquireAsync(AIPriority.BATCH);
+        CompletableFuture<AdaptiveConcurrencyLimiter.Permit> interactive = limiter.acquireAsync(AIPriority.INTERACTIVE);
+
+        assertFalse(batch.isDone());
+        assertFalse(interactive.isDone());
+        assertEquals(1, limiter.getQueued(AIPriority.BATCH));
+        assertEquals(2, limiter.getQueued());
+    }
+
+    @Test
+    void permit_ReleasesOnlyOnce() {
+        AdaptiveConcurrencyLimiter.Permit permit = limiter.acquire();
+
+        permit.ignore();
+        permit.ignore();
+
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void limit_GrowsWhileSaturatedAndFastThenShrinksOnDrops() {
+        for (int i = 0; i < 20; i++) {
+            List<AdaptiveConcurrencyLimiter.Permit> permits = new ArrayList<>();
+            for (int j = 0; j < limiter.getLimit(); j++) {
+                permits.add(limiter.acquire());
+            }
+            permits.forEach(permit -> permit.success(Duration.ofMillis(100)));
+        }
+        assertEquals(4, limiter.getLimit());
+
+        for (int i = 0; i < 10; i++) {
+            limiter.acquire().dropped();
+        }
+        assertEquals(1, limiter.getLimit());
+    }
+
+    @Test
+    void limit_ShrinksWhenLatencyRisesAboveBaseline() {
+        limiter.acquire().success(Duration.ofMillis(100));
+        int before = limiter.getLimit();
+
+        for (int i = 0; i < 10; i++) {
+            limiter.acquire().success(Duration.ofMillis(500));
+        }
+
+        assertTrue(limiter.getLimit() < before);
+    }
+
+    @Test
+    void limit_IgnoresASingleSlowCall() {
+        for (int i = 0; i < 5; i++) {
+            limiter.acquire().success(Duration.ofMillis(100));
+        }
+        int before = limiter.getLimit();
+
+        limiter.acquire().success(Duration.ofMillis(300));
+
+        assertEquals(before, limiter.getLimit());
+    }
+
+    @Test
+    void disabledLimiterNeverWaits() {
+        aiConfigProperties.getLimiter().setEnabled(false);
+
+        for (int i = 0; i < 10; i++) {
+            limiter.acquire();
+        }
+
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    private AdaptiveConcurrencyLimiter.Permit singleSlot() {
+        aiConfigProperties.getLimiter().setInitialLimit(1);
+        aiConfigProperties.getLimiter().setMaxQueue(20);
+        meterRegistry = new SimpleMeterRegistry();
+        limiter = new AdaptiveConcurrencyLimiter(aiConfigProperties, meterRegistry);
+        return limiter.acquire();
+    }
+
+    private List<CompletableFuture<AdaptiveConcurrencyLimiter.Permit>> enqueue(AIPriority priority, int count) {
+        List<CompletableFuture<AdaptiveConcurrencyLimiter.Permit>> waiters = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            waiters.add(limiter.acquireAsync(priority));
+        }
+        return waiters;
+    }
+
+    /** Releases the held slot and each granted one in turn, returning the classes in grant order. */
+    private List<AIPriority> grantAll(AdaptiveConcurrencyLimiter.Permit held,
+                                      List<CompletableFuture<AdaptiveConcurrencyLimiter.Permit>> batch,
+                                      List<CompletableFuture<AdaptiveConcurrencyLimiter.Permit>> interactive) throws Exception {
+        List<AIPriority> order = new ArrayList<>();
+        AdaptiveConcurrencyLimiter.Permit current = held;
+        while (limiter.getQueued() > 0) {
+            current.ignore();
+            CompletableFuture<AdaptiveConcurrencyLimiter.Permit> granted = batch.stream()
+                    .filter(CompletableFuture::isDone).findFirst().orElse(null);
+            if (granted != null) {
+                order.add(AIPriority.BATCH);
+                batch.remove(granted);
+            } else {
+                granted = interactive.stream().filter(CompletableFuture::isDone).findFirst().orElseThrow();
+                order.add(AIPriority.INTERACTIVE);
+                interactive.remove(granted);
+            }
+            current = granted.get();
+        }
+        current.ignore();
+        return order;
+    }
+}
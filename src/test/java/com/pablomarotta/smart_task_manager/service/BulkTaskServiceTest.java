@@ -0,0 +1,133 @@
+package com.pablomarotta.smart_task_manager.service;
+
+import com.pablomarotta.smart_task_manager.dto.BulkTaskItemResponse;
+import com.pablomarotta.smart_task_manager.dto.BulkTaskResponse;
+import com.pablomarotta.smart_task_manager.dto.TaskRequest;
+import com.pablomarotta.smart_task_manager.model.Project;
+import com.pablomarotta.smart_task_manager.model.Status;
+import com.pablomarotta.smart_task_manager.model.Task;
+import com.pablomarotta.smart_task_manager.model.User;
+import com.pablomarotta.smart_task_manager.repository.ProjectRepository;
+import com.pablomarotta.smart_task_manager.repository.TaskRepository;
+import com.pablomarotta.smart_task_manager.repository.UserRepository;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BulkTaskServiceTest {
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private ProjectRepository projectRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private BulkTaskService bulkTaskService;
+    private Project project;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        bulkTaskService = new BulkTaskService(taskRepository, projectRepository, userRepository,
+                new TransactionTemplate(transactionManager),
+                Validation.buildDefaultValidatorFactory().getValidator(), 3);
+        project = Project.builder().id(1L).name("Project").build();
+        user = User.builder().id(7L).username("alice").build();
+    }
+
+    @Test
+    void createTasks_LooksUpProjectsAndUsersOnceForAllItems() {
+        when(projectRepository.findAllById(List.of(1L))).thenReturn(List.of(project));
+        when(userRepository.findAllById(List.of(7L))).thenReturn(List.of(user));
+        when(taskRepository.saveAll(anyIterable())).thenAnswer(invocation -> assignIds(invocation.getArgument(0)));
+
+        BulkTaskResponse response = bulkTaskService.createTasks(List.of(
+                task("First", 1L, 7L), task("Second", 1L, 7L), task("Third", 1L, null)));
+
+        assertEquals(3, response.getCreated());
+        assertEquals(0, response.getRejected());
+        assertEquals(List.of(100L, 101L, 102L), response.getItems().stream().map(BulkTaskItemResponse::getId).toList());
+        verify(projectRepository, times(1)).findAllById(any());
+        verify(userRepository, times(1)).findAllById(any());
+        verify(taskRepository, times(1)).saveAll(anyIterable());
+    }
+
+    @Test
+    void createTasks_ReportsInvalidItemsAndInsertsTheRest() {
+        when(projectRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(project));
+        when(projectRepository.findAllById(List.of(1L))).thenReturn(List.of(project));
+        when(userRepository.findAllById(List.of(9L))).thenReturn(List.of());
+        when(taskRepository.saveAll(anyIterable())).thenAnswer(invocation -> assignIds(invocation.getArgument(0)));
+        TaskRequest pastDue = task("Past due", 1L, null);
+        pastDue.setDueDate(LocalDate.now().minusDays(1));
+
+        BulkTaskResponse response = bulkTaskService.createTasks(List.of(
+                task("Valid", 1L, null), task("Unknown project", 2L, null), task("Unknown user", 1L, 9L)));
+        BulkTaskResponse invalid = bulkTaskService.createTasks(List.of(task(" ", 1L, null), pastDue));
+
+        assertEquals(1, response.getCreated());
+        assertEquals(2, response.getRejected());
+        List<BulkTaskItemResponse> items = response.getItems();
+        assertEquals(BulkTaskItemResponse.created(0, 100L), items.get(0));
+        assertEquals(BulkTaskItemResponse.rejected(1, "Project not found with id: 2"), items.get(1));
+        assertEquals(BulkTaskItemResponse.rejected(2, "User not found with id: 9"), items.get(2));
+        assertEquals(0, invalid.getCreated());
+        assertTrue(invalid.getItems().get(0).getError().startsWith("title: "));
+        assertEquals("Due date cannot be in the past", invalid.getItems().get(1).getError());
+        verify(taskRepository, times(1)).saveAll(anyIterable());
+    }
+
+    @Test
+    void createTasks_RefusesMoreItemsThanTheCap() {
+        List<TaskRequest> requests = Collections.nCopies(4, task("Task", 1L, null));
+
+        ResponseStatusException error = assertThrows(ResponseStatusException.class,
+                () -> bulkTaskService.createTasks(requests));
+
+        assertEquals(HttpStatus.BAD_REQUEST, error.getStatusCode());
+        verifyNoInteractions(projectRepository, userRepository, taskRepository);
+    }
+
+    private TaskRequest task(String title, Long projectId, Long assigneeId) {
+        TaskRequest request = new TaskRequest();
+        request.setTitle(title);
+        request.setStatus(Status.TODO);
+        request.setProjectId(projectId);
+        request.setAssigneeId(assigneeId);
+        return request;
+    }
+
+    private List<Task> assignIds(Iterable<Task> tasks) {
+        List<Task> saved = new ArrayList<>();
+        long id = 100;
+        for (Task task : tasks) {
+            task.setId(id++);
+            saved.add(task);
+        }
+        return saved;
+    }
+}
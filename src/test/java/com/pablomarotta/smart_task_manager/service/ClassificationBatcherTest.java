@@ -0,0 +1,191 @@
+package com.pablomarotta.smart_task_manager.service;
+
+import com.pablomarotta.smart_task_manager.config.AIConfigProperties;
+import com.pablomarotta.smart_task_manager.dto.AIClassificationRequest;
+import com.pablomarotta.smart_task_manager.dto.AIClassificationResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClassificationBatcherTest {
+
+    private AIConfigProperties aiConfigProperties;
+    private StubOllamaService stubOllamaService;
+    private ThreadPoolTaskExecutor executor;
+    private SimpleMeterRegistry meterRegistry;
+    private ClassificationBatcher batcher;
+
+    @BeforeEach
+    void setUp() {
+        aiConfigProperties = new AIConfigProperties();
+        aiConfigProperties.getBatch().setMaxSize(3);
+        aiConfigProperties.getBatch().setWindow(Duration.ofMillis(200));
+        stubOllamaService = new StubOllamaService(aiConfigProperties);
+        meterRegistry = new SimpleMeterRegistry();
+
+        executor = new ThreadPoolTaskExecutor();
+        executor.initialize();
+
+        batcher = new ClassificationBatcher(stubOllamaService, aiConfigProperties, executor, meterRegistry);
+        batcher.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        batcher.stop();
+        executor.shutdown();
+    }
+
+    @Test
+    void submit_GroupsRequestsIntoOneCall() throws Exception {
+        List<CompletableFuture<AIClassificationResponse>> results = new ArrayList<>();
+        for (String title : List.of("first", "second", "third")) {
+            results.add(batcher.submit(request(title)));
+        }
+
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals("summary of " + List.of("first", "second", "third").get(i),
+                    results.get(i).get(2, TimeUnit.SECONDS).getSummary());
+        }
+        assertEquals(1, stubOllamaService.batchSizes.size());
+        assertEquals(3, stubOllamaService.batchSizes.get(0));
+        assertEquals(0, stubOllamaService.singleCalls.get());
+    }
+
+    @Test
+    void submit_FlushesPartialBatchWhenWindowElapses() throws Exception {
+        AIClassificationResponse response = batcher.submit(request("alone")).get(2, TimeUnit.SECONDS);
+
+        assertEquals("summary of alone", response.getSummary());
+        assertEquals(1, stubOllamaService.singleCalls.get());
+        assertTrue(stubOllamaService.batchSizes.isEmpty());
+    }
+
+    @Test
+    void submit_FallsBackToSingleCallsWhenBatchParseFails() throws Exception {
+        stubOllamaService.failBatches = true;
+
+        List<CompletableFuture<AIClassificationResponse>> results = new ArrayList<>();
+        for (String title : List.of("first", "second")) {
+            results.add(batcher.submit(request(title)));
+        }
+
+        assertEquals("summary of first", results.get(0).get(2, TimeUnit.SECONDS).getSummary());
+        assertEquals("summary of second", results.get(1).get(2, TimeUnit.SECONDS).getSummary());
+        assertEquals(2, stubOllamaService.singleCalls.get());
+        assertEquals(1.0, meterRegistry.counter("ai.batch.fallbacks").count());
+    }
+
+    @Test
+    void submit_FailsOnlyTheItemWhoseSingleCallFails() throws Exception {
+        stubOllamaService.failBatches = true;
+
+        CompletableFuture<AIClassificationResponse> good = batcher.submit(request("good"));
+        CompletableFuture<AIClassificationResponse> bad = batcher.submit(request("boom"));
+
+        assertEquals("summary of good", good.get(2, TimeUnit.SECONDS).getSummary());
+        assertThrows(ExecutionException.class, () -> bad.get(2, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void submit_SendsBatchWithInteractivePriorityWhenAnyRequestIsInteractive() throws Exception {
+        CompletableFuture<AIClassificationResponse> background = batcher.submit(request("first"), AIPriority.BATCH);
+        batcher.submit(request("second"), AIPriority.BATCH).get(2, TimeUnit.SECONDS);
+        background.get(2, TimeUnit.SECONDS);
+
+        List<CompletableFuture<AIClassificationResponse>> results = new ArrayList<>();
+        results.add(batcher.submit(request("third"), AIPriority.BATCH));
+        results.add(batcher.submit(request("fourth")));
+        for (CompletableFuture<AIClassificationResponse> result : results) {
+            result.get(2, TimeUnit.SECONDS);
+        }
+
+        assertEquals(List.of(AIPriority.BATCH, AIPriority.INTERACTIVE), stubOllamaService.batchPriorities);
+    }
+
+    @Test
+    void classify_LeavesCancelledCallersOutOfTheBatch() {
+        List<ClassificationBatcher.PendingClassification> batch = List.of(
+                pending("first"), pending("second"), pending("third"));
+        batch.get(1).result().cancel(true);
+
+        batcher.classify(batch);
+
+        assertEquals(List.of(2), stubOllamaService.batchSizes);
+        assertEquals("summary of third", batch.get(2).result().join().getSummary());
+    }
+
+    @Test
+    void classify_SkipsTheCallWhenEveryCallerCancelled() {
+        List<ClassificationBatcher.PendingClassification> batch = List.of(pending("first"), pending("second"));
+        batch.forEach(pending -> pending.result().cancel(true));
+
+        batcher.classify(batch);
+
+        assertTrue(stubOllamaService.batchPriorities.isEmpty());
+        assertEquals(0, stubOllamaService.singleCalls.get());
+    }
+
+    private ClassificationBatcher.PendingClassification pending(String title) {
+        return new ClassificationBatcher.PendingClassification(request(title), AIPriority.INTERACTIVE, new CompletableFuture<>());
+    }
+
+    private AIClassificationRequest request(String title) {
+        return AIClassificationRequest.builder().title(title).build();
+    }
+
+    private static AIClassificationResponse response(AIClassificationRequest request) {
+        AIClassificationResponse response = new AIClassificationResponse();
+        response.setCategory("FEATURE");
+        response.setSummary("summary of " + request.getTitle());
+        return response;
+    }
+
+    private static class StubOllamaService extends OllamaService {
+        private final List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+        private final List<AIPriority> batchPriorities = new CopyOnWriteArrayList<>();
+        private final AtomicInteger singleCalls = new AtomicInteger();
+        private volatile boolean failBatches;
+
+        StubOllamaService(AIConfigProperties aiConfigProperties) {
+            super(aiConfigProperties, WebClient.create(),
+                    new OllamaCircuitBreaker(aiConfigProperties, new SimpleMeterRegistry()),
+                    new AdaptiveConcurrencyLimiter(aiConfigProperties, new SimpleMeterRegistry()),
+                    new OllamaEndpointPool(aiConfigProperties, WebClient.create(), new SimpleMeterRegistry()),
+                    new SimpleMeterRegistry());
+        }
+
+        @Override
+        public AIClassificationResponse classifyTask(AIClassificationRequest request, AIPriority priority) {
+            singleCalls.incrementAndGet();
+            if ("boom".equals(request.getTitle())) {
+                throw new RuntimeException("boom");
+            }
+            return response(request);
+        }
+
+        @Override
+        public List<AIClassificationResponse> classifyBatch(List<AIClassificationRequest> requests, AIPriority priority) {
+            batchPriorities.add(priority);
+            if (failBatches) {
+                throw new RuntimeException("unparseable batch");
+            }
+            batchSizes.add(requests.size());
+            return requests.stream().map(ClassificationBatcherTest::response).toList();
+        }
+    }
+}
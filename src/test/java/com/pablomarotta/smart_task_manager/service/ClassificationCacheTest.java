@@ -0,0 +1,264 @@
+package com.pablomarotta.smart_task_manager.service;
+
+import com.pablomarotta.smart_task_manager.config.AIConfigProperties;
+import com.pablomarotta.smart_task_manager.dto.AIClassificationRequest;
+import com.pablomarotta.smart_task_manager.dto.AIClassificationResponse;
+import com.pablomarotta.smart_task_manager.model.ClassificationCacheEntry;
+import com.pablomarotta.smart_task_manager.repository.ClassificationCacheRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ClassificationCacheTest {
+
+    @Mock
+    private ClassificationCacheRepository repository;
+
+    private AIConfigProperties aiConfigProperties;
+    private SimpleMeterRegistry meterRegistry;
+    private ClassificationCache cache;
+
+    @BeforeEach
+    void setUp() {
+        aiConfigProperties = new AIConfigProperties();
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new ClassificationCache(aiConfigProperties, repository, Runnable::run, meterRegistry);
+    }
+
+    @Test
+    void getOrCompute_SecondCallIsServedFromMemory() {
+        AtomicInteger calls = new AtomicInteger();
+
+        cache.getOrCompute(request("Fix login", "Crash"), () -> classified(calls));
+        AIClassificationResponse second = cache.getOrCompute(request("  fix   LOGIN ", "crash"), () -> classified(calls));
+
+        assertEquals("BUG", second.getCategory());
+        assertEquals(1, calls.get());
+        assertEquals(1.0, meterRegistry.counter("ai.cache.gets", "tier", "memory", "result", "hit").count());
+        verify(repository).upsert(anyString(), any(), any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void getOrCompute_UsesDatabaseTierOnMemoryMiss() {
+        ClassificationCacheEntry entry = ClassificationCacheEntry.builder()
+                .priority("LOW")
+                .category("DOCUMENTATION")
+                .estimatedDays(1)
+                .summary("Docs")
+                .build();
+        when(repository.findByCacheKeyAndExpiresAtAfter(anyString(), any(LocalDateTime.class)))
+                .thenReturn(Optional.of(entry));
+
+        AIClassificationResponse response = cache.getOrCompute(request("Write docs", null), () -> {
+            throw new AssertionError("Ollama should not be called");
+        });
+
+        assertEquals("DOCUMENTATION", response.getCategory());
+        assertEquals(1.0, meterRegistry.counter("ai.cache.gets", "tier", "database", "result", "hit").count());
+    }
+
+    @Test
+    void getOrCompute_DoesNotCacheEmptyResponses() {
+        AtomicInteger calls = new AtomicInteger();
+
+        cache.getOrCompute(request("Fix login", null), () -> {
+            calls.incrementAndGet();
+            return new AIClassificationResponse();
+        });
+        cache.getOrCompute(request("Fix login", null), () -> classified(calls));
+
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void getOrCompute_EvictsLeastRecentlyUsedEntry() {
+        aiConfigProperties.getCache().setMaxEntries(2);
+        aiConfigProperties.getCache().setPersistent(false);
+        AtomicInteger calls = new AtomicInteger();
+
+        cache.getOrCompute(request("a", null), () -> classified(calls));
+        cache.getOrCompute(request("b", null), () -> classified(calls));
+        cache.getOrCompute(request("a", null), () -> classified(calls));
+        cache.getOrCompute(request("c", null), () -> classified(calls));
+
+        assertEquals(2, cache.size());
+        assertEquals(1.0, meterRegistry.counter("ai.cache.evictions", "reason", "size").count());
+        cache.getOrCompute(request("a", null), () -> classified(calls));
+        assertEquals(3, calls.get());
+    }
+
+    @Test
+    void getOrCompute_ExpiresEntriesAfterTtl() throws Exception {
+        aiConfigProperties.getCache().setTtl(Duration.ofMillis(20));
+        aiConfigProperties.getCache().setPersistent(false);
+        AtomicInteger calls = new AtomicInteger();
+
+        cache.getOrCompute(request("a", null), () -> classified(calls));
+        Thread.sleep(40);
+        cache.getOrCompute(request("a", null), () -> classified(calls));
+
+        assertEquals(2, calls.get());
+        assertEquals(1.0, meterRegistry.counter("ai.cache.evictions", "reason", "expired").count());
+    }
+
+    @Test
+    void getOrCompute_ConcurrentMissesShareOneCall() throws Exception {
+        aiConfigProperties.getCache().setPersistent(false);
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch loaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+
+        try {
+            List<Future<AIClassificationResponse>> results = new ArrayList<>();
+            results.add(pool.submit(() -> cache.getOrCompute(request("same", null), () -> {
+                loaderStarted.countDown();
+                await(release);
+                return classified(calls);
+            })));
+            assertTrue(loaderStarted.await(2, TimeUnit.SECONDS));
+            for (int i = 0; i < 3; i++) {
+                results.add(pool.submit(() -> cache.getOrCompute(request("same", null), () -> classified(calls))));
+            }
+            while (meterRegistry.counter("ai.cache.inflight.joins").count() < 3) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+
+            for (Future<AIClassificationResponse> result : results) {
+                assertEquals("BUG", result.get(2, TimeUnit.SECONDS).getCategory());
+            }
+            assertEquals(1, calls.get());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void getOrComputeAsync_CancelsTheCallOnlyOnceEveryCallerHasCancelled() {
+        aiConfigProperties.getCache().setPersistent(false);
+        CompletableFuture<AIClassificationResponse> loading = new CompletableFuture<>();
+
+        CompletableFuture<AIClassificationResponse> first = cache.getOrComputeAsync(request("same", null), () -> loading);
+        CompletableFuture<AIClassificationResponse> second = cache.getOrComputeAsync(request("same", null), () -> {
+            throw new AssertionError("The in-flight call should be joined");
+        });
+
+        first.cancel(true);
+        assertFalse(loading.isCancelled());
+        second.cancel(true);
+        assertTrue(loading.isCancelled());
+
+        // The key is free again for the next caller
+        AtomicInteger calls = new AtomicInteger();
+        assertEquals("BUG", cache.getOrCompute(request("same", null), () -> classified(calls)).getCategory());
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void getOrComputeAsync_ReadsAndWritesTheDatabaseTierOnTheStoreExecutor() {
+        List<Runnable> store = new ArrayList<>();
+        cache = new ClassificationCache(aiConfigProperties, repository, store::add, meterRegistry);
+        CompletableFuture<AIClassificationResponse> loading = new CompletableFuture<>();
+        AtomicInteger calls = new AtomicInteger();
+
+        CompletableFuture<AIClassificationResponse> result = cache.getOrComputeAsync(request("Fix login", null), () -> {
+            calls.incrementAndGet();
+            return loading;
+        });
+
+        // The lookup waits for the store executor instead of running on the caller
+        verifyNoInteractions(repository);
+        assertEquals(0, calls.get());
+        store.remove(0).run();
+        assertEquals(1, calls.get());
+
+        // Completing the call, as the event loop does, writes nothing until the store runs
+        loading.complete(classified(new AtomicInteger()));
+        verify(repository, never()).upsert(anyString(), any(), any(), any(), any(), any(), any(), any());
+        assertFalse(result.isDone());
+        store.remove(0).run();
+        verify(repository).upsert(anyString(), any(), any(), any(), any(), any(), any(), any());
+        assertEquals("BUG", result.join().getCategory());
+    }
+
+    @Test
+    void getOrComputeAsync_SkipsTheCallWhenEveryCallerCancelledDuringTheLookup() {
+        List<Runnable> store = new ArrayList<>();
+        cache = new ClassificationCache(aiConfigProperties, repository, store::add, meterRegistry);
+        AtomicInteger calls = new AtomicInteger();
+
+        cache.getOrComputeAsync(request("Fix login", null), () -> {
+            calls.incrementAndGet();
+            return new CompletableFuture<>();
+        }).cancel(true);
+        store.remove(0).run();
+
+        assertEquals(0, calls.get());
+        assertTrue(store.isEmpty());
+    }
+
+    @Test
+    void getOrCompute_WhenDisabled_AlwaysCallsLoader() {
+        aiConfigProperties.getCache().setEnabled(false);
+        AtomicInteger calls = new AtomicInteger();
+
+        cache.getOrCompute(request("a", null), () -> classified(calls));
+        cache.getOrCompute(request("a", null), () -> classified(calls));
+
+        assertEquals(2, calls.get());
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void keyFor_DependsOnModel() {
+        String before = cache.keyFor(request("a", "b"));
+        aiConfigProperties.setModel("another-model");
+
+        assertNotEquals(before, cache.keyFor(request("a", "b")));
+    }
+
+    private AIClassificationRequest request(String title, String description) {
+        return AIClassificationRequest.builder().title(title).description(description).build();
+    }
+
+    private AIClassificationResponse classified(AtomicInteger calls) {
+        calls.incrementAndGet();
+        AIClassificationResponse response = new AIClassificationResponse();
+        response.setPriority("HIGH");
+        response.setCategory("BUG");
+        response.setEstimatedDays(2);
+        response.setSummary("Fix it");
+        return response;
+    }
+
+    private void await(CountDownLatch latch) {
+        try {
+            latch.await(2, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.pablomarotta.smart_task_manager.service;
+
+import com.pablomarotta.smart_task_manager.config.AIConfigProperties;
+import com.pablomarotta.smart_task_manager.dto.AIClassificationRequest;
+import com.pablomarotta.smart_task_manager.dto.AIClassificationResponse;
+import com.pablomarotta.smart_task_manager.dto.AIDraftClassificationRequest;
+import com.pablomarotta.smart_task_manager.dto.AIDraftClassificationResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DraftClassificationServiceTest {
+
+    @Mock
+    private AIService aiService;
+
+    private AIConfigProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private DraftClassificationService draftService;
+
+    @BeforeEach
+    void setUp() {
+        properties = new AIConfigProperties();
+        meterRegistry = new SimpleMeterRegistry();
+        draftService = new DraftClassificationService(aiService, properties, meterRegistry);
+    }
+
+    @Test
+    void classify_NewerDraftCancelsTheOlderCall() {
+        CompletableFuture<AIClassificationResponse> firstCall = new CompletableFuture<>();
+        CompletableFuture<AIClassificationResponse> secondCall = new CompletableFuture<>();
+        when(aiService.classifyTaskAsync(any(AIClassificationRequest.class))).thenReturn(firstCall, secondCall);
+
+        CompletableFuture<AIDraftClassificationResponse> first = draftService.classify("alice", draft("s1", 1));
+        CompletableFuture<AIDraftClassificationResponse> second = draftService.classify("alice", draft("s1", 2));
+        secondCall.complete(classification());
+
+        assertTrue(firstCall.isCancelled());
+        assertEquals(HttpStatus.CONFLICT, statusOf(first));
+        assertEquals(2L, second.join().getSequence());
+        assertEquals(1.0, meterRegistry.counter("ai.draft.classifications", "outcome", "superseded").count());
+        assertEquals(0.0, meterRegistry.get("ai.draft.inflight").gauge().value());
+    }
+
+    @Test
+    void classify_RefusesDraftsOlderThanTheLastAnswer() {
+        when(aiService.classifyTaskAsync(any(AIClassificationRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(classification()));
+        draftService.classify("alice", draft("s1", 5)).join();
+
+        CompletableFuture<AIDraftClassificationResponse> stale = draftService.classify("alice", draft("s1", 4));
+
+        assertEquals(HttpStatus.CONFLICT, statusOf(stale));
+        verify(aiService, times(1)).classifyTaskAsync(any(AIClassificationRequest.class));
+        assertEquals(1.0, meterRegistry.counter("ai.draft.classifications", "outcome", "stale").count());
+    }
+
+    @Test
+    void classify_SessionsAreIndependentPerUser() {
+        when(aiService.classifyTaskAsync(any(AIClassificationRequest.class)))
+                .thenReturn(new CompletableFuture<>(), new CompletableFuture<>());
+
+        CompletableFuture<AIDraftClassificationResponse> alice = draftService.classify("alice", draft("s1", 2));
+        draftService.classify("bob", draft("s1", 1));
+
+        assertFalse(alice.isDone());
+        assertEquals(2.0, meterRegistry.get("ai.draft.inflight").gauge().value());
+    }
+
+    @Test
+    void classify_CancellingTheResultCancelsTheCall() {
+        CompletableFuture<AIClassificationResponse> call = new CompletableFuture<>();
+        when(aiService.classifyTaskAsync(any(AIClassificationRequest.class))).thenReturn(call);
+
+        draftService.classify("alice", draft("s1", 1)).cancel(true);
+
+        assertTrue(call.isCancelled());
+        assertEquals(1.0, meterRegistry.counter("ai.draft.classifications", "outcome", "abandoned").count());
+    }
+
+    @Test
+    void abandon_CancelsTheDraftInFlightAndForgetsTheSession() {
+        CompletableFuture<AIClassificationResponse> call = new CompletableFuture<>();
+        when(aiService.classifyTaskAsync(any(AIClassificationRequest.class)))
+                .thenReturn(call, CompletableFuture.completedFuture(classification()));
+        CompletableFuture<AIDraftClassificationResponse> pending = draftService.classify("alice", draft("s1", 3));
+
+        draftService.abandon("alice", "s1");
+
+        assertTrue(call.isCancelled());
+        assertEquals(HttpStatus.CONFLICT, statusOf(pending));
+        // A new form may reuse the session id from the start
+        assertEquals(1L, draftService.classify("alice", draft("s1", 1)).join().getSequence());
+    }
+
+    @Test
+    void purgeExpiredSessions_ForgetsAnsweredSessionsAfterTheTtl() {
+        properties.getDraft().setSessionTtl(Duration.ZERO);
+        when(aiService.classifyTaskAsync(any(AIClassificationRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(classification()));
+        draftService.classify("alice", draft("s1", 5)).join();
+
+        draftService.purgeExpiredSessions();
+
+        assertEquals(1L, draftService.classify("alice", draft("s1", 1)).join().getSequence());
+    }
+
+    @Test
+    void purgeExpiredSessions_CountsTheTtlFromTheAnswer() throws Exception {
+        properties.getDraft().setSessionTtl(Duration.ofMillis(500));
+        CompletableFuture<AIClassificationResponse> call = new CompletableFuture<>();
+        when(aiService.classifyTaskAsync(any(AIClassificationRequest.class))).thenReturn(call);
+        CompletableFuture<AIDraftClassificationResponse> slow = draftService.classify("alice", draft("s1", 5));
+
+        // In flight for longer than the TTL, answered just now
+        Thread.sleep(700);
+        call.complete(classification());
+        slow.join();
+        draftService.purgeExpiredSessions();
+
+        assertEquals(HttpStatus.CONFLICT, statusOf(draftService.classify("alice", draft("s1", 4))));
+    }
+
+    private HttpStatus statusOf(CompletableFuture<?> future) {
+        CompletionException error = assertThrows(CompletionException.class, future::join);
+        ResponseStatusException cause = assertInstanceOf(ResponseStatusException.class, error.getCause());
+        return HttpStatus.valueOf(cause.getStatusCode().value());
+    }
+
+    private AIDraftClassificationRequest draft(String sessionId, long sequence) {
+        return AIDraftClassificationRequest.builder()
+                .sessionId(sessionId)
+                .sequence(sequence)
+                .title("Fix crash on login")
+                .build();
+    }
+
+    private AIClassificationResponse classification() {
+        AIClassificationResponse response = new AIClassificationResponse();
+        response.setCategory("BUG");
+        response.setPriority("HIGH");
+        return response;
+    }
+}
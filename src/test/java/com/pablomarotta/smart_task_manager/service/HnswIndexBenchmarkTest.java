@@ -0,0 +1,119 @@
+package com.pablomarotta.smart_task_manager.service;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Recall, latency and memory of {@link HnswIndex} at the size of a large workspace, on
+ * clustered vectors shaped like sentence embeddings. Excluded from the default build; run
+ * with {@code ./mvnw test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class HnswIndexBenchmarkTest {
+
+    private static final int VECTORS = 100_000;
+    private static final int DIMENSION = 384;
+    private static final int CLUSTERS = 2_000;
+    private static final int QUERIES = 500;
+    private static final int K = 10;
+
+    @Test
+    void recallLatencyAndSize(@TempDir Path directory) throws Exception {
+        Random random = new Random(42);
+        float[][] centers = new float[CLUSTERS][];
+        for (int i = 0; i < CLUSTERS; i++) {
+            centers[i] = gaussian(random, 1.0);
+        }
+        float[][] vectors = new float[VECTORS][];
+        for (int i = 0; i < VECTORS; i++) {
+            vectors[i] = near(random, centers[random.nextInt(CLUSTERS)]);
+        }
+
+        HnswIndex index = new HnswIndex(DIMENSION, 16, 100, new Random(1));
+        long buildStart = System.nanoTime();
+        for (int i = 0; i < VECTORS; i++) {
+            index.add(i, vectors[i]);
+        }
+        long buildMillis = (System.nanoTime() - buildStart) / 1_000_000;
+
+        int found = 0;
+        long[] latencies = new long[QUERIES];
+        for (int query = 0; query < QUERIES; query++) {
+            float[] vector = near(random, centers[random.nextInt(CLUSTERS)]);
+            long start = System.nanoTime();
+            List<HnswIndex.Neighbor> result = index.search(vector, K, 64);
+            latencies[query] = System.nanoTime() - start;
+
+            List<Long> exact = bruteForce(vectors, vector);
+            found += (int) result.stream().map(HnswIndex.Neighbor::id).filter(exact::contains).count();
+        }
+        Arrays.sort(latencies);
+        double recall = (double) found / (QUERIES * K);
+
+        Path file = directory.resolve("bench.hnsw");
+        index.save(file);
+        double bytesPerVector = (double) index.estimatedBytes() / VECTORS;
+
+        System.out.printf("HNSW: %d x %d-dim vectors built in %d ms, recall@%d %.3f, p50 %.2f ms, p99 %.2f ms%n",
+                VECTORS, DIMENSION, buildMillis, K, recall,
+                latencies[QUERIES / 2] / 1e6, latencies[(int) (QUERIES * 0.99)] / 1e6);
+        System.out.printf("  memory %.0f bytes/vector (~%.0f MB per million), index file %.1f MB%n",
+                bytesPerVector, bytesPerVector, Files.size(file) / 1e6);
+
+        assertTrue(recall >= 0.95, "recall@" + K + " was " + recall);
+    }
+
+    private float[] gaussian(Random random, double scale) {
+        float[] vector = new float[DIMENSION];
+        for (int i = 0; i < DIMENSION; i++) {
+            vector[i] = (float) (random.nextGaussian() * scale);
+        }
+        return vector;
+    }
+
+    private float[] near(Random random, float[] center) {
+        float[] noise = gaussian(random, 0.35);
+        for (int i = 0; i < DIMENSION; i++) {
+            noise[i] += center[i];
+        }
+        return noise;
+    }
+
+    private List<Long> bruteForce(float[][] vectors, float[] query) {
+        PriorityQueue<double[]> best = new PriorityQueue<>((a, b) -> Double.compare(a[0], b[0]));
+        double queryNorm = Math.sqrt(dot(query, query));
+        for (int i = 0; i < vectors.length; i++) {
+            double similarity = dot(vectors[i], query) / (Math.sqrt(dot(vectors[i], vectors[i])) * queryNorm);
+            if (best.size() < K) {
+                best.add(new double[] {similarity, i});
+            } else if (similarity > best.peek()[0]) {
+                best.poll();
+                best.add(new double[] {similarity, i});
+            }
+        }
+        List<Long> ids = new ArrayList<>();
+        for (double[] entry : best) {
+            ids.add((long) entry[1]);
+        }
+        return ids;
+    }
+
+    private double dot(float[] a, float[] b) {
+        double sum = 0;
+        for (int i = 0; i < a.length; i++) {
+            sum += a[i] * b[i];
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,141 @@
+package com.pablomarotta.smart_task_manager.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HnswIndexTest {
+
+    private static final int DIMENSION = 32;
+
+    @Test
+    void search_FindsNearlyAllTrueNeighbors() {
+        Random random = new Random(7);
+        float[][] vectors = randomVectors(random, 2000);
+        HnswIndex index = new HnswIndex(DIMENSION, 16, 100, new Random(1));
+        for (int i = 0; i < vectors.length; i++) {
+            index.add(i, vectors[i]);
+        }
+
+        int found = 0;
+        int expected = 0;
+        for (int query = 0; query < 50; query++) {
+            float[] vector = randomVectors(random, 1)[0];
+            List<Long> exact = bruteForce(vectors, vector, 10);
+            List<Long> approximate = index.search(vector, 10, 64).stream().map(HnswIndex.Neighbor::id).toList();
+            found += (int) exact.stream().filter(approximate::contains).count();
+            expected += exact.size();
+        }
+
+        assertTrue(found >= expected * 0.95, "recall@10 was " + (double) found / expected);
+    }
+
+    @Test
+    void search_ReturnsIdenticalVectorFirstWithSimilarityOne() {
+        HnswIndex index = new HnswIndex(3, 4, 20);
+        index.add(1, new float[] {1, 0, 0});
+        index.add(2, new float[] {0, 1, 0});
+        index.add(3, new float[] {1, 1, 0});
+
+        List<HnswIndex.Neighbor> result = index.search(new float[] {2, 0, 0}, 2, 10);
+
+        assertEquals(1L, result.get(0).id());
+        assertEquals(1.0, result.get(0).similarity(), 1e-6);
+        assertEquals(3L, result.get(1).id());
+    }
+
+    @Test
+    void remove_HidesIdFromSearchUntilAddedAgain() {
+        HnswIndex index = new HnswIndex(3, 4, 20);
+        index.add(1, new float[] {1, 0, 0});
+        index.add(2, new float[] {0, 1, 0});
+
+        assertTrue(index.remove(1));
+        assertFalse(index.remove(1));
+        assertEquals(1, index.size());
+        assertTrue(index.search(new float[] {1, 0, 0}, 2, 10).stream().noneMatch(neighbor -> neighbor.id() == 1));
+
+        index.add(1, new float[] {0, 0, 1});
+        assertEquals(1L, index.search(new float[] {0, 0, 1}, 1, 10).get(0).id());
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void compact_DropsRemovedNodesAndKeepsTheRest() {
+        Random random = new Random(3);
+        float[][] vectors = randomVectors(random, 200);
+        HnswIndex index = new HnswIndex(DIMENSION, 8, 50);
+        for (int i = 0; i < vectors.length; i++) {
+            index.add(i, vectors[i]);
+        }
+        for (int i = 0; i < 100; i++) {
+            index.remove(i);
+        }
+
+        HnswIndex compacted = index.compact();
+
+        assertEquals(100, compacted.size());
+        assertEquals(0, compacted.deletedCount());
+        assertFalse(compacted.contains(5));
+        assertEquals(150L, compacted.search(vectors[150], 1, 32).get(0).id());
+    }
+
+    @Test
+    void saveAndLoad_RestoresTheSameIndex(@TempDir Path directory) throws Exception {
+        Random random = new Random(11);
+        float[][] vectors = randomVectors(random, 300);
+        HnswIndex index = new HnswIndex(DIMENSION, 8, 50);
+        for (int i = 0; i < vectors.length; i++) {
+            index.add(i + 1000L, vectors[i]);
+        }
+        index.remove(1000L);
+
+        Path file = directory.resolve("index.hnsw");
+        index.save(file);
+        HnswIndex loaded = HnswIndex.load(file);
+
+        assertEquals(index.size(), loaded.size());
+        assertEquals(DIMENSION, loaded.dimension());
+        assertFalse(loaded.contains(1000L));
+        float[] query = randomVectors(random, 1)[0];
+        assertEquals(index.search(query, 5, 32), loaded.search(query, 5, 32));
+    }
+
+    private float[][] randomVectors(Random random, int count) {
+        float[][] vectors = new float[count][DIMENSION];
+        for (float[] vector : vectors) {
+            for (int i = 0; i < DIMENSION; i++) {
+                vector[i] = (float) random.nextGaussian();
+            }
+        }
+        return vectors;
+    }
+
+    private List<Long> bruteForce(float[][] vectors, float[] query, int k) {
+        return IntStream.range(0, vectors.length)
+                .boxed()
+                .sorted(Comparator.comparingDouble(i -> -cosine(vectors[i], query)))
+                .limit(k)
+                .map(Integer::longValue)
+                .toList();
+    }
+
+    private double cosine(float[] a, float[] b) {
+        double dot = 0;
+        double normA = 0;
+        double normB = 0;
+        for (int i = 0; i < a.length; i++) {
+            dot += a[i] * b[i];
+            normA += a[i] * a[i];
+            normB += b[i] * b[i];
+        }
+        return dot / Math.sqrt(normA * normB);
+    }
+}
@@ -0,0 +1,78 @@
+package com.pablomarotta.smart_task_manager.service;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pablomarotta.smart_task_manager.dto.AIClassificationResponse;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IncrementalJsonParserTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    @Test
+    void feed_CompletesOnClosingBraceAcrossFragments() throws Exception {
+        IncrementalJsonParser<AIClassificationResponse> parser =
+                new IncrementalJsonParser<>(objectMapper, AIClassificationResponse.class, '{');
+
+        assertTrue(parser.feed("Claro, aquí tienes:\n```json\n").isEmpty());
+        assertTrue(parser.feed("{\"prio").isEmpty());
+        assertTrue(parser.feed("rity\": \"HIGH\", \"category\": \"BUG\", ").isEmpty());
+        assertTrue(parser.feed("\"estimatedDays\": 2, \"summary\": \"Arreglar {login}\"").isEmpty());
+        Optional<AIClassificationResponse> result = parser.feed("}\n```\nEspero que sirva, además {");
+
+        assertTrue(result.isPresent());
+        assertEquals("HIGH", result.get().getPriority());
+        assertEquals("BUG", result.get().getCategory());
+        assertEquals(2, result.get().getEstimatedDays());
+        assertEquals("Arreglar {login}", result.get().getSummary());
+    }
+
+    @Test
+    void feed_IgnoresInputAfterCompletion() throws Exception {
+        IncrementalJsonParser<AIClassificationResponse> parser =
+                new IncrementalJsonParser<>(objectMapper, AIClassificationResponse.class, '{');
+
+        AIClassificationResponse first = parser.feed("{\"category\": \"FEATURE\"}").orElseThrow();
+
+        assertSame(first, parser.feed("not json at all").orElseThrow());
+    }
+
+    @Test
+    void feed_ReadsNestedArrays() throws Exception {
+        IncrementalJsonParser<JsonNode> parser = new IncrementalJsonParser<>(objectMapper, JsonNode.class, '[');
+
+        assertTrue(parser.feed("[{\"index\": 0, \"tags\": [\"a\"]},").isEmpty());
+        JsonNode items = parser.feed(" {\"index\": 1}] y algo más").orElseThrow();
+
+        assertEquals(2, items.size());
+        assertEquals(1, items.get(1).path("index").asInt());
+    }
+
+    @Test
+    void feed_HandlesMultiByteCharacters() throws Exception {
+        IncrementalJsonParser<AIClassificationResponse> parser =
+                new IncrementalJsonParser<>(objectMapper, AIClassificationResponse.class, '{');
+
+        parser.feed("{\"summary\": \"Añadir documentación ");
+        AIClassificationResponse result = parser.feed("técnica\"}").orElseThrow();
+
+        assertEquals("Añadir documentación técnica", result.getSummary());
+    }
+
+    @Test
+    void feed_FailsOnMalformedJson() throws Exception {
+        IncrementalJsonParser<AIClassificationResponse> parser =
+                new IncrementalJsonParser<>(objectMapper, AIClassificationResponse.class, '{');
+
+        parser.feed("{\"priority\": ");
+
+        assertThrows(JsonParseException.class, () -> parser.feed("HIGH}"));
+    }
+}
@@ -0,0 +1,64 @@
+package com.pablomarotta.smart_task_manager.service;
+
+import com.pablomarotta.smart_task_manager.dto.PageResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeysetPaginationTest {
+
+    private final KeysetPagination pagination = new KeysetPagination(2, 3);
+
+    @Test
+    void page_FetchesOneExtraRowToFindTheNextCursor() {
+        List<KeysetPagination.Key> rows = List.of(key(1), key(2), key(3));
+        AtomicReference<Limit> limit = new AtomicReference<>();
+
+        PageResponse<Long> page = pagination.page(null, null, (createdAt, id, requested) -> {
+            limit.set(requested);
+            return rows;
+        }, row -> row, KeysetPagination.Key::id);
+
+        assertEquals(3, limit.get().max());
+        assertEquals(List.of(1L, 2L), page.getItems());
+        assertEquals(key(2), KeysetPagination.decode(page.getNextCursor()));
+    }
+
+    @Test
+    void page_HasNoCursorOnTheLastPage() {
+        PageResponse<Long> page = pagination.page(KeysetPagination.encode(key(1)), 3,
+                (createdAt, id, limit) -> {
+                    assertEquals(key(1), new KeysetPagination.Key(createdAt, id));
+                    return List.of(key(2));
+                }, row -> row, KeysetPagination.Key::id);
+
+        assertEquals(List.of(2L), page.getItems());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void pageSize_IsCappedAndMustBePositive() {
+        assertEquals(2, pagination.pageSize(null));
+        assertEquals(3, pagination.pageSize(1000));
+        ResponseStatusException error = assertThrows(ResponseStatusException.class, () -> pagination.pageSize(0));
+        assertEquals(HttpStatus.BAD_REQUEST, error.getStatusCode());
+    }
+
+    @Test
+    void decode_RejectsTamperedCursors() {
+        assertEquals(KeysetPagination.START, KeysetPagination.decode(null));
+        assertThrows(ResponseStatusException.class, () -> KeysetPagination.decode("not-a-cursor"));
+        assertThrows(ResponseStatusException.class, () -> KeysetPagination.decode("MjAyNi0wMS0wMQ"));
+    }
+
+    private KeysetPagination.Key key(long id) {
+        return new KeysetPagination.Key(LocalDateTime.of(2026, 1, 1, 12, 0, 0, 123_456_000), id);
+    }
+}
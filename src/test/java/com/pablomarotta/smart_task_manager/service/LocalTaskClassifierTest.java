@@ -0,0 +1,83 @@
+package com.pablomarotta.smart_task_manager.service;
+
+import com.pablomarotta.smart_task_manager.config.AIConfigProperties;
+import com.pablomarotta.smart_task_manager.dto.AIClassificationRequest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocalTaskClassifierTest {
+
+    private static final String[] SUBJECTS = {"login", "export", "dashboard", "search", "profile", "billing"};
+
+    private AIConfigProperties properties;
+    private LocalTaskClassifier classifier;
+
+    @BeforeEach
+    void setUp() {
+        properties = new AIConfigProperties();
+        properties.getLocal().setMinTrainingSamples(20);
+        classifier = new LocalTaskClassifier(Mockito.mock(JdbcTemplate.class), properties, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void classify_BeforeTraining_ReturnsEmpty() {
+        assertTrue(classifier.classify(request("Fix crash on login")).isEmpty());
+    }
+
+    @Test
+    void train_WithTooFewSamples_StaysUntrained() {
+        classifier.train(samples().subList(0, 10));
+
+        assertTrue(classifier.classify(request("Fix crash on login")).isEmpty());
+        assertEquals(0, classifier.getTrainingSamples());
+    }
+
+    @Test
+    void classify_LearnsCategoryPriorityAndDays() {
+        classifier.train(samples());
+
+        LocalTaskClassifier.Prediction bug = classifier.classify(request("Fix crash in the reports page")).orElseThrow();
+        LocalTaskClassifier.Prediction feature = classifier.classify(request("Add endpoint for reports")).orElseThrow();
+
+        assertEquals("BUG", bug.category());
+        assertEquals("HIGH", bug.priority());
+        assertEquals(2, bug.estimatedDays());
+        assertTrue(bug.confidence() > 0.9, "confidence " + bug.confidence());
+        assertEquals("FEATURE", feature.category());
+        assertEquals("MEDIUM", feature.priority());
+        assertEquals(5, feature.estimatedDays());
+    }
+
+    @Test
+    void classify_UnseenWords_HaveLowConfidence() {
+        classifier.train(samples());
+
+        LocalTaskClassifier.Prediction prediction = classifier.classify(request("Quarterly offsite planning")).orElseThrow();
+
+        assertTrue(prediction.confidence() < 0.9, "confidence " + prediction.confidence());
+    }
+
+    private List<LocalTaskClassifier.TrainingSample> samples() {
+        List<LocalTaskClassifier.TrainingSample> samples = new ArrayList<>();
+        for (String subject : SUBJECTS) {
+            samples.add(new LocalTaskClassifier.TrainingSample("Fix crash in " + subject, null, "BUG", "HIGH", 2));
+            samples.add(new LocalTaskClassifier.TrainingSample("Fix " + subject + " error", "It crashes", "BUG", "HIGH", 2));
+            samples.add(new LocalTaskClassifier.TrainingSample("Add endpoint for " + subject, null, "FEATURE", "MEDIUM", 5));
+            samples.add(new LocalTaskClassifier.TrainingSample("Add " + subject + " filters", "New option", "FEATURE", "MEDIUM", 5));
+            samples.add(new LocalTaskClassifier.TrainingSample("Document " + subject + " API", null, "DOCUMENTATION", "LOW", 1));
+        }
+        return samples;
+    }
+
+    private AIClassificationRequest request(String title) {
+        return AIClassificationRequest.builder().title(title).build();
+    }
+}
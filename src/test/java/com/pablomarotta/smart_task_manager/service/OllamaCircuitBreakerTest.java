@@ -0,0 +1,108 @@
+package com.pablomarotta.smart_task_manager.service;
+
+import com.pablomarotta.smart_task_manager.config.AIConfigProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OllamaCircuitBreakerTest {
+
+    private AIConfigProperties aiConfigProperties;
+    private SimpleMeterRegistry meterRegistry;
+    private OllamaCircuitBreaker circuitBreaker;
+
+    @BeforeEach
+    void setUp() {
+        aiConfigProperties = new AIConfigProperties();
+        aiConfigProperties.getCircuitBreaker().setFailureThreshold(3);
+        aiConfigProperties.getCircuitBreaker().setOpenDuration(Duration.ofMillis(50));
+        meterRegistry = new SimpleMeterRegistry();
+        circuitBreaker = new OllamaCircuitBreaker(aiConfigProperties, meterRegistry);
+    }
+
+    @Test
+    void opensAfterConsecutiveFailures() {
+        failTimes(2);
+        assertEquals(OllamaCircuitBreaker.State.CLOSED, circuitBreaker.snapshot().state());
+
+        failTimes(1);
+
+        assertEquals(OllamaCircuitBreaker.State.OPEN, circuitBreaker.snapshot().state());
+        assertNotNull(circuitBreaker.snapshot().openedAt());
+        assertFalse(circuitBreaker.tryAcquire());
+        assertEquals(1.0, meterRegistry.counter("ai.ollama.circuit.rejected").count());
+        assertEquals(2.0, meterRegistry.get("ai.ollama.circuit.state").gauge().value());
+    }
+
+    @Test
+    void successResetsFailureCount() {
+        failTimes(2);
+        assertTrue(circuitBreaker.tryAcquire());
+        circuitBreaker.onSuccess(Duration.ofMillis(10));
+        failTimes(2);
+
+        assertEquals(OllamaCircuitBreaker.State.CLOSED, circuitBreaker.snapshot().state());
+    }
+
+    @Test
+    void slowCallsCountAsFailures() {
+        aiConfigProperties.getCircuitBreaker().setSlowCallThreshold(Duration.ofSeconds(1));
+
+        for (int i = 0; i < 3; i++) {
+            assertTrue(circuitBreaker.tryAcquire());
+            circuitBreaker.onSuccess(Duration.ofSeconds(2));
+        }
+
+        assertEquals(OllamaCircuitBreaker.State.OPEN, circuitBreaker.snapshot().state());
+    }
+
+    @Test
+    void halfOpenLetsOneTrialThroughAndClosesOnSuccess() throws Exception {
+        failTimes(3);
+        assertFalse(circuitBreaker.isProbeDue());
+        Thread.sleep(60);
+        assertTrue(circuitBreaker.isProbeDue());
+
+        assertTrue(circuitBreaker.tryAcquire());
+        assertEquals(OllamaCircuitBreaker.State.HALF_OPEN, circuitBreaker.snapshot().state());
+        assertFalse(circuitBreaker.tryAcquire());
+
+        circuitBreaker.onSuccess(Duration.ofMillis(10));
+
+        assertEquals(OllamaCircuitBreaker.State.CLOSED, circuitBreaker.snapshot().state());
+        assertEquals(0, circuitBreaker.snapshot().consecutiveFailures());
+        assertNull(circuitBreaker.snapshot().openedAt());
+        assertTrue(circuitBreaker.tryAcquire());
+    }
+
+    @Test
+    void failedTrialOpensTheCircuitAgain() throws Exception {
+        failTimes(3);
+        Thread.sleep(60);
+
+        assertTrue(circuitBreaker.tryAcquire());
+        circuitBreaker.onFailure();
+
+        assertEquals(OllamaCircuitBreaker.State.OPEN, circuitBreaker.snapshot().state());
+        assertFalse(circuitBreaker.tryAcquire());
+    }
+
+    @Test
+    void disabledBreakerNeverRejects() {
+        aiConfigProperties.getCircuitBreaker().setEnabled(false);
+        failTimes(5);
+
+        assertTrue(circuitBreaker.tryAcquire());
+    }
+
+    private void failTimes(int times) {
+        for (int i = 0; i < times; i++) {
+            circuitBreaker.tryAcquire();
+            circuitBreaker.onFailure();
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.pablomarotta.smart_task_manager.service;
+
+import com.pablomarotta.smart_task_manager.config.AIConfigProperties;
+import com.pablomarotta.smart_task_manager.config.OllamaClientConfig;
+import com.pablomarotta.smart_task_manager.dto.AIClassificationRequest;
+import com.pablomarotta.smart_task_manager.dto.AIClassificationResponse;
+import com.pablomarotta.smart_task_manager.support.FakeOllamaServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Routes OllamaService calls over two {@link FakeOllamaServer} instances.
+ */
+class OllamaEndpointPoolTest {
+
+    private static FakeOllamaServer first;
+    private static FakeOllamaServer second;
+
+    private AIConfigProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private ConnectionProvider connectionProvider;
+    private OllamaEndpointPool pool;
+    private OllamaService ollamaService;
+
+    @BeforeAll
+    static void startServers() {
+        first = FakeOllamaServer.start();
+        second = FakeOllamaServer.start();
+    }
+
+    @AfterAll
+    static void stopServers() {
+        first.close();
+        second.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        first.reset();
+        second.reset();
+        properties = new AIConfigProperties();
+        properties.setEndpoints(List.of(first.getBaseUrl(), second.getBaseUrl()));
+        properties.setTimeout(5000);
+        properties.getRouting().setMinHedgeSamples(5);
+        properties.getRouting().setMinHedgeDelay(Duration.ofMillis(50));
+        properties.getRouting().setEjectionDuration(Duration.ofMillis(100));
+        meterRegistry = new SimpleMeterRegistry();
+
+        OllamaClientConfig clientConfig = new OllamaClientConfig();
+        connectionProvider = clientConfig.ollamaConnectionProvider(properties);
+        WebClient webClient = clientConfig.ollamaWebClient(properties, connectionProvider);
+        pool = new OllamaEndpointPool(properties, webClient, meterRegistry);
+        ollamaService = new OllamaService(properties, webClient,
+                new OllamaCircuitBreaker(properties, meterRegistry),
+                new AdaptiveConcurrencyLimiter(properties, meterRegistry),
+                pool, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        connectionProvider.dispose();
+    }
+
+    @Test
+    void choose_PrefersTheEndpointWithFewerCallsInFlight() {
+        OllamaEndpointPool.Endpoint busy = pool.choose(null);
+        busy.inFlight.incrementAndGet();
+
+        for (int i = 0; i < 10; i++) {
+            assertNotSame(busy, pool.choose(null));
+        }
+        // Excluding the idle one leaves only the busy one
+        assertSame(busy, pool.choose(pool.choose(busy)));
+    }
+
+    @Test
+    void classifyTask_SpreadsCallsOverBothEndpoints() {
+        for (int i = 0; i < 20; i++) {
+            assertEquals("BUG", ollamaService.classifyTask(request("Fix crash " + i)).getCategory());
+        }
+
+        assertTrue(first.getRequests() > 0);
+        assertTrue(second.getRequests() > 0);
+        assertEquals(20, first.getRequests() + second.getRequests());
+    }
+
+    @Test
+    void classifyTask_EjectsFailingEndpointAndReadmitsItOnceHealthy() throws Exception {
+        properties.getRouting().setHedgingEnabled(false);
+        first.errorRate(1.0, 503);
+
+        for (int i = 0; i < 30; i++) {
+            try {
+                ollamaService.classifyTask(request("Add export " + i));
+            } catch (RuntimeException e) {
+                // Calls that land on the failing endpoint before it is ejected fail
+            }
+        }
+
+        assertEquals(properties.getRouting().getEjectionThreshold(), first.getErrors());
+        assertFalse(pool.snapshot().get(0).healthy());
+        assertEquals(1.0, meterRegistry.counter("ai.ollama.endpoint.ejections", "endpoint", first.getBaseUrl()).count());
+
+        // Still failing when probed: ejected again
+        Thread.sleep(150);
+        pool.checkEjected();
+        assertFalse(pool.snapshot().get(0).healthy());
+
+        first.reset();
+        Thread.sleep(300);
+        pool.checkEjected();
+        assertTrue(pool.snapshot().get(0).healthy());
+        for (int i = 0; i < 20; i++) {
+            ollamaService.classifyTask(request("Add import " + i));
+        }
+        assertTrue(first.getRequests() > 0);
+    }
+
+    @Test
+    void embed_FailuresNeitherEjectEndpointsNorOpenTheCircuit() {
+        first.embeddingErrorStatus(404);
+        second.embeddingErrorStatus(404);
+
+        for (int i = 0; i < 20; i++) {
+            String text = "Fix crash " + i;
+            assertThrows(RuntimeException.class, () -> ollamaService.embed(text));
+        }
+
+        assertTrue(pool.snapshot().stream().allMatch(OllamaEndpointPool.EndpointStatus::healthy));
+        assertEquals("BUG", ollamaService.classifyTask(request("Fix crash on save")).getCategory());
+    }
+
+    @Test
+    void classifyTask_HedgesSlowCallsOnTheOtherEndpoint() {
+        // The median, so the first cold calls do not set the delay
+        properties.getRouting().setHedgePercentile(0.5);
+        for (int i = 0; i < 10; i++) {
+            ollamaService.classifyTask(request("Warm up " + i));
+        }
+        first.firstTokenLatency(FakeOllamaServer.Latency.fixed(Duration.ofSeconds(2)));
+
+        for (int i = 0; i < 10; i++) {
+            long start = System.nanoTime();
+            AIClassificationResponse response = ollamaService.classifyTask(request("Fix bug " + i));
+
+            assertEquals("BUG", response.getCategory());
+            assertTrue(Duration.ofNanos(System.nanoTime() - start).compareTo(Duration.ofSeconds(1)) < 0);
+        }
+
+        assertTrue(meterRegistry.counter("ai.ollama.hedges", "outcome", "fired").count() > 0);
+        assertTrue(meterRegistry.counter("ai.ollama.hedges", "outcome", "won").count() > 0);
+    }
+
+    @Test
+    void hedgeDelay_IsOffWithASingleEndpoint() {
+        properties.setEndpoints(List.of());
+        OllamaEndpointPool single = new OllamaEndpointPool(properties, WebClient.create(), meterRegistry);
+
+        assertNull(single.hedgeDelay(1));
+        assertEquals(properties.getBaseUrl(), single.choose(null).url);
+    }
+
+    private AIClassificationRequest request(String title) {
+        return AIClassificationRequest.builder().title(title).build();
+    }
+}
@@ -0,0 +1,187 @@
+package com.pablomarotta.smart_task_manager.service;
+
+import com.pablomarotta.smart_task_manager.config.AIConfigProperties;
+import com.pablomarotta.smart_task_manager.config.OllamaClientConfig;
+import com.pablomarotta.smart_task_manager.support.FakeOllamaServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OllamaModelWarmerTest {
+
+    private static FakeOllamaServer first;
+    private static FakeOllamaServer second;
+
+    private AIConfigProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private ConnectionProvider connectionProvider;
+    private WebClient webClient;
+
+    @BeforeAll
+    static void startServers() {
+        first = FakeOllamaServer.start();
+        second = FakeOllamaServer.start();
+    }
+
+    @AfterAll
+    static void stopServers() {
+        first.close();
+        second.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        first.reset();
+        second.reset();
+        properties = new AIConfigProperties();
+        properties.setEndpoints(List.of(first.getBaseUrl(), second.getBaseUrl()));
+        properties.setModel("fake");
+        properties.setTimeout(5000);
+        meterRegistry = new SimpleMeterRegistry();
+
+        OllamaClientConfig clientConfig = new OllamaClientConfig();
+        connectionProvider = clientConfig.ollamaConnectionProvider(properties);
+        webClient = clientConfig.ollamaWebClient(properties, connectionProvider);
+    }
+
+    @AfterEach
+    void tearDown() {
+        connectionProvider.dispose();
+    }
+
+    @Test
+    void warmUp_LoadsTheModelOnEveryEndpoint() {
+        OllamaModelWarmer warmer = warmer(new OllamaEndpointPool(properties, webClient, meterRegistry));
+
+        warmer.warmUp();
+
+        assertEquals(1, first.getLoads());
+        assertEquals(1, second.getLoads());
+        assertEquals(0, first.getRequests() + second.getRequests());
+        assertTrue(warmer.getStates().values().stream().allMatch(state -> state == OllamaModelWarmer.State.HOT));
+        assertEquals(2.0, meterRegistry.get("ai.ollama.model.hot").gauge().value());
+        assertEquals(2.0, meterRegistry.counter("ai.ollama.warmup", "outcome", "loaded").count());
+    }
+
+    @Test
+    void warmUp_CountsSlowLoadsAsModelLoads() {
+        first.loadLatency(Duration.ofMillis(200));
+        OllamaModelWarmer warmer = warmer(new OllamaEndpointPool(properties, webClient, meterRegistry));
+
+        warmer.warmUp();
+
+        assertEquals(1.0, meterRegistry.counter("ai.ollama.model.loads", "model", "fake", "outcome", "load").count());
+        assertEquals(2, meterRegistry.find("ai.ollama.generation.duration").tag("phase", "load").timer().count());
+    }
+
+    @Test
+    void warmUp_ReportsMissingModelWithoutLoadingIt() {
+        first.models("llama3.2:3b");
+        second.models("fake:latest");
+        OllamaModelWarmer warmer = warmer(new OllamaEndpointPool(properties, webClient, meterRegistry));
+
+        warmer.warmUp();
+
+        assertEquals(OllamaModelWarmer.State.MISSING, warmer.getStates().get(first.getBaseUrl()));
+        assertEquals(OllamaModelWarmer.State.HOT, warmer.getStates().get(second.getBaseUrl()));
+        assertEquals(0, first.getLoads());
+        assertEquals(1.0, meterRegistry.counter("ai.ollama.warmup", "outcome", "missing").count());
+    }
+
+    @Test
+    void warmUp_RefreshesHotEndpointsOnlyWhileThereIsTraffic() {
+        properties.getWarmup().setRefreshInterval(Duration.ZERO);
+        OllamaEndpointPool pool = new OllamaEndpointPool(properties, webClient, meterRegistry);
+        OllamaModelWarmer warmer = warmer(pool);
+        warmer.warmUp();
+
+        // Idle: the model is left to expire after keep_alive
+        warmer.warmUp();
+        assertEquals(1, first.getLoads());
+
+        pool.route(1, url -> Mono.just(url), error -> true).block();
+        warmer.warmUp();
+        assertEquals(2, first.getLoads());
+        assertEquals(2, second.getLoads());
+        assertEquals(2.0, meterRegistry.counter("ai.ollama.warmup", "outcome", "refreshed").count());
+    }
+
+    @Test
+    void warmUp_MarksIdleEndpointsColdOnceOllamaUnloadsTheModel() {
+        properties.getWarmup().setRefreshInterval(Duration.ZERO);
+        OllamaEndpointPool pool = new OllamaEndpointPool(properties, webClient, meterRegistry);
+        OllamaModelWarmer warmer = warmer(pool);
+        warmer.warmUp();
+
+        first.unload();
+        warmer.warmUp();
+        assertEquals(OllamaModelWarmer.State.COLD, warmer.getStates().get(first.getBaseUrl()));
+        assertEquals(OllamaModelWarmer.State.HOT, warmer.getStates().get(second.getBaseUrl()));
+        assertEquals(1.0, meterRegistry.get("ai.ollama.model.hot").gauge().value());
+        assertEquals(1, first.getLoads());
+
+        // Still idle: a cold endpoint is not loaded again
+        warmer.warmUp();
+        assertEquals(1, first.getLoads());
+
+        pool.route(1, url -> Mono.just(url), error -> true).block();
+        warmer.warmUp();
+        assertEquals(OllamaModelWarmer.State.HOT, warmer.getStates().get(first.getBaseUrl()));
+        assertEquals(2, first.getLoads());
+    }
+
+    @Test
+    void health_IsOutOfServiceUntilTheModelIsHot() {
+        first.errorRate(1.0, 503);
+        second.errorRate(1.0, 503);
+        OllamaModelWarmer warmer = warmer(new OllamaEndpointPool(properties, webClient, meterRegistry));
+        OllamaModelHealthIndicator health = new OllamaModelHealthIndicator(warmer, properties);
+
+        assertEquals(Status.OUT_OF_SERVICE, health.health().getStatus());
+        warmer.warmUp();
+        assertEquals(Status.OUT_OF_SERVICE, health.health().getStatus());
+        assertEquals(OllamaModelWarmer.State.UNREACHABLE, warmer.getStates().get(first.getBaseUrl()));
+
+        second.reset();
+        warmer.warmUp();
+        assertEquals(Status.UP, health.health().getStatus());
+        assertEquals("hot", health.health().getDetails().get("model"));
+    }
+
+    @Test
+    void health_GivesUpGatingAfterTheReadinessTimeout() {
+        first.errorRate(1.0, 503);
+        second.errorRate(1.0, 503);
+        properties.getWarmup().setReadinessTimeout(Duration.ZERO);
+        OllamaModelWarmer warmer = warmer(new OllamaEndpointPool(properties, webClient, meterRegistry));
+        warmer.warmUp();
+
+        assertEquals(Status.UP, new OllamaModelHealthIndicator(warmer, properties).health().getStatus());
+        assertEquals("cold", new OllamaModelHealthIndicator(warmer, properties).health().getDetails().get("model"));
+    }
+
+    @Test
+    void health_IsUpWhenWarmUpIsDisabled() {
+        properties.getWarmup().setEnabled(false);
+        OllamaModelWarmer warmer = warmer(new OllamaEndpointPool(properties, webClient, meterRegistry));
+
+        assertEquals(Status.UP, new OllamaModelHealthIndicator(warmer, properties).health().getStatus());
+        assertEquals(OllamaModelWarmer.State.DISABLED, warmer.getStates().get(first.getBaseUrl()));
+    }
+
+    private OllamaModelWarmer warmer(OllamaEndpointPool pool) {
+        return new OllamaModelWarmer(properties, webClient, pool, meterRegistry);
+    }
+}
@@ -0,0 +1,181 @@
+package com.pablomarotta.smart_task_manager.service;
+
+import com.pablomarotta.smart_task_manager.config.AIConfigProperties;
+import com.pablomarotta.smart_task_manager.config.OllamaClientConfig;
+import com.pablomarotta.smart_task_manager.dto.AIClassificationRequest;
+import com.pablomarotta.smart_task_manager.dto.AIClassificationResponse;
+import com.pablomarotta.smart_task_manager.exception.AIUnavailableException;
+import com.pablomarotta.smart_task_manager.support.FakeOllamaServer;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs OllamaService over HTTP against {@link FakeOllamaServer}.
+ */
+class OllamaServiceHttpTest {
+
+    private static FakeOllamaServer ollama;
+
+    private AIConfigProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private ConnectionProvider connectionProvider;
+    private OllamaService ollamaService;
+
+    @BeforeAll
+    static void startServer() {
+        ollama = FakeOllamaServer.start();
+    }
+
+    @AfterAll
+    static void stopServer() {
+        ollama.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        ollama.reset();
+        properties = new AIConfigProperties();
+        properties.setBaseUrl(ollama.getBaseUrl());
+        properties.setTimeout(2000);
+        meterRegistry = new SimpleMeterRegistry();
+        createService();
+    }
+
+    @AfterEach
+    void tearDown() {
+        connectionProvider.dispose();
+    }
+
+    private void createService() {
+        if (connectionProvider != null) {
+            connectionProvider.dispose();
+        }
+        OllamaClientConfig clientConfig = new OllamaClientConfig();
+        connectionProvider = clientConfig.ollamaConnectionProvider(properties);
+        WebClient webClient = clientConfig.ollamaWebClient(properties, connectionProvider);
+        ollamaService = new OllamaService(properties, webClient,
+                new OllamaCircuitBreaker(properties, meterRegistry),
+                new AdaptiveConcurrencyLimiter(properties, meterRegistry),
+                new OllamaEndpointPool(properties, webClient, meterRegistry),
+                meterRegistry);
+    }
+
+    @Test
+    void classifyTask_StreamingStopsReadingAfterTheJson() throws Exception {
+        properties.setStructuredOutput(false);
+        ollama.tokensPerSecond(200).trailingText(" Espero que esta clasificación te sea útil. ".repeat(20));
+
+        AIClassificationResponse response = ollamaService.classifyTask(request("Fix login crash", "Users cannot log in"));
+
+        assertEquals("BUG", response.getCategory());
+        assertEquals("HIGH", response.getPriority());
+        waitFor(() -> ollama.getCancelled() == 1);
+        assertEquals(0, ollama.getCompleted());
+    }
+
+    @Test
+    void classifyTask_NonStreamingReadsTheWholeAnswer() {
+        properties.setStreaming(false);
+        properties.setStructuredOutput(false);
+        ollama.trailingText(" Espero que sirva.");
+
+        AIClassificationResponse response = ollamaService.classifyTask(request("Write README docs", null));
+
+        assertEquals("DOCUMENTATION", response.getCategory());
+        assertEquals(1, ollama.getCompleted());
+        assertEquals(1, meterRegistry.find("ai.ollama.tokens").tag("type", "prompt").summary().count());
+    }
+
+    @Test
+    void classifyTask_PublishesOllamaTimings() {
+        properties.setStreaming(false);
+        ollama.firstTokenLatency(FakeOllamaServer.Latency.fixed(Duration.ofMillis(50))).tokensPerSecond(1000);
+
+        ollamaService.classifyTask(request("Fix login crash", "Users cannot log in"));
+
+        Timer promptEval = meterRegistry.find("ai.ollama.generation.duration")
+                .tags("phase", "prompt_eval", "outcome", "stop", "model", properties.getModel()).timer();
+        assertEquals(1, promptEval.count());
+        assertTrue(promptEval.totalTime(TimeUnit.MILLISECONDS) >= 50);
+        assertEquals(1, meterRegistry.find("ai.ollama.generation.duration").tag("phase", "overhead").timer().count());
+        double tokensPerSecond = meterRegistry.find("ai.ollama.generation.tokens.per.second")
+                .tag("phase", "eval").summary().mean();
+        assertTrue(tokensPerSecond > 100 && tokensPerSecond <= 1100, "eval rate " + tokensPerSecond);
+        double share = meterRegistry.find("ai.ollama.generation.prompt.eval.share").summary().mean();
+        assertTrue(share > 0 && share < 1);
+        // The fake reports the model as already loaded
+        assertNull(meterRegistry.find("ai.ollama.model.loads").counter());
+    }
+
+    @Test
+    void classifyBatch_ReturnsOneClassificationPerTask() {
+        List<AIClassificationResponse> responses = ollamaService.classifyBatch(List.of(
+                request("Add dark mode", null),
+                request("Fix critical production bug", null),
+                request("Refactor the task service", null)));
+
+        assertEquals(List.of("FEATURE", "BUG", "REFACTOR"),
+                responses.stream().map(AIClassificationResponse::getCategory).toList());
+        assertEquals("URGENT", responses.get(1).getPriority());
+    }
+
+    @Test
+    void classifyTask_CountsMalformedAnswersAsParseFailures() {
+        ollama.malformedRate(1.0);
+
+        assertThrows(RuntimeException.class, () -> ollamaService.classifyTask(request("Add dark mode", null)));
+
+        assertEquals(1.0, meterRegistry.counter("ai.ollama.parse",
+                "model", properties.getModel(), "mode", "structured", "outcome", "failure").count());
+    }
+
+    @Test
+    void classifyTask_OpensTheCircuitAfterServerErrors() {
+        properties.getCircuitBreaker().setFailureThreshold(2);
+        ollama.errorRate(1.0, 503);
+
+        assertThrows(RuntimeException.class, () -> ollamaService.classifyTask(request("a", null)));
+        assertThrows(RuntimeException.class, () -> ollamaService.classifyTask(request("b", null)));
+        assertThrows(AIUnavailableException.class, () -> ollamaService.classifyTask(request("c", null)));
+
+        assertEquals(2, ollama.getRequests());
+    }
+
+    @Test
+    void classifyTask_TimesOutOnAHungServer() {
+        properties.setTimeout(200);
+        createService();
+        ollama.firstTokenLatency(FakeOllamaServer.Latency.fixed(Duration.ofSeconds(2)));
+
+        long start = System.nanoTime();
+        assertThrows(RuntimeException.class, () -> ollamaService.classifyTask(request("Add dark mode", null)));
+
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).compareTo(Duration.ofSeconds(1)) < 0);
+    }
+
+    private AIClassificationRequest request(String title, String description) {
+        return AIClassificationRequest.builder().title(title).description(description).build();
+    }
+
+    private void waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(2).toNanos();
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(condition.getAsBoolean());
+    }
+}
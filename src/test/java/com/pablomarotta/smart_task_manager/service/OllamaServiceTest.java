@@ -1,12 +1,19 @@
 package com.pablomarotta.smart_task_manager.service;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.pablomarotta.smart_task_manager.config.AIConfigProperties;
+import com.pablomarotta.smart_task_manager.dto.AIClassificationRequest;
 import com.pablomarotta.smart_task_manager.dto.AIClassificationResponse;
+import com.pablomarotta.smart_task_manager.exception.AIUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.Mockito;
+import org.springframework.web.reactive.function.client.WebClient;
 
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -17,8 +24,10 @@ class OllamaServiceTest {
 
     @BeforeEach
     void setUp() {
-        AIConfigProperties properties = Mockito.mock(AIConfigProperties.class);
-        ollamaService = new OllamaService(properties);
+        AIConfigProperties properties = new AIConfigProperties();
+        // The parsing tests below feed free-form model output
+        properties.setStructuredOutput(false);
+        ollamaService = newService(properties);
     }
 
     @Test
@@ -50,4 +59,88 @@ class OllamaServiceTest {
         assertEquals(2, response.getEstimatedDays());
         assertEquals("Fix bug", response.getSummary());
     }
+
+    @Test
+    void testParseBatchResponse() throws Exception {
+        Method method = OllamaService.class.getDeclaredMethod("parseBatchResponse", String.class, int.class);
+        method.setAccessible(true);
+
+        String validResponse = "```json\n["
+                + "{\"index\": 1, \"priority\": \"LOW\", \"category\": \"DOCUMENTATION\", \"estimatedDays\": 1, \"summary\": \"Docs\"},"
+                + "{\"index\": 0, \"priority\": \"HIGH\", \"category\": \"BUG\", \"estimatedDays\": 2, \"summary\": \"Fix bug\"}"
+                + "]\n```";
+        List<AIClassificationResponse> responses = (List<AIClassificationResponse>) method.invoke(ollamaService, validResponse, 2);
+
+        assertEquals(2, responses.size());
+        assertEquals("BUG", responses.get(0).getCategory());
+        assertEquals("DOCUMENTATION", responses.get(1).getCategory());
+
+        String missingItem = "[{\"index\": 0, \"priority\": \"HIGH\", \"category\": \"BUG\", \"estimatedDays\": 2, \"summary\": \"Fix bug\"}]";
+        InvocationTargetException error = assertThrows(InvocationTargetException.class,
+                () -> method.invoke(ollamaService, missingItem, 2));
+        assertInstanceOf(RuntimeException.class, error.getCause());
+    }
+
+    @Test
+    void testBuildRequestPutsGenerationLimitsInOptions() throws Exception {
+        AIConfigProperties properties = new AIConfigProperties();
+        properties.setMaxTokens(200);
+        OllamaService service = newService(properties);
+
+        Method method = OllamaService.class.getDeclaredMethod("buildRequest", String.class, int.class, boolean.class);
+        method.setAccessible(true);
+        JsonNode json = new ObjectMapper().valueToTree(method.invoke(service, "prompt", 3, true));
+
+        assertEquals(600, json.path("options").path("num_predict").asInt());
+        assertEquals(2048, json.path("options").path("num_ctx").asInt());
+        assertEquals(0.7, json.path("options").path("temperature").asDouble());
+        assertEquals("\n\n\n", json.path("options").path("stop").get(0).asText());
+        assertEquals("1800s", json.path("keep_alive").asText());
+        assertTrue(json.path("stream").asBoolean());
+        assertFalse(json.has("maxTokens"));
+        assertFalse(json.has("temperature"));
+    }
+
+    @Test
+    void testBuildRequestSendsSchemaOnlyInStructuredMode() throws Exception {
+        AIConfigProperties properties = new AIConfigProperties();
+        OllamaService service = newService(properties);
+        Method method = OllamaService.class.getDeclaredMethod("buildRequest", String.class, int.class, boolean.class);
+        method.setAccessible(true);
+        ObjectMapper mapper = new ObjectMapper();
+
+        JsonNode single = mapper.valueToTree(method.invoke(service, "prompt", 1, false));
+        assertEquals("object", single.path("format").path("type").asText());
+        assertEquals(4, single.path("format").path("required").size());
+
+        JsonNode batch = mapper.valueToTree(method.invoke(service, "prompt", 2, false));
+        assertEquals("array", batch.path("format").path("type").asText());
+        assertEquals("integer", batch.path("format").path("items").path("properties").path("index").path("type").asText());
+
+        properties.setStructuredOutput(false);
+        JsonNode freeform = mapper.valueToTree(method.invoke(service, "prompt", 1, false));
+        assertFalse(freeform.has("format"));
+    }
+
+    @Test
+    void testClassifyTaskShortCircuitsWhenOllamaIsDown() {
+        AIConfigProperties properties = new AIConfigProperties();
+        properties.setBaseUrl("http://127.0.0.1:1");
+        properties.getCircuitBreaker().setFailureThreshold(2);
+        OllamaService service = newService(properties);
+        AIClassificationRequest request = AIClassificationRequest.builder().title("title").build();
+
+        assertThrows(RuntimeException.class, () -> service.classifyTask(request));
+        assertThrows(RuntimeException.class, () -> service.classifyTask(request));
+
+        assertThrows(AIUnavailableException.class, () -> service.classifyTask(request));
+    }
+
+    private OllamaService newService(AIConfigProperties properties) {
+        return new OllamaService(properties, WebClient.create(),
+                new OllamaCircuitBreaker(properties, new SimpleMeterRegistry()),
+                new AdaptiveConcurrencyLimiter(properties, new SimpleMeterRegistry()),
+                new OllamaEndpointPool(properties, WebClient.create(), new SimpleMeterRegistry()),
+                new SimpleMeterRegistry());
+    }
 }
@@ -1,5 +1,6 @@
 package com.pablomarotta.smart_task_manager.service;
 
+import com.pablomarotta.smart_task_manager.dto.PageResponse;
 import com.pablomarotta.smart_task_manager.dto.ProjectRequest;
 import com.pablomarotta.smart_task_manager.dto.ProjectResponse;
 import com.pablomarotta.smart_task_manager.exception.ProjectNotFoundException;
@@ -13,6 +14,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.web.server.ResponseStatusException;
 
@@ -33,6 +35,9 @@ class ProjectServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Spy
+    private KeysetPagination keysetPagination = new KeysetPagination(50, 200);
+
     @InjectMocks
     private ProjectService projectService;
 
@@ -112,23 +117,26 @@ class ProjectServiceTest {
                 .createdAt(java.time.LocalDateTime.now())
                 .build();
 
-        when(projectRepository.findAll()).thenReturn(Arrays.asList(project, project2));
+        when(projectRepository.findPage(any(), any(), any()))
+                .thenReturn(Arrays.asList(project, project2));
 
         // Act
-        List<ProjectResponse> projects = projectService.getAllProjects();
+        PageResponse<ProjectResponse> page = projectService.getAllProjects(null, null);
+        List<ProjectResponse> projects = page.getItems();
 
         // Assert
         assertNotNull(projects);
+        assertNull(page.getNextCursor());
         assertEquals(2, projects.size());
         assertEquals("Test Project", projects.get(0).getName());
         assertEquals("Another Project", projects.get(1).getName());
-        verify(projectRepository, times(1)).findAll();
+        verify(projectRepository, times(1)).findPage(any(), any(), any());
     }
 
     @Test
     void getProjectById_WithValidId_ShouldReturnProject() {
         // Arrange
-        when(projectRepository.findById(1L)).thenReturn(Optional.of(project));
+        when(projectRepository.findWithOwnerById(1L)).thenReturn(Optional.of(project));
 
         // Act
         ProjectResponse response = projectService.getProjectById(1L);
@@ -137,18 +145,18 @@ class ProjectServiceTest {
         assertNotNull(response);
         assertEquals(project.getId(), response.getId());
         assertEquals(project.getName(), response.getName());
-        verify(projectRepository, times(1)).findById(1L);
+        verify(projectRepository, times(1)).findWithOwnerById(1L);
     }
 
     @Test
     void getProjectById_WithInvalidId_ShouldThrowProjectNotFoundException() {
         // Arrange
-        when(projectRepository.findById(99L)).thenReturn(Optional.empty());
+        when(projectRepository.findWithOwnerById(99L)).thenReturn(Optional.empty());
 
         // Act & Assert
         assertThrows(ProjectNotFoundException.class, () -> {
             projectService.getProjectById(99L);
         });
-        verify(projectRepository, times(1)).findById(99L);
+        verify(projectRepository, times(1)).findWithOwnerById(99L);
     }
 }
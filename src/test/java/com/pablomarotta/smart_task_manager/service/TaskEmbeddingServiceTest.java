@@ -0,0 +1,114 @@
+package com.pablomarotta.smart_task_manager.service;
+
+import com.pablomarotta.smart_task_manager.config.AIConfigProperties;
+import com.pablomarotta.smart_task_manager.dto.AIClassificationRequest;
+import com.pablomarotta.smart_task_manager.repository.TaskRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+class TaskEmbeddingServiceTest {
+
+    private static final int DIMENSION = 32;
+
+    @TempDir
+    Path directory;
+
+    private AIConfigProperties aiConfigProperties;
+    private TaskEmbeddingService embeddingService;
+
+    @BeforeEach
+    void setUp() {
+        aiConfigProperties = new AIConfigProperties();
+        aiConfigProperties.getEmbedding().setEnabled(true);
+        aiConfigProperties.getEmbedding().setIndexFile(directory.resolve("tasks.hnsw").toString());
+        aiConfigProperties.getEmbedding().setCacheSize(0);
+
+        OllamaService ollamaService = Mockito.mock(OllamaService.class);
+        when(ollamaService.embed(anyString())).thenAnswer(invocation -> vectorOf(invocation.getArgument(0)));
+        embeddingService = new TaskEmbeddingService(ollamaService, Mockito.mock(TaskRepository.class),
+                aiConfigProperties, Runnable::run, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void flush_SavesTheIndexOnlyWhenItChanged() {
+        embeddingService.flush();
+        assertFalse(Files.exists(directory.resolve("tasks.hnsw")));
+
+        embeddingService.index(1L, request(1));
+        embeddingService.flush();
+        assertTrue(Files.exists(directory.resolve("tasks.hnsw")));
+    }
+
+    @Test
+    void flush_KeepsChangesMadeWhileTheIndexIsCompacted() throws Exception {
+        for (int round = 0; round < 3; round++) {
+            long base = round * 10_000L;
+            for (long id = base; id < base + 600; id++) {
+                embeddingService.index(id, request(id));
+            }
+            // More than a quarter deleted, so the next flush compacts
+            for (long id = base; id < base + 200; id++) {
+                embeddingService.remove(id);
+            }
+
+            // Keeps adding and removing tasks until the compacting flush is over
+            AtomicBoolean flushed = new AtomicBoolean();
+            List<Long> added = new ArrayList<>();
+            List<Long> removed = new ArrayList<>();
+            CountDownLatch started = new CountDownLatch(1);
+            CompletableFuture<Void> writer = CompletableFuture.runAsync(() -> {
+                long next = 0;
+                while (!flushed.get() && next < 400) {
+                    embeddingService.remove(base + 200 + next);
+                    removed.add(base + 200 + next);
+                    embeddingService.index(base + 1000 + next, request(base + 1000 + next));
+                    added.add(base + 1000 + next);
+                    next++;
+                    started.countDown();
+                }
+            });
+            started.await();
+            embeddingService.flush();
+            flushed.set(true);
+            writer.join();
+            embeddingService.flush();
+
+            HnswIndex index = HnswIndex.load(directory.resolve("tasks.hnsw"));
+            for (long id : added) {
+                assertNotNull(index.vector(id), "task " + id + " was added during compaction and lost");
+            }
+            for (long id : removed) {
+                assertNull(index.vector(id), "task " + id + " was removed during compaction and came back");
+            }
+        }
+    }
+
+    private static AIClassificationRequest request(long id) {
+        return AIClassificationRequest.builder().title("task " + id).build();
+    }
+
+    private static float[] vectorOf(String text) {
+        Random random = new Random(text.hashCode());
+        float[] vector = new float[DIMENSION];
+        for (int i = 0; i < DIMENSION; i++) {
+            vector[i] = (float) random.nextGaussian();
+        }
+        return vector;
+    }
+}
@@ -1,5 +1,6 @@
 package com.pablomarotta.smart_task_manager.service;
 
+import com.pablomarotta.smart_task_manager.dto.PageResponse;
 import com.pablomarotta.smart_task_manager.dto.UserRequest;
 import com.pablomarotta.smart_task_manager.dto.UserResponse;
 import com.pablomarotta.smart_task_manager.exception.UserDuplicatedException;
@@ -13,6 +14,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
@@ -35,6 +37,9 @@ class UserServiceTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Spy
+    private KeysetPagination keysetPagination = new KeysetPagination(50, 200);
+
     @InjectMocks
     private UserService userService;
 
@@ -188,17 +193,20 @@ class UserServiceTest {
                 .updatedAt(LocalDateTime.now())
                 .build();
 
-        when(userRepository.findAll()).thenReturn(Arrays.asList(user, user2));
+        when(userRepository.findPage(any(), any(), any()))
+                .thenReturn(Arrays.asList(user, user2));
 
         // Act
-        List<UserResponse> responses = userService.getAllUsers();
+        PageResponse<UserResponse> page = userService.getAllUsers(null, null);
+        List<UserResponse> responses = page.getItems();
 
         // Assert
         assertNotNull(responses);
+        assertNull(page.getNextCursor());
         assertEquals(2, responses.size());
         assertEquals("testuser", responses.get(0).getUsername());
         assertEquals("testuser2", responses.get(1).getUsername());
-        verify(userRepository, times(1)).findAll();
+        verify(userRepository, times(1)).findPage(any(), any(), any());
     }
 
     @Test
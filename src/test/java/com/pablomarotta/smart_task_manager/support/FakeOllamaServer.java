@@ -0,0 +1,602 @@
+package com.pablomarotta.smart_task_manager.support;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Stand-in for Ollama's /api/generate, /api/embeddings, /api/tags and /api/ps on a random local port, for
+ * integration tests and benchmarks that must not depend on a model host.
+ *
+ * <p>Answers are derived from the task titles in the prompt with keyword rules, so they
+ * are deterministic. Timing follows a configurable time-to-first-token distribution and
+ * a token rate, output is streamed as NDJSON when the request asks for it, and a share
+ * of requests can be made to fail or to answer with malformed JSON.</p>
+ *
+ * <pre>
+ * try (FakeOllamaServer ollama = FakeOllamaServer.start()) {
+ *     ollama.firstTokenLatency(FakeOllamaServer.Latency.uniform(Duration.ofMillis(50), Duration.ofMillis(150)))
+ *           .tokensPerSecond(40)
+ *           .errorRate(0.05);
+ *     properties.setBaseUrl(ollama.getBaseUrl());
+ * }
+ * </pre>
+ */
+public class FakeOllamaServer implements AutoCloseable {
+
+    private static final Pattern TASK_LINE = Pattern.compile("(?m)^\\s*Tarea(?: (\\d+))?: (.*)$");
+    private static final Pattern DESCRIPTION_LINE = Pattern.compile("^\\s*Descripción: (.*)$");
+    // Roughly one model token
+    private static final int CHARS_PER_TOKEN = 4;
+    private static final int EMBEDDING_DIMENSION = 64;
+    private static final long LOAD_NANOS = 1_000_000;
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    private volatile Latency firstTokenLatency = Latency.fixed(Duration.ZERO);
+    private volatile double tokensPerSecond = 0;
+    private volatile double errorRate = 0;
+    private volatile int errorStatus = 500;
+    private volatile double malformedRate = 0;
+    private volatile String trailingText = "";
+    private volatile Semaphore slots;
+    private volatile Duration loadLatency = Duration.ZERO;
+    private volatile List<String> models = List.of("fake");
+    private volatile String loadedModel;
+    private volatile int embeddingErrorStatus;
+
+    private final AtomicInteger requests = new AtomicInteger();
+    private final AtomicInteger completed = new AtomicInteger();
+    private final AtomicInteger cancelled = new AtomicInteger();
+    private final AtomicInteger errors = new AtomicInteger();
+    private final AtomicInteger malformed = new AtomicInteger();
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger maxActive = new AtomicInteger();
+    private final AtomicInteger embeddings = new AtomicInteger();
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private FakeOllamaServer(HttpServer server, ExecutorService executor) {
+        this.server = server;
+        this.executor = executor;
+    }
+
+    public static FakeOllamaServer start() {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+            ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+            FakeOllamaServer fake = new FakeOllamaServer(server, executor);
+            server.createContext("/api/generate", fake::handleGenerate);
+            server.createContext("/api/tags", fake::handleTags);
+            server.createContext("/api/ps", fake::handlePs);
+            server.createContext("/api/embeddings", fake::handleEmbeddings);
+            server.setExecutor(executor);
+            server.start();
+            return fake;
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not start fake Ollama server", e);
+        }
+    }
+
+    public String getBaseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    // --- knobs -------------------------------------------------------------------------
+
+    /** Time before the first token, drawn per request. */
+    public FakeOllamaServer firstTokenLatency(Latency latency) {
+        this.firstTokenLatency = latency;
+        return this;
+    }
+
+    /** Generation speed after the first token; 0 emits everything at once. */
+    public FakeOllamaServer tokensPerSecond(double tokensPerSecond) {
+        this.tokensPerSecond = tokensPerSecond;
+        return this;
+    }
+
+    /**
+     * Generations run at once, like OLLAMA_NUM_PARALLEL; further requests wait for a
+     * slot, so latency grows with load the way it does on a real host. 0 means no limit.
+     */
+    public FakeOllamaServer parallel(int parallel) {
+        this.slots = parallel > 0 ? new Semaphore(parallel, true) : null;
+        return this;
+    }
+
+    /** Share of requests answered with {@code status} instead of a generation. */
+    public FakeOllamaServer errorRate(double errorRate, int status) {
+        this.errorRate = errorRate;
+        this.errorStatus = status;
+        return this;
+    }
+
+    public FakeOllamaServer errorRate(double errorRate) {
+        return errorRate(errorRate, 500);
+    }
+
+    /** Share of generations whose JSON is cut off and followed by prose. */
+    public FakeOllamaServer malformedRate(double malformedRate) {
+        this.malformedRate = malformedRate;
+        return this;
+    }
+
+    /** Text the "model" keeps generating after the JSON when no schema is requested. */
+    public FakeOllamaServer trailingText(String trailingText) {
+        this.trailingText = trailingText;
+        return this;
+    }
+
+    /** Time an empty-prompt call takes to "load the model". */
+    public FakeOllamaServer loadLatency(Duration loadLatency) {
+        this.loadLatency = loadLatency;
+        return this;
+    }
+
+    /** Model names listed by /api/tags. */
+    public FakeOllamaServer models(String... models) {
+        this.models = List.of(models);
+        return this;
+    }
+
+    /** Fails every embedding with this status, as Ollama does when the embedding model is missing. */
+    public FakeOllamaServer embeddingErrorStatus(int status) {
+        this.embeddingErrorStatus = status;
+        return this;
+    }
+
+    /** Unloads the model, as Ollama does once keep_alive runs out. */
+    public FakeOllamaServer unload() {
+        this.loadedModel = null;
+        return this;
+    }
+
+    /** Restores the defaults and clears the counters. */
+    public void reset() {
+        firstTokenLatency = Latency.fixed(Duration.ZERO);
+        tokensPerSecond = 0;
+        errorRate = 0;
+        errorStatus = 500;
+        malformedRate = 0;
+        trailingText = "";
+        slots = null;
+        loadLatency = Duration.ZERO;
+        models = List.of("fake");
+        loadedModel = null;
+        embeddingErrorStatus = 0;
+        for (AtomicInteger counter : List.of(requests, completed, cancelled, errors, malformed, maxActive, embeddings,
+                loads)) {
+            counter.set(0);
+        }
+    }
+
+    // --- counters ----------------------------------------------------------------------
+
+    public int getRequests() {
+        return requests.get();
+    }
+
+    /** Generations sent to the end. */
+    public int getCompleted() {
+        return completed.get();
+    }
+
+    /** Streams the client closed before the last chunk. */
+    public int getCancelled() {
+        return cancelled.get();
+    }
+
+    public int getErrors() {
+        return errors.get();
+    }
+
+    public int getMalformed() {
+        return malformed.get();
+    }
+
+    /** Highest number of requests open at the same time, waiting or generating. */
+    public int getMaxConcurrent() {
+        return maxActive.get();
+    }
+
+    /** Embedding requests; they are not counted in {@link #getRequests()}. */
+    public int getEmbeddings() {
+        return embeddings.get();
+    }
+
+    /** Empty-prompt model loads; they are not counted in {@link #getRequests()}. */
+    public int getLoads() {
+        return loads.get();
+    }
+
+    // --- handlers ----------------------------------------------------------------------
+
+    private void handleTags(HttpExchange exchange) throws IOException {
+        try {
+            // A failing host fails health checks too
+            if (ThreadLocalRandom.current().nextDouble() < errorRate) {
+                writeJson(exchange, errorStatus, objectMapper.createObjectNode().put("error", "injected failure"));
+                return;
+            }
+            ArrayNode names = objectMapper.createArrayNode();
+            models.forEach(model -> names.add(objectMapper.createObjectNode().put("name", model)));
+            writeJson(exchange, 200, objectMapper.createObjectNode().set("models", names));
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /** Lists the model last loaded, until {@link #unload()}. */
+    private void handlePs(HttpExchange exchange) throws IOException {
+        try {
+            if (ThreadLocalRandom.current().nextDouble() < errorRate) {
+                writeJson(exchange, errorStatus, objectMapper.createObjectNode().put("error", "injected failure"));
+                return;
+            }
+            ArrayNode running = objectMapper.createArrayNode();
+            String model = loadedModel;
+            if (model != null) {
+                running.add(objectMapper.createObjectNode().put("name", model));
+            }
+            writeJson(exchange, 200, objectMapper.createObjectNode().set("models", running));
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Hashed bag of words, normalized: identical texts embed identically and texts sharing
+     * most words land close together.
+     */
+    private void handleEmbeddings(HttpExchange exchange) throws IOException {
+        embeddings.incrementAndGet();
+        try {
+            JsonNode request = objectMapper.readTree(exchange.getRequestBody());
+            if (embeddingErrorStatus != 0) {
+                writeJson(exchange, embeddingErrorStatus, objectMapper.createObjectNode()
+                        .put("error", "model \"" + request.path("model").asText() + "\" not found"));
+                return;
+            }
+            double[] vector = new double[EMBEDDING_DIMENSION];
+            for (String word : NON_WORD.split(request.path("prompt").asText().toLowerCase(Locale.ROOT))) {
+                if (!word.isEmpty()) {
+                    vector[Math.floorMod(word.hashCode(), EMBEDDING_DIMENSION)] += 1;
+                }
+            }
+            double norm = Math.sqrt(Arrays.stream(vector).map(value -> value * value).sum());
+
+            ArrayNode embedding = objectMapper.createArrayNode();
+            for (double value : vector) {
+                embedding.add(norm > 0 ? value / norm : 0);
+            }
+            writeJson(exchange, 200, objectMapper.createObjectNode().set("embedding", embedding));
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void handleGenerate(HttpExchange exchange) throws IOException {
+        JsonNode request;
+        try {
+            request = objectMapper.readTree(exchange.getRequestBody());
+        } catch (IOException e) {
+            exchange.close();
+            throw e;
+        }
+        if (request.path("prompt").asText().isEmpty()) {
+            handleLoad(exchange, request);
+            return;
+        }
+
+        requests.incrementAndGet();
+        int running = active.incrementAndGet();
+        maxActive.accumulateAndGet(running, Math::max);
+        try {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+
+            if (random.nextDouble() < errorRate) {
+                errors.incrementAndGet();
+                writeJson(exchange, errorStatus, objectMapper.createObjectNode().put("error", "injected failure"));
+                return;
+            }
+            loadedModel = request.path("model").asText();
+
+            String prompt = request.path("prompt").asText();
+            boolean structured = request.hasNonNull("format");
+            String text = answer(prompt, structured, random.nextDouble() < malformedRate);
+            List<String> tokens = tokenize(text);
+            int numPredict = request.path("options").path("num_predict").asInt(Integer.MAX_VALUE);
+            String doneReason = "stop";
+            if (numPredict > 0 && tokens.size() > numPredict) {
+                tokens = tokens.subList(0, numPredict);
+                doneReason = "length";
+            }
+
+            Semaphore slots = this.slots;
+            if (slots != null) {
+                slots.acquireUninterruptibly();
+            }
+            try {
+                // The time to first token stands in for prompt evaluation
+                long start = System.nanoTime();
+                sleep(firstTokenLatency.next());
+                long promptEval = System.nanoTime() - start;
+                if (request.path("stream").asBoolean(true)) {
+                    stream(exchange, request, prompt, tokens, doneReason, promptEval);
+                } else {
+                    sleep(generationTime(tokens.size()));
+                    ObjectNode body = chunk(request, String.join("", tokens), true);
+                    finish(body, prompt, tokens.size(), doneReason, promptEval, System.nanoTime() - start - promptEval);
+                    writeJson(exchange, 200, body);
+                    completed.incrementAndGet();
+                }
+            } finally {
+                if (slots != null) {
+                    slots.release();
+                }
+            }
+        } finally {
+            active.decrementAndGet();
+            exchange.close();
+        }
+    }
+
+    /** An empty prompt only loads the model, as in Ollama. */
+    private void handleLoad(HttpExchange exchange, JsonNode request) throws IOException {
+        loads.incrementAndGet();
+        try {
+            if (ThreadLocalRandom.current().nextDouble() < errorRate) {
+                writeJson(exchange, errorStatus, objectMapper.createObjectNode().put("error", "injected failure"));
+                return;
+            }
+            sleep(loadLatency);
+            loadedModel = request.path("model").asText();
+            writeJson(exchange, 200, chunk(request, "", true)
+                    .put("done_reason", "load")
+                    .put("total_duration", loadLatency.toNanos())
+                    .put("load_duration", loadLatency.toNanos()));
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void stream(HttpExchange exchange, JsonNode request, String prompt, List<String> tokens,
+                        String doneReason, long promptEval) throws IOException {
+        long start = System.nanoTime();
+        exchange.getResponseHeaders().add("Content-Type", "application/x-ndjson");
+        Duration perToken = generationTime(1);
+        try {
+            exchange.sendResponseHeaders(200, 0);
+            OutputStream out = exchange.getResponseBody();
+            for (String token : tokens) {
+                writeLine(out, chunk(request, token, false));
+                sleep(perToken);
+            }
+            ObjectNode last = chunk(request, "", true);
+            finish(last, prompt, tokens.size(), doneReason, promptEval, System.nanoTime() - start);
+            writeLine(out, last);
+            completed.incrementAndGet();
+        } catch (IOException e) {
+            // The client stopped reading, like OllamaService does once it has its JSON
+            cancelled.incrementAndGet();
+        }
+    }
+
+    private ObjectNode chunk(JsonNode request, String response, boolean done) {
+        return objectMapper.createObjectNode()
+                .put("model", request.path("model").asText())
+                .put("response", response)
+                .put("done", done);
+    }
+
+    private void finish(ObjectNode chunk, String prompt, int evalCount, String doneReason,
+                        long promptEvalNanos, long evalNanos) {
+        chunk.put("done_reason", doneReason)
+                .put("prompt_eval_count", Math.max(1, prompt.length() / CHARS_PER_TOKEN))
+                .put("eval_count", evalCount)
+                // The model is always resident
+                .put("total_duration", LOAD_NANOS + promptEvalNanos + evalNanos)
+                .put("load_duration", LOAD_NANOS)
+                .put("prompt_eval_duration", promptEvalNanos)
+                .put("eval_duration", evalNanos);
+    }
+
+    // --- answers -----------------------------------------------------------------------
+
+    /**
+     * Builds the model output for a single-task or batch prompt. Without a schema it is
+     * wrapped the way small models tend to answer: a code fence and trailing prose.
+     */
+    private String answer(String prompt, boolean structured, boolean broken) {
+        List<String[]> tasks = parseTasks(prompt);
+        String json;
+        if (tasks.size() == 1 && !prompt.contains("array JSON")) {
+            json = classify(tasks.get(0)[0], tasks.get(0)[1]).toString();
+        } else {
+            ArrayNode items = objectMapper.createArrayNode();
+            for (int i = 0; i < tasks.size(); i++) {
+                ObjectNode item = objectMapper.createObjectNode().put("index", i);
+                item.setAll(classify(tasks.get(i)[0], tasks.get(i)[1]));
+                items.add(item);
+            }
+            json = items.toString();
+        }
+
+        if (broken) {
+            malformed.incrementAndGet();
+            json = json.substring(0, json.length() / 2) + " lo siento, no puedo completar la respuesta";
+        }
+        if (structured) {
+            return json;
+        }
+        return "```json\n" + json + "\n```" + trailingText;
+    }
+
+    private List<String[]> parseTasks(String prompt) {
+        List<String[]> tasks = new ArrayList<>();
+        String[] lines = prompt.split("\n");
+        for (int i = 0; i < lines.length; i++) {
+            Matcher task = TASK_LINE.matcher(lines[i]);
+            if (!task.matches()) {
+                continue;
+            }
+            String description = "";
+            if (i + 1 < lines.length) {
+                Matcher descriptionLine = DESCRIPTION_LINE.matcher(lines[i + 1]);
+                if (descriptionLine.matches()) {
+                    description = descriptionLine.group(1);
+                }
+            }
+            tasks.add(new String[] {task.group(2).trim(), description});
+        }
+        if (tasks.isEmpty()) {
+            tasks.add(new String[] {prompt, ""});
+        }
+        return tasks;
+    }
+
+    private ObjectNode classify(String title, String description) {
+        String text = (title + " " + description).toLowerCase(Locale.ROOT);
+
+        String category = "FEATURE";
+        if (containsAny(text, "bug", "fix", "error", "crash", "fallo", "arreglar")) {
+            category = "BUG";
+        } else if (containsAny(text, "doc", "readme", "documentación")) {
+            category = "DOCUMENTATION";
+        } else if (containsAny(text, "refactor", "cleanup", "limpiar")) {
+            category = "REFACTOR";
+        }
+
+        String priority = "MEDIUM";
+        if (containsAny(text, "critical", "urgent", "blocking", "production", "crítico", "urgente")) {
+            priority = "URGENT";
+        } else if (category.equals("BUG")) {
+            priority = "HIGH";
+        } else if (category.equals("DOCUMENTATION")) {
+            priority = "LOW";
+        }
+
+        int estimatedDays = switch (category) {
+            case "BUG" -> priority.equals("URGENT") ? 1 : 2;
+            case "DOCUMENTATION" -> 1;
+            default -> 5;
+        };
+
+        return objectMapper.createObjectNode()
+                .put("priority", priority)
+                .put("category", category)
+                .put("estimatedDays", estimatedDays)
+                .put("summary", summarize(title, description));
+    }
+
+    private String summarize(String title, String description) {
+        String summary = description.isBlank() ? title : title + ": " + description;
+        return summary.length() > 200 ? summary.substring(0, 200) : summary;
+    }
+
+    private boolean containsAny(String text, String... words) {
+        for (String word : words) {
+            if (text.contains(word)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        for (int i = 0; i < text.length(); i += CHARS_PER_TOKEN) {
+            tokens.add(text.substring(i, Math.min(text.length(), i + CHARS_PER_TOKEN)));
+        }
+        return tokens;
+    }
+
+    // --- plumbing ----------------------------------------------------------------------
+
+    private Duration generationTime(int tokens) {
+        if (tokensPerSecond <= 0) {
+            return Duration.ZERO;
+        }
+        return Duration.ofNanos((long) (tokens * 1_000_000_000L / tokensPerSecond));
+    }
+
+    private void writeJson(HttpExchange exchange, int status, JsonNode body) throws IOException {
+        byte[] bytes = objectMapper.writeValueAsBytes(body);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+    }
+
+    private void writeLine(OutputStream out, JsonNode chunk) throws IOException {
+        out.write(objectMapper.writeValueAsBytes(chunk));
+        out.write('\n');
+        out.flush();
+    }
+
+    private void sleep(Duration duration) {
+        if (duration.isZero() || duration.isNegative()) {
+            return;
+        }
+        try {
+            Thread.sleep(duration);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Distribution of the time to first token.
+     */
+    @FunctionalInterface
+    public interface Latency {
+
+        Duration next();
+
+        static Latency fixed(Duration latency) {
+            return () -> latency;
+        }
+
+        static Latency uniform(Duration min, Duration max) {
+            return () -> Duration.ofNanos(ThreadLocalRandom.current().nextLong(min.toNanos(), max.toNanos() + 1));
+        }
+
+        /**
+         * Long-tailed latency: half of the requests are faster than {@code median}, and
+         * {@code sigma} controls how far the tail reaches (0.5 gives p99 around 3x median).
+         */
+        static Latency logNormal(Duration median, double sigma) {
+            return () -> Duration.ofNanos((long) (median.toNanos()
+                    * Math.exp(sigma * ThreadLocalRandom.current().nextGaussian())));
+        }
+    }
+}